@@ -5,6 +5,7 @@ import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.LoadTopicsResponse;
 import io.aiven.klaw.clusterapi.models.ServiceAccountDetails;
+import io.aiven.klaw.clusterapi.models.TopicsDeltaResponse;
 import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
@@ -21,12 +22,14 @@ import java.util.Map;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -95,6 +98,53 @@ public class ClusterApiController {
     return new ResponseEntity<>(loadTopicsResponse, HttpStatus.OK);
   }
 
+  /**
+   * Topics of a cluster as changes since the generation the caller holds. The generation is passed
+   * as an entity tag in If-None-Match and returned in the ETag header. Responds with 304 Not
+   * Modified if the topics did not change.
+   */
+  @RequestMapping(
+      value = "/getTopicsDelta/{bootstrapServers}/{protocol}/{clusterName}/resetCache/{resetCache}",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TopicsDeltaResponse> getTopicsDelta(
+      @PathVariable String bootstrapServers,
+      @Valid @PathVariable KafkaSupportedProtocol protocol,
+      @PathVariable String clusterName,
+      @PathVariable boolean resetCache,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+      throws Exception {
+    long knownGeneration = parseGeneration(ifNoneMatch);
+    TopicsDeltaResponse topicsDeltaResponse =
+        apacheKafkaTopicService.loadTopicsDelta(
+            bootstrapServers, protocol, clusterName, resetCache, knownGeneration);
+
+    if (topicsDeltaResponse.isLoadingInProgress()) {
+      return new ResponseEntity<>(topicsDeltaResponse, HttpStatus.OK);
+    }
+    String eTag = "\"" + topicsDeltaResponse.getGeneration() + "\"";
+    if (knownGeneration != 0 && topicsDeltaResponse.getGeneration() == knownGeneration) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+    return ResponseEntity.ok().eTag(eTag).body(topicsDeltaResponse);
+  }
+
+  private static long parseGeneration(String eTag) {
+    if (eTag == null) {
+      return 0;
+    }
+    String generation = eTag.trim();
+    if (generation.startsWith("W/")) {
+      generation = generation.substring(2);
+    }
+    generation = generation.replace("\"", "");
+    try {
+      return Long.parseLong(generation);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
   @RequestMapping(
       value =
           "/getAcls/{bootstrapServers}/{aclsNativeType}/{protocol}/{clusterName}/{projectName}/{serviceName}",
@@ -1,6 +1,9 @@
 package io.aiven.klaw.clusterapi.controller;
 
+import io.aiven.klaw.clusterapi.models.metrics.ClusterMetricsRequest;
+import io.aiven.klaw.clusterapi.models.metrics.JmxMetric;
 import io.aiven.klaw.clusterapi.services.MetricsApiService;
+import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -24,4 +27,11 @@ public class MetricsApiController {
     return new ResponseEntity<>(
         metricsApiService.getMetrics(jmxUrl, metricsObjectName), HttpStatus.OK);
   }
+
+  @PostMapping(value = "/scrapeMetrics")
+  public ResponseEntity<List<JmxMetric>> scrapeMetrics(
+      @RequestBody ClusterMetricsRequest clusterMetricsRequest) {
+    return new ResponseEntity<>(
+        metricsApiService.scrapeMetrics(clusterMetricsRequest), HttpStatus.OK);
+  }
 }
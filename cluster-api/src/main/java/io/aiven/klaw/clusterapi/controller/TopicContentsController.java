@@ -1,6 +1,10 @@
 package io.aiven.klaw.clusterapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aiven.klaw.clusterapi.models.TopicContentRecord;
 import io.aiven.klaw.clusterapi.services.TopicContentsService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,13 +14,24 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/topics")
 @Slf4j
 public class TopicContentsController {
 
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+
+  private static final String STREAM_TOPIC_CONTENTS_PATH =
+      "/streamTopicContents/{bootstrapServers}/"
+          + "{protocol}/{consumerGroupId}/{topicName}/{offsetPosition}/partitionId/{selectedPartitionId}/"
+          + "selectedNumberOfOffsets/{selectedNumberOfOffsets}/{clusterIdentification}/rangeOffsets/{rangeOffsetsStart}/{rangeOffsetsEnd}";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   @Autowired TopicContentsService topicContentsService;
 
   @RequestMapping(
@@ -53,4 +68,127 @@ public class TopicContentsController {
 
     return new ResponseEntity<>(events, HttpStatus.OK);
   }
+
+  /**
+   * Streams the records as newline delimited json while they are read, one {@link
+   * TopicContentRecord} per line.
+   */
+  @RequestMapping(
+      value = STREAM_TOPIC_CONTENTS_PATH,
+      method = RequestMethod.GET,
+      produces = {NDJSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> streamTopicContents(
+      @PathVariable String bootstrapServers,
+      @PathVariable String protocol,
+      @PathVariable String consumerGroupId,
+      @PathVariable String topicName,
+      @PathVariable String offsetPosition,
+      @PathVariable Integer selectedPartitionId,
+      @PathVariable Integer selectedNumberOfOffsets,
+      @PathVariable String clusterIdentification,
+      @PathVariable Integer rangeOffsetsStart,
+      @PathVariable Integer rangeOffsetsEnd,
+      @RequestParam(value = "maxBytes", required = false) Long maxBytes) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+        .body(
+            streamRecords(
+                bootstrapServers,
+                protocol,
+                consumerGroupId,
+                topicName,
+                offsetPosition,
+                selectedPartitionId,
+                selectedNumberOfOffsets,
+                clusterIdentification,
+                rangeOffsetsStart,
+                rangeOffsetsEnd,
+                maxBytes,
+                "",
+                "\n"));
+  }
+
+  /** Streams the records as server sent events, one {@link TopicContentRecord} per event. */
+  @RequestMapping(
+      value = STREAM_TOPIC_CONTENTS_PATH,
+      method = RequestMethod.GET,
+      produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+  public ResponseEntity<StreamingResponseBody> streamTopicContentsAsEvents(
+      @PathVariable String bootstrapServers,
+      @PathVariable String protocol,
+      @PathVariable String consumerGroupId,
+      @PathVariable String topicName,
+      @PathVariable String offsetPosition,
+      @PathVariable Integer selectedPartitionId,
+      @PathVariable Integer selectedNumberOfOffsets,
+      @PathVariable String clusterIdentification,
+      @PathVariable Integer rangeOffsetsStart,
+      @PathVariable Integer rangeOffsetsEnd,
+      @RequestParam(value = "maxBytes", required = false) Long maxBytes) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .body(
+            streamRecords(
+                bootstrapServers,
+                protocol,
+                consumerGroupId,
+                topicName,
+                offsetPosition,
+                selectedPartitionId,
+                selectedNumberOfOffsets,
+                clusterIdentification,
+                rangeOffsetsStart,
+                rangeOffsetsEnd,
+                maxBytes,
+                "data: ",
+                "\n\n"));
+  }
+
+  private StreamingResponseBody streamRecords(
+      String bootstrapServers,
+      String protocol,
+      String consumerGroupId,
+      String topicName,
+      String offsetPosition,
+      Integer selectedPartitionId,
+      Integer selectedNumberOfOffsets,
+      String clusterIdentification,
+      Integer rangeOffsetsStart,
+      Integer rangeOffsetsEnd,
+      Long maxBytes,
+      String prefix,
+      String delimiter) {
+    // a client can lower the byte limit, never raise it
+    long byteLimit =
+        maxBytes == null || maxBytes <= 0
+            ? topicContentsService.getMaxBytes()
+            : Math.min(maxBytes, topicContentsService.getMaxBytes());
+    return outputStream ->
+        topicContentsService.readRecords(
+            bootstrapServers,
+            protocol,
+            consumerGroupId,
+            topicName,
+            offsetPosition,
+            selectedPartitionId,
+            selectedNumberOfOffsets,
+            rangeOffsetsStart,
+            rangeOffsetsEnd,
+            "OFFSET_ID",
+            clusterIdentification,
+            byteLimit,
+            record -> {
+              try {
+                outputStream.write(
+                    (prefix + OBJECT_MAPPER.writeValueAsString(record) + delimiter)
+                        .getBytes(StandardCharsets.UTF_8));
+                outputStream.flush();
+                return true;
+              } catch (IOException e) {
+                // the client went away
+                log.debug("Stopped streaming topic {}: {}", topicName, e.getMessage());
+                return false;
+              }
+            });
+  }
 }
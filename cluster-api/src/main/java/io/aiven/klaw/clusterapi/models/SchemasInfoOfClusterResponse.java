@@ -7,4 +7,11 @@ import lombok.Data;
 @Data
 public class SchemasInfoOfClusterResponse implements Serializable {
   private List<SchemaInfoOfTopic> schemaInfoOfTopicList;
+
+  // true while the registry is still being loaded, the list then holds the subjects loaded so far
+  private boolean loadingInProgress;
+
+  private int subjectsTotal;
+
+  private int subjectsLoaded;
 }
@@ -0,0 +1,15 @@
+package io.aiven.klaw.clusterapi.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopicContentRecord {
+  private int partition;
+  private long offset;
+  private long timestamp;
+  private String value;
+}
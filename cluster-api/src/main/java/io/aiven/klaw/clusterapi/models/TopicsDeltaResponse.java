@@ -0,0 +1,27 @@
+package io.aiven.klaw.clusterapi.models;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicsDeltaResponse {
+  @NotNull private boolean loadingInProgress;
+
+  // generation of the topics cache the delta leads to
+  private long generation;
+
+  // true if topicConfigSet holds every topic of the cluster instead of the changes
+  private boolean fullSnapshot;
+
+  // added and changed topics, or all topics for a full snapshot
+  private Set<TopicConfig> topicConfigSet;
+
+  private Set<String> removedTopicNames;
+}
@@ -5,6 +5,7 @@ import io.aiven.klaw.clusterapi.models.ClusterKeyIdentifier;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.LoadTopicsResponse;
 import io.aiven.klaw.clusterapi.models.TopicConfig;
+import io.aiven.klaw.clusterapi.models.TopicsDeltaResponse;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
@@ -16,9 +17,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.Config;
@@ -44,27 +50,116 @@ public class ApacheKafkaTopicService {
 
   private final SchemaService schemaService;
 
-  private static Map<ClusterKeyIdentifier, Set<TopicConfig>> cachedTopics = new HashMap<>();
+  // topics of each cluster, replaced as a whole by a refresh so readers never see a partial set
+  private static final Map<ClusterKeyIdentifier, TopicCache> cachedTopics =
+      new ConcurrentHashMap<>();
 
-  private static Set<ClusterKeyIdentifier> topicCacheKeySets = new HashSet<>();
+  // a refresh of one cluster never waits for the refresh of another cluster
+  private static final Map<ClusterKeyIdentifier, ReentrantLock> topicCacheLocks =
+      new ConcurrentHashMap<>();
 
-  private static Map<ClusterKeyIdentifier, Boolean> topicsLoadingStatusOfClusters = new HashMap<>();
+  // topics altered through this service, described again on the next refresh
+  private static final Map<ClusterKeyIdentifier, Set<String>> staleTopics =
+      new ConcurrentHashMap<>();
+
+  // changes kept per cluster to answer delta requests, older generations get a full snapshot
+  private static final int TOPIC_CACHE_HISTORY_SIZE = 16;
+
+  private static final TopicCache LOADING_IN_PROGRESS = new TopicCache(Collections.emptyMap(), 0);
+
+  // seeded with the start time so generations keep increasing across restarts
+  private static final AtomicLong topicCacheGeneration = new AtomicLong(System.currentTimeMillis());
 
   public ApacheKafkaTopicService(ClusterApiUtils clusterApiUtils, SchemaService schemaService) {
     this.clusterApiUtils = clusterApiUtils;
     this.schemaService = schemaService;
   }
 
-  public synchronized LoadTopicsResponse loadTopics(
+  /**
+   * Returns the cached topics of a cluster. The first load describes every topic, a reset only
+   * describes topics which are new on the cluster or were altered through this service, the other
+   * topics are taken over from the cache.
+   *
+   * @return the topics with the generation of the cache, the generation only changes when the
+   *     topics of the cluster change
+   */
+  public LoadTopicsResponse loadTopics(
       String environment,
       KafkaSupportedProtocol protocol,
       String clusterIdentification,
       boolean resetCache)
       throws Exception {
+    TopicCache topicCache =
+        loadTopicCache(environment, protocol, clusterIdentification, resetCache, false);
+    if (topicCache == LOADING_IN_PROGRESS) {
+      return LoadTopicsResponse.builder()
+          .loadingInProgress(true)
+          .topicConfigSet(new HashSet<>())
+          .build();
+    }
+    if (topicCache == null) {
+      return LoadTopicsResponse.builder()
+          .loadingInProgress(false)
+          .topicConfigSet(new HashSet<>())
+          .build();
+    }
+    return LoadTopicsResponse.builder()
+        .loadingInProgress(false)
+        .topicConfigSet(topicCache.getTopicConfigSet())
+        .generation(topicCache.getGeneration())
+        .build();
+  }
+
+  /**
+   * Returns the changes of the topics of a cluster since a generation the caller holds. Loading
+   * works like {@link #loadTopics(String, KafkaSupportedProtocol, String, boolean)}.
+   *
+   * @param knownGeneration generation of the topics the caller holds, 0 if it holds none
+   * @return added, changed and removed topics since the known generation, or a full snapshot if the
+   *     known generation is no longer in the history of the cache. Empty if nothing changed.
+   */
+  public TopicsDeltaResponse loadTopicsDelta(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      boolean resetCache,
+      long knownGeneration)
+      throws Exception {
+    TopicCache topicCache =
+        loadTopicCache(environment, protocol, clusterIdentification, resetCache, false);
+    if (topicCache == LOADING_IN_PROGRESS) {
+      return TopicsDeltaResponse.builder()
+          .loadingInProgress(true)
+          .generation(knownGeneration)
+          .topicConfigSet(new HashSet<>())
+          .removedTopicNames(new HashSet<>())
+          .build();
+    }
+    if (topicCache == null) {
+      return TopicsDeltaResponse.builder()
+          .loadingInProgress(false)
+          .fullSnapshot(true)
+          .topicConfigSet(new HashSet<>())
+          .removedTopicNames(new HashSet<>())
+          .build();
+    }
+    return topicCache.deltaSince(knownGeneration);
+  }
+
+  /**
+   * @return the cache of the cluster, {@link #LOADING_IN_PROGRESS} if another thread is refreshing
+   *     it, null if the cluster could not be read and nothing is cached
+   */
+  private TopicCache loadTopicCache(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      boolean resetCache,
+      boolean describeAllTopics)
+      throws Exception {
     log.info("loadTopics {} {}", environment, protocol);
     AdminClient client =
         clusterApiUtils.getAdminClient(environment, protocol, clusterIdentification);
-    Set<TopicConfig> topics = new HashSet<>();
     if (client == null) {
       throw new Exception("Cannot connect to cluster.");
     }
@@ -72,80 +167,150 @@ public class ApacheKafkaTopicService {
     ClusterKeyIdentifier clusterKeyIdentifier =
         new ClusterKeyIdentifier(environment, protocol, clusterIdentification);
 
-    boolean topicsLoadingStatus = false;
-    if (topicsLoadingStatusOfClusters.containsKey(clusterKeyIdentifier)) {
-      topicsLoadingStatus = topicsLoadingStatusOfClusters.get(clusterKeyIdentifier);
-    } else {
-      topicsLoadingStatusOfClusters.put(clusterKeyIdentifier, false);
+    ReentrantLock lock =
+        topicCacheLocks.computeIfAbsent(clusterKeyIdentifier, k -> new ReentrantLock());
+    if (!lock.tryLock()) {
+      return LOADING_IN_PROGRESS;
     }
 
-    if (topicsLoadingStatus) {
-      return LoadTopicsResponse.builder()
-          .loadingInProgress(true)
-          .topicConfigSet(new HashSet<>())
-          .build();
-    } else {
-      topicsLoadingStatusOfClusters.put(clusterKeyIdentifier, true);
-    }
-
-    if (resetCache || !cachedTopics.containsKey(clusterKeyIdentifier)) {
-      loadTopicsForCache(client, topics, clusterKeyIdentifier);
-    } else {
-      topics = cachedTopics.get(clusterKeyIdentifier);
+    try {
+      TopicCache topicCache = cachedTopics.get(clusterKeyIdentifier);
+      if (resetCache || topicCache == null) {
+        topicCache = refreshTopicCache(client, clusterKeyIdentifier, topicCache, describeAllTopics);
+      }
+      return topicCache;
+    } finally {
+      lock.unlock();
     }
-
-    topicsLoadingStatusOfClusters.put(clusterKeyIdentifier, false);
-    return LoadTopicsResponse.builder().loadingInProgress(false).topicConfigSet(topics).build();
   }
 
-  private void loadTopicsForCache(
-      AdminClient client, Set<TopicConfig> topics, ClusterKeyIdentifier clusterKeyIdentifier) {
+  /**
+   * Lists the topic names of the cluster and describes only the topics missing in the previous
+   * cache, or all topics if requested.
+   *
+   * @return the refreshed cache, the previous cache if nothing changed or if the cluster could not
+   *     be read
+   */
+  private TopicCache refreshTopicCache(
+      AdminClient client,
+      ClusterKeyIdentifier clusterKeyIdentifier,
+      TopicCache previousCache,
+      boolean describeAllTopics) {
+    Map<String, TopicConfig> previousTopics =
+        previousCache == null ? Collections.emptyMap() : previousCache.getTopics();
+    Set<String> staleTopicNames =
+        new HashSet<>(staleTopics.getOrDefault(clusterKeyIdentifier, Collections.emptySet()));
     try {
-      Map<String, TopicDescription> topicDescriptionsPerAdminClient =
-          loadTopicDescriptionsMap(client);
-
-      Set<String> keySet = topicDescriptionsPerAdminClient.keySet();
-      keySet.remove("_schemas");
-      List<String> lstK = new ArrayList<>(keySet);
-      TopicConfig topicConfig;
-      for (String topicName : lstK) {
-        if (topicName.startsWith("_confluent") || topicName.startsWith("__connect")) {
-          continue;
+      Set<String> topicNames = listTopicNames(client);
+      List<String> topicsToDescribe = new ArrayList<>();
+      for (String topicName : topicNames) {
+        if (describeAllTopics
+            || !previousTopics.containsKey(topicName)
+            || staleTopicNames.contains(topicName)) {
+          topicsToDescribe.add(topicName);
+        }
+      }
+
+      Map<String, TopicConfig> topics = new HashMap<>();
+      if (!topicsToDescribe.isEmpty()) {
+        loadTopicDescriptionsMap(client, topicsToDescribe)
+            .forEach(
+                (topicName, topicDescription) -> {
+                  if (!isExcludedTopic(topicName)) {
+                    topics.put(topicName, getTopicConfig(topicName, topicDescription));
+                  }
+                });
+      }
+      for (String topicName : topicNames) {
+        TopicConfig previousTopic = previousTopics.get(topicName);
+        if (previousTopic != null) {
+          topics.putIfAbsent(topicName, previousTopic);
         }
-        topicConfig = new TopicConfig();
-        topicConfig.setTopicName(topicName);
-        TopicDescription topicDescription = topicDescriptionsPerAdminClient.get(topicName);
-        topicConfig.setReplicationFactor(
-            "" + topicDescription.partitions().get(0).replicas().size());
-        topicConfig.setPartitions("" + topicDescription.partitions().size());
-        topics.add(topicConfig);
       }
-      updateCache(clusterKeyIdentifier, topics);
-    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      log.info(
+          "Topics of {}: {} listed, {} described",
+          clusterKeyIdentifier,
+          topicNames.size(),
+          topicsToDescribe.size());
+
+      Set<String> remainingStaleTopics = staleTopics.get(clusterKeyIdentifier);
+      if (remainingStaleTopics != null) {
+        remainingStaleTopics.removeAll(staleTopicNames);
+      }
+      if (previousCache != null && previousTopics.equals(topics)) {
+        return previousCache;
+      }
+      TopicCache topicCache =
+          previousCache == null
+              ? new TopicCache(topics, topicCacheGeneration.incrementAndGet())
+              : previousCache.next(topics, topicCacheGeneration.incrementAndGet());
+      cachedTopics.put(clusterKeyIdentifier, topicCache);
+      return topicCache;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Exception:", e);
+    } catch (ExecutionException | TimeoutException e) {
       log.error("Exception:", e);
     }
+    return previousCache;
   }
 
-  private void updateCache(
-      ClusterKeyIdentifier clusterKeyIdentifier, Set<TopicConfig> topicConfigSet) {
-    cachedTopics.put(clusterKeyIdentifier, topicConfigSet);
-    topicCacheKeySets.add(clusterKeyIdentifier);
+  private static boolean isExcludedTopic(String topicName) {
+    return topicName.equals("_schemas")
+        || topicName.startsWith("_confluent")
+        || topicName.startsWith("__connect");
   }
 
-  private Map<String, TopicDescription> loadTopicDescriptionsMap(AdminClient client)
+  private static TopicConfig getTopicConfig(String topicName, TopicDescription topicDescription) {
+    TopicConfig topicConfig = new TopicConfig();
+    topicConfig.setTopicName(topicName);
+    topicConfig.setReplicationFactor("" + topicDescription.partitions().get(0).replicas().size());
+    topicConfig.setPartitions("" + topicDescription.partitions().size());
+    return topicConfig;
+  }
+
+  private Set<String> listTopicNames(AdminClient client)
       throws InterruptedException, ExecutionException, TimeoutException {
     ListTopicsOptions listTopicsOptions = new ListTopicsOptions();
     listTopicsOptions = listTopicsOptions.listInternal(false);
 
     ListTopicsResult topicsResult = client.listTopics(listTopicsOptions);
-    DescribeTopicsResult describeTopicsResult =
-        client.describeTopics(new ArrayList<>(topicsResult.names().get()));
+    Set<String> topicNames = new HashSet<>();
+    for (String topicName :
+        topicsResult
+            .names()
+            .get(
+                clusterApiUtils.getAdminClientProperties().getTopicsTimeoutSecs(),
+                TimeUnit.SECONDS)) {
+      if (!isExcludedTopic(topicName)) {
+        topicNames.add(topicName);
+      }
+    }
+    return topicNames;
+  }
+
+  private Map<String, TopicDescription> loadTopicDescriptionsMap(
+      AdminClient client, Collection<String> topicNames)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    DescribeTopicsResult describeTopicsResult = client.describeTopics(topicNames);
 
     return describeTopicsResult
         .allTopicNames()
         .get(clusterApiUtils.getAdminClientProperties().getTopicsTimeoutSecs(), TimeUnit.SECONDS);
   }
 
+  private static void markTopicStale(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String topicName) {
+    staleTopics
+        .computeIfAbsent(
+            new ClusterKeyIdentifier(environment, protocol, clusterIdentification),
+            k -> ConcurrentHashMap.newKeySet())
+        .add(topicName);
+  }
+
   public synchronized ApiResponse createTopic(ClusterTopicRequest clusterTopicRequest)
       throws Exception {
     log.info("createTopic {}", clusterTopicRequest);
@@ -170,6 +335,11 @@ public class ApacheKafkaTopicService {
           .values()
           .get(clusterTopicRequest.getTopicName())
           .get(clusterApiUtils.getAdminClientProperties().getTopicsTimeoutSecs(), TimeUnit.SECONDS);
+      markTopicStale(
+          clusterTopicRequest.getEnv(),
+          clusterTopicRequest.getProtocol(),
+          clusterTopicRequest.getClusterName(),
+          clusterTopicRequest.getTopicName());
     } catch (KafkaException e) {
       log.error("Invalid properties: ", e);
       throw e;
@@ -277,6 +447,11 @@ public class ApacheKafkaTopicService {
         client.alterConfigs(updateConfig);
       }
     }
+    markTopicStale(
+        clusterTopicRequest.getEnv(),
+        clusterTopicRequest.getProtocol(),
+        clusterTopicRequest.getClusterName(),
+        clusterTopicRequest.getTopicName());
 
     return ApiResponse.builder().success(true).message(ApiResultStatus.SUCCESS.value).build();
   }
@@ -302,6 +477,11 @@ public class ApacheKafkaTopicService {
           .values()
           .get(clusterTopicRequest.getTopicName())
           .get(clusterApiUtils.getAdminClientProperties().getTopicsTimeoutSecs(), TimeUnit.SECONDS);
+      markTopicStale(
+          clusterTopicRequest.getEnv(),
+          clusterTopicRequest.getProtocol(),
+          clusterTopicRequest.getClusterName(),
+          clusterTopicRequest.getTopicName());
 
       // delete associated schema if requested
       String schemaDeletionStatus = "";
@@ -337,18 +517,115 @@ public class ApacheKafkaTopicService {
       cron = "${klaw.topics.cron.expression:0 0 0 * * ?}",
       zone = "${klaw.topics.cron.expression.timezone:UTC}")
   public void resetTopicsCacheScheduler() {
-    topicCacheKeySets.forEach(
-        clusterKeyIdentifier -> {
-          try {
-            log.info("Loading topics {}", clusterKeyIdentifier);
-            loadTopics(
-                clusterKeyIdentifier.getBootstrapServers(),
-                clusterKeyIdentifier.getProtocol(),
-                clusterKeyIdentifier.getClusterIdentification(),
-                true);
-          } catch (Exception e) {
-            log.error("Error while loading topics {}", clusterKeyIdentifier);
-          }
-        });
+    // describes every topic, picks up partition changes made outside of Klaw
+    cachedTopics
+        .keySet()
+        .forEach(
+            clusterKeyIdentifier -> {
+              try {
+                log.info("Loading topics {}", clusterKeyIdentifier);
+                loadTopicCache(
+                    clusterKeyIdentifier.getBootstrapServers(),
+                    clusterKeyIdentifier.getProtocol(),
+                    clusterKeyIdentifier.getClusterIdentification(),
+                    true,
+                    true);
+              } catch (Exception e) {
+                log.error("Error while loading topics {}", clusterKeyIdentifier);
+              }
+            });
+  }
+
+  /**
+   * Immutable topics of one cluster with the generation they were loaded in, and the changes of the
+   * last generations which lead to them.
+   */
+  @Getter
+  private static final class TopicCache {
+    private final Map<String, TopicConfig> topics;
+
+    private final Set<TopicConfig> topicConfigSet;
+
+    private final long generation;
+
+    // oldest first, the last change leads to this generation
+    private final List<TopicCacheChange> history;
+
+    private TopicCache(Map<String, TopicConfig> topics, long generation) {
+      this(topics, generation, Collections.emptyList());
+    }
+
+    private TopicCache(
+        Map<String, TopicConfig> topics, long generation, List<TopicCacheChange> history) {
+      this.topics = Collections.unmodifiableMap(topics);
+      this.topicConfigSet = Collections.unmodifiableSet(new HashSet<>(topics.values()));
+      this.generation = generation;
+      this.history = Collections.unmodifiableList(history);
+    }
+
+    private TopicCache next(Map<String, TopicConfig> nextTopics, long nextGeneration) {
+      Map<String, TopicConfig> changedTopics = new HashMap<>();
+      nextTopics.forEach(
+          (topicName, topicConfig) -> {
+            if (!topicConfig.equals(topics.get(topicName))) {
+              changedTopics.put(topicName, topicConfig);
+            }
+          });
+      Set<String> removedTopicNames = new HashSet<>(topics.keySet());
+      removedTopicNames.removeAll(nextTopics.keySet());
+
+      List<TopicCacheChange> nextHistory = new ArrayList<>(history);
+      nextHistory.add(new TopicCacheChange(generation, changedTopics, removedTopicNames));
+      if (nextHistory.size() > TOPIC_CACHE_HISTORY_SIZE) {
+        nextHistory.remove(0);
+      }
+      return new TopicCache(nextTopics, nextGeneration, nextHistory);
+    }
+
+    private TopicsDeltaResponse deltaSince(long knownGeneration) {
+      int from = -1;
+      for (int i = 0; i < history.size(); i++) {
+        if (history.get(i).getFromGeneration() == knownGeneration) {
+          from = i;
+          break;
+        }
+      }
+
+      if (knownGeneration != generation && from < 0) {
+        return TopicsDeltaResponse.builder()
+            .generation(generation)
+            .fullSnapshot(true)
+            .topicConfigSet(topicConfigSet)
+            .removedTopicNames(new HashSet<>())
+            .build();
+      }
+
+      Map<String, TopicConfig> changedTopics = new HashMap<>();
+      Set<String> removedTopicNames = new HashSet<>();
+      if (knownGeneration != generation) {
+        for (TopicCacheChange change : history.subList(from, history.size())) {
+          change.getChangedTopics().forEach(changedTopics::put);
+          removedTopicNames.removeAll(change.getChangedTopics().keySet());
+          change.getRemovedTopicNames().forEach(changedTopics::remove);
+          removedTopicNames.addAll(change.getRemovedTopicNames());
+        }
+      }
+      return TopicsDeltaResponse.builder()
+          .generation(generation)
+          .topicConfigSet(new HashSet<>(changedTopics.values()))
+          .removedTopicNames(removedTopicNames)
+          .build();
+    }
+  }
+
+  /** Topics added or changed and topics removed between two generations of a cluster. */
+  @Getter
+  @AllArgsConstructor
+  private static final class TopicCacheChange {
+    private final long fromGeneration;
+
+    private final Map<String, TopicConfig> changedTopics;
+
+    private final Set<String> removedTopicNames;
   }
 }
@@ -14,6 +14,7 @@ import io.aiven.klaw.clusterapi.models.enums.KafkaClustersType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.models.error.RestErrorResponse;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import io.aiven.klaw.clusterapi.utils.KafkaConnectWorkers;
 import java.util.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -27,7 +28,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -44,8 +44,12 @@ public class KafkaConnectService {
 
   final ClusterApiUtils clusterApiUtils;
 
-  public KafkaConnectService(ClusterApiUtils clusterApiUtils) {
+  final KafkaConnectWorkers kafkaConnectWorkers;
+
+  public KafkaConnectService(
+      ClusterApiUtils clusterApiUtils, KafkaConnectWorkers kafkaConnectWorkers) {
     this.clusterApiUtils = clusterApiUtils;
+    this.kafkaConnectWorkers = kafkaConnectWorkers;
   }
 
   public ApiResponse deleteConnector(ClusterConnectorRequest clusterConnectorRequest) {
@@ -62,18 +66,21 @@ public class KafkaConnectService {
                 KafkaClustersType.KAFKA_CONNECT);
         HttpEntity<Object> request = new HttpEntity<>(headers);
 
-        reqDetails
-            .getRight()
-            .exchange(
-                reqDetails.getLeft(),
-                HttpMethod.DELETE,
-                request,
-                new ParameterizedTypeReference<>() {});
+        kafkaConnectWorkers.send(
+            envUrl,
+            url ->
+                reqDetails
+                    .getRight()
+                    .exchange(
+                        reqDetails.getLeft(),
+                        HttpMethod.DELETE,
+                        request,
+                        new ParameterizedTypeReference<>() {}));
         return ApiResponse.SUCCESS;
       } catch (HttpServerErrorException | HttpClientErrorException e) {
         log.error("Rest Exception in deleting connector ", e);
         errMsgResponse.add(getErrorMsgeFromRestException(e, CLUSTER_API_ERR_3));
-      } catch (RestClientException ex) {
+      } catch (Exception ex) {
         log.error("Error in deleting connector ", ex);
         errMsgResponse.add(CLUSTER_API_ERR_3);
       }
@@ -96,7 +103,12 @@ public class KafkaConnectService {
         HttpEntity<String> request =
             new HttpEntity<>(clusterConnectorRequest.getConnectorConfig(), headers);
 
-        reqDetails.getRight().put(reqDetails.getLeft(), request, String.class);
+        kafkaConnectWorkers.send(
+            envUrl,
+            url -> {
+              reqDetails.getRight().put(reqDetails.getLeft(), request, String.class);
+              return null;
+            });
         return ApiResponse.SUCCESS;
       } catch (HttpServerErrorException | HttpClientErrorException e) {
         log.error("Error in updating connector ", e);
@@ -144,7 +156,12 @@ public class KafkaConnectService {
             new HttpEntity<>(clusterConnectorRequest.getConnectorConfig(), headers);
 
         responseNew =
-            reqDetails.getRight().postForEntity(reqDetails.getLeft(), request, String.class);
+            kafkaConnectWorkers.send(
+                envUrl,
+                url ->
+                    reqDetails
+                        .getRight()
+                        .postForEntity(reqDetails.getLeft(), request, String.class));
         if (responseNew.getStatusCode().is2xxSuccessful()) {
           return ApiResponse.SUCCESS;
         }
@@ -165,83 +182,83 @@ public class KafkaConnectService {
       KafkaSupportedProtocol protocol,
       String clusterIdentification,
       boolean getConnectorStatuses) {
+    log.info("Into getConnectors {} {}", environmentVal, protocol);
+    ConnectorsStatus connectorsStatus = new ConnectorsStatus();
+    connectorsStatus.setConnectorStateList(new ArrayList<>());
+    return kafkaConnectWorkers.read(
+        environmentVal,
+        envUrl -> readConnectors(envUrl, protocol, clusterIdentification, getConnectorStatuses),
+        connectorsStatus);
+  }
+
+  private ConnectorsStatus readConnectors(
+      String envUrl,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      boolean getConnectorStatuses) {
     ConnectorsStatus connectorsStatus = new ConnectorsStatus();
     List<ConnectorState> connectorStateList = new ArrayList<>();
     connectorsStatus.setConnectorStateList(connectorStateList);
-    for (String envUrl : getEnvironment(environmentVal)) {
-      try {
-        log.info("Into getConnectors {} {}", environmentVal, protocol);
-        if (envUrl == null) {
-          return null;
-        }
-
-        String suffixUrl = envUrl + "/connectors";
-
-        if (getConnectorStatuses) {
-          suffixUrl = suffixUrl + CONNECTOR_URI_EXPAND_STATUS;
-        }
+    String suffixUrl = envUrl + "/connectors";
 
-        Pair<String, RestTemplate> reqDetails =
-            clusterApiUtils.getRequestDetails(suffixUrl, protocol);
-
-        HttpHeaders headers =
-            clusterApiUtils.createHeaders(clusterIdentification, KafkaClustersType.KAFKA_CONNECT);
-        HttpEntity<Object> request = new HttpEntity<>(headers);
-        Map<String, String> params = new HashMap<>();
-
-        if (!getConnectorStatuses) {
-          ResponseEntity<List<String>> responseList =
-              reqDetails
-                  .getRight()
-                  .exchange(
-                      reqDetails.getLeft(),
-                      HttpMethod.GET,
-                      request,
-                      GET_CONNECTORS_STR_TYPEREF,
-                      params);
-          log.info("connectors list " + responseList);
-          if (responseList.getBody() != null) {
-            for (String connectorName : responseList.getBody()) {
-              ConnectorState connectorState = new ConnectorState();
-              connectorState.setConnectorName(connectorName);
-              connectorStateList.add(connectorState);
-            }
-          }
-
-          return connectorsStatus;
-        }
+    if (getConnectorStatuses) {
+      suffixUrl = suffixUrl + CONNECTOR_URI_EXPAND_STATUS;
+    }
 
-        ResponseEntity<Map<String, Map<String, Status>>> responseEntity =
-            getConnectorStatus(reqDetails, request, params);
-        Map<String, Map<String, Status>> responseBody = responseEntity.getBody();
-
-        for (String connectorName : Objects.requireNonNull(responseBody).keySet()) {
-          Map<String, Status> statusMap = responseBody.get(connectorName);
-          Status statusConnector = statusMap.get("status");
-          long failedTasksCount =
-              statusConnector.getTasks().stream()
-                  .filter(task -> task.getState().equals(FAILED_STATUS))
-                  .count();
-          long runningTasksCount =
-              statusConnector.getTasks().stream()
-                  .filter(task -> task.getState().equals(RUNNING_STATUS))
-                  .count();
+    Pair<String, RestTemplate> reqDetails = clusterApiUtils.getRequestDetails(suffixUrl, protocol);
 
+    HttpHeaders headers =
+        clusterApiUtils.createHeaders(clusterIdentification, KafkaClustersType.KAFKA_CONNECT);
+    HttpEntity<Object> request = new HttpEntity<>(headers);
+    Map<String, String> params = new HashMap<>();
+
+    if (!getConnectorStatuses) {
+      ResponseEntity<List<String>> responseList =
+          reqDetails
+              .getRight()
+              .exchange(
+                  reqDetails.getLeft(),
+                  HttpMethod.GET,
+                  request,
+                  GET_CONNECTORS_STR_TYPEREF,
+                  params);
+      log.info("connectors list " + responseList);
+      if (responseList.getBody() != null) {
+        for (String connectorName : responseList.getBody()) {
           ConnectorState connectorState = new ConnectorState();
           connectorState.setConnectorName(connectorName);
-          connectorState.setConnectorStatus(statusConnector.getConnector().getState());
-          connectorState.setRunningTasks(runningTasksCount);
-          connectorState.setFailedTasks(failedTasksCount);
           connectorStateList.add(connectorState);
         }
-        connectorsStatus.setConnectorStateList(connectorStateList);
-
-        log.info("connectors list " + responseEntity);
-        return connectorsStatus;
-      } catch (Exception e) {
-        log.error("Error in getting connectors " + e);
       }
+
+      return connectorsStatus;
+    }
+
+    ResponseEntity<Map<String, Map<String, Status>>> responseEntity =
+        getConnectorStatus(reqDetails, request, params);
+    Map<String, Map<String, Status>> responseBody = responseEntity.getBody();
+
+    for (String connectorName : Objects.requireNonNull(responseBody).keySet()) {
+      Map<String, Status> statusMap = responseBody.get(connectorName);
+      Status statusConnector = statusMap.get("status");
+      long failedTasksCount =
+          statusConnector.getTasks().stream()
+              .filter(task -> task.getState().equals(FAILED_STATUS))
+              .count();
+      long runningTasksCount =
+          statusConnector.getTasks().stream()
+              .filter(task -> task.getState().equals(RUNNING_STATUS))
+              .count();
+
+      ConnectorState connectorState = new ConnectorState();
+      connectorState.setConnectorName(connectorName);
+      connectorState.setConnectorStatus(statusConnector.getConnector().getState());
+      connectorState.setRunningTasks(runningTasksCount);
+      connectorState.setFailedTasks(failedTasksCount);
+      connectorStateList.add(connectorState);
     }
+
+    log.info("connectors list " + responseEntity);
     return connectorsStatus;
   }
 
@@ -264,39 +281,32 @@ public class KafkaConnectService {
       String environmentVal,
       KafkaSupportedProtocol protocol,
       String clusterIdentification) {
-    for (String envUrl : getEnvironment(environmentVal)) {
-      try {
-        log.info("Into getConnectorDetails {} {}", environmentVal, protocol);
-        if (envUrl == null) {
-          return null;
-        }
-
-        String suffixUrl = envUrl + "/connectors" + "/" + connector;
-        Pair<String, RestTemplate> reqDetails =
-            clusterApiUtils.getRequestDetails(suffixUrl, protocol);
-
-        HttpHeaders headers =
-            clusterApiUtils.createHeaders(clusterIdentification, KafkaClustersType.KAFKA_CONNECT);
-        HttpEntity<Object> request = new HttpEntity<>(headers);
-        Map<String, String> params = new HashMap<>();
-
-        ResponseEntity<Map<String, Object>> responseList =
-            reqDetails
-                .getRight()
-                .exchange(
-                    reqDetails.getLeft(),
-                    HttpMethod.GET,
-                    request,
-                    GET_CONNECTOR_DETAILS_TYPEREF,
-                    params);
-        log.info("connectors list " + responseList);
-
-        return responseList.getBody();
-      } catch (Exception e) {
-        log.error("Error in getting connector detail ", e);
-      }
-    }
-    return Collections.emptyMap();
+    log.info("Into getConnectorDetails {} {}", environmentVal, protocol);
+    return kafkaConnectWorkers.read(
+        environmentVal,
+        envUrl -> {
+          String suffixUrl = envUrl + "/connectors" + "/" + connector;
+          Pair<String, RestTemplate> reqDetails =
+              clusterApiUtils.getRequestDetails(suffixUrl, protocol);
+
+          HttpHeaders headers =
+              clusterApiUtils.createHeaders(clusterIdentification, KafkaClustersType.KAFKA_CONNECT);
+          HttpEntity<Object> request = new HttpEntity<>(headers);
+          Map<String, String> params = new HashMap<>();
+
+          ResponseEntity<Map<String, Object>> responseList =
+              reqDetails
+                  .getRight()
+                  .exchange(
+                      reqDetails.getLeft(),
+                      HttpMethod.GET,
+                      request,
+                      GET_CONNECTOR_DETAILS_TYPEREF,
+                      params);
+          log.info("connectors list " + responseList);
+          return responseList.getBody();
+        },
+        Collections.emptyMap());
   }
 
   protected ClusterStatus getKafkaConnectStatus(
@@ -315,15 +325,18 @@ public class KafkaConnectService {
       HttpEntity<Object> request = new HttpEntity<>(headers);
 
       try {
-        reqDetails
-            .getRight()
-            .exchange(
-                reqDetails.getLeft(),
-                HttpMethod.GET,
-                request,
-                new ParameterizedTypeReference<>() {});
+        kafkaConnectWorkers.send(
+            env,
+            url ->
+                reqDetails
+                    .getRight()
+                    .exchange(
+                        reqDetails.getLeft(),
+                        HttpMethod.GET,
+                        request,
+                        new ParameterizedTypeReference<>() {}));
         return ClusterStatus.ONLINE;
-      } catch (RestClientException e) {
+      } catch (Exception e) {
         log.error("Exception Connectin to {} :", env, e);
       }
     }
@@ -356,7 +369,12 @@ public class KafkaConnectService {
         HttpEntity<String> request = new HttpEntity<>(headers);
 
         responseNew =
-            reqDetails.getRight().postForEntity(reqDetails.getLeft(), request, String.class);
+            kafkaConnectWorkers.send(
+                envUrl,
+                url ->
+                    reqDetails
+                        .getRight()
+                        .postForEntity(reqDetails.getLeft(), request, String.class));
       } catch (HttpServerErrorException | HttpClientErrorException e) {
         log.error("restartConnector Rest Exception", e);
       } catch (Exception ex) {
@@ -381,7 +399,10 @@ public class KafkaConnectService {
     return ApiResponse.notOk("To be implemented");
   }
 
-  public String[] getEnvironment(String environments) {
-    return environments.split(",");
+  /**
+   * @return the worker urls of the Connect cluster, reachable and fast workers first
+   */
+  public List<String> getEnvironment(String environments) {
+    return kafkaConnectWorkers.getWorkers(environments);
   }
 }
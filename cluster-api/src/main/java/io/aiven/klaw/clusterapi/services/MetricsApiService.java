@@ -1,46 +1,252 @@
 package io.aiven.klaw.clusterapi.services;
 
+import io.aiven.klaw.clusterapi.models.metrics.ClusterMetricsRequest;
+import io.aiven.klaw.clusterapi.models.metrics.JmxMetric;
 import io.aiven.klaw.clusterapi.utils.MetricsUtils;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.management.*;
 import javax.management.remote.JMXConnector;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Reads broker metrics over JMX. The attributes of an MBean are read with one bulk request, and a
+ * scrape of a cluster reads all requested MBeans of every broker in parallel over the pooled
+ * connections of {@link MetricsUtils}.
+ */
 @Service
 @Slf4j
 public class MetricsApiService {
 
   @Autowired MetricsUtils metricsUtils;
 
-  //    public void getMetrics(){
-  //        getMetrics("service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi",
-  //                "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec");
-  //    }
+  @Value("${klaw.metrics.scrape.timeout.ms:10000}")
+  private long scrapeTimeoutMs = 10000;
 
-  public Map<String, String> getMetrics(String jmxUrl, String objectName) throws Exception {
-    Map<String, String> metricsMap = new HashMap<>();
-    try {
-      JMXConnector jmxc = metricsUtils.getJmxConnector(jmxUrl);
-      MBeanServerConnection mbsc = jmxc.getMBeanServerConnection();
+  // brokers scraped at once, further brokers wait for a thread
+  @Value("${klaw.metrics.scrape.threads:16}")
+  private int scrapeThreads = 16;
+
+  // attribute names per MBean, the attributes of an MBean do not change while it is registered
+  private final Map<ObjectName, String[]> attributeNames = new ConcurrentHashMap<>();
 
-      //            String[] domains = mbsc.getDomains();
-      //            System.out.println(Arrays.toString(domains));
+  // created with the first scrape
+  private ThreadPoolExecutor scrapeExecutor;
 
+  @FunctionalInterface
+  private interface JmxRequest<T> {
+    T apply(MBeanServerConnection connection) throws Exception;
+  }
+
+  public Map<String, String> getMetrics(String jmxUrl, String objectName) throws Exception {
+    try {
       // kafka.server:name=MessagesInPerSec,topic=topicName,type=BrokerTopicMetrics
       ObjectName mxbeanName = new ObjectName(objectName);
-      MBeanAttributeInfo[] attributes = mbsc.getMBeanInfo(mxbeanName).getAttributes();
-
-      for (MBeanAttributeInfo attr : attributes) {
-        metricsMap.put(attr.getName(), "" + mbsc.getAttribute(mxbeanName, attr.getName()));
-        log.debug(attr.getName() + " " + mbsc.getAttribute(mxbeanName, attr.getName()));
-      }
+      return withConnection(jmxUrl, connection -> readAttributes(connection, mxbeanName));
     } catch (Exception e) {
       log.error("Error ", e);
       throw e;
     }
+  }
+
+  /**
+   * Reads the requested MBeans of all brokers of a cluster in parallel. Brokers which cannot be
+   * reached or do not answer within the scrape timeout are left out of the result.
+   */
+  public List<JmxMetric> scrapeMetrics(ClusterMetricsRequest clusterMetricsRequest) {
+    List<ObjectName> objectNames = new ArrayList<>();
+    for (String objectName : clusterMetricsRequest.getObjectNames()) {
+      try {
+        objectNames.add(new ObjectName(objectName));
+      } catch (MalformedObjectNameException e) {
+        log.error("Ignoring invalid MBean name {}", objectName);
+      }
+    }
+
+    ExecutorService executor = getScrapeExecutor();
+    List<BrokerScrape> scrapes = new ArrayList<>();
+    for (String jmxUrl : clusterMetricsRequest.getJmxUrls()) {
+      BrokerScrape scrape = new BrokerScrape(jmxUrl);
+      scrape.result =
+          CompletableFuture.supplyAsync(() -> scrapeBroker(scrape, objectNames), executor);
+      scrapes.add(scrape);
+    }
+
+    long deadline = System.currentTimeMillis() + scrapeTimeoutMs;
+    List<JmxMetric> metrics = new ArrayList<>();
+    for (BrokerScrape scrape : scrapes) {
+      try {
+        metrics.addAll(
+            scrape.result.get(
+                Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (TimeoutException e) {
+        log.warn("Scraping metrics of {} timed out", scrape.jmxUrl);
+        scrape.timeOut();
+      } catch (Exception e) {
+        log.error("Unable to scrape metrics of {}", scrape.jmxUrl, e.getCause());
+      }
+    }
+    return metrics;
+  }
+
+  private List<JmxMetric> scrapeBroker(BrokerScrape scrape, List<ObjectName> objectNames) {
+    String jmxUrl = scrape.jmxUrl;
+    try {
+      return withConnection(
+          jmxUrl,
+          scrape,
+          connection -> {
+            List<JmxMetric> metrics = new ArrayList<>();
+            for (ObjectName objectName : objectNames) {
+              Set<ObjectName> mbeanNames =
+                  objectName.isPattern()
+                      ? connection.queryNames(objectName, null)
+                      : Collections.singleton(objectName);
+              for (ObjectName mbeanName : mbeanNames) {
+                try {
+                  metrics.add(
+                      new JmxMetric(
+                          jmxUrl,
+                          mbeanName.getCanonicalName(),
+                          readAttributes(connection, mbeanName)));
+                } catch (InstanceNotFoundException e) {
+                  log.debug("MBean {} is not registered on {}", mbeanName, jmxUrl);
+                  attributeNames.remove(mbeanName);
+                }
+              }
+            }
+            return metrics;
+          });
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to scrape metrics of " + jmxUrl, e);
+    }
+  }
+
+  private Map<String, String> readAttributes(MBeanServerConnection connection, ObjectName name)
+      throws Exception {
+    String[] names = attributeNames.get(name);
+    if (names == null) {
+      MBeanAttributeInfo[] attributes = connection.getMBeanInfo(name).getAttributes();
+      names = new String[attributes.length];
+      for (int i = 0; i < attributes.length; i++) {
+        names[i] = attributes[i].getName();
+      }
+      attributeNames.put(name, names);
+    }
+
+    Map<String, String> metricsMap = new HashMap<>();
+    for (Attribute attribute : connection.getAttributes(name, names).asList()) {
+      metricsMap.put(attribute.getName(), "" + attribute.getValue());
+    }
+    log.debug("Attributes of {} {}", name, metricsMap);
     return metricsMap;
   }
+
+  /**
+   * Runs the request on the pooled connection of the broker. A connection failing with an
+   * IOException is dropped from the pool and the request is retried once on a new connection.
+   */
+  private <T> T withConnection(String jmxUrl, JmxRequest<T> request) throws Exception {
+    return withConnection(jmxUrl, null, request);
+  }
+
+  private <T> T withConnection(String jmxUrl, BrokerScrape scrape, JmxRequest<T> request)
+      throws Exception {
+    JMXConnector jmxc = metricsUtils.getJmxConnector(jmxUrl);
+    try {
+      return request.apply(getMBeanServerConnection(jmxc, scrape));
+    } catch (IOException e) {
+      if (scrape != null && scrape.timedOut) {
+        // the connection was closed by the timeout of the scrape
+        throw e;
+      }
+      log.warn("JMX connection {} failed, reconnecting", jmxUrl, e);
+      metricsUtils.invalidate(jmxUrl, jmxc);
+      return request.apply(getMBeanServerConnection(metricsUtils.getJmxConnector(jmxUrl), scrape));
+    }
+  }
+
+  private MBeanServerConnection getMBeanServerConnection(JMXConnector jmxc, BrokerScrape scrape)
+      throws IOException {
+    if (scrape != null) {
+      scrape.connector = jmxc;
+      if (scrape.timedOut) {
+        throw new IOException("Scraping metrics of " + scrape.jmxUrl + " timed out");
+      }
+    }
+    return jmxc.getMBeanServerConnection();
+  }
+
+  private synchronized ExecutorService getScrapeExecutor() {
+    if (scrapeExecutor == null) {
+      AtomicInteger threadCount = new AtomicInteger();
+      scrapeExecutor =
+          new ThreadPoolExecutor(
+              scrapeThreads,
+              scrapeThreads,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "jmx-metrics-scrape-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      scrapeExecutor.allowCoreThreadTimeOut(true);
+    }
+    return scrapeExecutor;
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (scrapeExecutor != null) {
+      scrapeExecutor.shutdownNow();
+    }
+  }
+
+  private class BrokerScrape {
+    private final String jmxUrl;
+    private CompletableFuture<List<JmxMetric>> result;
+    // connection used by the scrape, closed when the scrape times out
+    private volatile JMXConnector connector;
+    private volatile boolean timedOut;
+
+    private BrokerScrape(String jmxUrl) {
+      this.jmxUrl = jmxUrl;
+    }
+
+    /**
+     * A JMX request does not react to interrupts, closing its connection makes a request blocked on
+     * a dead broker fail and frees the scrape thread.
+     */
+    private void timeOut() {
+      timedOut = true;
+      result.cancel(true);
+      JMXConnector jmxc = connector;
+      if (jmxc != null) {
+        metricsUtils.invalidate(jmxUrl, jmxc);
+      }
+    }
+  }
 }
@@ -18,6 +18,7 @@ import io.aiven.klaw.clusterapi.models.enums.SchemaType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,9 +27,18 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -59,9 +69,17 @@ public class SchemaService {
       new ParameterizedTypeReference<>() {};
 
   private static Map<String, SchemasInfoOfClusterResponse> schemasInfoOfClusterResponseMap =
-      new HashMap<>();
+      new ConcurrentHashMap<>();
 
-  private static Map<String, ClusterKeyIdentifier> schemasInfoCacheKeySetMap = new HashMap<>();
+  private static Map<String, ClusterKeyIdentifier> schemasInfoCacheKeySetMap =
+      new ConcurrentHashMap<>();
+
+  // crawls running per registry, holding the subjects loaded so far
+  private static Map<String, SchemaCrawlProgress> schemaCrawlsInProgress =
+      new ConcurrentHashMap<>();
+
+  // request rate limiters per registry, shared by all crawls of the registry
+  private static Map<String, RegistryRateLimiter> registryRateLimiters = new ConcurrentHashMap<>();
 
   public static final String SCHEMA_REGISTRY_CONTENT_TYPE =
       "application/vnd.schemaregistry.v1+json";
@@ -79,6 +97,18 @@ public class SchemaService {
   @Value("${klaw.schemaregistry.compatibility.default:BACKWARD}")
   private String defaultSchemaCompatibility;
 
+  // concurrent subject version requests per registry while loading all schemas of a cluster
+  @Value("${klaw.schemainfo.crawler.concurrency:8}")
+  private int crawlerConcurrency;
+
+  // max subject version requests per second per registry, 0 for no limit
+  @Value("${klaw.schemainfo.crawler.requests-per-second:0}")
+  private int crawlerRequestsPerSecond;
+
+  @Autowired(required = false)
+  @Qualifier("resetSchemaCacheTaskExecutor")
+  private Executor resetSchemaCacheTaskExecutor;
+
   final ClusterApiUtils clusterApiUtils;
 
   public SchemaService(ClusterApiUtils clusterApiUtils) {
@@ -663,7 +693,34 @@ public class SchemaService {
           schemasVersionsStorageKey);
     }
 
-    SchemasInfoOfClusterResponse schemasInfoOfClusterResponse = new SchemasInfoOfClusterResponse();
+    SchemaCrawlProgress crawlProgress = new SchemaCrawlProgress();
+    SchemaCrawlProgress runningCrawl =
+        schemaCrawlsInProgress.putIfAbsent(schemasVersionsStorageKey, crawlProgress);
+    if (runningCrawl != null) {
+      // another request is loading this registry, return what is loaded so far
+      return runningCrawl.toResponse(true);
+    }
+
+    try {
+      crawlSchemaSubjects(bootstrapServers, protocol, clusterIdentification, crawlProgress);
+      SchemasInfoOfClusterResponse schemasInfoOfClusterResponse = crawlProgress.toResponse(false);
+      updateCache(
+          bootstrapServers,
+          protocol,
+          clusterIdentification,
+          schemasVersionsStorageKey,
+          schemasInfoOfClusterResponse);
+      return schemasInfoOfClusterResponse;
+    } finally {
+      schemaCrawlsInProgress.remove(schemasVersionsStorageKey);
+    }
+  }
+
+  private void crawlSchemaSubjects(
+      String bootstrapServers,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      SchemaCrawlProgress crawlProgress) {
     String suffixUrl = bootstrapServers + "/" + SCHEMA_SUBJECTS_URI;
     Pair<String, RestTemplate> reqDetails = clusterApiUtils.getRequestDetails(suffixUrl, protocol);
 
@@ -675,32 +732,50 @@ public class SchemaService {
             .getRight()
             .exchange(reqDetails.getLeft(), HttpMethod.GET, request, GET_SUBJECTS_TYPEREF, params);
 
-    List<SchemaInfoOfTopic> schemaInfoOfTopicList = new ArrayList<>();
+    List<String> topics = new ArrayList<>();
     List<String> subjectList = responseList.getBody();
     if (subjectList != null) {
       for (String subject : subjectList) {
         if (subject.indexOf(SCHEMA_VALUE_URI) > 0) {
-          subject = subject.substring(0, subject.indexOf(SCHEMA_VALUE_URI));
-          Set<Integer> schemaVersions =
-              getSchemaVersions(bootstrapServers, subject, protocol, clusterIdentification);
-          SchemaInfoOfTopic schemaInfoOfTopic = new SchemaInfoOfTopic();
-          schemaInfoOfTopic.setTopic(subject);
-          schemaInfoOfTopic.setSchemaVersions(schemaVersions);
-          schemaInfoOfTopicList.add(schemaInfoOfTopic);
+          topics.add(subject.substring(0, subject.indexOf(SCHEMA_VALUE_URI)));
         }
       }
     }
+    crawlProgress.setSubjectsTotal(topics.size());
+
+    RegistryRateLimiter rateLimiter =
+        crawlerRequestsPerSecond > 0
+            ? registryRateLimiters.computeIfAbsent(
+                bootstrapServers, k -> new RegistryRateLimiter(crawlerRequestsPerSecond))
+            : null;
+    Consumer<String> loadVersions =
+        topic -> {
+          if (rateLimiter != null) {
+            rateLimiter.acquire();
+          }
+          crawlProgress.addSchemaInfo(
+              topic, getSchemaVersions(bootstrapServers, topic, protocol, clusterIdentification));
+        };
 
-    schemasInfoOfClusterResponse.setSchemaInfoOfTopicList(schemaInfoOfTopicList);
-
-    updateCache(
-        bootstrapServers,
-        protocol,
-        clusterIdentification,
-        schemasVersionsStorageKey,
-        schemasInfoOfClusterResponse);
+    if (crawlerConcurrency <= 1 || topics.size() <= 1) {
+      topics.forEach(loadVersions);
+      return;
+    }
 
-    return schemasInfoOfClusterResponse;
+    ExecutorService executorService =
+        Executors.newFixedThreadPool(Math.min(crawlerConcurrency, topics.size()));
+    try {
+      CompletableFuture.allOf(
+              topics.stream()
+                  .map(
+                      topic ->
+                          CompletableFuture.runAsync(
+                              () -> loadVersions.accept(topic), executorService))
+                  .toArray(CompletableFuture[]::new))
+          .join();
+    } finally {
+      executorService.shutdown();
+    }
   }
 
   private static void updateCache(
@@ -778,14 +853,28 @@ public class SchemaService {
     for (String schemasVersionsStorageKey : schemasInfoCacheKeySetMap.keySet()) {
       ClusterKeyIdentifier clusterKeyIdentifier =
           schemasInfoCacheKeySetMap.get(schemasVersionsStorageKey);
-      schemasInfoOfClusterResponseMap.remove(schemasVersionsStorageKey);
-      loadAllSchemasInfoFromCluster(
-          clusterKeyIdentifier.getBootstrapServers(),
-          clusterKeyIdentifier.getProtocol(),
-          clusterKeyIdentifier.getClusterIdentification(),
-          false,
-          SchemaCacheUpdateType.NONE,
-          null);
+      Runnable resetCache =
+          () -> {
+            schemasInfoOfClusterResponseMap.remove(schemasVersionsStorageKey);
+            loadAllSchemasInfoFromCluster(
+                clusterKeyIdentifier.getBootstrapServers(),
+                clusterKeyIdentifier.getProtocol(),
+                clusterKeyIdentifier.getClusterIdentification(),
+                false,
+                SchemaCacheUpdateType.NONE,
+                null);
+          };
+      // registries are independent, reload them in parallel
+      if (resetSchemaCacheTaskExecutor != null) {
+        CompletableFuture.runAsync(resetCache, resetSchemaCacheTaskExecutor)
+            .exceptionally(
+                e -> {
+                  log.error("Error in resetting schema cache {}", schemasVersionsStorageKey, e);
+                  return null;
+                });
+      } else {
+        resetCache.run();
+      }
     }
   }
 
@@ -798,4 +887,65 @@ public class SchemaService {
         null);
     return ApiResponse.builder().success(true).build();
   }
+
+  /** Subjects loaded so far by a running crawl of one registry. */
+  private static class SchemaCrawlProgress {
+
+    private final List<SchemaInfoOfTopic> schemaInfoOfTopicList =
+        Collections.synchronizedList(new ArrayList<>());
+
+    private volatile int subjectsTotal;
+
+    void setSubjectsTotal(int subjectsTotal) {
+      this.subjectsTotal = subjectsTotal;
+    }
+
+    void addSchemaInfo(String topic, Set<Integer> schemaVersions) {
+      SchemaInfoOfTopic schemaInfoOfTopic = new SchemaInfoOfTopic();
+      schemaInfoOfTopic.setTopic(topic);
+      schemaInfoOfTopic.setSchemaVersions(schemaVersions);
+      schemaInfoOfTopicList.add(schemaInfoOfTopic);
+    }
+
+    SchemasInfoOfClusterResponse toResponse(boolean loadingInProgress) {
+      SchemasInfoOfClusterResponse schemasInfoOfClusterResponse =
+          new SchemasInfoOfClusterResponse();
+      List<SchemaInfoOfTopic> loaded;
+      synchronized (schemaInfoOfTopicList) {
+        loaded = new ArrayList<>(schemaInfoOfTopicList);
+      }
+      // versions are fetched concurrently, restore the name order the registry lists subjects in
+      loaded.sort(Comparator.comparing(SchemaInfoOfTopic::getTopic));
+      schemasInfoOfClusterResponse.setSchemaInfoOfTopicList(loaded);
+      schemasInfoOfClusterResponse.setLoadingInProgress(loadingInProgress);
+      schemasInfoOfClusterResponse.setSubjectsTotal(subjectsTotal);
+      schemasInfoOfClusterResponse.setSubjectsLoaded(loaded.size());
+      return schemasInfoOfClusterResponse;
+    }
+  }
+
+  /** Spaces out requests to one registry so they do not exceed the configured rate. */
+  private static class RegistryRateLimiter {
+
+    private final long intervalNanos;
+
+    private long nextRequestNanos = System.nanoTime();
+
+    RegistryRateLimiter(int requestsPerSecond) {
+      this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+    }
+
+    void acquire() {
+      long waitNanos;
+      synchronized (this) {
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextRequestNanos);
+        nextRequestNanos = slot + intervalNanos;
+        waitNanos = slot - now;
+      }
+      if (waitNanos > 0) {
+        LockSupport.parkNanos(waitNanos);
+      }
+    }
+  }
 }
@@ -1,36 +1,76 @@
 package io.aiven.klaw.clusterapi.services;
 
+import io.aiven.klaw.clusterapi.models.TopicContentRecord;
 import io.aiven.klaw.clusterapi.models.enums.TopicContentType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Reads records of a topic for browsing. Consumers are assigned the partitions directly and seek to
+ * the requested offsets, so reading never joins a consumer group. Consumers are pooled per cluster
+ * and a read stops as soon as every partition reached its last requested offset, or the byte limit
+ * is reached.
+ */
 @Slf4j
 @Service
 public class TopicContentsService {
 
   public static final int RANGE_MAX_RECORDS = 100;
-  public static final int NUMBER_OF_POLLS = 3;
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
   final ClusterApiUtils clusterApiUtils;
 
-  @Value("${klaw.topiccontents.consumergroup.id:notdefined}")
-  private String kwGenericConsumerGroupId;
+  private final Function<Properties, Consumer<String, String>> consumerFactory;
+
+  // idle consumers per cluster, a consumer is used by one read at a time
+  private final Map<String, BlockingQueue<Consumer<String, String>>> consumerPool =
+      new ConcurrentHashMap<>();
 
   @Value("${klaw.topiccontents.consumer.poll.interval.ms:2000}")
   private long defaultPollInterval;
 
+  @Value("${klaw.topiccontents.read.timeout.ms:5000}")
+  private long readTimeoutMs = 5000;
+
+  @Value("${klaw.topiccontents.max.bytes:1048576}")
+  private long maxBytes = 1048576;
+
+  @Value("${klaw.topiccontents.consumer.pool.size:4}")
+  private int consumerPoolSize = 4;
+
+  @Autowired
   public TopicContentsService(ClusterApiUtils clusterApiUtils) {
+    this(clusterApiUtils, KafkaConsumer::new);
+  }
+
+  TopicContentsService(
+      ClusterApiUtils clusterApiUtils,
+      Function<Properties, Consumer<String, String>> consumerFactory) {
     this.clusterApiUtils = clusterApiUtils;
+    this.consumerFactory = consumerFactory;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
   }
 
   public Map<Long, String> readEvents(
@@ -45,6 +85,47 @@ public class TopicContentsService {
       Integer rangeOffsetsEnd,
       String readMessagesType,
       String clusterIdentification) {
+    Map<Long, String> eventMap = new TreeMap<>();
+    readRecords(
+        bootStrapServers,
+        protocol,
+        consumerGroupId,
+        topicName,
+        offsetPosition,
+        selectedPartitionId,
+        selectedNumberOfOffsets,
+        rangeOffsetsStart,
+        rangeOffsetsEnd,
+        readMessagesType,
+        clusterIdentification,
+        maxBytes,
+        record -> {
+          eventMap.put(record.getOffset(), record.getValue());
+          return true;
+        });
+    return eventMap;
+  }
+
+  /**
+   * Reads the requested records and hands them to the sink in the order they are polled.
+   *
+   * @param byteLimit the read stops before the record exceeding this number of value bytes
+   * @param sink receives every record, returning false stops the read
+   */
+  public void readRecords(
+      String bootStrapServers,
+      String protocol,
+      String consumerGroupId,
+      String topicName,
+      String offsetPosition,
+      Integer selectedPartitionId,
+      Integer selectedNumberOfOffsets,
+      Integer rangeOffsetsStart,
+      Integer rangeOffsetsEnd,
+      String readMessagesType,
+      String clusterIdentification,
+      long byteLimit,
+      Predicate<TopicContentRecord> sink) {
     log.debug(
         "readEvents bootStrapServers {}, protocol {},  consumerGroupId {},"
             + " topicName {}, offsetPosition {},  readMessagesType {} clusterIdentification {} selectedPartitionId {}"
@@ -61,90 +142,159 @@ public class TopicContentsService {
         rangeOffsetsStart,
         rangeOffsetsEnd);
 
-    Map<Long, String> eventMap = new TreeMap<>();
-    KafkaConsumer<String, String> consumer;
-
-    if (offsetPosition.equals(TopicContentType.RANGE.getValue())
-        && (rangeOffsetsStart < 0 || rangeOffsetsEnd < 0)) {
-      return eventMap;
-    }
-
-    if (consumerGroupId.equals("notdefined")) {
-      consumer =
-          getKafkaConsumer(
-              kwGenericConsumerGroupId, bootStrapServers, protocol, clusterIdentification);
-    } else {
-      consumer =
-          getKafkaConsumer(consumerGroupId, bootStrapServers, protocol, clusterIdentification);
+    boolean isRange = offsetPosition.equals(TopicContentType.RANGE.getValue());
+    boolean isCustom = offsetPosition.equals(TopicContentType.CUSTOM.getValue());
+    if (isRange
+        && (rangeOffsetsStart < 0 || rangeOffsetsEnd < 0 || rangeOffsetsStart > rangeOffsetsEnd)) {
+      return;
     }
 
-    consumer.subscribe(Collections.singleton(topicName));
-    consumer.poll(Duration.ofMillis(defaultPollInterval));
-    Set<TopicPartition> topicPartitionsSet = consumer.assignment();
-
-    Set<TopicPartition> partitionsAssignment = new HashSet<>();
-    if (offsetPosition.equals(TopicContentType.CUSTOM.getValue())
-        || offsetPosition.equals(TopicContentType.RANGE.getValue())) {
-      for (TopicPartition tp : topicPartitionsSet) {
-        if (tp.partition() == selectedPartitionId) {
-          partitionsAssignment = Collections.singleton(tp);
-          break;
+    String poolKey = protocol + clusterIdentification + bootStrapServers;
+    Consumer<String, String> consumer =
+        borrowConsumer(poolKey, bootStrapServers, protocol, clusterIdentification);
+    boolean reusable = false;
+    try {
+      List<PartitionInfo> partitionInfos =
+          consumer.partitionsFor(topicName, Duration.ofMillis(defaultPollInterval));
+      Set<TopicPartition> partitions = new HashSet<>();
+      if (partitionInfos != null) {
+        for (PartitionInfo partitionInfo : partitionInfos) {
+          if ((!isCustom && !isRange)
+              || Objects.equals(partitionInfo.partition(), selectedPartitionId)) {
+            partitions.add(new TopicPartition(topicName, partitionInfo.partition()));
+          }
         }
       }
-    } else {
-      partitionsAssignment = topicPartitionsSet;
-    }
+      if (partitions.isEmpty()) {
+        reusable = true;
+        return;
+      }
 
-    if (partitionsAssignment.isEmpty()
-        || (offsetPosition.equals(TopicContentType.RANGE.getValue())
-            && rangeOffsetsStart > rangeOffsetsEnd)) {
-      consumer.close();
-      return eventMap;
-    }
-    consumer.seekToBeginning(partitionsAssignment);
-    Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitionsAssignment);
-    long newOffset;
-    if (readMessagesType.equals("OFFSET_ID")) {
-      for (TopicPartition tp : partitionsAssignment) {
-        long beginningOffset = consumer.position(tp);
+      Duration metadataTimeout = Duration.ofMillis(defaultPollInterval);
+      Map<TopicPartition, Long> beginningOffsets =
+          consumer.beginningOffsets(partitions, metadataTimeout);
+      Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, metadataTimeout);
+
+      // offset after the last record to read per partition
+      Map<TopicPartition, Long> stopOffsets = new HashMap<>();
+      Map<TopicPartition, Long> startOffsets = new HashMap<>();
+      for (TopicPartition tp : partitions) {
+        long beginningOffset = beginningOffsets.get(tp);
         long endOffset = endOffsets.get(tp);
-        if (offsetPosition.equals(TopicContentType.CUSTOM.getValue())) {
-          newOffset = endOffset - selectedNumberOfOffsets;
-        } else if (offsetPosition.equals(TopicContentType.RANGE.getValue())) {
-          newOffset = rangeOffsetsStart;
-        } else {
-          newOffset = endOffset - Integer.parseInt(offsetPosition);
+        long newOffset = beginningOffset;
+        long stopOffset = endOffset;
+        if (readMessagesType.equals("OFFSET_ID")) {
+          if (isCustom) {
+            newOffset = endOffset - selectedNumberOfOffsets;
+          } else if (isRange) {
+            newOffset = rangeOffsetsStart;
+            stopOffset = Math.min(endOffset, rangeOffsetsEnd + 1L);
+          } else {
+            newOffset = endOffset - Integer.parseInt(offsetPosition);
+          }
+          newOffset = Math.max(newOffset, beginningOffset);
         }
-        if (newOffset < beginningOffset) {
-          newOffset = beginningOffset;
+        if (newOffset < stopOffset) {
+          startOffsets.put(tp, newOffset);
+          stopOffsets.put(tp, stopOffset);
         }
+      }
+      if (startOffsets.isEmpty()) {
+        reusable = true;
+        return;
+      }
 
-        consumer.seek(tp, newOffset);
+      consumer.assign(startOffsets.keySet());
+      startOffsets.forEach(consumer::seek);
+      pollUntilStopOffsets(consumer, stopOffsets, isRange, byteLimit, sink);
+      reusable = true;
+    } catch (Exception e) {
+      log.error("Unable to read contents of topic {}", topicName, e);
+    } finally {
+      returnConsumer(poolKey, consumer, reusable);
+    }
+  }
+
+  private void pollUntilStopOffsets(
+      Consumer<String, String> consumer,
+      Map<TopicPartition, Long> stopOffsets,
+      boolean isRange,
+      long byteLimit,
+      Predicate<TopicContentRecord> sink) {
+    long deadline = System.currentTimeMillis() + readTimeoutMs;
+    Map<TopicPartition, Long> remaining = new HashMap<>(stopOffsets);
+    long bytes = 0;
+    int records = 0;
+    while (!remaining.isEmpty() && System.currentTimeMillis() < deadline) {
+      for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+        TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+        Long stopOffset = remaining.get(tp);
+        if (stopOffset == null || record.offset() >= stopOffset) {
+          continue;
+        }
+        String value = record.value();
+        bytes += value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+        if (bytes > byteLimit) {
+          log.debug("Stopped reading topic {} at the byte limit {}", record.topic(), byteLimit);
+          return;
+        }
+        if (!sink.test(
+            new TopicContentRecord(
+                record.partition(), record.offset(), record.timestamp(), value))) {
+          return;
+        }
+        records++;
+        if (isRange && records >= RANGE_MAX_RECORDS) {
+          return;
+        }
       }
+      remaining.entrySet().removeIf(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+  }
+
+  private Consumer<String, String> borrowConsumer(
+      String poolKey, String bootstrapServers, String protocol, String clusterIdentification) {
+    BlockingQueue<Consumer<String, String>> idleConsumers = consumerPool.get(poolKey);
+    Consumer<String, String> consumer = idleConsumers == null ? null : idleConsumers.poll();
+    if (consumer == null) {
+      consumer =
+          consumerFactory.apply(
+              getConsumerProperties(bootstrapServers, protocol, clusterIdentification));
     }
+    return consumer;
+  }
 
-    int i = 0;
-    boolean exitLoop = false;
-    do {
-      ConsumerRecords<String, String> consumerRecords = consumer.poll(Duration.ofMillis(500));
-      for (ConsumerRecord<String, String> record : consumerRecords) {
-        eventMap.put(record.offset(), record.value());
-        if (offsetPosition.equals(TopicContentType.RANGE.getValue())
-            && (record.offset() >= rangeOffsetsEnd || eventMap.size() >= RANGE_MAX_RECORDS)) {
-          exitLoop = true;
-          break;
+  private void returnConsumer(String poolKey, Consumer<String, String> consumer, boolean reusable) {
+    if (reusable) {
+      try {
+        consumer.unsubscribe();
+        if (consumerPool
+            .computeIfAbsent(poolKey, k -> new LinkedBlockingQueue<>(consumerPoolSize))
+            .offer(consumer)) {
+          return;
         }
+      } catch (Exception e) {
+        log.warn("Unable to return consumer to the pool", e);
       }
-      i++;
-    } while (i != NUMBER_OF_POLLS && !exitLoop);
+    }
+    consumer.close(Duration.ZERO);
+  }
 
-    consumer.commitAsync();
-    consumer.close();
-    return eventMap;
+  @PreDestroy
+  public void closeConsumers() {
+    consumerPool
+        .values()
+        .forEach(
+            idleConsumers -> {
+              Consumer<String, String> consumer;
+              while ((consumer = idleConsumers.poll()) != null) {
+                consumer.close(Duration.ZERO);
+              }
+            });
   }
 
-  public KafkaConsumer<String, String> getKafkaConsumer(
-      String groupId, String bootstrapServers, String protocol, String clusterIdentification) {
+  Properties getConsumerProperties(
+      String bootstrapServers, String protocol, String clusterIdentification) {
     Properties props = new Properties();
 
     if (protocol.equals("SSL")) {
@@ -153,10 +303,9 @@ public class TopicContentsService {
     }
     props.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-    props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-    props.put(ConsumerConfig.CLIENT_ID_CONFIG, "KLAW_TMP_GROUP_CLIENT" + groupId);
+    props.put(ConsumerConfig.CLIENT_ID_CONFIG, "KLAW_TOPIC_CONTENTS_CLIENT");
     props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
     props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-    return new KafkaConsumer<>(props);
+    return props;
   }
 }
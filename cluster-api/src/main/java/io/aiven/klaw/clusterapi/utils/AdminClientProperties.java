@@ -28,4 +28,12 @@ public class AdminClientProperties {
 
   @Value("${klaw.topics.timeout.secs:10}")
   private long topicsTimeoutSecs;
+
+  // failed health checks in a row after which an admin client is rebuilt
+  @Value("${klaw.adminclient.healthcheck.failure.threshold:3}")
+  private int healthCheckFailureThreshold;
+
+  // requests to a cluster fail fast for this long after its admin client was rebuilt
+  @Value("${klaw.adminclient.circuit.open.ms:30000}")
+  private long circuitOpenMs;
 }
@@ -7,23 +7,27 @@ import com.google.common.base.Strings;
 import io.aiven.klaw.clusterapi.config.SslContextConfig;
 import io.aiven.klaw.clusterapi.models.enums.KafkaClustersType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import jakarta.annotation.PreDestroy;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.tomcat.util.codec.binary.Base64;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -44,18 +48,19 @@ public class ClusterApiUtils {
   public static final String KAFKA_CONFLUENT_CLOUD_CREDENTIALS_PROPERTY_SFX =
       ".klaw.confluentcloud.credentials";
 
-  private static MessageDigest messageDigest;
-
-  static {
-    try {
-      messageDigest = MessageDigest.getInstance("SHA-256");
-    } catch (NoSuchAlgorithmException e) {
-      log.error("Error ", e);
-    }
-  }
+  // MessageDigest is not thread safe
+  private static final ThreadLocal<MessageDigest> messageDigest =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+              throw new IllegalStateException(e);
+            }
+          });
 
   private final Environment env;
-  private final Map<String, AdminClient> adminClientsMap;
+  private final Map<String, PooledAdminClient> adminClientsMap;
 
   private final Map<String, RestTemplate> restTemplateMap;
 
@@ -65,7 +70,7 @@ public class ClusterApiUtils {
 
   @Autowired
   public ClusterApiUtils(Environment env, AdminClientProperties adminClientProperties) {
-    this(env, adminClientProperties, new HashMap<>(), new HashMap<>());
+    this(env, adminClientProperties, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
   }
 
   public AdminClientProperties getAdminClientProperties() {
@@ -75,7 +80,7 @@ public class ClusterApiUtils {
   ClusterApiUtils(
       Environment env,
       AdminClientProperties adminClientProperties,
-      Map<String, AdminClient> adminClientsMap,
+      Map<String, PooledAdminClient> adminClientsMap,
       Map<String, RestTemplate> restTemplateMap) {
     this.env = env;
     this.adminClientsMap = adminClientsMap;
@@ -93,7 +98,7 @@ public class ClusterApiUtils {
   //    }
 
   public String getHash(String envHost) {
-    return new String(Base64.encodeBase64(messageDigest.digest(envHost.getBytes()), false));
+    return new String(Base64.encodeBase64(messageDigest.get().digest(envHost.getBytes()), false));
   }
 
   public AdminClient getAdminClient(
@@ -102,82 +107,37 @@ public class ClusterApiUtils {
     log.info(
         "Host : {} Protocol {} clusterIdentification {}", envHost, protocol, clusterIdentification);
 
-    AdminClient adminClient = null;
     String adminClientKey = protocol + clusterIdentification + getHash(envHost);
+    PooledAdminClient pooledAdminClient = adminClientsMap.get(adminClientKey);
+    if (pooledAdminClient == null) {
+      pooledAdminClient =
+          createAdminClient(envHost, protocol, clusterIdentification, adminClientKey);
+    }
 
+    if (pooledAdminClient.isOpen(System.currentTimeMillis())) {
+      log.error(
+          "Cluster {} {} {} failed its health checks, not sending the request",
+          envHost,
+          protocol,
+          clusterIdentification);
+      throw new Exception("Cannot connect to cluster. Please contact Administrator.");
+    }
+    return pooledAdminClient.getAdminClient();
+  }
+
+  private PooledAdminClient createAdminClient(
+      String envHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String adminClientKey)
+      throws Exception {
+    Properties properties;
+    AdminClient adminClient;
     try {
-      switch (protocol) {
-        case PLAINTEXT:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient = AdminClient.create(getPlainProperties(envHost));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SSL:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient = AdminClient.create(getSslProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SASL_PLAIN:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(getSaslPlainProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SASL_SSL_PLAIN_MECHANISM:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_PlainMechanismProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_SCRAM_MECHANISM_256:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_ScramMechanismProperties(envHost, clusterIdentification, SHA_256));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_SCRAM_MECHANISM_512:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_ScramMechanismProperties(envHost, clusterIdentification, SHA_512));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_GSSAPI_MECHANISM:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_GSSAPIMechanismProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-      }
+      properties = getClientProperties(envHost, protocol, clusterIdentification);
+      adminClient = AdminClient.create(properties);
     } catch (Exception exception) {
       log.error("Unable to create Admin client ", exception);
-      exception.printStackTrace();
       throw new Exception("Cannot connect to cluster. Please contact Administrator.");
     }
 
@@ -188,19 +148,90 @@ public class ClusterApiUtils {
 
     try {
       adminClient
-          .listTopics()
-          .names()
+          .describeCluster()
+          .clusterId()
           .get(adminClientProperties.getTopicsTimeoutSecs(), TimeUnit.SECONDS);
-      if (!adminClientsMap.containsKey(adminClientKey)) {
-        adminClientsMap.put(adminClientKey, adminClient);
-      }
-      return adminClient;
     } catch (Exception e) {
-      adminClientsMap.remove(adminClientKey);
       adminClient.close();
       log.error("Cannot create Admin Client {} {} {}", envHost, protocol, clusterIdentification, e);
       throw new Exception("Cannot connect to cluster. Please contact Administrator.");
     }
+
+    PooledAdminClient created =
+        new PooledAdminClient(
+            protocol + " " + clusterIdentification + " " + envHost,
+            properties,
+            adminClient,
+            AdminClient::create);
+    PooledAdminClient existing = adminClientsMap.putIfAbsent(adminClientKey, created);
+    if (existing != null) {
+      // created concurrently by another request
+      created.close();
+      return existing;
+    }
+    return created;
+  }
+
+  private Properties getClientProperties(
+      String envHost, KafkaSupportedProtocol protocol, String clusterIdentification) {
+    return switch (protocol) {
+      case PLAINTEXT -> getPlainProperties(envHost);
+      case SSL -> getSslProperties(envHost, clusterIdentification);
+      case SASL_PLAIN -> getSaslPlainProperties(envHost, clusterIdentification);
+      case SASL_SSL_PLAIN_MECHANISM -> getSaslSsl_PlainMechanismProperties(
+          envHost, clusterIdentification);
+      case SASL_SSL_SCRAM_MECHANISM_256 -> getSaslSsl_ScramMechanismProperties(
+          envHost, clusterIdentification, SHA_256);
+      case SASL_SSL_SCRAM_MECHANISM_512 -> getSaslSsl_ScramMechanismProperties(
+          envHost, clusterIdentification, SHA_512);
+      case SASL_SSL_GSSAPI_MECHANISM -> getSaslSsl_GSSAPIMechanismProperties(
+          envHost, clusterIdentification);
+    };
+  }
+
+  /**
+   * Checks every pooled admin client with a describe cluster call. All checks run concurrently,
+   * failing clients are closed and rebuilt and their clusters fail fast until they recover.
+   */
+  @Scheduled(
+      fixedDelayString = "${klaw.adminclient.healthcheck.interval.ms:30000}",
+      initialDelayString = "${klaw.adminclient.healthcheck.interval.ms:30000}")
+  public void checkAdminClientsHealth() {
+    Map<PooledAdminClient, KafkaFuture<String>> healthChecks = new HashMap<>();
+    for (PooledAdminClient pooledAdminClient : adminClientsMap.values()) {
+      try {
+        healthChecks.put(pooledAdminClient, pooledAdminClient.checkHealth());
+      } catch (Exception e) {
+        healthChecks.put(pooledAdminClient, KafkaFuture.completedFuture(null));
+        pooledAdminClient.unhealthy(
+            e,
+            adminClientProperties.getHealthCheckFailureThreshold(),
+            adminClientProperties.getCircuitOpenMs());
+      }
+    }
+
+    for (Map.Entry<PooledAdminClient, KafkaFuture<String>> healthCheck : healthChecks.entrySet()) {
+      try {
+        healthCheck.getValue().get(adminClientProperties.getTopicsTimeoutSecs(), TimeUnit.SECONDS);
+        healthCheck.getKey().healthy();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        healthCheck
+            .getKey()
+            .unhealthy(
+                e,
+                adminClientProperties.getHealthCheckFailureThreshold(),
+                adminClientProperties.getCircuitOpenMs());
+      }
+    }
+  }
+
+  @PreDestroy
+  public void closeAdminClients() {
+    adminClientsMap.values().forEach(PooledAdminClient::close);
+    adminClientsMap.clear();
   }
 
   public Properties getPlainProperties(String environment) {
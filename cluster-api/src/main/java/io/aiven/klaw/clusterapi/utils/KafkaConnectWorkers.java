@@ -0,0 +1,256 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Health and latency of the workers of Kafka Connect clusters. A Connect cluster is configured as a
+ * comma separated list of worker urls, requests are sent to the workers in order of health and
+ * latency instead of configuration order, so a worker which is down only costs a timeout until its
+ * first failure is recorded.
+ *
+ * <p>Reads can optionally be hedged: if the preferred worker has not answered within {@code
+ * klaw.kafkaconnect.hedge.delay.ms}, the read is sent to the next worker as well and the first
+ * answer is used.
+ */
+@Component
+@Slf4j
+public class KafkaConnectWorkers {
+
+  private static final double LATENCY_WEIGHT = 0.3;
+
+  private final Map<String, WorkerHealth> workers = new ConcurrentHashMap<>();
+
+  // created with the first hedged read
+  private ThreadPoolExecutor hedgeExecutor;
+
+  // a failed worker is only preferred again after this period
+  @Value("${klaw.kafkaconnect.worker.retry.ms:30000}")
+  private long workerRetryMs = 30000;
+
+  // 0 disables hedged reads
+  @Value("${klaw.kafkaconnect.hedge.delay.ms:0}")
+  private long hedgeDelayMs;
+
+  // hedged reads running at once, further reads wait for a thread
+  @Value("${klaw.kafkaconnect.hedge.threads:8}")
+  private int hedgeThreads = 8;
+
+  // a hedged read not answered within this time falls back to the remaining workers
+  @Value("${klaw.kafkaconnect.hedge.timeout.ms:15000}")
+  private long hedgeTimeoutMs = 15000;
+
+  /** A request to one worker, returning null is a valid answer. */
+  @FunctionalInterface
+  public interface WorkerRequest<T> {
+    T send(String workerUrl) throws Exception;
+  }
+
+  /**
+   * @param environments comma separated worker urls of a Connect cluster
+   * @return the worker urls, available workers first ordered by latency, failed workers last
+   */
+  public List<String> getWorkers(String environments) {
+    long now = System.currentTimeMillis();
+    List<String> workerUrls = new ArrayList<>(Arrays.asList(environments.split(",")));
+    // stable sort, workers without history keep configuration order
+    workerUrls.sort(
+        Comparator.comparing((String url) -> !isAvailable(url, now))
+            .thenComparingDouble(this::getLatencyMillis));
+    return workerUrls;
+  }
+
+  /**
+   * Sends a request to one worker and records its outcome. A worker answering with an http error
+   * status is reachable, only exceptions without a status mark it as failed.
+   */
+  public <T> T send(String workerUrl, WorkerRequest<T> request) throws Exception {
+    long start = System.nanoTime();
+    try {
+      T result = request.send(workerUrl);
+      recordAnswer(workerUrl, System.nanoTime() - start);
+      return result;
+    } catch (HttpStatusCodeException e) {
+      recordAnswer(workerUrl, System.nanoTime() - start);
+      throw e;
+    } catch (Exception e) {
+      recordFailure(workerUrl);
+      throw e;
+    }
+  }
+
+  /**
+   * Reads from the best worker, falling back to the next workers on failures. With hedging enabled
+   * a slow read is sent to the second worker as well.
+   *
+   * @return the first answer, or the default if no worker answered
+   */
+  public <T> T read(String environments, WorkerRequest<T> request, T defaultValue) {
+    List<String> workerUrls = getWorkers(environments);
+    int next = 0;
+    if (hedgeDelayMs > 0 && workerUrls.size() > 1) {
+      try {
+        return hedgedRead(workerUrls.get(0), workerUrls.get(1), request);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return defaultValue;
+      } catch (ExecutionException | TimeoutException e) {
+        log.error("Error reading from Kafka Connect workers {}", workerUrls.subList(0, 2), e);
+        next = 2;
+      }
+    }
+    for (String workerUrl : workerUrls.subList(next, workerUrls.size())) {
+      try {
+        return send(workerUrl, request);
+      } catch (Exception e) {
+        log.error("Error reading from Kafka Connect worker {}", workerUrl, e);
+      }
+    }
+    return defaultValue;
+  }
+
+  private <T> T hedgedRead(String preferredUrl, String hedgeUrl, WorkerRequest<T> request)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeTimeoutMs);
+    CompletableFuture<T> preferred = supply(preferredUrl, request);
+    try {
+      return preferred.get(Math.min(hedgeDelayMs, hedgeTimeoutMs), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.debug("Kafka Connect worker {} is slow, hedging the read to {}", preferredUrl, hedgeUrl);
+    } catch (ExecutionException e) {
+      // failed fast, the hedge worker is the fallback
+      return await(supply(hedgeUrl, request), deadline);
+    }
+
+    CompletableFuture<T> hedge = supply(hedgeUrl, request);
+    CompletableFuture<T> firstAnswer = new CompletableFuture<>();
+    AtomicInteger failures = new AtomicInteger();
+    for (CompletableFuture<T> read : List.of(preferred, hedge)) {
+      read.whenComplete(
+          (result, failure) -> {
+            if (failure == null) {
+              firstAnswer.complete(result);
+            } else if (failures.incrementAndGet() == 2) {
+              firstAnswer.completeExceptionally(failure);
+            }
+          });
+    }
+    try {
+      return await(firstAnswer, deadline);
+    } catch (TimeoutException e) {
+      // the requests are bounded by the rest client timeouts, their answers are no longer awaited
+      preferred.cancel(false);
+      hedge.cancel(false);
+      throw e;
+    }
+  }
+
+  private static <T> T await(CompletableFuture<T> read, long deadline)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return read.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  private <T> CompletableFuture<T> supply(String workerUrl, WorkerRequest<T> request) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return send(workerUrl, request);
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new CompletionException(e);
+          }
+        },
+        getHedgeExecutor());
+  }
+
+  private synchronized ExecutorService getHedgeExecutor() {
+    if (hedgeExecutor == null) {
+      AtomicInteger threadCount = new AtomicInteger();
+      hedgeExecutor =
+          new ThreadPoolExecutor(
+              hedgeThreads,
+              hedgeThreads,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "kafka-connect-read-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      hedgeExecutor.allowCoreThreadTimeOut(true);
+    }
+    return hedgeExecutor;
+  }
+
+  void recordAnswer(String workerUrl, long latencyNanos) {
+    workers.computeIfAbsent(workerUrl, url -> new WorkerHealth()).answered(latencyNanos);
+  }
+
+  void recordFailure(String workerUrl) {
+    WorkerHealth health = workers.computeIfAbsent(workerUrl, url -> new WorkerHealth());
+    if (health.failed() == 1) {
+      log.warn("Kafka Connect worker {} failed, preferring the other workers", workerUrl);
+    }
+  }
+
+  boolean isAvailable(String workerUrl, long nowMillis) {
+    WorkerHealth health = workers.get(workerUrl);
+    return health == null
+        || health.consecutiveFailures == 0
+        || nowMillis - health.lastFailureMillis >= workerRetryMs;
+  }
+
+  double getLatencyMillis(String workerUrl) {
+    WorkerHealth health = workers.get(workerUrl);
+    return health == null ? 0 : health.latencyMillis;
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (hedgeExecutor != null) {
+      hedgeExecutor.shutdownNow();
+    }
+  }
+
+  private static final class WorkerHealth {
+    private volatile int consecutiveFailures;
+    private volatile long lastFailureMillis;
+    // exponentially weighted moving average
+    private volatile double latencyMillis;
+
+    private synchronized void answered(long latencyNanos) {
+      double millis = latencyNanos / 1_000_000.0;
+      latencyMillis =
+          latencyMillis == 0
+              ? millis
+              : LATENCY_WEIGHT * millis + (1 - LATENCY_WEIGHT) * latencyMillis;
+      consecutiveFailures = 0;
+    }
+
+    private synchronized int failed() {
+      lastFailureMillis = System.currentTimeMillis();
+      return ++consecutiveFailures;
+    }
+  }
+}
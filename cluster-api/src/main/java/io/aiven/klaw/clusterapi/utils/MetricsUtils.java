@@ -1,31 +1,37 @@
 package io.aiven.klaw.clusterapi.utils;
 
-import java.util.HashMap;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+/**
+ * Pool of JMX connections, one per broker JMX url. Connections are shared by all threads and
+ * removed from the pool when the connector reports them closed or failed, or when a caller
+ * invalidates them after an IOException, so the next request reconnects.
+ */
 @Service
 @Slf4j
 public class MetricsUtils {
 
-  private final HashMap<String, JMXConnector> metricsClientsMap = new HashMap<>();
+  private final Map<String, JMXConnector> metricsClientsMap = new ConcurrentHashMap<>();
 
   public JMXConnector getJmxConnector(String jmxUrl) throws Exception {
-
-    JMXConnector jmxConnector;
+    JMXConnector jmxConnector = metricsClientsMap.get(jmxUrl);
+    if (jmxConnector != null) {
+      return jmxConnector;
+    }
 
     try {
-      if (!metricsClientsMap.containsKey(jmxUrl)) {
-        JMXServiceURL url;
-        log.info("Creating JMX connection {}", jmxUrl);
-        url = new JMXServiceURL(jmxUrl);
-        jmxConnector = JMXConnectorFactory.connect(url, null);
-      } else {
-        jmxConnector = metricsClientsMap.get(jmxUrl);
-      }
+      // one connection attempt per url at a time, other urls are not blocked
+      jmxConnector = metricsClientsMap.computeIfAbsent(jmxUrl, this::connectUnchecked);
     } catch (Exception exception) {
       log.error("Unable to create JMX Connector " + exception.getMessage(), exception);
       throw new Exception("Cannot connect to JMX Host. Please contact Administrator.");
@@ -35,17 +41,54 @@ public class MetricsUtils {
       log.error("Cannot create JMX Connector  {}", jmxUrl);
       throw new Exception("Cannot connect to JMX host. Please contact Administrator.");
     }
+    return jmxConnector;
+  }
 
+  /** Removes a connection which failed a request from the pool and closes it. */
+  public void invalidate(String jmxUrl, JMXConnector jmxConnector) {
+    if (metricsClientsMap.remove(jmxUrl, jmxConnector)) {
+      log.warn("Closing failed JMX connection {}", jmxUrl);
+      closeQuietly(jmxConnector);
+    }
+  }
+
+  private JMXConnector connectUnchecked(String jmxUrl) {
     try {
-      if (!metricsClientsMap.containsKey(jmxUrl)) {
-        metricsClientsMap.put(jmxUrl, jmxConnector);
+      return connect(jmxUrl);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  JMXConnector connect(String jmxUrl) throws IOException {
+    log.info("Creating JMX connection {}", jmxUrl);
+    JMXConnector jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl), null);
+    jmxConnector.addConnectionNotificationListener(removeOnClose(jmxUrl), null, jmxConnector);
+    return jmxConnector;
+  }
+
+  private NotificationListener removeOnClose(String jmxUrl) {
+    return (notification, handback) -> {
+      String type = notification.getType();
+      if (JMXConnectionNotification.CLOSED.equals(type)
+          || JMXConnectionNotification.FAILED.equals(type)) {
+        log.info("JMX connection {} {}", jmxUrl, type);
+        metricsClientsMap.remove(jmxUrl, (JMXConnector) handback);
       }
-      return jmxConnector;
-    } catch (Exception e) {
-      metricsClientsMap.remove(jmxUrl);
+    };
+  }
+
+  @PreDestroy
+  public void closeJmxConnectors() {
+    metricsClientsMap.values().forEach(MetricsUtils::closeQuietly);
+    metricsClientsMap.clear();
+  }
+
+  private static void closeQuietly(JMXConnector jmxConnector) {
+    try {
       jmxConnector.close();
-      log.error("Cannot create JMX Connector {}", jmxUrl, e);
-      throw new Exception("Cannot connect to JMX host. Please contact Administrator.");
+    } catch (Exception e) {
+      log.debug("Error closing JMX connection", e);
     }
   }
 }
@@ -0,0 +1,109 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.AuthenticationException;
+
+/**
+ * The admin client of one cluster together with the state of its background health checks.
+ *
+ * <p>A failed authentication, or {@code failureThreshold} failed checks in a row, open the circuit:
+ * the client is closed and rebuilt from its properties, and requests for the cluster fail fast
+ * until a check succeeds again or the open period ends.
+ */
+@Slf4j
+final class PooledAdminClient {
+
+  private final String clusterDescription;
+
+  private final Properties properties;
+
+  private final Function<Properties, AdminClient> adminClientFactory;
+
+  private volatile AdminClient adminClient;
+
+  // only updated by the health checker
+  private volatile int consecutiveFailures;
+
+  private volatile long openUntilMillis;
+
+  PooledAdminClient(
+      String clusterDescription,
+      Properties properties,
+      AdminClient adminClient,
+      Function<Properties, AdminClient> adminClientFactory) {
+    this.clusterDescription = clusterDescription;
+    this.properties = properties;
+    this.adminClient = adminClient;
+    this.adminClientFactory = adminClientFactory;
+  }
+
+  AdminClient getAdminClient() {
+    return adminClient;
+  }
+
+  boolean isOpen(long nowMillis) {
+    return nowMillis < openUntilMillis;
+  }
+
+  int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  /** Starts a cheap health check, describing the cluster only fetches its id. */
+  KafkaFuture<String> checkHealth() {
+    return adminClient.describeCluster().clusterId();
+  }
+
+  void healthy() {
+    if (consecutiveFailures > 0) {
+      log.info("Cluster {} is reachable again", clusterDescription);
+    }
+    consecutiveFailures = 0;
+    openUntilMillis = 0;
+  }
+
+  void unhealthy(Throwable cause, int failureThreshold, long openMillis) {
+    consecutiveFailures++;
+    boolean authenticationFailure = isAuthenticationFailure(cause);
+    log.warn(
+        "Health check of cluster {} failed ({} in a row): {}",
+        clusterDescription,
+        consecutiveFailures,
+        cause.toString());
+    if (authenticationFailure || consecutiveFailures >= failureThreshold) {
+      openUntilMillis = System.currentTimeMillis() + openMillis;
+      rebuild();
+    }
+  }
+
+  private void rebuild() {
+    AdminClient failedAdminClient = adminClient;
+    try {
+      adminClient = adminClientFactory.apply(properties);
+      log.info("Rebuilt admin client of cluster {}", clusterDescription);
+    } catch (Exception e) {
+      // keep the failed client, the next failed check tries again
+      log.error("Unable to rebuild admin client of cluster {}", clusterDescription, e);
+      return;
+    }
+    failedAdminClient.close(Duration.ZERO);
+  }
+
+  void close() {
+    adminClient.close(Duration.ZERO);
+  }
+
+  private static boolean isAuthenticationFailure(Throwable cause) {
+    for (Throwable t = cause; t != null; t = t.getCause()) {
+      if (t instanceof AuthenticationException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
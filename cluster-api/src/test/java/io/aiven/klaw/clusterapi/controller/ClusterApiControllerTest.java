@@ -13,6 +13,7 @@ import io.aiven.klaw.clusterapi.UtilMethods;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
+import io.aiven.klaw.clusterapi.models.TopicsDeltaResponse;
 import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
@@ -26,6 +27,7 @@ import io.aiven.klaw.clusterapi.services.UtilComponentsService;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -132,6 +134,59 @@ public class ClusterApiControllerTest {
         .andExpect(jsonPath("$.topicConfigSet", hasSize(1)));
   }
 
+  @Test
+  public void getTopicsDelta() throws Exception {
+    String clusterName = "testCluster";
+    String bootstrapServers = "localhost:9092";
+
+    when(apacheKafkaTopicService.loadTopicsDelta(
+            bootstrapServers, KafkaSupportedProtocol.PLAINTEXT, clusterName, false, 5L))
+        .thenReturn(
+            TopicsDeltaResponse.builder()
+                .generation(7L)
+                .topicConfigSet(utilMethods.getTopics().getTopicConfigSet())
+                .removedTopicNames(Set.of("removedTopic"))
+                .build());
+
+    mvc.perform(get(topicsDeltaUrl(bootstrapServers, clusterName)).header("If-None-Match", "\"5\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"7\""))
+        .andExpect(jsonPath("$.topicConfigSet", hasSize(1)))
+        .andExpect(jsonPath("$.removedTopicNames", hasSize(1)));
+  }
+
+  @Test
+  public void getTopicsDeltaNotModified() throws Exception {
+    String clusterName = "testCluster";
+    String bootstrapServers = "localhost:9092";
+
+    when(apacheKafkaTopicService.loadTopicsDelta(
+            bootstrapServers, KafkaSupportedProtocol.PLAINTEXT, clusterName, false, 7L))
+        .thenReturn(
+            TopicsDeltaResponse.builder()
+                .generation(7L)
+                .topicConfigSet(Set.of())
+                .removedTopicNames(Set.of())
+                .build());
+
+    mvc.perform(get(topicsDeltaUrl(bootstrapServers, clusterName)).header("If-None-Match", "\"7\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"7\""))
+        .andExpect(content().string(""));
+  }
+
+  private static String topicsDeltaUrl(String bootstrapServers, String clusterName) {
+    return String.join(
+        "/",
+        "/topics",
+        "getTopicsDelta",
+        bootstrapServers,
+        KafkaSupportedProtocol.PLAINTEXT.getValue(),
+        clusterName,
+        "resetCache",
+        "false");
+  }
+
   @Test
   public void getAcls() throws Exception {
     String clusterName = "testCluster";
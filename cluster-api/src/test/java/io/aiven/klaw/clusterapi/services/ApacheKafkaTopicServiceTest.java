@@ -8,6 +8,8 @@ import io.aiven.klaw.clusterapi.constants.TestConstants;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.LoadTopicsResponse;
+import io.aiven.klaw.clusterapi.models.TopicConfig;
+import io.aiven.klaw.clusterapi.models.TopicsDeltaResponse;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.AdminClientProperties;
@@ -29,9 +31,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class ApacheKafkaTopicServiceTest {
@@ -73,6 +77,10 @@ class ApacheKafkaTopicServiceTest {
   @BeforeEach
   void setUp() {
     apacheKafkaTopicService = new ApacheKafkaTopicService(clusterApiUtils, schemaService);
+    ((Map<?, ?>) ReflectionTestUtils.getField(ApacheKafkaTopicService.class, "cachedTopics"))
+        .clear();
+    ((Map<?, ?>) ReflectionTestUtils.getField(ApacheKafkaTopicService.class, "staleTopics"))
+        .clear();
   }
 
   @Test
@@ -126,6 +134,149 @@ class ApacheKafkaTopicServiceTest {
     Assertions.assertThat(topicConfigs.getTopicConfigSet().size()).isEqualTo(1);
   }
 
+  @Test
+  void loadTopicsResetDescribesOnlyNewTopics() throws Exception {
+    Mockito.when(
+            clusterApiUtils.getAdminClient(
+                TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION))
+        .thenReturn(adminClient);
+    Mockito.when(clusterApiUtils.getAdminClientProperties()).thenReturn(adminClientProperties);
+    Mockito.when(adminClientProperties.getTopicsTimeoutSecs()).thenReturn(10L);
+    Mockito.when(adminClient.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopicsResult);
+    Mockito.when(listTopicsResult.names())
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic1", "_schemas")))
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic1", "topic2")))
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic1", "topic2")));
+    Mockito.when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    Mockito.when(describeTopicsResult.allTopicNames())
+        .thenReturn(KafkaFuture.completedFuture(Map.of("topic1", describeTopic("topic1"))))
+        .thenReturn(KafkaFuture.completedFuture(Map.of("topic2", describeTopic("topic2"))));
+
+    LoadTopicsResponse firstLoad =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, false);
+    LoadTopicsResponse secondLoad =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, true);
+    LoadTopicsResponse thirdLoad =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, true);
+
+    ArgumentCaptor<Collection<String>> describedTopics = ArgumentCaptor.forClass(Collection.class);
+    Mockito.verify(adminClient, Mockito.times(2)).describeTopics(describedTopics.capture());
+    Assertions.assertThat(describedTopics.getAllValues())
+        .containsExactly(List.of("topic1"), List.of("topic2"));
+    Assertions.assertThat(firstLoad.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactly("topic1");
+    Assertions.assertThat(secondLoad.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactlyInAnyOrder("topic1", "topic2");
+    Assertions.assertThat(secondLoad.getGeneration()).isGreaterThan(firstLoad.getGeneration());
+    Assertions.assertThat(thirdLoad.getGeneration()).isEqualTo(secondLoad.getGeneration());
+  }
+
+  @Test
+  void loadTopicsResetRemovesDeletedTopics() throws Exception {
+    Mockito.when(
+            clusterApiUtils.getAdminClient(
+                TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION))
+        .thenReturn(adminClient);
+    Mockito.when(clusterApiUtils.getAdminClientProperties()).thenReturn(adminClientProperties);
+    Mockito.when(adminClientProperties.getTopicsTimeoutSecs()).thenReturn(10L);
+    Mockito.when(adminClient.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopicsResult);
+    Mockito.when(listTopicsResult.names())
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic1", "topic2")))
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic2")));
+    Mockito.when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    Mockito.when(describeTopicsResult.allTopicNames())
+        .thenReturn(
+            KafkaFuture.completedFuture(
+                Map.of("topic1", describeTopic("topic1"), "topic2", describeTopic("topic2"))));
+
+    LoadTopicsResponse firstLoad =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, false);
+    LoadTopicsResponse secondLoad =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, true);
+
+    Mockito.verify(adminClient, Mockito.times(1)).describeTopics(anyCollection());
+    Assertions.assertThat(secondLoad.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactly("topic2");
+    Assertions.assertThat(secondLoad.getGeneration()).isGreaterThan(firstLoad.getGeneration());
+  }
+
+  @Test
+  void loadTopicsDeltaSinceKnownGeneration() throws Exception {
+    Mockito.when(
+            clusterApiUtils.getAdminClient(
+                TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION))
+        .thenReturn(adminClient);
+    Mockito.when(clusterApiUtils.getAdminClientProperties()).thenReturn(adminClientProperties);
+    Mockito.when(adminClientProperties.getTopicsTimeoutSecs()).thenReturn(10L);
+    Mockito.when(adminClient.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopicsResult);
+    Mockito.when(listTopicsResult.names())
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic1", "topic2")))
+        .thenReturn(KafkaFuture.completedFuture(Set.of("topic2", "topic3")));
+    Mockito.when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    Mockito.when(describeTopicsResult.allTopicNames())
+        .thenReturn(
+            KafkaFuture.completedFuture(
+                Map.of("topic1", describeTopic("topic1"), "topic2", describeTopic("topic2"))))
+        .thenReturn(KafkaFuture.completedFuture(Map.of("topic3", describeTopic("topic3"))));
+
+    TopicsDeltaResponse firstLoad =
+        apacheKafkaTopicService.loadTopicsDelta(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, false, 0L);
+    TopicsDeltaResponse delta =
+        apacheKafkaTopicService.loadTopicsDelta(
+            TestConstants.ENVIRONMENT,
+            protocol,
+            TestConstants.CLUSTER_IDENTIFICATION,
+            true,
+            firstLoad.getGeneration());
+    TopicsDeltaResponse unchanged =
+        apacheKafkaTopicService.loadTopicsDelta(
+            TestConstants.ENVIRONMENT,
+            protocol,
+            TestConstants.CLUSTER_IDENTIFICATION,
+            false,
+            delta.getGeneration());
+    TopicsDeltaResponse unknownGeneration =
+        apacheKafkaTopicService.loadTopicsDelta(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, false, 1L);
+
+    Assertions.assertThat(firstLoad.isFullSnapshot()).isTrue();
+    Assertions.assertThat(firstLoad.getTopicConfigSet()).hasSize(2);
+    Assertions.assertThat(delta.isFullSnapshot()).isFalse();
+    Assertions.assertThat(delta.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactly("topic3");
+    Assertions.assertThat(delta.getRemovedTopicNames()).containsExactly("topic1");
+    Assertions.assertThat(unchanged.getGeneration()).isEqualTo(delta.getGeneration());
+    Assertions.assertThat(unchanged.getTopicConfigSet()).isEmpty();
+    Assertions.assertThat(unchanged.getRemovedTopicNames()).isEmpty();
+    Assertions.assertThat(unknownGeneration.isFullSnapshot()).isTrue();
+    Assertions.assertThat(unknownGeneration.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactlyInAnyOrder("topic2", "topic3");
+  }
+
+  private static TopicDescription describeTopic(String topicName) {
+    return describeTopic(topicName, 1);
+  }
+
+  private static TopicDescription describeTopic(String topicName, int partitions) {
+    Node node = new Node(1, "localhost", 9092);
+    List<TopicPartitionInfo> partitionInfos = new ArrayList<>();
+    for (int partition = 0; partition < partitions; partition++) {
+      partitionInfos.add(new TopicPartitionInfo(partition, node, List.of(node), List.of(node)));
+    }
+    return new TopicDescription(topicName, false, partitionInfos);
+  }
+
   @Test
   void createTopicClientNull() throws Exception {
     ClusterTopicRequest clusterTopicRequest =
@@ -338,6 +489,65 @@ class ApacheKafkaTopicServiceTest {
     Assertions.assertThat(response.getMessage()).isEqualTo(ApiResultStatus.SUCCESS.value);
   }
 
+  @Test
+  void updateTopicDecreasingPartitionsRefreshesCachedTopic() throws Exception {
+    ClusterTopicRequest clusterTopicRequest =
+        ClusterTopicRequest.builder()
+            .env(TestConstants.ENVIRONMENT)
+            .clusterName(TestConstants.CLUSTER_IDENTIFICATION)
+            .protocol(protocol)
+            .topicName(TestConstants.TOPIC_NAME)
+            .partitions(TestConstants.SINGLE_PARTITION)
+            .replicationFactor(TestConstants.REPLICATION_FACTOR)
+            .advancedTopicConfiguration(TestConstants.ADVANCED_TOPIC_CONFIGURATION)
+            .deleteAssociatedSchema(false)
+            .build();
+    TopicDescription existingTopic =
+        describeTopic(TestConstants.TOPIC_NAME, TestConstants.MULTIPLE_PARTITIONS);
+
+    Mockito.when(
+            clusterApiUtils.getAdminClient(
+                TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION))
+        .thenReturn(adminClient);
+    Mockito.when(clusterApiUtils.getAdminClientProperties()).thenReturn(adminClientProperties);
+    Mockito.when(adminClientProperties.getTopicsTimeoutSecs()).thenReturn(10L);
+    Mockito.when(adminClient.listTopics(any(ListTopicsOptions.class))).thenReturn(listTopicsResult);
+    Mockito.when(listTopicsResult.names())
+        .thenReturn(KafkaFuture.completedFuture(Set.of(TestConstants.TOPIC_NAME)));
+    Mockito.when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    Mockito.when(describeTopicsResult.all())
+        .thenReturn(KafkaFuture.completedFuture(Map.of(TestConstants.TOPIC_NAME, existingTopic)));
+    Mockito.when(describeTopicsResult.allTopicNames())
+        .thenReturn(KafkaFuture.completedFuture(Map.of(TestConstants.TOPIC_NAME, existingTopic)))
+        .thenReturn(
+            KafkaFuture.completedFuture(
+                Map.of(
+                    TestConstants.TOPIC_NAME,
+                    describeTopic(TestConstants.TOPIC_NAME, TestConstants.SINGLE_PARTITION))));
+    Mockito.when(adminClient.deleteTopics(any(Collection.class))).thenReturn(deleteTopicsResult);
+    Mockito.when(deleteTopicsResult.values())
+        .thenReturn(Map.of(TestConstants.TOPIC_NAME, KafkaFuture.completedFuture(null)));
+    Mockito.when(adminClient.createTopics(anyCollection())).thenReturn(createTopicsResult);
+    Mockito.when(createTopicsResult.values())
+        .thenReturn(Map.of(TestConstants.TOPIC_NAME, KafkaFuture.completedFuture(null)));
+
+    apacheKafkaTopicService.loadTopics(
+        TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, false);
+    ApiResponse response = apacheKafkaTopicService.updateTopic(clusterTopicRequest);
+    LoadTopicsResponse reloaded =
+        apacheKafkaTopicService.loadTopics(
+            TestConstants.ENVIRONMENT, protocol, TestConstants.CLUSTER_IDENTIFICATION, true);
+
+    Assertions.assertThat(response.isSuccess()).isTrue();
+    Mockito.verify(adminClient).deleteTopics(any(Collection.class));
+    Mockito.verify(adminClient).createTopics(anyCollection());
+    Assertions.assertThat(reloaded.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName, TopicConfig::getPartitions)
+        .containsExactly(
+            Assertions.tuple(
+                TestConstants.TOPIC_NAME, String.valueOf(TestConstants.SINGLE_PARTITION)));
+  }
+
   @Test
   void deleteTopicClientNull() throws Exception {
     ClusterTopicRequest clusterTopicRequest =
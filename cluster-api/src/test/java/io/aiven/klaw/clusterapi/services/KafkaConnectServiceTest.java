@@ -19,6 +19,7 @@ import io.aiven.klaw.clusterapi.models.enums.KafkaClustersType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.models.error.RestErrorResponse;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import io.aiven.klaw.clusterapi.utils.KafkaConnectWorkers;
 import java.util.Collections;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,7 +32,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
-@RestClientTest(KafkaConnectService.class)
+@RestClientTest({KafkaConnectService.class, KafkaConnectWorkers.class})
 class KafkaConnectServiceTest {
 
   public static final String THIS_IS_A_MISCONFIGURED_CONNECTOR =
@@ -49,7 +50,7 @@ class KafkaConnectServiceTest {
   public void setUp() {
     utilMethods = new UtilMethods();
     restTemplate = new RestTemplate();
-    kafkaConnectService = new KafkaConnectService(getAdminClient);
+    kafkaConnectService = new KafkaConnectService(getAdminClient, new KafkaConnectWorkers());
     mockRestServiceServer = MockRestServiceServer.bindTo(restTemplate).build();
   }
 
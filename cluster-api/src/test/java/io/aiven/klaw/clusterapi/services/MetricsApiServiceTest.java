@@ -2,10 +2,20 @@ package io.aiven.klaw.clusterapi.services;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
+import io.aiven.klaw.clusterapi.models.metrics.ClusterMetricsRequest;
+import io.aiven.klaw.clusterapi.models.metrics.JmxMetric;
 import io.aiven.klaw.clusterapi.utils.MetricsUtils;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
 import javax.management.MBeanServerConnection;
@@ -19,33 +29,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class MetricsApiServiceTest {
 
   @Mock private MetricsUtils metricsUtils;
   @Mock private JMXConnector jmxConnector;
+  @Mock private JMXConnector otherJmxConnector;
   @Mock private MBeanServerConnection mBeanServerConnection;
-  @Mock private MBeanInfo mBeanInfo;
+  @Mock private MBeanServerConnection otherMBeanServerConnection;
   @InjectMocks private MetricsApiService metricsApiService;
   private static final String JMX_URL = "service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi";
+  private static final String OTHER_JMX_URL = "service:jmx:rmi:///jndi/rmi://localhost:9997/jmxrmi";
   private static final String OBJECT_NAME =
       "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec";
 
   @Test
   void getMetrics() throws Exception {
-
-    MBeanAttributeInfo mBeanAttributeInfo =
-        new MBeanAttributeInfo("name", "type", "description", true, true, false);
-    MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[1];
-    attributes[0] = mBeanAttributeInfo;
+    stubMBean(mBeanServerConnection);
 
     Mockito.when(metricsUtils.getJmxConnector(JMX_URL)).thenReturn(jmxConnector);
     Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
-    Mockito.when(mBeanServerConnection.getMBeanInfo(any(ObjectName.class))).thenReturn(mBeanInfo);
-    Mockito.when(mBeanInfo.getAttributes()).thenReturn(attributes);
-    Mockito.when(mBeanServerConnection.getAttribute(any(ObjectName.class), anyString()))
-        .thenReturn("attribute");
 
     Map<String, String> actual = metricsApiService.getMetrics(JMX_URL, OBJECT_NAME);
     Map<String, String> expected = Map.of("name", "attribute");
@@ -53,6 +58,40 @@ class MetricsApiServiceTest {
     Assertions.assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  void getMetrics_readsMBeanInfoOnce() throws Exception {
+    stubMBean(mBeanServerConnection);
+
+    Mockito.when(metricsUtils.getJmxConnector(JMX_URL)).thenReturn(jmxConnector);
+    Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
+
+    metricsApiService.getMetrics(JMX_URL, OBJECT_NAME);
+    metricsApiService.getMetrics(JMX_URL, OBJECT_NAME);
+
+    Mockito.verify(mBeanServerConnection, Mockito.times(1)).getMBeanInfo(any(ObjectName.class));
+    Mockito.verify(mBeanServerConnection, Mockito.times(2))
+        .getAttributes(any(ObjectName.class), any(String[].class));
+  }
+
+  @Test
+  void getMetrics_failedConnectionIsReplaced() throws Exception {
+    stubMBean(otherMBeanServerConnection);
+
+    Mockito.when(metricsUtils.getJmxConnector(JMX_URL))
+        .thenReturn(jmxConnector)
+        .thenReturn(otherJmxConnector);
+    Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
+    Mockito.when(mBeanServerConnection.getMBeanInfo(any(ObjectName.class)))
+        .thenThrow(new IOException("Connection reset"));
+    Mockito.when(otherJmxConnector.getMBeanServerConnection())
+        .thenReturn(otherMBeanServerConnection);
+
+    Map<String, String> actual = metricsApiService.getMetrics(JMX_URL, OBJECT_NAME);
+
+    Assertions.assertThat(actual).isEqualTo(Map.of("name", "attribute"));
+    Mockito.verify(metricsUtils).invalidate(JMX_URL, jmxConnector);
+  }
+
   @Test
   void getMetrics_Failure() throws Exception {
     Exception expected = new Exception("Error while getting metrics.");
@@ -64,4 +103,110 @@ class MetricsApiServiceTest {
 
     exception.isEqualTo(expected);
   }
+
+  @Test
+  void scrapeMetrics_allBrokersAndPatternMatches() throws Exception {
+    ObjectName messagesIn = new ObjectName(OBJECT_NAME);
+    ObjectName bytesIn = new ObjectName("kafka.server:type=BrokerTopicMetrics,name=BytesInPerSec");
+    stubMBean(mBeanServerConnection);
+    stubMBean(otherMBeanServerConnection);
+
+    Mockito.when(metricsUtils.getJmxConnector(JMX_URL)).thenReturn(jmxConnector);
+    Mockito.when(metricsUtils.getJmxConnector(OTHER_JMX_URL)).thenReturn(otherJmxConnector);
+    Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
+    Mockito.when(otherJmxConnector.getMBeanServerConnection())
+        .thenReturn(otherMBeanServerConnection);
+    Mockito.when(mBeanServerConnection.queryNames(any(ObjectName.class), isNull()))
+        .thenReturn(Set.of(messagesIn, bytesIn));
+    Mockito.when(otherMBeanServerConnection.queryNames(any(ObjectName.class), isNull()))
+        .thenReturn(Set.of(messagesIn));
+
+    List<JmxMetric> metrics =
+        metricsApiService.scrapeMetrics(
+            new ClusterMetricsRequest(
+                List.of(JMX_URL, OTHER_JMX_URL),
+                List.of("kafka.server:type=BrokerTopicMetrics,*")));
+
+    Assertions.assertThat(metrics)
+        .extracting(JmxMetric::getJmxUrl, JmxMetric::getObjectName)
+        .containsExactlyInAnyOrder(
+            Assertions.tuple(JMX_URL, messagesIn.getCanonicalName()),
+            Assertions.tuple(JMX_URL, bytesIn.getCanonicalName()),
+            Assertions.tuple(OTHER_JMX_URL, messagesIn.getCanonicalName()));
+  }
+
+  @Test
+  void scrapeMetrics_unreachableBrokerLeftOut() throws Exception {
+    stubMBean(mBeanServerConnection);
+
+    Mockito.when(metricsUtils.getJmxConnector(JMX_URL)).thenReturn(jmxConnector);
+    Mockito.when(metricsUtils.getJmxConnector(OTHER_JMX_URL))
+        .thenThrow(new Exception("Cannot connect to JMX Host. Please contact Administrator."));
+    Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
+
+    List<JmxMetric> metrics =
+        metricsApiService.scrapeMetrics(
+            new ClusterMetricsRequest(List.of(JMX_URL, OTHER_JMX_URL), List.of(OBJECT_NAME)));
+
+    Assertions.assertThat(metrics).hasSize(1);
+    Assertions.assertThat(metrics.get(0).getAttributes()).isEqualTo(Map.of("name", "attribute"));
+  }
+
+  @Test
+  void scrapeMetrics_hungBrokerConnectionIsClosed() throws Exception {
+    ReflectionTestUtils.setField(metricsApiService, "scrapeTimeoutMs", 200L);
+    stubMBean(mBeanServerConnection);
+    CountDownLatch closed = new CountDownLatch(1);
+
+    Mockito.when(metricsUtils.getJmxConnector(JMX_URL)).thenReturn(jmxConnector);
+    Mockito.when(metricsUtils.getJmxConnector(OTHER_JMX_URL)).thenReturn(otherJmxConnector);
+    Mockito.when(jmxConnector.getMBeanServerConnection()).thenReturn(mBeanServerConnection);
+    Mockito.when(otherJmxConnector.getMBeanServerConnection())
+        .thenReturn(otherMBeanServerConnection);
+    // a dead broker blocks the request until its connection is closed
+    stubMBean(otherMBeanServerConnection);
+    Mockito.when(otherMBeanServerConnection.getAttributes(any(ObjectName.class), any()))
+        .thenAnswer(
+            invocation -> {
+              closed.await(5, TimeUnit.SECONDS);
+              throw new IOException("Connection closed");
+            });
+    Mockito.doAnswer(
+            invocation -> {
+              closed.countDown();
+              return null;
+            })
+        .when(metricsUtils)
+        .invalidate(OTHER_JMX_URL, otherJmxConnector);
+
+    try {
+      List<JmxMetric> metrics =
+          metricsApiService.scrapeMetrics(
+              new ClusterMetricsRequest(List.of(JMX_URL, OTHER_JMX_URL), List.of(OBJECT_NAME)));
+
+      Assertions.assertThat(metrics).extracting(JmxMetric::getJmxUrl).containsExactly(JMX_URL);
+      Mockito.verify(metricsUtils).invalidate(OTHER_JMX_URL, otherJmxConnector);
+      // the closed connection is not reopened by the timed out scrape
+      Mockito.verify(metricsUtils, Mockito.after(300).times(1)).getJmxConnector(OTHER_JMX_URL);
+    } finally {
+      closed.countDown();
+    }
+  }
+
+  private void stubMBean(MBeanServerConnection connection) throws Exception {
+    MBeanAttributeInfo mBeanAttributeInfo =
+        new MBeanAttributeInfo("name", "type", "description", true, true, false);
+    MBeanInfo info =
+        new MBeanInfo(
+            "className",
+            "description",
+            new MBeanAttributeInfo[] {mBeanAttributeInfo},
+            null,
+            null,
+            null);
+    Mockito.lenient().when(connection.getMBeanInfo(any(ObjectName.class))).thenReturn(info);
+    Mockito.lenient()
+        .when(connection.getAttributes(any(ObjectName.class), eq(new String[] {"name"})))
+        .thenReturn(new AttributeList(List.of(new Attribute("name", "attribute"))));
+  }
 }
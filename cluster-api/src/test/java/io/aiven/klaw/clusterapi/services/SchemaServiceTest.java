@@ -36,6 +36,7 @@ import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -468,6 +469,50 @@ class SchemaServiceTest {
         .containsExactlyInAnyOrder(topic1Versions, topic3Versions);
   }
 
+  @Test
+  @Order(15)
+  public void getSchemasOfClusterConcurrently() throws JsonProcessingException {
+    String dev = "Dev";
+    String subjectsUrl = dev + "/subjects";
+    int subjectCount = 20;
+    ReflectionTestUtils.setField(schemaService, "crawlerConcurrency", 4);
+    ReflectionTestUtils.setField(schemaService, "crawlerRequestsPerSecond", 1000);
+    mockRestServiceServer =
+        MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+
+    when(getAdminClient.getRequestDetails(eq(subjectsUrl), eq(KafkaSupportedProtocol.PLAINTEXT)))
+        .thenReturn(Pair.of(subjectsUrl, restTemplate));
+    when(getAdminClient.createHeaders(eq("21"), eq(KafkaClustersType.SCHEMA_REGISTRY)))
+        .thenReturn(new HttpHeaders());
+    List<String> subjects = new ArrayList<>();
+    for (int i = 0; i < subjectCount; i++) {
+      String versionsUrl = subjectsUrl + "/topic" + i + SCHEMA_VALUE_URI + "/versions";
+      subjects.add("topic" + i + SCHEMA_VALUE_URI);
+      when(getAdminClient.getRequestDetails(eq(versionsUrl), eq(KafkaSupportedProtocol.PLAINTEXT)))
+          .thenReturn(Pair.of(versionsUrl, restTemplate));
+      this.mockRestServiceServer
+          .expect(requestTo("/" + versionsUrl))
+          .andRespond(
+              withSuccess(mapper.writeValueAsString(Set.of(1)), MediaType.APPLICATION_JSON));
+    }
+    this.mockRestServiceServer
+        .expect(requestTo("/" + subjectsUrl))
+        .andRespond(withSuccess(mapper.writeValueAsString(subjects), MediaType.APPLICATION_JSON));
+
+    SchemasInfoOfClusterResponse schemasInfoOfClusterResponse =
+        schemaService.loadAllSchemasInfoFromCluster(
+            dev, KafkaSupportedProtocol.PLAINTEXT, "21", false, SchemaCacheUpdateType.NONE, null);
+
+    mockRestServiceServer.verify();
+    assertThat(schemasInfoOfClusterResponse.isLoadingInProgress()).isFalse();
+    assertThat(schemasInfoOfClusterResponse.getSubjectsTotal()).isEqualTo(subjectCount);
+    assertThat(schemasInfoOfClusterResponse.getSubjectsLoaded()).isEqualTo(subjectCount);
+    assertThat(schemasInfoOfClusterResponse.getSchemaInfoOfTopicList())
+        .extracting(SchemaInfoOfTopic::getTopic)
+        .containsExactlyInAnyOrderElementsOf(
+            subjects.stream().map(subject -> subject.replace(SCHEMA_VALUE_URI, "")).toList());
+  }
+
   @Test
   @Order(12)
   public void getSchemasOfClusterNoSchemas() throws JsonProcessingException {
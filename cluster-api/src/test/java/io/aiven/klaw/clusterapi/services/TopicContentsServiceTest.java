@@ -1,10 +1,20 @@
 package io.aiven.klaw.clusterapi.services;
 
 import io.aiven.klaw.clusterapi.constants.TestConstants;
+import io.aiven.klaw.clusterapi.models.TopicContentRecord;
+import io.aiven.klaw.clusterapi.models.enums.TopicContentType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,4 +60,111 @@ class TopicContentsServiceTest {
     Map<Long, String> expected = Collections.emptyMap();
     Assertions.assertThat(actual).isEqualTo(expected);
   }
+
+  @Test
+  void readEventsAssignsPartitionAndReadsLastOffsets() {
+    MockConsumer<String, String> consumer = mockConsumer(10);
+    AtomicInteger createdConsumers = new AtomicInteger();
+    topicContentsService =
+        new TopicContentsService(
+            clusterApiUtils,
+            props -> {
+              createdConsumers.incrementAndGet();
+              return consumer;
+            });
+
+    Map<Long, String> first = readCustom(3);
+    consumer.schedulePollTask(() -> addRecords(consumer, 10));
+    Map<Long, String> second = readCustom(2);
+
+    Assertions.assertThat(first).containsOnlyKeys(7L, 8L, 9L);
+    Assertions.assertThat(first.get(9L)).isEqualTo("value9");
+    Assertions.assertThat(second).containsOnlyKeys(8L, 9L);
+    Assertions.assertThat(consumer.subscription()).isEmpty();
+    Assertions.assertThat(createdConsumers.get()).isEqualTo(1);
+    Assertions.assertThat(consumer.closed()).isFalse();
+  }
+
+  @Test
+  void readEventsRangeStopsAtRangeEnd() {
+    MockConsumer<String, String> consumer = mockConsumer(10);
+    topicContentsService = new TopicContentsService(clusterApiUtils, props -> consumer);
+
+    Map<Long, String> actual =
+        topicContentsService.readEvents(
+            "localhost:9092",
+            "PLAINTEXT",
+            TestConstants.CONSUMER_GROUP_ID,
+            TestConstants.TOPIC_NAME,
+            TopicContentType.RANGE.getValue(),
+            0,
+            0,
+            2,
+            4,
+            "OFFSET_ID",
+            TestConstants.CLUSTER_IDENTIFICATION);
+
+    Assertions.assertThat(actual).containsOnlyKeys(2L, 3L, 4L);
+  }
+
+  @Test
+  void readRecordsStopsAtByteLimit() {
+    MockConsumer<String, String> consumer = mockConsumer(10);
+    topicContentsService = new TopicContentsService(clusterApiUtils, props -> consumer);
+    List<TopicContentRecord> records = new ArrayList<>();
+
+    topicContentsService.readRecords(
+        "localhost:9092",
+        "PLAINTEXT",
+        TestConstants.CONSUMER_GROUP_ID,
+        TestConstants.TOPIC_NAME,
+        "10",
+        0,
+        0,
+        0,
+        0,
+        "OFFSET_ID",
+        TestConstants.CLUSTER_IDENTIFICATION,
+        20,
+        records::add);
+
+    // every value is 6 bytes
+    Assertions.assertThat(records)
+        .extracting(TopicContentRecord::getOffset)
+        .containsExactly(0L, 1L, 2L);
+  }
+
+  private Map<Long, String> readCustom(int numberOfOffsets) {
+    return topicContentsService.readEvents(
+        "localhost:9092",
+        "PLAINTEXT",
+        TestConstants.CONSUMER_GROUP_ID,
+        TestConstants.TOPIC_NAME,
+        TopicContentType.CUSTOM.getValue(),
+        0,
+        numberOfOffsets,
+        0,
+        0,
+        "OFFSET_ID",
+        TestConstants.CLUSTER_IDENTIFICATION);
+  }
+
+  private static MockConsumer<String, String> mockConsumer(int numberOfRecords) {
+    MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    TopicPartition tp = new TopicPartition(TestConstants.TOPIC_NAME, 0);
+    consumer.updatePartitions(
+        TestConstants.TOPIC_NAME,
+        List.of(new PartitionInfo(TestConstants.TOPIC_NAME, 0, null, null, null)));
+    consumer.updateBeginningOffsets(Map.of(tp, 0L));
+    consumer.updateEndOffsets(Map.of(tp, (long) numberOfRecords));
+    consumer.schedulePollTask(() -> addRecords(consumer, numberOfRecords));
+    return consumer;
+  }
+
+  private static void addRecords(MockConsumer<String, String> consumer, int numberOfRecords) {
+    for (int i = 0; i < numberOfRecords; i++) {
+      consumer.addRecord(
+          new ConsumerRecord<>(TestConstants.TOPIC_NAME, 0, i, "key" + i, "value" + i));
+    }
+  }
 }
@@ -1,20 +1,30 @@
 package io.aiven.klaw.clusterapi.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.SaslAuthenticationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -37,13 +47,17 @@ public class GetAdminClientTest {
   ClusterApiUtils getAdminClient;
   @Mock private ListTopicsResult listTopicsResult;
   @Mock private KafkaFuture<Set<String>> kafkaFuture;
-  @Mock private HashMap<String, AdminClient> adminClientsMap;
+  @Mock private DescribeClusterResult describeClusterResult;
+  @Mock private KafkaFuture<String> clusterIdFuture;
+  @Mock AdminClient rebuiltAdminClient;
+  private Map<String, PooledAdminClient> adminClientsMap;
 
   @Mock private Map<String, RestTemplate> restTemplateMap;
   @Mock private AdminClientProperties adminClientProperties;
 
   @BeforeEach
   public void setUp() {
+    adminClientsMap = new ConcurrentHashMap<>();
     getAdminClient =
         new ClusterApiUtils(env, adminClientProperties, adminClientsMap, restTemplateMap);
     when(adminClientProperties.getRetriesConfig()).thenReturn("3");
@@ -57,10 +71,7 @@ public class GetAdminClientTest {
       mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
       // Commented out to avoid UnnecessaryStubbingException
       // when(env.getProperty(any())).thenReturn("null");
-      when(adminClient.listTopics()).thenReturn(listTopicsResult);
-      when(listTopicsResult.names()).thenReturn(kafkaFuture);
-      Set<String> setStr = new HashSet<>();
-      when(kafkaFuture.get(anyLong(), any())).thenReturn(setStr);
+      stubDescribeCluster();
 
       AdminClient result =
           getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
@@ -68,6 +79,89 @@ public class GetAdminClientTest {
     }
   }
 
+  @Test
+  public void getAdminClientReusesPooledClientWithoutProbing() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
+      stubDescribeCluster();
+
+      AdminClient first =
+          getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
+      AdminClient second =
+          getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
+
+      assertThat(second).isSameAs(first);
+      mocked.verify(() -> AdminClient.create(any(Properties.class)), times(1));
+      verify(adminClient, times(1)).describeCluster();
+      verify(adminClient, never()).listTopics();
+    }
+  }
+
+  @Test
+  public void failedHealthChecksRebuildClientAndOpenCircuit() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked
+          .when(() -> AdminClient.create(any(Properties.class)))
+          .thenReturn(adminClient, rebuiltAdminClient);
+      stubDescribeCluster();
+      when(adminClientProperties.getHealthCheckFailureThreshold()).thenReturn(2);
+      when(adminClientProperties.getCircuitOpenMs()).thenReturn(60_000L);
+      getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
+      when(clusterIdFuture.get(anyLong(), any()))
+          .thenThrow(new ExecutionException(new TimeoutException("timed out")));
+
+      getAdminClient.checkAdminClientsHealth();
+      assertThat(
+              getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, ""))
+          .isSameAs(adminClient);
+
+      getAdminClient.checkAdminClientsHealth();
+      verify(adminClient, times(1)).close(Duration.ZERO);
+      assertThatThrownBy(
+              () ->
+                  getAdminClient.getAdminClient(
+                      LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, ""))
+          .hasMessageContaining("Cannot connect to cluster");
+
+      DescribeClusterResult rebuiltDescribeClusterResult = mock(DescribeClusterResult.class);
+      when(rebuiltAdminClient.describeCluster()).thenReturn(rebuiltDescribeClusterResult);
+      when(rebuiltDescribeClusterResult.clusterId())
+          .thenReturn(KafkaFuture.completedFuture("cluster-id"));
+      getAdminClient.checkAdminClientsHealth();
+      assertThat(
+              getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, ""))
+          .isSameAs(rebuiltAdminClient);
+    }
+  }
+
+  @Test
+  public void authenticationFailureRebuildsClientImmediately() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked
+          .when(() -> AdminClient.create(any(Properties.class)))
+          .thenReturn(adminClient, rebuiltAdminClient);
+      stubDescribeCluster();
+      when(adminClientProperties.getHealthCheckFailureThreshold()).thenReturn(3);
+      when(adminClientProperties.getCircuitOpenMs()).thenReturn(0L);
+      getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
+      when(clusterIdFuture.get(anyLong(), any()))
+          .thenThrow(new ExecutionException(new SaslAuthenticationException("bad credentials")));
+
+      getAdminClient.checkAdminClientsHealth();
+
+      verify(adminClient, times(1)).close(Duration.ZERO);
+      assertThat(
+              getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, ""))
+          .isSameAs(rebuiltAdminClient);
+    }
+  }
+
+  private void stubDescribeCluster() throws Exception {
+    when(adminClient.describeCluster()).thenReturn(describeClusterResult);
+    when(describeClusterResult.clusterId()).thenReturn(clusterIdFuture);
+    when(clusterIdFuture.get(anyLong(), any())).thenReturn("cluster-id");
+  }
+
   @Test
   @Disabled
   public void getAdminClient2() throws Exception {
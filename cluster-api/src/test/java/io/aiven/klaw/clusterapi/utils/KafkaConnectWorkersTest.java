@@ -0,0 +1,186 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class KafkaConnectWorkersTest {
+
+  private static final String WORKERS = "http://w1:8083,http://w2:8083,http://w3:8083";
+
+  private KafkaConnectWorkers kafkaConnectWorkers;
+
+  @BeforeEach
+  public void setUp() {
+    kafkaConnectWorkers = new KafkaConnectWorkers();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    kafkaConnectWorkers.shutdown();
+  }
+
+  @Test
+  public void getWorkers_keepsConfigurationOrderWithoutHistory() {
+    assertThat(kafkaConnectWorkers.getWorkers(WORKERS))
+        .containsExactly("http://w1:8083", "http://w2:8083", "http://w3:8083");
+  }
+
+  @Test
+  public void getWorkers_failedWorkerLast() {
+    assertThatThrownBy(
+            () ->
+                kafkaConnectWorkers.send(
+                    "http://w1:8083",
+                    url -> {
+                      throw new ResourceAccessException("Connection refused");
+                    }))
+        .isInstanceOf(ResourceAccessException.class);
+
+    assertThat(kafkaConnectWorkers.getWorkers(WORKERS))
+        .containsExactly("http://w2:8083", "http://w3:8083", "http://w1:8083");
+  }
+
+  @Test
+  public void getWorkers_failedWorkerPreferredAgainAfterRetryPeriod() {
+    ReflectionTestUtils.setField(kafkaConnectWorkers, "workerRetryMs", 0L);
+    kafkaConnectWorkers.recordFailure("http://w1:8083");
+
+    assertThat(kafkaConnectWorkers.getWorkers(WORKERS).get(0)).isEqualTo("http://w1:8083");
+  }
+
+  @Test
+  public void getWorkers_fasterWorkerFirst() {
+    kafkaConnectWorkers.recordAnswer("http://w1:8083", TimeUnit.MILLISECONDS.toNanos(200));
+    kafkaConnectWorkers.recordAnswer("http://w2:8083", TimeUnit.MILLISECONDS.toNanos(20));
+    kafkaConnectWorkers.recordAnswer("http://w3:8083", TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertThat(kafkaConnectWorkers.getWorkers(WORKERS))
+        .containsExactly("http://w2:8083", "http://w3:8083", "http://w1:8083");
+  }
+
+  @Test
+  public void send_httpErrorStatusKeepsWorkerAvailable() {
+    assertThatThrownBy(
+            () ->
+                kafkaConnectWorkers.send(
+                    "http://w1:8083",
+                    url -> {
+                      throw HttpClientErrorException.create(
+                          HttpStatus.NOT_FOUND,
+                          "Not Found",
+                          null,
+                          new byte[0],
+                          StandardCharsets.UTF_8);
+                    }))
+        .isInstanceOf(HttpClientErrorException.class);
+
+    assertThat(kafkaConnectWorkers.isAvailable("http://w1:8083", System.currentTimeMillis()))
+        .isTrue();
+  }
+
+  @Test
+  public void read_fallsBackToNextWorker() {
+    String result =
+        kafkaConnectWorkers.read(
+            WORKERS,
+            url -> {
+              if (url.equals("http://w1:8083")) {
+                throw new ResourceAccessException("Connection refused");
+              }
+              return url;
+            },
+            "none");
+
+    assertThat(result).isEqualTo("http://w2:8083");
+    assertThat(kafkaConnectWorkers.getWorkers(WORKERS).get(2)).isEqualTo("http://w1:8083");
+  }
+
+  @Test
+  public void read_noWorkerAnswers_returnsDefault() {
+    List<String> result =
+        kafkaConnectWorkers.read(
+            WORKERS,
+            url -> {
+              throw new ResourceAccessException("Connection refused");
+            },
+            List.of());
+
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  public void read_hedgedToSecondWorkerWhenFirstIsSlow() {
+    ReflectionTestUtils.setField(kafkaConnectWorkers, "hedgeDelayMs", 50L);
+    CountDownLatch slowWorker = new CountDownLatch(1);
+    try {
+      String result =
+          kafkaConnectWorkers.read(
+              WORKERS,
+              url -> {
+                if (url.equals("http://w1:8083")) {
+                  slowWorker.await(5, TimeUnit.SECONDS);
+                }
+                return url;
+              },
+              "none");
+
+      assertThat(result).isEqualTo("http://w2:8083");
+    } finally {
+      slowWorker.countDown();
+    }
+  }
+
+  @Test
+  public void read_hedgedBothFail_fallsBackToRemainingWorkers() {
+    ReflectionTestUtils.setField(kafkaConnectWorkers, "hedgeDelayMs", 50L);
+    String result =
+        kafkaConnectWorkers.read(
+            WORKERS,
+            url -> {
+              if (!url.equals("http://w3:8083")) {
+                throw new ResourceAccessException("Connection refused");
+              }
+              return url;
+            },
+            "none");
+
+    assertThat(result).isEqualTo("http://w3:8083");
+  }
+
+  @Test
+  public void read_hedgedReadsNotAnsweredInTime_fallBackToRemainingWorkers() {
+    ReflectionTestUtils.setField(kafkaConnectWorkers, "hedgeDelayMs", 50L);
+    ReflectionTestUtils.setField(kafkaConnectWorkers, "hedgeTimeoutMs", 200L);
+    CountDownLatch hungWorkers = new CountDownLatch(1);
+    long start = System.nanoTime();
+    try {
+      String result =
+          kafkaConnectWorkers.read(
+              WORKERS,
+              url -> {
+                if (!url.equals("http://w3:8083")) {
+                  hungWorkers.await(5, TimeUnit.SECONDS);
+                }
+                return url;
+              },
+              "none");
+
+      assertThat(result).isEqualTo("http://w3:8083");
+      assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3000);
+    } finally {
+      hungWorkers.countDown();
+    }
+  }
+}
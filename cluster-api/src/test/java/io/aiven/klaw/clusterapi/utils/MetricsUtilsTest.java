@@ -0,0 +1,73 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import javax.management.remote.JMXConnector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsUtilsTest {
+
+  private static final String JMX_URL = "service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi";
+
+  @Mock private JMXConnector jmxConnector;
+  @Mock private JMXConnector newJmxConnector;
+
+  private MetricsUtils metricsUtils;
+
+  @BeforeEach
+  public void setUp() {
+    metricsUtils = spy(new MetricsUtils());
+  }
+
+  @Test
+  public void getJmxConnector_reusesConnection() throws Exception {
+    doReturn(jmxConnector).when(metricsUtils).connect(JMX_URL);
+
+    assertThat(metricsUtils.getJmxConnector(JMX_URL)).isSameAs(jmxConnector);
+    assertThat(metricsUtils.getJmxConnector(JMX_URL)).isSameAs(jmxConnector);
+    verify(metricsUtils, times(1)).connect(JMX_URL);
+  }
+
+  @Test
+  public void getJmxConnector_connectFails() throws Exception {
+    doThrow(new IOException("Connection refused")).when(metricsUtils).connect(JMX_URL);
+
+    assertThatThrownBy(() -> metricsUtils.getJmxConnector(JMX_URL))
+        .hasMessage("Cannot connect to JMX Host. Please contact Administrator.");
+  }
+
+  @Test
+  public void invalidate_closesAndReconnects() throws Exception {
+    doReturn(jmxConnector).doReturn(newJmxConnector).when(metricsUtils).connect(JMX_URL);
+
+    JMXConnector failed = metricsUtils.getJmxConnector(JMX_URL);
+    metricsUtils.invalidate(JMX_URL, failed);
+
+    verify(jmxConnector).close();
+    assertThat(metricsUtils.getJmxConnector(JMX_URL)).isSameAs(newJmxConnector);
+  }
+
+  @Test
+  public void invalidate_staleConnectorKeepsNewConnection() throws Exception {
+    doReturn(jmxConnector).doReturn(newJmxConnector).when(metricsUtils).connect(JMX_URL);
+
+    metricsUtils.invalidate(JMX_URL, metricsUtils.getJmxConnector(JMX_URL));
+    JMXConnector current = metricsUtils.getJmxConnector(JMX_URL);
+    // a second caller invalidating the already replaced connection
+    metricsUtils.invalidate(JMX_URL, jmxConnector);
+
+    assertThat(metricsUtils.getJmxConnector(JMX_URL)).isSameAs(current);
+  }
+}
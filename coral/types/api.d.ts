@@ -1313,6 +1313,43 @@ export type paths = {
         patch?: never;
         trace?: never;
     };
+    "/requests/pendingApprovals": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        /** Get counts of the requests waiting for the approval of the user */
+        get: operations["getPendingApprovalsCount"];
+        put?: never;
+        post?: never;
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
+    "/request/approvals": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        /**
+         * Get the status of queued approvals
+         * @description Returns the status of approvals queued by /request/approve when approvals are executed asynchronously
+         */
+        get: operations["getApprovalJobs"];
+        put?: never;
+        post?: never;
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
     "/operationalRequests/requestsFor/{requestsFor}": {
         parameters: {
             query?: never;
@@ -1441,6 +1478,22 @@ export type paths = {
         patch?: never;
         trace?: never;
     };
+    "/getTopicNames": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        get: operations["getTopicNames"];
+        put?: never;
+        post?: never;
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
     "/getTopicsCountPerEnv": {
         parameters: {
             query?: never;
@@ -1937,6 +1990,54 @@ export type paths = {
         patch?: never;
         trace?: never;
     };
+    "/requestKwReport": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        get?: never;
+        put?: never;
+        post: operations["requestKwReport"];
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
+    "/getKwReportStatus": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        get: operations["getKwReportStatus"];
+        put?: never;
+        post?: never;
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
+    "/getKwReportFile": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        get: operations["getKwReportFile"];
+        put?: never;
+        post?: never;
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
     "/getKafkaProtocols": {
         parameters: {
             query?: never;
@@ -2890,6 +2991,8 @@ export type components = {
             entityType?: string;
             entityValue?: string;
             operationType?: string;
+            /** Format: int64 */
+            sequence?: number;
         };
         ResetPasswordInfo: {
             tokenSent: boolean;
@@ -3253,6 +3356,7 @@ export type components = {
             schemaSubjectInfoResponseList?: components["schemas"]["SchemaSubjectInfoResponse"][];
             /** Format: int32 */
             allTopicsCount?: number;
+            schemasLoadingStatus?: boolean;
         };
         SchemaDetailsResponse: {
             schemaContent?: string;
@@ -3310,6 +3414,36 @@ export type components = {
         RequestsCountOverview: {
             requestEntityStatistics: components["schemas"]["RequestEntityStatusCount"][];
         };
+        ApprovalJobResponse: {
+            /** Format: int32 */
+            jobId: number;
+            /** @enum {string} */
+            requestType: "TOPIC" | "ACL" | "SCHEMA" | "CONNECTOR" | "OPERATIONAL" | "USER";
+            /** Format: int32 */
+            requestId: number;
+            /** @enum {string} */
+            status: "QUEUED" | "RUNNING" | "SUCCESS" | "FAILED";
+            message?: string;
+            approver: string;
+            /** Format: date-time */
+            queuedTime: string;
+            /** Format: date-time */
+            startedTime?: string;
+            /** Format: date-time */
+            completedTime?: string;
+        };
+        PendingApprovalsCount: {
+            /** Format: int32 */
+            topics: number;
+            /** Format: int32 */
+            acls: number;
+            /** Format: int32 */
+            schemas: number;
+            /** Format: int32 */
+            connectors: number;
+            /** Format: int32 */
+            users: number;
+        };
         RequestsOperationTypeCount: {
             /** @enum {string} */
             requestOperationType?: "CREATE" | "UPDATE" | "PROMOTE" | "CLAIM" | "DELETE" | "ALL";
@@ -3384,6 +3518,10 @@ export type components = {
             status?: string;
             topicsCount?: string;
         };
+        TopicNamesPage: {
+            topicNames: string[];
+            nextCursor?: string;
+        };
         TopicTeamResponse: {
             team?: string;
             /** Format: int32 */
@@ -3719,6 +3857,17 @@ export type components = {
             data?: string;
             filename?: string;
         };
+        KwReportJobResponse: {
+            jobId: string;
+            /** @enum {string} */
+            status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+            filename?: string;
+            message?: string;
+            /** Format: date-time */
+            requestedTime: string;
+            /** Format: date-time */
+            completedTime?: string;
+        };
         SupportedProtocolInfo: {
             name?: string;
             value?: string;
@@ -5971,6 +6120,48 @@ export interface operations {
             };
         };
     };
+    getPendingApprovalsCount: {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["PendingApprovalsCount"];
+                };
+            };
+        };
+    };
+    getApprovalJobs: {
+        parameters: {
+            query: {
+                jobIds: number[];
+            };
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["ApprovalJobResponse"][];
+                };
+            };
+        };
+    };
     getOperationalRequests: {
         parameters: {
             query: {
@@ -6130,6 +6321,7 @@ export interface operations {
                 topicnamesearch?: string;
                 teamId?: number;
                 topicType?: string;
+                lastTopicName?: string;
             };
             header?: never;
             path?: never;
@@ -6171,6 +6363,33 @@ export interface operations {
             };
         };
     };
+    getTopicNames: {
+        parameters: {
+            query?: {
+                isMyTeamTopics?: boolean;
+                envSelected?: string;
+                search?: string;
+                match?: "PREFIX" | "CONTAINS";
+                cursor?: string;
+                limit?: number;
+            };
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["TopicNamesPage"];
+                };
+            };
+        };
+    };
     getTopicsCountPerEnv: {
         parameters: {
             query: {
@@ -6890,6 +7109,72 @@ export interface operations {
             };
         };
     };
+    requestKwReport: {
+        parameters: {
+            query?: {
+                numberOfDays?: number;
+            };
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["ApiResponse"];
+                };
+            };
+        };
+    };
+    getKwReportStatus: {
+        parameters: {
+            query: {
+                jobId: string;
+            };
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["KwReportJobResponse"];
+                };
+            };
+        };
+    };
+    getKwReportFile: {
+        parameters: {
+            query: {
+                jobId: string;
+            };
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody?: never;
+        responses: {
+            /** @description OK */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["KwReport"];
+                };
+            };
+        };
+    };
     getSupportedKafkaProtocols: {
         parameters: {
             query?: never;
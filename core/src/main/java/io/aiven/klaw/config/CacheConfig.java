@@ -5,6 +5,7 @@ import io.aiven.klaw.constants.CacheConstants;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.service.HARestMessagingService;
 import io.aiven.klaw.service.utils.CacheService;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Properties;
@@ -33,6 +34,15 @@ public class CacheConfig {
 
   @Lazy @Autowired UserDetailsService userDetailsService;
 
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  @Value("${klaw.cache.environments.max-size:0}")
+  private long environmentsMaxSize;
+
+  @Value("${klaw.cache.environments.expire-after-write.minutes:0}")
+  private long environmentsExpireAfterWriteMinutes;
+
   @Primary
   public CacheManager cacheManager() {
     SimpleCacheManager cacheManager = new SimpleCacheManager();
@@ -58,22 +68,37 @@ public class CacheConfig {
 
   @Bean
   public CacheService<Env> kafkaEnvListPerTenant() {
-    return new CacheService<>(CacheConstants.ENVIRONMENT_PATH, HARestMessagingService);
+    return environmentCache("kafkaEnvListPerTenant");
   }
 
   @Bean
   public CacheService<Env> schemaRegEnvListPerTenant() {
-    return new CacheService<>(CacheConstants.ENVIRONMENT_PATH, HARestMessagingService);
+    return environmentCache("schemaRegEnvListPerTenant");
   }
 
   @Bean
   public CacheService<Env> kafkaConnectEnvListPerTenant() {
-    return new CacheService<>(CacheConstants.ENVIRONMENT_PATH, HARestMessagingService);
+    return environmentCache("kafkaConnectEnvListPerTenant");
   }
 
   @Bean
   public CacheService<Env> allEnvListPerTenant() {
-    return new CacheService<>(CacheConstants.ENVIRONMENT_PATH, HARestMessagingService);
+    return environmentCache("allEnvListPerTenant");
+  }
+
+  private CacheService<Env> environmentCache(String cacheName) {
+    CacheService<Env> cacheService =
+        new CacheService<>(
+            CacheConstants.ENVIRONMENT_PATH,
+            HARestMessagingService,
+            environmentsMaxSize,
+            environmentsExpireAfterWriteMinutes > 0
+                ? Duration.ofMinutes(environmentsExpireAfterWriteMinutes)
+                : null);
+    if (meterRegistry != null) {
+      cacheService.registerMetrics(meterRegistry, cacheName);
+    }
+    return cacheService;
   }
 
   @Bean
@@ -1,5 +1,6 @@
 package io.aiven.klaw.config;
 
+import static io.aiven.klaw.helpers.db.rdbms.InsertDataJdbc.METADATA_UPDATES_SEQUENCE;
 import static io.aiven.klaw.model.enums.AuthenticationType.DATABASE;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -18,6 +19,7 @@ import io.aiven.klaw.helpers.KwConstants;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.KwTenantConfigModel;
 import io.aiven.klaw.model.TenantConfig;
+import io.aiven.klaw.model.UserIdentity;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
@@ -26,8 +28,10 @@ import io.aiven.klaw.model.enums.RolesType;
 import io.aiven.klaw.model.response.EnvParams;
 import io.aiven.klaw.service.DefaultDataService;
 import io.aiven.klaw.service.utils.CacheService;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,8 +40,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.DisposableBean;
@@ -58,58 +65,26 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
       new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
   @Autowired HandleDbRequestsJdbc handleDbRequests;
-  private static Map<Integer, Map<String, Map<String, String>>> kwPropertiesMapPerTenant;
 
-  private static Map<Integer, List<Team>> teamsPerTenant;
+  // tenants, properties, roles, clusters, environments, teams and users of all tenants. Reloads
+  // read the database first and then publish a new snapshot, readers never lock and always see
+  // the state of one reload.
+  private volatile MetadataSnapshot metadata = MetadataSnapshot.EMPTY;
 
-  private static Map<Integer, List<UserInfo>> usersPerTenant;
+  // serializes publishing, every snapshot is derived from the one it replaces
+  private final Object metadataLock = new Object();
 
-  private static List<UserInfo> allUsersAllTenants;
-
-  private static Set<String> serviceAccounts;
-
-  // key is tenant id, value is list of envs
-  private static Map<Integer, List<String>> envsOfTenantsMap;
-
-  // key is tenantid id, value is hashmap of teamId and allowed envs
-  private static Map<Integer, Map<Integer, List<String>>> teamsAndAllowedEnvsPerTenant;
-
-  // key is tenantid id, value is hashmap of team Id as key and teamname as value
-  private static Map<Integer, Map<Integer, String>> teamIdAndNamePerTenant;
-
-  // key tenantId, value tenant name
-  private static Map<Integer, String> tenantMap;
-
-  // key tenantId, value tenant full config
-  private static Map<Integer, KwTenants> tenantFullMap;
-
-  // key rolename, value list of permissions per tenant
-  private static Map<Integer, Map<String, Set<String>>> rolesPermsMapPerTenant;
-
-  // key tenantId, sub key clusterid Pertenant
-  private static Map<Integer, Map<Integer, KwClusters>> kwAllClustersPertenant;
-
-  // key tenantId, sub key clusterid Pertenant
-  private static Map<Integer, Map<Integer, KwClusters>> kwKafkaClustersPertenant;
-
-  // key tenantId, sub key clusterid Pertenant
-  private static Map<Integer, Map<Integer, KwClusters>> kwSchemaRegClustersPertenant;
-
-  // key tenantId, sub key clusterid Pertenant
-  private static Map<Integer, Map<Integer, KwClusters>> kwKafkaConnectClustersPertenant;
-  private static Map<Integer, Map<String, Env>> envMapPerTenant = new HashMap<>();
   @Autowired private CacheService<Env> kafkaEnvListPerTenant;
   @Autowired private CacheService<Env> schemaRegEnvListPerTenant;
   @Autowired private CacheService<Env> kafkaConnectEnvListPerTenant;
   @Autowired private CacheService<Env> allEnvListPerTenant;
 
-  private static Map<Integer, KwTenantConfigModel> tenantConfig = new HashMap<>();
-
-  private static Map<Integer, List<Topic>> topicsPerTenant = new HashMap<>();
-
-  private static Map<Integer, Map<Integer, List<UserInfo>>> usersPerTeamAndTenant = new HashMap<>();
+  // key tenantId, value indexed snapshot of the tenant's topics. Snapshots are replaced, never
+  // modified, so readers do not need to lock.
+  private static Map<Integer, TopicCatalog> topicsPerTenant = new ConcurrentHashMap<>();
 
-  private static List<String> reqStatusList;
+  private static final List<String> REQUEST_STATUSES =
+      Arrays.stream(RequestStatus.values()).map(RequestStatus::name).toList();
 
   @Autowired private DefaultDataService defaultDataService;
 
@@ -282,6 +257,10 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
       lastId = getNextId(1001, lastId);
       handleDbRequests.insertIntoKwEntitySequence(EntityType.TEAM.name(), lastId, tenantId);
     }
+
+    if (!handleDbRequests.hasSequence(METADATA_UPDATES_SEQUENCE, tenantId)) {
+      handleDbRequests.insertIntoKwEntitySequence(METADATA_UPDATES_SEQUENCE, 0, tenantId);
+    }
   }
 
   private static Integer getNextId(int defaultStartingSequence, Integer nextId) {
@@ -317,27 +296,26 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
   }
 
   public Integer getAllTeamsSize() {
+    MetadataSnapshot snapshot = metadata;
     int allTeamSize = 0;
-    for (Integer tenantId : tenantMap.keySet()) {
-      allTeamSize += teamIdAndNamePerTenant.get(tenantId).size();
+    for (Integer tenantId : snapshot.getTenantNames().keySet()) {
+      allTeamSize += snapshot.getTenant(tenantId).getTeamNames().size();
       allTeamSize = allTeamSize - 1; // removing "All teams"
     }
     return allTeamSize;
   }
 
   public Integer getAllClustersSize() {
+    MetadataSnapshot snapshot = metadata;
     int allClustersSize = 0;
-    for (Integer tenantId : tenantMap.keySet()) {
-      allClustersSize += kwKafkaClustersPertenant.get(tenantId).size();
+    for (Integer tenantId : snapshot.getTenantNames().keySet()) {
+      allClustersSize += snapshot.getTenant(tenantId).getKafkaClusters().size();
     }
     return allClustersSize;
   }
 
   public Map<String, Env> getEnvMap(int tenantId) {
-    if (!envMapPerTenant.containsKey(tenantId)) {
-      return new HashMap<>();
-    }
-    return envMapPerTenant.get(tenantId);
+    return metadata.getTenant(tenantId).getEnvMap();
   }
 
   public Optional<String> getAssociatedSchemaEnvIdFromTopicId(String topicEnvId, int tenantId) {
@@ -382,79 +360,58 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
     return kafkaEnvListPerTenant.get(tenantId, envId);
   }
 
-  private Integer getTenantIdFromName(String tenantName) {
-    return tenantMap.entrySet().stream()
-        .filter(obj -> Objects.equals(obj.getValue(), tenantName))
-        .findFirst()
-        .get()
-        .getKey();
-  }
-
   public EnvParams getEnvParams(Integer tenantId, Integer targetEnv) {
     return kafkaEnvListPerTenant.get(tenantId, targetEnv).orElseGet(null).getParams();
   }
 
   public List<String> getTeamsAndAllowedEnvs(Integer teamId, int tenantId) {
-    return teamsAndAllowedEnvsPerTenant.get(tenantId).get(teamId);
+    return metadata.getTenant(tenantId).getAllowedEnvs(teamId);
   }
 
   // return team ids
   public Set<Integer> getTeamsForTenant(int tenantId) {
-    return teamsAndAllowedEnvsPerTenant.get(tenantId).keySet();
+    return metadata.getTenant(tenantId).getTeamIds();
   }
 
   // return teams
   public List<Team> getTeamObjForTenant(int tenantId) {
-    return teamsPerTenant.get(tenantId);
+    return metadata.getTenant(tenantId).getTeams();
   }
 
   public Set<String> getAllServiceAccounts(int tenantId) {
-    return serviceAccounts;
-  }
-
-  private void updateAllServiceAccounts(int tenantId) {
-    serviceAccounts = new HashSet<>();
-    getTeamObjForTenant(tenantId)
-        .forEach(
-            a -> {
-              if (a.getServiceAccounts() != null
-                  && a.getServiceAccounts().getServiceAccountsList() != null) {
-                serviceAccounts.addAll(a.getServiceAccounts().getServiceAccountsList());
-              }
-            });
+    return metadata.getTenant(tenantId).getServiceAccounts();
   }
 
   public List<String> getTeamNamesForTenant(int tenantId) {
-    return teamsPerTenant.get(tenantId).stream().map(Team::getTeamname).toList();
+    return metadata.getTenant(tenantId).getTeams().stream().map(Team::getTeamname).toList();
   }
 
   public Integer getTeamIdFromTeamName(int tenantId, String teamName) {
-    Optional<Map.Entry<Integer, String>> optionalTeam;
-    if (teamName != null) {
-      optionalTeam =
-          teamIdAndNamePerTenant.get(tenantId).entrySet().stream()
-              .filter(a -> Objects.equals(a.getValue(), teamName))
-              .findFirst();
-    } else {
+    if (teamName == null) {
       return null;
     }
 
     // unknown team
-    return optionalTeam.map(Map.Entry::getKey).orElse(null);
+    return metadata.getTenant(tenantId).getTeamNames().entrySet().stream()
+        .filter(a -> Objects.equals(a.getValue(), teamName))
+        .findFirst()
+        .map(Map.Entry::getKey)
+        .orElse(null);
   }
 
   public String getTeamNameFromTeamId(int tenantId, int teamId) {
-    return teamIdAndNamePerTenant
-        .getOrDefault(tenantId, Collections.emptyMap())
+    return metadata
+        .getTenant(tenantId)
+        .getTeamNames()
         .getOrDefault(teamId, "UNKNOWN-TEAM"); // empty string in case of unknown team
   }
 
   public Map<Integer, List<String>> getEnvsOfTenantsMap() {
-    return envsOfTenantsMap;
+    return metadata.getEnvIdsPerTenant();
   }
 
   public Map<Integer, String> getTenantMap() {
-    return tenantMap;
+    return metadata.getTenantNames();
   }
 
   public Map<Integer, UserInfo> getUserInfoMap(RolesType rolesType) {
@@ -468,212 +425,146 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
   }
 
   public Map<Integer, KwClusters> getClusters(KafkaClustersType clusterType, int tenantId) {
+    TenantMetadata tenant = metadata.getTenant(tenantId);
     return switch (clusterType) {
-      case SCHEMA_REGISTRY -> kwSchemaRegClustersPertenant.get(tenantId);
-      case KAFKA_CONNECT -> kwKafkaConnectClustersPertenant.get(tenantId);
-      case KAFKA -> kwKafkaClustersPertenant.get(tenantId);
-      default -> kwAllClustersPertenant.get(tenantId);
+      case SCHEMA_REGISTRY -> tenant.getSchemaRegistryClusters();
+      case KAFKA_CONNECT -> tenant.getKafkaConnectClusters();
+      case KAFKA -> tenant.getKafkaClusters();
+      default -> tenant.getAllClusters();
     };
   }
 
   public Map<String, Map<String, String>> getKwPropertiesMap(int tenantId) {
-    return kwPropertiesMapPerTenant.get(tenantId);
+    return metadata.getTenant(tenantId).getKwProperties();
   }
 
   public String getKwPropertyValue(String kwKey, int tenantId) {
-    if (kwPropertiesMapPerTenant.get(tenantId) != null) {
-      return kwPropertiesMapPerTenant.get(tenantId).get(kwKey) != null
-          ? kwPropertiesMapPerTenant.get(tenantId).get(kwKey).get("kwvalue")
-          : "";
-    } else {
-      return "";
-    }
+    Map<String, String> kwProperty = metadata.getTenant(tenantId).getKwProperties().get(kwKey);
+    return kwProperty != null ? kwProperty.get("kwvalue") : "";
   }
 
   public List<UserInfo> selectAllCachedUserInfo() {
-    return allUsersAllTenants;
-  }
-
-  private void loadEnvsForAllTenants() {
-    envsOfTenantsMap = new HashMap<>(); // key is tenantid, value is list of envs
-    for (Integer tenantId : tenantMap.keySet()) {
-      loadEnvsForOneTenant(tenantId);
-    }
-  }
-
-  public void loadEnvsForOneTenant(Integer tenantId) {
-    List<Env> kafkaEnvList =
-        handleDbRequests.getAllKafkaEnvs(tenantId).stream()
-            .filter(env -> "true".equals(env.getEnvExists()))
-            .toList();
-    List<Env> schemaEnvList =
-        handleDbRequests.getAllSchemaRegEnvs(tenantId).stream()
-            .filter(env -> "true".equals(env.getEnvExists()))
-            .toList();
-    List<Env> kafkaConnectEnvList =
-        handleDbRequests.getAllKafkaConnectEnvs(tenantId).stream()
-            .filter(env -> "true".equals(env.getEnvExists()))
-            .toList();
-
-    List<String> envList1 = kafkaEnvList.stream().map(Env::getId).collect(Collectors.toList());
-    List<String> envList2 = schemaEnvList.stream().map(Env::getId).toList();
-    List<String> envList3 = kafkaConnectEnvList.stream().map(Env::getId).toList();
-    envList1.addAll(envList2);
-    envList1.addAll(envList3);
-
-    envsOfTenantsMap.put(tenantId, envList1);
+    return metadata.getAllUsers();
   }
 
-  private void loadTenantTeamsUsersForAllTenants() {
-    teamsAndAllowedEnvsPerTenant = new HashMap<>();
-    teamIdAndNamePerTenant = new HashMap<>();
-    teamsPerTenant = new HashMap<>();
-    usersPerTenant = new HashMap<>();
-    allUsersAllTenants = new ArrayList<>();
-
-    List<Team> allTeams;
-
-    for (Integer tenantId : tenantMap.keySet()) {
-      allTeams = handleDbRequests.getAllTeams(tenantId);
-      teamsPerTenant.put(tenantId, allTeams);
-      loadTenantTeamsForOneTenant(allTeams, tenantId);
+  public UserIdentity getUserIdentity(String userName) {
+    if (userName == null) {
+      return null;
     }
-
-    loadUsersForAllTenants();
+    return metadata.getUserIdentities().get(userName);
   }
 
-  public void loadUsersForAllTenants() {
-    List<UserInfo> allUsers;
-    allUsersAllTenants = new ArrayList<>();
-    for (Integer tenantId : tenantMap.keySet()) {
-      allUsers = handleDbRequests.getAllUsersInfo(tenantId);
-      usersPerTenant.put(tenantId, allUsers);
-      allUsersAllTenants.addAll(allUsers);
-
-      List<Team> allTeams = handleDbRequests.getAllTeams(tenantId);
-      Map<Integer, List<UserInfo>> innerMap = new HashMap<>();
-      for (Team team : allTeams) {
-        innerMap.put(
-            team.getTeamId(), handleDbRequests.getAllUsersInfoForTeam(team.getTeamId(), tenantId));
-      }
-      usersPerTeamAndTenant.put(tenantId, innerMap);
-    }
+  public Map<Integer, KwTenantConfigModel> getTenantConfig() {
+    return metadata.getTenantConfigs();
   }
 
-  public List<UserInfo> getUsersPerTeamAndTenant(Integer teamId, Integer tenantId) {
-    return usersPerTeamAndTenant.get(tenantId).get(teamId);
+  public KwTenants getTenantFullConfig(int tenantId) {
+    return metadata.getTenant(tenantId).getTenant();
   }
 
-  public void loadTopicsForAllTenants() {
-    for (Integer tenantId : tenantMap.keySet()) {
-      topicsPerTenant.put(tenantId, handleDbRequests.getAllTopics(tenantId));
-    }
+  public Map<String, Set<String>> getRolesPermissionsPerTenant(int tenantId) {
+    return metadata.getTenant(tenantId).getRolesPermissions();
   }
 
-  public void loadTopicsForOneTenant(int tenantId) {
-    topicsPerTenant.put(tenantId, handleDbRequests.getAllTopics(tenantId));
+  public List<String> getRequestStatusList() {
+    return REQUEST_STATUSES;
   }
 
-  public void addTopicToCache(int tenantId, Topic topic) {
-    log.debug("addTopicToCache {} {}", tenantId, topic);
-    // If the topic does not already exist in the cache simply add it.
-    if (!topicsPerTenant.get(tenantId).contains(topic)) {
-      topicsPerTenant.get(tenantId).add(topic);
-    }
+  public List<UserInfo> getUsersPerTeamAndTenant(Integer teamId, Integer tenantId) {
+    return metadata.getTenant(tenantId).getUsersPerTeam().get(teamId);
   }
 
-  public void addEnvToCache(int tenantId, Env env, boolean isLocal) {
-
-    switch (KafkaClustersType.of(env.getType())) {
-      case KAFKA -> kafkaEnvListPerTenant.addOrUpdate(
-          tenantId, Integer.valueOf(env.getId()), env, isLocal);
-      case SCHEMA_REGISTRY -> schemaRegEnvListPerTenant.addOrUpdate(
-          tenantId, Integer.valueOf(env.getId()), env, isLocal);
-      case KAFKA_CONNECT -> kafkaConnectEnvListPerTenant.addOrUpdate(
-          tenantId, Integer.valueOf(env.getId()), env, isLocal);
-    }
-    allEnvListPerTenant.addOrUpdate(tenantId, Integer.valueOf(env.getId()), env, isLocal);
-    updateTeamToEnvMappings(tenantId);
+  public List<Topic> getTopicsForTenant(int tenantId) {
+    return getTopicCatalog(tenantId).getTopics();
   }
 
-  private void updateTeamToEnvMappings(int tenantId) {
-    // TODO remove this
-    envsOfTenantsMap.put(
-        tenantId,
-        allEnvListPerTenant.getCache(tenantId).values().stream()
-            .map(Env::getId)
-            .collect(Collectors.toList()));
-    Map<Integer, List<String>> teamsAndEnvs = new HashMap<>();
-    teamsAndAllowedEnvsPerTenant.get(tenantId).keySet().stream()
-        .forEach(teamId -> teamsAndEnvs.put(teamId, envsOfTenantsMap.get(tenantId)));
-    teamsAndAllowedEnvsPerTenant.put(tenantId, teamsAndEnvs);
+  public TopicCatalog getTopicCatalog(int tenantId) {
+    return topicsPerTenant.getOrDefault(tenantId, TopicCatalog.empty());
   }
 
-  public void removeEnvFromCache(int tenantId, int envId, boolean isLocal) {
-    Optional<Env> env = allEnvListPerTenant.get(tenantId, Integer.valueOf(envId));
-    if (env.isEmpty()) {
-      return;
-    }
-    switch (KafkaClustersType.of(env.get().getType())) {
-      case KAFKA -> kafkaEnvListPerTenant.remove(tenantId, Integer.valueOf(envId), isLocal);
-      case SCHEMA_REGISTRY -> schemaRegEnvListPerTenant.remove(
-          tenantId, Integer.valueOf(envId), isLocal);
-      case KAFKA_CONNECT -> kafkaConnectEnvListPerTenant.remove(
-          tenantId, Integer.valueOf(envId), isLocal);
+  private void publish(UnaryOperator<MetadataSnapshot> update) {
+    synchronized (metadataLock) {
+      metadata = update.apply(metadata);
     }
-    allEnvListPerTenant.remove(tenantId, Integer.valueOf(envId), isLocal);
-    updateTeamToEnvMappings(tenantId);
   }
 
-  public List<Topic> getTopicsForTenant(int tenantId) {
-    return topicsPerTenant.get(tenantId);
+  private void updateTenant(int tenantId, UnaryOperator<TenantMetadata> update) {
+    publish(snapshot -> snapshot.withTenant(tenantId, update.apply(snapshot.getTenant(tenantId))));
   }
 
-  public void loadTenantTeamsForOneTenant(List<Team> allTeams, Integer tenantId) {
-    if (allTeams == null) {
-      allTeams = handleDbRequests.getAllTeams(tenantId);
-      teamsPerTenant.put(tenantId, allTeams);
+  private void updateStaticDataToMemory() {
+    log.info("updateStaticData Loading all config.");
+    Map<Integer, Map<String, Map<String, String>>> kwPropertiesMap =
+        handleDbRequests.getAllKwProperties();
+    if (kwPropertiesMap.size() == 0) {
+      log.info("Klaw Properties not loaded into database. Shutting down !!");
+      shutdownApp();
     }
+    List<KwRolesPermissions> rolesPermissions = handleDbRequests.getRolesPermissions();
 
-    Map<Integer, List<String>> teamsAndAllowedEnvs = new HashMap<>();
-    Map<Integer, String> teamsAndNames = new HashMap<>();
-
-    List<Team> teamList =
-        allTeams.stream().filter(team -> Objects.equals(team.getTenantId(), tenantId)).toList();
-
-    for (Team team : teamList) {
-      teamsAndAllowedEnvs.put(team.getTeamId(), envsOfTenantsMap.get(tenantId));
-      teamsAndNames.put(team.getTeamId(), team.getTeamname());
+    Map<Integer, TenantMetadata> tenants = new HashMap<>();
+    for (KwTenants tenant : handleDbRequests.getTenants()) {
+      tenants.put(
+          tenant.getTenantId(),
+          readTenant(
+              tenant.getTenantId(),
+              tenant,
+              kwPropertiesMap.get(tenant.getTenantId()),
+              rolesPermissions));
     }
-    teamsAndNames.put(1, "All teams");
+    MetadataSnapshot snapshot =
+        withAllUsers(
+            new MetadataSnapshot(tenants, Collections.emptyList(), Collections.emptyMap()));
+    publish(current -> snapshot);
+    log.info("Finished loading cluster parameters.");
 
-    teamsAndAllowedEnvsPerTenant.put(tenantId, teamsAndAllowedEnvs);
-    teamIdAndNamePerTenant.put(tenantId, teamsAndNames);
-    updateAllServiceAccounts(tenantId);
+    loadTopicsForAllTenants();
   }
 
-  public Map<Integer, KwTenantConfigModel> getTenantConfig() {
-    return tenantConfig;
+  public void updateStaticDataForTenant(int tenantId) {
+    TenantMetadata tenant =
+        readTenant(
+            tenantId,
+            handleDbRequests
+                .getMyTenants(tenantId)
+                .orElse(metadata.getTenant(tenantId).getTenant()),
+            handleDbRequests.getAllKwProperties().get(tenantId),
+            handleDbRequests.getRolesPermissions());
+    publish(snapshot -> withAllUsers(snapshot.withTenant(tenantId, tenant)));
+
+    loadTopicsForOneTenant(tenantId);
   }
 
-  public void setTenantConfig(TenantConfig config) {
-    KwTenantConfigModel tenantModel = config.getTenantModel();
-    if (tenantModel != null) {
-      tenantConfig.put(getTenantIdFromName(tenantModel.getTenantName()), tenantModel);
-    }
+  // reads the complete configuration of one tenant from the database
+  private TenantMetadata readTenant(
+      int tenantId,
+      KwTenants kwTenant,
+      Map<String, Map<String, String>> kwProperties,
+      List<KwRolesPermissions> rolesPermissions) {
+    TenantMetadata tenant =
+        withKwProperties(TenantMetadata.builder().tenant(kwTenant).build(), kwProperties);
+    tenant =
+        withClusters(
+            tenant,
+            handleDbRequests.getAllClusters(KafkaClustersType.KAFKA, tenantId),
+            handleDbRequests.getAllClusters(KafkaClustersType.SCHEMA_REGISTRY, tenantId),
+            handleDbRequests.getAllClusters(KafkaClustersType.KAFKA_CONNECT, tenantId));
+    tenant = withTeams(tenant, handleDbRequests.getAllTeams(tenantId), tenantId);
+    return tenant.toBuilder()
+        .rolesPermissions(toRolesPermissions(rolesPermissions, tenantId))
+        .envMap(refreshEnvCaches(tenantId))
+        .envIds(readEnvIds(tenantId))
+        .users(Collections.unmodifiableList(handleDbRequests.getAllUsersInfo(tenantId)))
+        .usersPerTeam(readUsersPerTeam(tenantId))
+        .build();
   }
 
-  private void loadKwPropertiesforAllTenants() {
-    Map<Integer, Map<String, Map<String, String>>> kwPropertiesMap =
-        handleDbRequests.getAllKwProperties();
-    if (kwPropertiesMap.size() == 0) {
-      log.info("Klaw Properties not loaded into database. Shutting down !!");
-      shutdownApp();
-    }
-    kwPropertiesMapPerTenant = new HashMap<>();
-    for (Integer tenantId : tenantMap.keySet()) {
-      loadKwPropsPerOneTenant(kwPropertiesMap, tenantId);
-    }
+  public void loadOneTenant(int tenantId) {
+    handleDbRequests
+        .getMyTenants(tenantId)
+        .ifPresent(
+            kwTenants ->
+                updateTenant(tenantId, tenant -> tenant.toBuilder().tenant(kwTenants).build()));
   }
 
   public void loadKwPropsPerOneTenant(
@@ -682,51 +573,86 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
       kwPropertiesMap = handleDbRequests.getAllKwProperties();
     }
 
-    kwPropertiesMapPerTenant.put(tenantId, kwPropertiesMap.get(tenantId));
-    updateKwTenantConfigPerTenant(tenantId);
+    Map<String, Map<String, String>> kwProperties = kwPropertiesMap.get(tenantId);
+    updateTenant(tenantId, tenant -> withKwProperties(tenant, kwProperties));
   }
 
-  private void loadTenants() {
-    List<KwTenants> tenants = handleDbRequests.getTenants();
-    tenantMap = new HashMap<>();
-    tenantFullMap = new HashMap<>();
-    tenants.forEach(tenant -> tenantMap.put(tenant.getTenantId(), tenant.getTenantName()));
-    tenants.forEach(tenant -> tenantFullMap.put(tenant.getTenantId(), tenant));
+  public void updateKwTenantConfigPerTenant(Integer tenantId) {
+    updateTenant(tenantId, tenant -> withKwProperties(tenant, tenant.getKwProperties()));
   }
 
-  public void loadOneTenant(int tenantId) {
-    Optional<KwTenants> tenants = handleDbRequests.getMyTenants(tenantId);
-    tenants.ifPresent(
-        kwTenants -> {
-          tenantFullMap.put(kwTenants.getTenantId(), kwTenants);
-          tenantMap.put(tenantId, kwTenants.getTenantName());
-        });
-  }
+  // the tenant config is kept when the properties do not contain a valid one
+  private static TenantMetadata withKwProperties(
+      TenantMetadata tenant, Map<String, Map<String, String>> kwProperties) {
+    if (kwProperties == null) {
+      return tenant.toBuilder().kwProperties(Collections.emptyMap()).build();
+    }
 
-  public KwTenants getTenantFullConfig(int tenantId) {
-    return tenantFullMap.get(tenantId);
+    KwTenantConfigModel tenantConfig = tenant.getTenantConfig();
+    Map<String, String> tenantConfigProperty = kwProperties.get(KwConstants.TENANT_CONFIG_PROPERTY);
+    if (tenantConfigProperty != null) {
+      try {
+        TenantConfig dynamicObj =
+            OBJECT_MAPPER.readValue(tenantConfigProperty.get("kwvalue"), TenantConfig.class);
+        if (dynamicObj.getTenantModel() != null) {
+          tenantConfig = dynamicObj.getTenantModel();
+        }
+      } catch (IOException e) {
+        log.info("Error loading tenant config ", e);
+      }
+    }
+    return tenant.toBuilder()
+        .kwProperties(TenantMetadata.freeze(kwProperties))
+        .tenantConfig(tenantConfig)
+        .build();
   }
 
-  private void loadClustersForAllTenants() {
-    List<KwClusters> kafkaClusters;
-    List<KwClusters> schemaRegistryClusters;
-    List<KwClusters> kafkaConnectClusters;
+  public void loadRolesForAllTenants() {
+    log.info("Load roles and permissions.");
+    List<KwRolesPermissions> rolesPermissions = handleDbRequests.getRolesPermissions();
+    publish(
+        snapshot -> {
+          for (Integer tenantId : snapshot.getTenantNames().keySet()) {
+            snapshot =
+                snapshot.withTenant(
+                    tenantId,
+                    snapshot.getTenant(tenantId).toBuilder()
+                        .rolesPermissions(toRolesPermissions(rolesPermissions, tenantId))
+                        .build());
+          }
+          return withUserIdentities(snapshot, snapshot.getAllUsers());
+        });
+  }
 
-    kwKafkaClustersPertenant = new HashMap<>();
-    kwSchemaRegClustersPertenant = new HashMap<>();
-    kwKafkaConnectClustersPertenant = new HashMap<>();
-    kwAllClustersPertenant = new HashMap<>();
+  public void loadRolesPermissionsOneTenant(
+      List<KwRolesPermissions> rolesPermissions, Integer tenantId) {
+    if (rolesPermissions == null) {
+      rolesPermissions = handleDbRequests.getRolesPermissions();
+    }
 
-    for (Integer tenantId : tenantMap.keySet()) {
-      kafkaClusters = handleDbRequests.getAllClusters(KafkaClustersType.KAFKA, tenantId);
-      schemaRegistryClusters =
-          handleDbRequests.getAllClusters(KafkaClustersType.SCHEMA_REGISTRY, tenantId);
-      kafkaConnectClusters =
-          handleDbRequests.getAllClusters(KafkaClustersType.KAFKA_CONNECT, tenantId);
+    Map<String, Set<String>> rolesPermsMap = toRolesPermissions(rolesPermissions, tenantId);
+    publish(
+        snapshot -> {
+          MetadataSnapshot updated =
+              snapshot.withTenant(
+                  tenantId,
+                  snapshot.getTenant(tenantId).toBuilder().rolesPermissions(rolesPermsMap).build());
+          return withUserIdentities(updated, updated.getAllUsers());
+        });
+  }
 
-      loadClustersForOneTenant(
-          kafkaClusters, schemaRegistryClusters, kafkaConnectClusters, tenantId);
+  private static Map<String, Set<String>> toRolesPermissions(
+      List<KwRolesPermissions> rolesPermissions, int tenantId) {
+    Map<String, Set<String>> rolesPermsMap = new HashMap<>();
+    for (KwRolesPermissions rolesPermission : rolesPermissions) {
+      if (rolesPermission.getTenantId() == tenantId) {
+        rolesPermsMap
+            .computeIfAbsent(rolesPermission.getRoleId(), roleId -> new HashSet<>())
+            .add(rolesPermission.getPermission());
+      }
     }
+    rolesPermsMap.replaceAll((roleId, permissions) -> Collections.unmodifiableSet(permissions));
+    return Collections.unmodifiableMap(rolesPermsMap);
   }
 
   public void loadClustersForOneTenant(
@@ -746,78 +672,65 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
           handleDbRequests.getAllClusters(KafkaClustersType.KAFKA_CONNECT, tenantId);
     }
 
+    List<KwClusters> kafka = kafkaClusters;
+    List<KwClusters> schemaRegistry = schemaRegistryClusters;
+    List<KwClusters> kafkaConnect = kafkaConnectClusters;
+    updateTenant(tenantId, tenant -> withClusters(tenant, kafka, schemaRegistry, kafkaConnect));
+  }
+
+  private static TenantMetadata withClusters(
+      TenantMetadata tenant,
+      List<KwClusters> kafkaClusters,
+      List<KwClusters> schemaRegistryClusters,
+      List<KwClusters> kafkaConnectClusters) {
     Map<Integer, KwClusters> kwKafkaClusters = new HashMap<>();
     Map<Integer, KwClusters> kwSchemaRegClusters = new HashMap<>();
     Map<Integer, KwClusters> kwKafkaConnectClusters = new HashMap<>();
     Map<Integer, KwClusters> kwAllClusters = new HashMap<>();
 
-    kafkaClusters.forEach(
-        cluster -> {
-          kwKafkaClusters.put(cluster.getClusterId(), cluster);
-          kwAllClusters.put(cluster.getClusterId(), cluster);
-        });
-    kwKafkaClustersPertenant.put(tenantId, kwKafkaClusters);
-
+    kafkaClusters.forEach(cluster -> kwKafkaClusters.put(cluster.getClusterId(), cluster));
     schemaRegistryClusters.forEach(
-        cluster -> {
-          kwSchemaRegClusters.put(cluster.getClusterId(), cluster);
-          kwAllClusters.put(cluster.getClusterId(), cluster);
-        });
-    kwSchemaRegClustersPertenant.put(tenantId, kwSchemaRegClusters);
-
+        cluster -> kwSchemaRegClusters.put(cluster.getClusterId(), cluster));
     kafkaConnectClusters.forEach(
-        cluster -> {
-          kwKafkaConnectClusters.put(cluster.getClusterId(), cluster);
-          kwAllClusters.put(cluster.getClusterId(), cluster);
-        });
-    kwKafkaConnectClustersPertenant.put(tenantId, kwKafkaConnectClusters);
+        cluster -> kwKafkaConnectClusters.put(cluster.getClusterId(), cluster));
+    kwAllClusters.putAll(kwKafkaClusters);
+    kwAllClusters.putAll(kwSchemaRegClusters);
+    kwAllClusters.putAll(kwKafkaConnectClusters);
 
-    kwAllClustersPertenant.put(tenantId, kwAllClusters);
+    return tenant.toBuilder()
+        .kafkaClusters(Collections.unmodifiableMap(kwKafkaClusters))
+        .schemaRegistryClusters(Collections.unmodifiableMap(kwSchemaRegClusters))
+        .kafkaConnectClusters(Collections.unmodifiableMap(kwKafkaConnectClusters))
+        .allClusters(Collections.unmodifiableMap(kwAllClusters))
+        .build();
   }
 
-  public void updateStaticDataForTenant(int tenantId) {
-    loadOneTenant(tenantId);
-    loadKwPropsPerOneTenant(null, tenantId);
-    loadRolesPermissionsOneTenant(null, tenantId);
-    loadClustersForOneTenant(null, null, null, tenantId);
-    loadEnvMapForOneTenant(tenantId);
-    loadEnvsForOneTenant(tenantId);
-    loadTenantTeamsForOneTenant(null, tenantId);
-    loadUsersForAllTenants();
-
-    loadTopicsForOneTenant(tenantId);
-  }
-
-  private void updateStaticDataToMemory() {
-    log.info("updateStaticData Loading all config.");
-    loadTenants();
-    loadKwPropertiesforAllTenants();
-    loadRolesForAllTenants();
-    loadClustersForAllTenants();
-    loadRequestTypeStatuses();
-    loadEnvironmentsMapForAllTenants();
-    loadEnvsForAllTenants();
-    loadTenantTeamsUsersForAllTenants();
-
-    loadTopicsForAllTenants();
-  }
-
-  private void loadRequestTypeStatuses() {
-    reqStatusList = new ArrayList<>();
-    for (RequestStatus requestStatus : RequestStatus.values()) {
-      reqStatusList.add(requestStatus.name());
-    }
+  public void deleteCluster(int tenantId) {
+    List<KwClusters> kafkaClusters =
+        handleDbRequests.getAllClusters(KafkaClustersType.KAFKA, tenantId);
+    List<KwClusters> schemaRegistryClusters =
+        handleDbRequests.getAllClusters(KafkaClustersType.SCHEMA_REGISTRY, tenantId);
+    List<KwClusters> kafkaConnectClusters =
+        handleDbRequests.getAllClusters(KafkaClustersType.KAFKA_CONNECT, tenantId);
+    Map<String, Env> envMap = refreshEnvCaches(tenantId);
+    List<String> envIds = readEnvIds(tenantId);
+    updateTenant(
+        tenantId,
+        tenant ->
+            withClusters(tenant, kafkaClusters, schemaRegistryClusters, kafkaConnectClusters)
+                .toBuilder()
+                .envMap(envMap)
+                .envIds(envIds)
+                .build());
   }
 
-  private void loadEnvironmentsMapForAllTenants() {
-
-    for (Integer tenantId : tenantMap.keySet()) {
-      loadEnvMapForOneTenant(tenantId);
-    }
-    log.info("Finished loading cluster parameters.");
+  public void loadEnvMapForOneTenant(Integer tenantId) {
+    Map<String, Env> envMap = refreshEnvCaches(tenantId);
+    updateTenant(tenantId, tenant -> tenant.toBuilder().envMap(envMap).build());
   }
 
-  public void loadEnvMapForOneTenant(Integer tenantId) {
+  // reloads the environment caches of the tenant and returns all its environments by id
+  private Map<String, Env> refreshEnvCaches(int tenantId) {
     Map<Integer, Env> kafkaEnvs =
         handleDbRequests.getAllKafkaEnvs(tenantId).stream()
             .filter(env -> "true".equals(env.getEnvExists()))
@@ -841,69 +754,299 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
 
     //
     List<Env> allEnvs = handleDbRequests.getAllEnvs(tenantId);
-    envMapPerTenant.put(
-        tenantId, allEnvs.stream().collect(Collectors.toMap(Env::getId, Function.identity())));
+    return Collections.unmodifiableMap(
+        allEnvs.stream().collect(Collectors.toMap(Env::getId, Function.identity())));
   }
 
-  public Map<String, Set<String>> getRolesPermissionsPerTenant(int tenantId) {
-    return rolesPermsMapPerTenant.getOrDefault(tenantId, Collections.emptyMap());
+  public void loadEnvsForOneTenant(Integer tenantId) {
+    List<String> envIds = readEnvIds(tenantId);
+    updateTenant(tenantId, tenant -> tenant.toBuilder().envIds(envIds).build());
   }
 
-  public void loadRolesForAllTenants() {
-    log.info("Load roles and permissions.");
-    rolesPermsMapPerTenant = new HashMap<>();
-    List<KwRolesPermissions> rolesPermissions = handleDbRequests.getRolesPermissions();
-    for (Integer tenantId : tenantMap.keySet()) {
-      loadRolesPermissionsOneTenant(rolesPermissions, tenantId);
+  private List<String> readEnvIds(int tenantId) {
+    List<String> envIds = new ArrayList<>();
+    Stream.of(
+            handleDbRequests.getAllKafkaEnvs(tenantId),
+            handleDbRequests.getAllSchemaRegEnvs(tenantId),
+            handleDbRequests.getAllKafkaConnectEnvs(tenantId))
+        .flatMap(List::stream)
+        .filter(env -> "true".equals(env.getEnvExists()))
+        .forEach(env -> envIds.add(env.getId()));
+    return Collections.unmodifiableList(envIds);
+  }
+
+  public void addEnvToCache(int tenantId, Env env, boolean isLocal) {
+
+    switch (KafkaClustersType.of(env.getType())) {
+      case KAFKA -> kafkaEnvListPerTenant.addOrUpdate(
+          tenantId, Integer.valueOf(env.getId()), env, isLocal);
+      case SCHEMA_REGISTRY -> schemaRegEnvListPerTenant.addOrUpdate(
+          tenantId, Integer.valueOf(env.getId()), env, isLocal);
+      case KAFKA_CONNECT -> kafkaConnectEnvListPerTenant.addOrUpdate(
+          tenantId, Integer.valueOf(env.getId()), env, isLocal);
     }
+    allEnvListPerTenant.addOrUpdate(tenantId, Integer.valueOf(env.getId()), env, isLocal);
+    updateTeamToEnvMappings(tenantId);
   }
 
-  public void loadRolesPermissionsOneTenant(
-      List<KwRolesPermissions> rolesPermissions, Integer tenantId) {
-    if (rolesPermissions == null) {
-      rolesPermissions = handleDbRequests.getRolesPermissions();
+  /**
+   * Adds the environments to the caches. Unless this is a local update, other instances receive all
+   * environments in a single message.
+   */
+  public void addEnvsToCache(int tenantId, List<Env> envs, boolean isLocal) {
+    Map<KafkaClustersType, Map<Integer, Env>> envsPerType = new HashMap<>();
+    Map<Integer, Env> allEnvs = new HashMap<>();
+    for (Env env : envs) {
+      envsPerType
+          .computeIfAbsent(KafkaClustersType.of(env.getType()), type -> new HashMap<>())
+          .put(Integer.valueOf(env.getId()), env);
+      allEnvs.put(Integer.valueOf(env.getId()), env);
     }
+    kafkaEnvListPerTenant.addAll(tenantId, envsPerType.get(KafkaClustersType.KAFKA), true);
+    schemaRegEnvListPerTenant.addAll(
+        tenantId, envsPerType.get(KafkaClustersType.SCHEMA_REGISTRY), true);
+    kafkaConnectEnvListPerTenant.addAll(
+        tenantId, envsPerType.get(KafkaClustersType.KAFKA_CONNECT), true);
+    allEnvListPerTenant.addAll(tenantId, allEnvs, isLocal);
+    updateTeamToEnvMappings(tenantId);
+  }
 
-    List<KwRolesPermissions> rolesPermsList =
-        rolesPermissions.stream().filter(rolePerms -> rolePerms.getTenantId() == tenantId).toList();
-    Set<String> tmpSet;
-    Map<String, Set<String>> rolesPermsMap = new HashMap<>();
-    for (KwRolesPermissions rolesPermission : rolesPermsList) {
-      if (!rolesPermsMap.containsKey(rolesPermission.getRoleId())) {
-        tmpSet = new HashSet<>();
-      } else {
-        tmpSet = rolesPermsMap.get(rolesPermission.getRoleId());
+  /**
+   * Publishes probed statuses. The given copies replace the clusters and environments with the same
+   * ids, readers of the previous snapshot keep the unchanged objects.
+   */
+  public void updateClusterStatuses(
+      int tenantId, List<KwClusters> clusters, List<Env> envs, boolean isLocal) {
+    addEnvsToCache(tenantId, envs, isLocal);
+    Map<Integer, KwClusters> updatedClusters = new HashMap<>();
+    clusters.forEach(cluster -> updatedClusters.put(cluster.getClusterId(), cluster));
+    Map<String, Env> updatedEnvs = new HashMap<>();
+    envs.forEach(env -> updatedEnvs.put(env.getId(), env));
+    updateTenant(
+        tenantId,
+        tenant ->
+            tenant.toBuilder()
+                .kafkaClusters(replaceAll(tenant.getKafkaClusters(), updatedClusters))
+                .schemaRegistryClusters(
+                    replaceAll(tenant.getSchemaRegistryClusters(), updatedClusters))
+                .kafkaConnectClusters(replaceAll(tenant.getKafkaConnectClusters(), updatedClusters))
+                .allClusters(replaceAll(tenant.getAllClusters(), updatedClusters))
+                .envMap(replaceAll(tenant.getEnvMap(), updatedEnvs))
+                .build());
+  }
+
+  private static <K, V> Map<K, V> replaceAll(Map<K, V> current, Map<K, V> updated) {
+    Map<K, V> replaced = new HashMap<>(current);
+    replaced.replaceAll((key, value) -> updated.getOrDefault(key, value));
+    return Collections.unmodifiableMap(replaced);
+  }
+
+  public void removeEnvFromCache(int tenantId, int envId, boolean isLocal) {
+    Optional<Env> env = allEnvListPerTenant.get(tenantId, Integer.valueOf(envId));
+    if (env.isEmpty()) {
+      return;
+    }
+    switch (KafkaClustersType.of(env.get().getType())) {
+      case KAFKA -> kafkaEnvListPerTenant.remove(tenantId, Integer.valueOf(envId), isLocal);
+      case SCHEMA_REGISTRY -> schemaRegEnvListPerTenant.remove(
+          tenantId, Integer.valueOf(envId), isLocal);
+      case KAFKA_CONNECT -> kafkaConnectEnvListPerTenant.remove(
+          tenantId, Integer.valueOf(envId), isLocal);
+    }
+    allEnvListPerTenant.remove(tenantId, Integer.valueOf(envId), isLocal);
+    updateTeamToEnvMappings(tenantId);
+  }
+
+  // teams are allowed on all environments of the tenant, see TenantMetadata#getAllowedEnvs
+  private void updateTeamToEnvMappings(int tenantId) {
+    List<String> envIds =
+        allEnvListPerTenant.getCache(tenantId).values().stream().map(Env::getId).toList();
+    updateTenant(tenantId, tenant -> tenant.toBuilder().envIds(envIds).build());
+  }
+
+  public void loadTenantTeamsForOneTenant(List<Team> allTeams, Integer tenantId) {
+    List<Team> teams = allTeams == null ? handleDbRequests.getAllTeams(tenantId) : allTeams;
+    updateTenant(tenantId, tenant -> withTeams(tenant, teams, tenantId));
+  }
+
+  private static TenantMetadata withTeams(
+      TenantMetadata tenant, List<Team> allTeams, int tenantId) {
+    Set<Integer> teamIds = new HashSet<>();
+    Map<Integer, String> teamsAndNames = new HashMap<>();
+    Set<String> serviceAccounts = new HashSet<>();
+
+    for (Team team : allTeams) {
+      if (Objects.equals(team.getTenantId(), tenantId)) {
+        teamIds.add(team.getTeamId());
+        teamsAndNames.put(team.getTeamId(), team.getTeamname());
+      }
+      if (team.getServiceAccounts() != null
+          && team.getServiceAccounts().getServiceAccountsList() != null) {
+        serviceAccounts.addAll(team.getServiceAccounts().getServiceAccountsList());
       }
-      tmpSet.add(rolesPermission.getPermission());
-      rolesPermsMap.put(rolesPermission.getRoleId(), tmpSet);
     }
-    rolesPermsMapPerTenant.put(tenantId, rolesPermsMap);
+    teamsAndNames.put(1, "All teams");
+
+    return tenant.toBuilder()
+        .teams(Collections.unmodifiableList(new ArrayList<>(allTeams)))
+        .teamIds(Collections.unmodifiableSet(teamIds))
+        .teamNames(Collections.unmodifiableMap(teamsAndNames))
+        .serviceAccounts(Collections.unmodifiableSet(serviceAccounts))
+        .build();
   }
 
-  public List<String> getRequestStatusList() {
-    return reqStatusList;
+  public void loadUsersForAllTenants() {
+    Map<Integer, List<UserInfo>> usersPerTenant = new HashMap<>();
+    Map<Integer, Map<Integer, List<UserInfo>>> usersPerTeamAndTenant = new HashMap<>();
+    for (Integer tenantId : metadata.getTenantNames().keySet()) {
+      usersPerTenant.put(
+          tenantId, Collections.unmodifiableList(handleDbRequests.getAllUsersInfo(tenantId)));
+      usersPerTeamAndTenant.put(tenantId, readUsersPerTeam(tenantId));
+    }
+
+    publish(
+        snapshot -> {
+          for (Map.Entry<Integer, List<UserInfo>> users : usersPerTenant.entrySet()) {
+            int tenantId = users.getKey();
+            snapshot =
+                snapshot.withTenant(
+                    tenantId,
+                    snapshot.getTenant(tenantId).toBuilder()
+                        .users(users.getValue())
+                        .usersPerTeam(usersPerTeamAndTenant.get(tenantId))
+                        .build());
+          }
+          return withAllUsers(snapshot);
+        });
   }
 
-  public void updateKwTenantConfigPerTenant(Integer tenantId) {
-    try {
-      final var kwProps = kwPropertiesMapPerTenant.get(tenantId);
-      if (kwProps != null) {
-        final var tenantConfig = kwPropertiesMapPerTenant.get(tenantId).get("klaw.tenant.config");
-        if (tenantConfig != null) {
-          String kwTenantConfig = tenantConfig.get("kwvalue");
-          TenantConfig dynamicObj = OBJECT_MAPPER.readValue(kwTenantConfig, TenantConfig.class);
-          setTenantConfig(dynamicObj);
-        }
+  private Map<Integer, List<UserInfo>> readUsersPerTeam(int tenantId) {
+    Map<Integer, List<UserInfo>> usersPerTeam = new HashMap<>();
+    for (Team team : handleDbRequests.getAllTeams(tenantId)) {
+      usersPerTeam.put(
+          team.getTeamId(),
+          Collections.unmodifiableList(
+              handleDbRequests.getAllUsersInfoForTeam(team.getTeamId(), tenantId)));
+    }
+    return Collections.unmodifiableMap(usersPerTeam);
+  }
+
+  /** Reloads one user into the user caches, a user no longer stored is removed. */
+  public void loadOneUser(String userName, int tenantId) {
+    UserInfo userInfo = handleDbRequests.getUsersInfo(userName);
+    if (userInfo != null && userInfo.getTenantId() != tenantId) {
+      return;
+    }
+
+    publish(
+        snapshot -> {
+          TenantMetadata tenant = snapshot.getTenant(tenantId);
+          Map<Integer, List<UserInfo>> usersPerTeam = new HashMap<>();
+          tenant
+              .getUsersPerTeam()
+              .forEach(
+                  (teamId, users) -> usersPerTeam.put(teamId, replaceUser(users, userName, null)));
+          if (userInfo != null && userInfo.getTeamId() != null) {
+            usersPerTeam.merge(userInfo.getTeamId(), List.of(userInfo), ManageDatabase::concat);
+          }
+          MetadataSnapshot updated =
+              snapshot.withTenant(
+                  tenantId,
+                  tenant.toBuilder()
+                      .users(replaceUser(tenant.getUsers(), userName, userInfo))
+                      .usersPerTeam(Collections.unmodifiableMap(usersPerTeam))
+                      .build());
+
+          Map<String, UserIdentity> identities = new HashMap<>(snapshot.getUserIdentities());
+          if (userInfo == null) {
+            identities.remove(userName);
+          } else {
+            identities.put(userName, toUserIdentity(updated, userInfo));
+          }
+          return updated.withUsers(
+              replaceUser(snapshot.getAllUsers(), userName, userInfo), identities);
+        });
+  }
+
+  private static List<UserInfo> replaceUser(
+      List<UserInfo> users, String userName, UserInfo userInfo) {
+    List<UserInfo> updatedUsers = new ArrayList<>(users.size() + 1);
+    boolean replaced = false;
+    for (UserInfo existing : users) {
+      if (!userName.equals(existing.getUsername())) {
+        updatedUsers.add(existing);
+      } else if (userInfo != null && !replaced) {
+        updatedUsers.add(userInfo);
+        replaced = true;
       }
-    } catch (IOException e) {
-      log.info("Error loading tenant config ", e);
     }
+    if (userInfo != null && !replaced) {
+      updatedUsers.add(userInfo);
+    }
+    return Collections.unmodifiableList(updatedUsers);
   }
 
-  public void deleteCluster(int tenantId) {
-    loadClustersForOneTenant(null, null, null, tenantId);
-    loadEnvMapForOneTenant(tenantId);
-    loadEnvsForOneTenant(tenantId);
+  private static List<UserInfo> concat(List<UserInfo> users, List<UserInfo> added) {
+    List<UserInfo> result = new ArrayList<>(users);
+    result.addAll(added);
+    return Collections.unmodifiableList(result);
+  }
+
+  // collects the users of all tenants and rebuilds their identities
+  private static MetadataSnapshot withAllUsers(MetadataSnapshot snapshot) {
+    List<UserInfo> allUsers = new ArrayList<>();
+    for (Integer tenantId : snapshot.getTenantNames().keySet()) {
+      allUsers.addAll(snapshot.getTenant(tenantId).getUsers());
+    }
+    return withUserIdentities(snapshot, allUsers);
+  }
+
+  private static MetadataSnapshot withUserIdentities(
+      MetadataSnapshot snapshot, List<UserInfo> allUsers) {
+    Map<String, UserIdentity> identities = new HashMap<>(allUsers.size() * 2);
+    for (UserInfo userInfo : allUsers) {
+      identities.put(userInfo.getUsername(), toUserIdentity(snapshot, userInfo));
+    }
+    return snapshot.withUsers(allUsers, identities);
+  }
+
+  private static UserIdentity toUserIdentity(MetadataSnapshot snapshot, UserInfo userInfo) {
+    Set<String> permissions =
+        snapshot.getTenant(userInfo.getTenantId()).getRolesPermissions().get(userInfo.getRole());
+    return UserIdentity.builder()
+        .username(userInfo.getUsername())
+        .tenantId(userInfo.getTenantId())
+        .teamId(userInfo.getTeamId() == null ? 0 : userInfo.getTeamId())
+        .role(userInfo.getRole())
+        .permissions(permissions == null ? null : Set.copyOf(permissions))
+        .build();
+  }
+
+  public void loadTopicsForAllTenants() {
+    for (Integer tenantId : metadata.getTenantNames().keySet()) {
+      loadTopicsForOneTenant(tenantId);
+    }
+  }
+
+  public void loadTopicsForOneTenant(int tenantId) {
+    topicsPerTenant.put(tenantId, TopicCatalog.of(handleDbRequests.getAllTopics(tenantId)));
+  }
+
+  /** Reloads the topics of one name, a topic no longer stored is removed from the cache. */
+  public void loadTopicsForOneTopicName(int tenantId, String topicName) {
+    List<Topic> topics = handleDbRequests.getTopics(topicName, tenantId);
+    topicsPerTenant.compute(
+        tenantId,
+        (id, catalog) ->
+            (catalog == null ? TopicCatalog.empty() : catalog).withTopicsNamed(topicName, topics));
+  }
+
+  public void addTopicToCache(int tenantId, Topic topic) {
+    log.debug("addTopicToCache {} {}", tenantId, topic);
+    // If the topic does not already exist in the cache simply add it.
+    topicsPerTenant.compute(
+        tenantId,
+        (id, catalog) -> (catalog == null ? TopicCatalog.empty() : catalog).withTopic(topic));
   }
 
   // delete users from both users tables of tenant
@@ -915,16 +1058,8 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
   // delete clusters of tenant
   // delete tenant
   public String deleteTenant(int tenantId) {
-    tenantMap.remove(tenantId);
-    teamsAndAllowedEnvsPerTenant.remove(tenantId);
-    usersPerTenant.remove(tenantId);
-    kwPropertiesMapPerTenant.remove(tenantId);
-    rolesPermsMapPerTenant.remove(tenantId);
-
-    kwKafkaClustersPertenant.remove(tenantId);
-    kwSchemaRegClustersPertenant.remove(tenantId);
-    kwKafkaConnectClustersPertenant.remove(tenantId);
-    kwAllClustersPertenant.remove(tenantId);
+    publish(snapshot -> snapshot.withoutTenant(tenantId));
+    topicsPerTenant.remove(tenantId);
 
     // delete EnvDetails
     allEnvListPerTenant.removeCache(tenantId);
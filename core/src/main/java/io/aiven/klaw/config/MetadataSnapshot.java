@@ -0,0 +1,83 @@
+package io.aiven.klaw.config;
+
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.model.KwTenantConfigModel;
+import io.aiven.klaw.model.UserIdentity;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of the cached configuration of all tenants and of the users of all tenants.
+ * ManageDatabase publishes it through a single volatile reference, so a reader which takes the
+ * snapshot once sees tenants, clusters, environments, teams and users from the same reload.
+ */
+@Getter
+final class MetadataSnapshot {
+
+  static final MetadataSnapshot EMPTY =
+      new MetadataSnapshot(Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap());
+
+  // key tenant id
+  private final Map<Integer, TenantMetadata> tenants;
+
+  private final List<UserInfo> allUsers;
+
+  // key username
+  private final Map<String, UserIdentity> userIdentities;
+
+  // derived from the tenants, key tenant id
+  private final Map<Integer, String> tenantNames;
+
+  private final Map<Integer, List<String>> envIdsPerTenant;
+
+  private final Map<Integer, KwTenantConfigModel> tenantConfigs;
+
+  MetadataSnapshot(
+      Map<Integer, TenantMetadata> tenants,
+      List<UserInfo> allUsers,
+      Map<String, UserIdentity> userIdentities) {
+    this.tenants = TenantMetadata.freeze(tenants);
+    this.allUsers = Collections.unmodifiableList(allUsers);
+    this.userIdentities = Collections.unmodifiableMap(userIdentities);
+
+    Map<Integer, String> names = new HashMap<>();
+    Map<Integer, List<String>> envIds = new HashMap<>();
+    Map<Integer, KwTenantConfigModel> configs = new HashMap<>();
+    tenants.forEach(
+        (tenantId, tenant) -> {
+          if (tenant.getTenantName() != null) {
+            names.put(tenantId, tenant.getTenantName());
+            envIds.put(tenantId, tenant.getEnvIds());
+          }
+          if (tenant.getTenantConfig() != null) {
+            configs.put(tenantId, tenant.getTenantConfig());
+          }
+        });
+    this.tenantNames = Collections.unmodifiableMap(names);
+    this.envIdsPerTenant = Collections.unmodifiableMap(envIds);
+    this.tenantConfigs = Collections.unmodifiableMap(configs);
+  }
+
+  TenantMetadata getTenant(int tenantId) {
+    return tenants.getOrDefault(tenantId, TenantMetadata.EMPTY);
+  }
+
+  MetadataSnapshot withTenant(int tenantId, TenantMetadata tenant) {
+    Map<Integer, TenantMetadata> updated = new HashMap<>(tenants);
+    updated.put(tenantId, tenant);
+    return new MetadataSnapshot(updated, allUsers, userIdentities);
+  }
+
+  MetadataSnapshot withoutTenant(int tenantId) {
+    Map<Integer, TenantMetadata> updated = new HashMap<>(tenants);
+    updated.remove(tenantId);
+    return new MetadataSnapshot(updated, allUsers, userIdentities);
+  }
+
+  MetadataSnapshot withUsers(List<UserInfo> users, Map<String, UserIdentity> identities) {
+    return new MetadataSnapshot(tenants, users, identities);
+  }
+}
@@ -9,11 +9,9 @@ import io.aiven.klaw.auth.KwAuthenticationFailureHandler;
 import io.aiven.klaw.auth.KwAuthenticationSuccessHandler;
 import io.aiven.klaw.dao.UserInfo;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import lombok.extern.slf4j.Slf4j;
-import org.jasypt.util.text.BasicTextEncryptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -27,7 +25,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.ldap.authentication.ad.ActiveDirectoryLdapAuthenticationProvider;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
@@ -68,6 +65,16 @@ public class SecurityConfigNoSSO {
   @Value("${klaw.core.app2app.username:KlawApp2App}")
   private String apiUser;
 
+  // parallel hashes all passwords before startup completes, lazy on the first login of each user
+  @Value("${klaw.login.users.hydration:parallel}")
+  private String usersHydration;
+
+  // 0 for one thread per processor
+  @Value("${klaw.login.users.hydration.threads:0}")
+  private int usersHydrationThreads;
+
+  private UserCredentialsLoader userCredentialsLoader;
+
   @Autowired LdapTemplate ldapTemplate;
 
   private void shutdownApp() {
@@ -130,10 +137,16 @@ public class SecurityConfigNoSSO {
     return provider;
   }
 
+  @ConditionalOnProperty(name = "klaw.login.authentication.type", havingValue = "db")
+  @Bean
+  public PasswordEncoder passwordEncoder() {
+    return getUserCredentialsLoader().passwordEncoder();
+  }
+
   @ConditionalOnProperty(name = "klaw.login.authentication.type", havingValue = "db")
   @Bean
   public InMemoryUserDetailsManager inMemoryUserDetailsManager() throws Exception {
-    final Properties globalUsers = new Properties();
+    Properties globalUsers = new Properties();
     if (authenticationType != null && authenticationType.equals(DATABASE.value)) {
       log.info("Db authentication configured.");
       log.debug("Loading all users !!");
@@ -151,41 +164,27 @@ public class SecurityConfigNoSSO {
         throw new Exception(SEC_CONFIG_ERR_101);
       }
 
-      Iterator<UserInfo> iter = users.iterator();
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-      loadAllUsers(globalUsers, iter, encoder);
+      long start = System.currentTimeMillis();
+      globalUsers = getUserCredentialsLoader().loadUsers(users);
+      log.info(
+          "Loaded {} of {} users in {} ms, {} hydration",
+          globalUsers.size(),
+          users.size(),
+          System.currentTimeMillis() - start,
+          usersHydration);
       globalUsers.put(apiUser, ",CACHE_ADMIN,enabled");
     }
     return new InMemoryUserDetailsManager(globalUsers);
   }
 
-  private void loadAllUsers(
-      Properties globalUsers, Iterator<UserInfo> iter, PasswordEncoder encoder) {
-    UserInfo userInfo;
-    while (iter.hasNext()) {
-      userInfo = iter.next();
-      try {
-        String secPwd = userInfo.getPwd();
-        if (secPwd == null || secPwd.equals("")) {
-          continue;
-        } else {
-          secPwd = decodePwd(secPwd);
-        }
-        globalUsers.put(
-            userInfo.getUsername(), encoder.encode(secPwd) + "," + userInfo.getRole() + ",enabled");
-      } catch (Exception e) {
-        log.error("Error : User not loaded {}. Check password.", userInfo.getUsername(), e);
-      }
-    }
-  }
-
-  private String decodePwd(String pwd) {
-    if (pwd != null) {
-      BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
-      textEncryptor.setPasswordCharArray(encryptorSecretKey.toCharArray());
-
-      return textEncryptor.decrypt(pwd);
+  private synchronized UserCredentialsLoader getUserCredentialsLoader() {
+    if (userCredentialsLoader == null) {
+      userCredentialsLoader =
+          new UserCredentialsLoader(
+              encryptorSecretKey,
+              UserCredentialsLoader.Mode.valueOf(usersHydration.toUpperCase()),
+              usersHydrationThreads);
     }
-    return "";
+    return userCredentialsLoader;
   }
 }
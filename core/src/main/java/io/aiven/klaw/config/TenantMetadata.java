@@ -0,0 +1,84 @@
+package io.aiven.klaw.config;
+
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.Team;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.model.KwTenantConfigModel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of the cached configuration of one tenant: properties, roles, clusters,
+ * environments, teams and users. A reload builds a new snapshot with {@link #toBuilder()} and
+ * publishes it through {@link MetadataSnapshot}, the collections of a published snapshot are never
+ * modified.
+ */
+@Getter
+@Builder(toBuilder = true)
+final class TenantMetadata {
+
+  static final TenantMetadata EMPTY = TenantMetadata.builder().build();
+
+  private final KwTenants tenant;
+
+  // key property name, value map of the property columns
+  @Builder.Default
+  private final Map<String, Map<String, String>> kwProperties = Collections.emptyMap();
+
+  private final KwTenantConfigModel tenantConfig;
+
+  // key role, value permissions of the role
+  @Builder.Default private final Map<String, Set<String>> rolesPermissions = Collections.emptyMap();
+
+  // key cluster id
+  @Builder.Default private final Map<Integer, KwClusters> kafkaClusters = Collections.emptyMap();
+
+  @Builder.Default
+  private final Map<Integer, KwClusters> schemaRegistryClusters = Collections.emptyMap();
+
+  @Builder.Default
+  private final Map<Integer, KwClusters> kafkaConnectClusters = Collections.emptyMap();
+
+  @Builder.Default private final Map<Integer, KwClusters> allClusters = Collections.emptyMap();
+
+  // key env id, all environments including the ones which are not (yet) created
+  @Builder.Default private final Map<String, Env> envMap = Collections.emptyMap();
+
+  // ids of the existing kafka, schema registry and kafka connect environments
+  @Builder.Default private final List<String> envIds = Collections.emptyList();
+
+  @Builder.Default private final List<Team> teams = Collections.emptyList();
+
+  @Builder.Default private final Set<Integer> teamIds = Collections.emptySet();
+
+  // key team id, value team name, including "All teams"
+  @Builder.Default private final Map<Integer, String> teamNames = Collections.emptyMap();
+
+  @Builder.Default private final Set<String> serviceAccounts = Collections.emptySet();
+
+  @Builder.Default private final List<UserInfo> users = Collections.emptyList();
+
+  // key team id
+  @Builder.Default private final Map<Integer, List<UserInfo>> usersPerTeam = Collections.emptyMap();
+
+  String getTenantName() {
+    return tenant == null ? null : tenant.getTenantName();
+  }
+
+  // teams are allowed on all environments of their tenant
+  List<String> getAllowedEnvs(Integer teamId) {
+    return teamIds.contains(teamId) ? envIds : null;
+  }
+
+  // unmodifiable copy, unlike Map.copyOf it permits null keys, values and lookups
+  static <K, V> Map<K, V> freeze(Map<K, V> map) {
+    return Collections.unmodifiableMap(new HashMap<>(map));
+  }
+}
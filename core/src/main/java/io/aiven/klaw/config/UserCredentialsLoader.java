@@ -0,0 +1,174 @@
+package io.aiven.klaw.config;
+
+import io.aiven.klaw.dao.UserInfo;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.jasypt.util.text.BasicTextEncryptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Loads the credentials of the database users into the in memory user store at startup. Passwords
+ * are stored Jasypt encrypted in the database and bcrypt encoded in memory.
+ *
+ * <p>In {@link Mode#PARALLEL} the passwords are decrypted and bcrypt encoded on a bounded pool of
+ * threads before the application starts. In {@link Mode#LAZY} the encrypted passwords are stored
+ * with the {@value #JASYPT_ENCODING_ID} id, {@link #passwordEncoder()} decrypts them on login and
+ * the authentication provider replaces them with a bcrypt encoding after the first successful login
+ * of the user.
+ */
+@Slf4j
+public class UserCredentialsLoader {
+
+  public static final String JASYPT_ENCODING_ID = "jasypt";
+
+  private static final String BCRYPT_ENCODING_ID = "bcrypt";
+
+  public enum Mode {
+    PARALLEL,
+    LAZY
+  }
+
+  private final BasicTextEncryptor textEncryptor;
+
+  private final Mode mode;
+
+  private final int threads;
+
+  private final PasswordEncoder passwordEncoder;
+
+  /**
+   * @param threads threads hashing the passwords in parallel mode, 0 for one per processor
+   */
+  public UserCredentialsLoader(String encryptorSecretKey, Mode mode, int threads) {
+    // the encryptor is thread safe once configured
+    this.textEncryptor = new BasicTextEncryptor();
+    this.textEncryptor.setPasswordCharArray(encryptorSecretKey.toCharArray());
+    this.mode = mode;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+    Map<String, PasswordEncoder> encoders = new HashMap<>();
+    encoders.put(BCRYPT_ENCODING_ID, new BCryptPasswordEncoder());
+    encoders.put(JASYPT_ENCODING_ID, new JasyptPasswordEncoder(textEncryptor));
+    DelegatingPasswordEncoder delegatingPasswordEncoder =
+        new DelegatingPasswordEncoder(BCRYPT_ENCODING_ID, encoders);
+    // passwords with any other id are matched as before
+    delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(
+        PasswordEncoderFactories.createDelegatingPasswordEncoder());
+    this.passwordEncoder = delegatingPasswordEncoder;
+  }
+
+  /** Encodes new passwords with bcrypt and matches bcrypt as well as Jasypt encoded passwords. */
+  public PasswordEncoder passwordEncoder() {
+    return passwordEncoder;
+  }
+
+  /**
+   * @return key username, value the password, role and enabled flag in the format of {@link
+   *     org.springframework.security.provisioning.InMemoryUserDetailsManager}. Users without a
+   *     password or with a password which cannot be decrypted are not loaded
+   */
+  public Properties loadUsers(List<UserInfo> users) throws InterruptedException {
+    Properties credentials = new Properties();
+    if (mode == Mode.LAZY) {
+      for (UserInfo userInfo : users) {
+        if (hasPassword(userInfo)) {
+          credentials.put(
+              userInfo.getUsername(),
+              credentials("{" + JASYPT_ENCODING_ID + "}" + userInfo.getPwd(), userInfo.getRole()));
+        }
+      }
+      return credentials;
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(threads, Math.max(1, users.size())),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "klaw-user-credentials-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<String>> encodedUsers = new ArrayList<>(users.size());
+      for (UserInfo userInfo : users) {
+        encodedUsers.add(executor.submit(() -> encodeCredentials(userInfo)));
+      }
+      for (int i = 0; i < users.size(); i++) {
+        try {
+          String encoded = encodedUsers.get(i).get();
+          if (encoded != null) {
+            credentials.put(users.get(i).getUsername(), encoded);
+          }
+        } catch (ExecutionException e) {
+          log.error("Error : User not loaded {}. Check password.", users.get(i).getUsername(), e);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return credentials;
+  }
+
+  private String encodeCredentials(UserInfo userInfo) {
+    if (!hasPassword(userInfo)) {
+      return null;
+    }
+    String pwd = textEncryptor.decrypt(userInfo.getPwd());
+    return credentials(passwordEncoder.encode(pwd), userInfo.getRole());
+  }
+
+  private static boolean hasPassword(UserInfo userInfo) {
+    return userInfo.getPwd() != null && !userInfo.getPwd().isEmpty();
+  }
+
+  private static String credentials(String encodedPassword, String role) {
+    return encodedPassword + "," + role + ",enabled";
+  }
+
+  /** Matches a password against its Jasypt encrypted form. */
+  private static final class JasyptPasswordEncoder implements PasswordEncoder {
+
+    private final BasicTextEncryptor textEncryptor;
+
+    private JasyptPasswordEncoder(BasicTextEncryptor textEncryptor) {
+      this.textEncryptor = textEncryptor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      return textEncryptor.encrypt(rawPassword.toString());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      if (rawPassword == null || encodedPassword == null) {
+        return false;
+      }
+      try {
+        String decrypted = textEncryptor.decrypt(encodedPassword);
+        return MessageDigest.isEqual(
+            decrypted.getBytes(StandardCharsets.UTF_8),
+            rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+      } catch (Exception e) {
+        log.error("Error : Unable to decrypt password.", e);
+        return false;
+      }
+    }
+  }
+}
@@ -1,9 +1,11 @@
 package io.aiven.klaw.controller;
 
 import io.aiven.klaw.error.KlawBadRequestException;
+import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.charts.TeamOverview;
 import io.aiven.klaw.model.response.AclsCountPerEnv;
 import io.aiven.klaw.model.response.KwReport;
+import io.aiven.klaw.model.response.KwReportJobResponse;
 import io.aiven.klaw.model.response.TopicsCountPerEnv;
 import io.aiven.klaw.service.AnalyticsControllerService;
 import java.io.File;
@@ -82,6 +84,43 @@ public class AnalyticsController {
       produces = {MediaType.APPLICATION_JSON_VALUE})
   public ResponseEntity<KwReport> getKwReport() {
     File file = chartsProcessor.generateReport(DEFAULT_NUMBER_OF_DAYS);
+    return toKwReport(file);
+  }
+
+  @RequestMapping(
+      value = "/requestKwReport",
+      method = RequestMethod.POST,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ApiResponse> requestKwReport(
+      @RequestParam(value = "numberOfDays", required = false, defaultValue = "30") int numberOfDays)
+      throws KlawBadRequestException {
+    if (numberOfDays < 1 || numberOfDays > 90) {
+      throw new KlawBadRequestException(
+          "Only values between 1 and 90 are accepted for numberOfDays");
+    }
+
+    return new ResponseEntity<>(chartsProcessor.requestReport(numberOfDays), HttpStatus.OK);
+  }
+
+  @RequestMapping(
+      value = "/getKwReportStatus",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<KwReportJobResponse> getKwReportStatus(@RequestParam("jobId") String jobId)
+      throws KlawBadRequestException {
+    return new ResponseEntity<>(chartsProcessor.getReportJob(jobId), HttpStatus.OK);
+  }
+
+  @RequestMapping(
+      value = "/getKwReportFile",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<KwReport> getKwReportFile(@RequestParam("jobId") String jobId)
+      throws KlawBadRequestException {
+    return toKwReport(chartsProcessor.getReportJobFile(jobId));
+  }
+
+  private ResponseEntity<KwReport> toKwReport(File file) {
     try {
       byte[] arr = FileUtils.readFileToByteArray(file);
       String str = Base64.getEncoder().encodeToString(arr);
@@ -7,6 +7,7 @@ import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.service.HARestMessagingService;
 import io.aiven.klaw.service.JwtTokenUtilService;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -39,6 +40,20 @@ public class CacheController {
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
+  @PostMapping(
+      value = "/tenant/{tenantId}/entityType/environment/bulk",
+      produces = {MediaType.APPLICATION_JSON_VALUE},
+      consumes = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ApiResponse> addEnvsToCache(
+      @PathVariable("tenantId") Integer tenantId,
+      @Valid @RequestBody List<Env> envs,
+      @RequestHeader(name = "Authorization") String token)
+      throws KlawNotAuthorizedException {
+    jwtTokenUtilService.validateRole(token, HARestMessagingService.CACHE_ADMIN);
+    manageDatabase.addEnvsToCache(tenantId, envs, true);
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
   @DeleteMapping(
       value = "/tenant/{tenantId}/entityType/environment/id/{id}",
       produces = {MediaType.APPLICATION_JSON_VALUE},
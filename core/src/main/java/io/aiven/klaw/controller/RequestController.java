@@ -5,6 +5,7 @@ import io.aiven.klaw.error.KlawRestException;
 import io.aiven.klaw.helpers.ValidationHelper;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.requests.RequestVerdict;
+import io.aiven.klaw.model.response.ApprovalJobResponse;
 import io.aiven.klaw.service.RequestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -20,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Slf4j
@@ -160,6 +162,29 @@ public class RequestController {
     return wrapInResponseEntity(service.processDeleteRequests(verdict));
   }
 
+  @RequestMapping(
+      value = "/approvals",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  @Operation(
+      summary = "Get the status of queued approvals",
+      description =
+          "Returns the status of approvals queued by /request/approve when approvals are executed asynchronously",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            description = "OK",
+            responseCode = "200",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    array =
+                        @ArraySchema(schema = @Schema(implementation = ApprovalJobResponse.class))))
+      })
+  public ResponseEntity<List<ApprovalJobResponse>> getApprovalJobs(
+      @RequestParam("jobIds") List<Integer> jobIds) {
+    return new ResponseEntity<>(service.getApprovalJobs(jobIds), HttpStatus.OK);
+  }
+
   private ResponseEntity<List<ApiResponse>> wrapInResponseEntity(List<ApiResponse> obj) {
     boolean hasFailure = false;
     boolean hasSuccess = false;
@@ -10,6 +10,7 @@ import io.aiven.klaw.model.requests.TopicCreateRequestModel;
 import io.aiven.klaw.model.requests.TopicDeleteRequestModel;
 import io.aiven.klaw.model.requests.TopicUpdateRequestModel;
 import io.aiven.klaw.model.response.TopicDetailsPerEnv;
+import io.aiven.klaw.model.response.TopicNamesPage;
 import io.aiven.klaw.model.response.TopicRequestsResponseModel;
 import io.aiven.klaw.model.response.TopicTeamResponse;
 import io.aiven.klaw.service.TopicControllerService;
@@ -287,6 +288,24 @@ public class TopicController {
         HttpStatus.OK);
   }
 
+  @PermissionAllowed(permissionAllowed = {PermissionType.VIEW_TOPICS})
+  @RequestMapping(
+      value = "/getTopicNames",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TopicNamesPage> getTopicNames(
+      @RequestParam(value = "isMyTeamTopics", defaultValue = "false") boolean isMyTeamTopics,
+      @RequestParam(value = "envSelected", defaultValue = "ALL") String envSelected,
+      @RequestParam(value = "search", defaultValue = "") String search,
+      @RequestParam(value = "match", defaultValue = "PREFIX") TopicNameMatch match,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    return new ResponseEntity<>(
+        topicControllerService.searchTopicNames(
+            isMyTeamTopics, envSelected, search, match, cursor, limit),
+        HttpStatus.OK);
+  }
+
   @PermissionAllowed(permissionAllowed = {PermissionType.VIEW_TOPICS})
   @RequestMapping(
       value = "/getTopicDetailsPerEnv",
@@ -63,10 +63,11 @@ public class TopicSyncController {
       @RequestParam(value = "currentPage", defaultValue = "") String currentPage,
       @RequestParam(value = "topicnamesearch", required = false) String topicNameSearch,
       @RequestParam(value = "teamId", required = false) Integer teamId,
-      @RequestParam(value = "topicType", required = false) String topicType) {
+      @RequestParam(value = "topicType", required = false) String topicType,
+      @RequestParam(value = "lastTopicName", required = false) String lastTopicName) {
     return new ResponseEntity<>(
         topicSyncControllerService.getTopicsRowView(
-            envId, pageNo, currentPage, topicNameSearch, teamId, topicType),
+            envId, pageNo, currentPage, topicNameSearch, teamId, topicType, lastTopicName),
         HttpStatus.OK);
   }
 
@@ -5,6 +5,7 @@ import io.aiven.klaw.model.enums.RequestMode;
 import io.aiven.klaw.model.requests.ResetEntityCache;
 import io.aiven.klaw.model.response.AuthenticationInfo;
 import io.aiven.klaw.model.response.DashboardStats;
+import io.aiven.klaw.model.response.PendingApprovalsCount;
 import io.aiven.klaw.model.response.RequestsCountOverview;
 import io.aiven.klaw.service.RequestStatisticsService;
 import io.aiven.klaw.service.UtilControllerService;
@@ -54,6 +55,22 @@ public class UtilController {
     return new ResponseEntity<>(utilControllerService.getAuth(), HttpStatus.OK);
   }
 
+  @Operation(
+      summary = "Get counts of the requests waiting for the approval of the user",
+      responses = {
+        @ApiResponse(
+            description = "OK",
+            responseCode = "200",
+            content = @Content(schema = @Schema(implementation = PendingApprovalsCount.class)))
+      })
+  @RequestMapping(
+      value = "/requests/pendingApprovals",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<PendingApprovalsCount> getPendingApprovalsCount() {
+    return new ResponseEntity<>(utilControllerService.getPendingApprovalsCount(), HttpStatus.OK);
+  }
+
   @RequestMapping(
       value = "/getBasicInfo",
       method = RequestMethod.GET,
@@ -1,5 +1,6 @@
 package io.aiven.klaw.dao;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.aiven.klaw.helpers.AclIPPrincipleTypeConverter;
 import io.aiven.klaw.helpers.AivenAclIdConverter;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
@@ -8,12 +9,16 @@ import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.io.Serializable;
 import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 @ToString
 @Getter
@@ -21,7 +26,7 @@ import lombok.ToString;
 @Entity
 @IdClass(AclID.class)
 @Table(name = "kwacls")
-public class Acl implements Serializable {
+public class Acl implements Serializable, Persistable<AclID> {
 
   @Id
   @Column(name = "aclid")
@@ -75,4 +80,26 @@ public class Acl implements Serializable {
   @Column(name = "aclipprincipletype")
   @Convert(converter = AclIPPrincipleTypeConverter.class)
   private AclIPPrincipleType aclIpPrincipleType;
+
+  // set by the source of truth writer once the id is known to be unused, so that save() inserts
+  // without first selecting the row
+  @Transient @JsonIgnore private boolean newEntity;
+
+  @JsonIgnore
+  @Override
+  public AclID getId() {
+    return new AclID(req_no, tenantId);
+  }
+
+  @JsonIgnore
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
 }
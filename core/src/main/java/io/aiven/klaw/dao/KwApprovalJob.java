@@ -0,0 +1,67 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Approval of a topic or acl request queued for execution against its cluster. */
+@ToString
+@Getter
+@Setter
+@Entity
+@Table(name = "kwapprovaljobs")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KwApprovalJob implements Serializable {
+
+  @Id
+  @Column(name = "jobid")
+  private Integer jobId;
+
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  // RequestEntityType
+  @Column(name = "requesttype")
+  private String requestType;
+
+  @Column(name = "requestid")
+  private Integer requestId;
+
+  // tenant and cluster of the request, jobs of one cluster are limited in concurrency
+  @Column(name = "clusterkey")
+  private String clusterKey;
+
+  @Column(name = "approver")
+  private String approver;
+
+  // login url of the approver's session, used in the mails sent by the approval
+  @Column(name = "loginurl")
+  private String loginUrl;
+
+  // ApprovalJobStatus
+  @Column(name = "status")
+  private String status;
+
+  @Column(name = "message")
+  private String message;
+
+  @Column(name = "queuedtime")
+  private Timestamp queuedTime;
+
+  @Column(name = "startedtime")
+  private Timestamp startedTime;
+
+  @Column(name = "completedtime")
+  private Timestamp completedTime;
+}
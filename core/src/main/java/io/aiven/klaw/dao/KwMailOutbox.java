@@ -0,0 +1,74 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Notification mail waiting in the outbox to be sent to the smtp server. */
+@ToString(exclude = "content")
+@Getter
+@Setter
+@Entity
+@Table(name = "kwmailoutbox")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KwMailOutbox implements Serializable {
+
+  @Id
+  @Column(name = "mailid")
+  private Integer mailId;
+
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  // comma separated addresses
+  @Column(name = "recipientsto")
+  private String recipientsTo;
+
+  @Column(name = "recipientscc")
+  private String recipientsCc;
+
+  @Column(name = "recipientsbcc")
+  private String recipientsBcc;
+
+  @Column(name = "subject")
+  private String subject;
+
+  // text of the mail without the html header and footer
+  @Column(name = "content")
+  private String content;
+
+  @Column(name = "loginurl")
+  private String loginUrl;
+
+  // MailOutboxStatus
+  @Column(name = "status")
+  private String status;
+
+  @Column(name = "attempts")
+  private Integer attempts;
+
+  // error of the last failed attempt
+  @Column(name = "message")
+  private String message;
+
+  @Column(name = "queuedtime")
+  private Timestamp queuedTime;
+
+  // the mail is not sent before this time, set by the digest window and the retry backoff
+  @Column(name = "nextattempttime")
+  private Timestamp nextAttemptTime;
+
+  @Column(name = "senttime")
+  private Timestamp sentTime;
+}
@@ -0,0 +1,61 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/** Aggregate of the kafka metrics samples of one bucket of a resolution (1m, 1h, 1d). */
+@ToString
+@Getter
+@Setter
+@Entity
+@IdClass(KwMetricsRollupID.class)
+@Table(name = "kwkafkametricsrollup")
+public class KwMetricsRollup implements Serializable {
+
+  @Id
+  @Column(name = "env")
+  private String env;
+
+  @Id
+  @Column(name = "metricstype")
+  private String metricsType;
+
+  @Id
+  @Column(name = "metricsname")
+  private String metricsName;
+
+  @Id
+  @Column(name = "resolution")
+  private String resolution;
+
+  // epoch millis
+  @Id
+  @Column(name = "bucketstart")
+  private Long bucketStart;
+
+  @Column(name = "samples")
+  private Integer samples;
+
+  @Column(name = "samplemin")
+  private Double minValue;
+
+  @Column(name = "samplemax")
+  private Double maxValue;
+
+  @Column(name = "samplesum")
+  private Double sumValue;
+
+  @Column(name = "samplelast")
+  private Double lastValue;
+
+  public KwMetricsRollupID getId() {
+    return new KwMetricsRollupID(env, metricsType, metricsName, resolution, bucketStart);
+  }
+}
@@ -0,0 +1,26 @@
+package io.aiven.klaw.dao;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class KwMetricsRollupID implements Serializable {
+
+  private String env;
+
+  private String metricsType;
+
+  private String metricsName;
+
+  private String resolution;
+
+  private Long bucketStart;
+}
@@ -1,5 +1,6 @@
 package io.aiven.klaw.dao;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.aiven.klaw.model.enums.SchemaType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -7,11 +8,15 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.io.Serializable;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 @ToString
 @Getter
@@ -19,7 +24,7 @@ import lombok.ToString;
 @Entity
 @IdClass(MessageSchemaID.class)
 @Table(name = "kwavroschemas")
-public class MessageSchema implements Serializable {
+public class MessageSchema implements Serializable, Persistable<MessageSchemaID> {
 
   @Id
   @Column(name = "avroschemaid")
@@ -56,4 +61,26 @@ public class MessageSchema implements Serializable {
 
   @Column(name = "jsonparams")
   private String jsonParams;
+
+  // set by the source of truth writer once the id is known to be unused, so that save() inserts
+  // without first selecting the row
+  @Transient @JsonIgnore private boolean newEntity;
+
+  @JsonIgnore
+  @Override
+  public MessageSchemaID getId() {
+    return new MessageSchemaID(req_no, tenantId);
+  }
+
+  @JsonIgnore
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
 }
@@ -1,9 +1,12 @@
 package io.aiven.klaw.dao;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import java.io.Serializable;
@@ -11,6 +14,7 @@ import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 @ToString
 @Getter
@@ -18,7 +22,7 @@ import lombok.ToString;
 @Entity
 @IdClass(TopicID.class)
 @Table(name = "kwtopics")
-public class Topic implements Serializable {
+public class Topic implements Serializable, Persistable<TopicID> {
 
   @Id
   @Column(name = "topicid")
@@ -64,4 +68,26 @@ public class Topic implements Serializable {
   private String jsonParams;
 
   @Transient private boolean isExistingTopic;
+
+  // set by the source of truth writer once the id is known to be unused, so that save() inserts
+  // without first selecting the row
+  @Transient @JsonIgnore private boolean newEntity;
+
+  @JsonIgnore
+  @Override
+  public TopicID getId() {
+    return new TopicID(topicid, tenantId);
+  }
+
+  @JsonIgnore
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newEntity = false;
+  }
 }
@@ -21,6 +21,8 @@ import lombok.Setter;
 public class KwRequests {
   String klawVersion;
   String createdTime;
+  // set on incremental exports, which only contain the requests changed since then
+  String changedSince;
   List<TopicRequest> topicRequests;
   List<AclRequests> subscriptionRequests;
   List<SchemaRequest> schemaRequests;
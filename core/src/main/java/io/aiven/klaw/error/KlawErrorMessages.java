@@ -79,6 +79,10 @@ public class KlawErrorMessages {
 
   public static final String ANALYTICS_107 = "Approved requests per day";
 
+  public static final String ANALYTICS_108 = "Report job not found.";
+
+  public static final String ANALYTICS_109 = "Report is not ready. Status: %s";
+
   // Base overview service
   public static final String BASE_OVERVIEW_101 = "Not Authorized to see this.";
 
@@ -253,6 +257,9 @@ public class KlawErrorMessages {
 
   public static final String REQ_SER_ERR_104 = "Failure unable to decline requestId %s";
 
+  public static final String REQ_SER_ERR_105 =
+      "Failure unable to queue the approval of requestId %s";
+
   // Roles permissions service
   public static final String ROLE_PRM_ERR_101 = "Not Allowed";
 
@@ -5,6 +5,8 @@ import io.aiven.klaw.error.KlawNotAuthorizedException;
 import io.aiven.klaw.model.enums.*;
 import io.aiven.klaw.model.response.DashboardStats;
 import io.aiven.klaw.service.CommonUtilsService;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,6 +34,8 @@ public interface HandleDbRequests {
 
   String addNewCluster(KwClusters kwClusters);
 
+  String updateClustersAndEnvsStatus(List<KwClusters> clusters, List<Env> envs);
+
   String requestForSchema(SchemaRequest schemaRequest);
 
   CRUDResponse<Topic> addToSynctopics(List<Topic> topicRequests);
@@ -44,6 +48,8 @@ public interface HandleDbRequests {
 
   boolean hasSequence(String entityName, int tenantId);
 
+  long getNextMetadataUpdateSequence(int tenantId);
+
   String registerUser(RegisterUserInfo newUser);
 
   String registerUserForAD(RegisterUserInfo newUser);
@@ -52,6 +58,14 @@ public interface HandleDbRequests {
 
   String insertMetrics(KwMetrics kwMetrics);
 
+  String insertMetrics(List<KwMetrics> kwMetricsList);
+
+  boolean rollupStoredMetrics(int chunkSize);
+
+  List<KwApprovalJob> insertApprovalJobs(List<KwApprovalJob> approvalJobs);
+
+  List<KwMailOutbox> insertMails(List<KwMailOutbox> mails);
+
   void insertIntoActivityLog(
       String requestType,
       int tenantId,
@@ -135,6 +149,22 @@ public interface HandleDbRequests {
       RequestOperationType requestOperationType,
       String search);
 
+  int getCountTopicRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId);
+
+  int getCountAclRequestsToApprove(
+      String requestor,
+      String role,
+      boolean showRequestsOfAllTeams,
+      Collection<String> envs,
+      int tenantId);
+
+  int getCountSchemaRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId);
+
+  int getCountConnectorRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId);
+
   TopicRequest getTopicRequestsForTopic(int topicId, int tenantId);
 
   OperationalRequest getOperationalRequestsForId(int reqId, int tenantId);
@@ -150,6 +180,17 @@ public interface HandleDbRequests {
 
   List<Topic> getSyncTopics(String env, Integer teamId, int tenantId);
 
+  List<Topic> getSyncTopicsPage(
+      String env,
+      Integer teamId,
+      String topicNameSearch,
+      String afterTopicName,
+      int offset,
+      int limit,
+      int tenantId);
+
+  int getSyncTopicsCount(String env, Integer teamId, String topicNameSearch, int tenantId);
+
   List<KwKafkaConnector> getSyncConnectors(String envId, Integer teamId, int tenantId);
 
   List<Topic> getTopics(String topicName, int tenantId);
@@ -391,8 +432,29 @@ public interface HandleDbRequests {
   List<CommonUtilsService.ChartsOverviewItem<String, Integer>> getAllTopicsForTeamGroupByEnv(
       Integer teamId, int tenantId);
 
-  List<CommonUtilsService.ChartsOverviewItem<String, Integer>> getAllMetrics(
-      String metricsType, String metricsName, String env);
+  List<KwApprovalJob> getQueuedApprovalJobs(Set<String> excludedClusterKeys, int limit);
+
+  List<KwApprovalJob> getApprovalJobs(int tenantId, List<Integer> jobIds);
+
+  List<KwApprovalJob> getOpenApprovalJobs(int tenantId, String requestType, Integer requestId);
+
+  boolean claimApprovalJob(KwApprovalJob approvalJob);
+
+  void completeApprovalJob(KwApprovalJob approvalJob, ApprovalJobStatus status, String message);
+
+  int requeueApprovalJobsStartedBefore(Timestamp startedBefore);
+
+  List<KwMailOutbox> getDueMails(Timestamp dueTime, int limit);
+
+  List<KwMailOutbox> getMailsInDigestWindow(
+      Timestamp dueTime, Collection<Integer> tenantIds, int limit);
+
+  void updateMails(List<KwMailOutbox> mails);
+
+  int deleteMailsQueuedBefore(Timestamp queuedBefore);
+
+  List<CommonUtilsService.ChartsOverviewItem<String, Integer>> getMetrics(
+      String metricsType, String metricsName, String env, long fromMillis, long toMillis);
 
   Optional<MessageSchema> getFirstSchemaForTenantAndEnvAndTopicAndVersion(
       int tenantId, String schemaEnvId, String topicName, String schemaVersion);
@@ -482,6 +544,8 @@ public interface HandleDbRequests {
 
   String deleteRole(String roleId, int tenantId);
 
+  int deleteMetrics(long samplesBefore, Map<MetricsResolution, Long> rollupsBefore);
+
   String deleteUserRequest(String userId);
 
   String deleteTeamRequest(Integer teamId, int tenantId);
@@ -547,6 +611,23 @@ public interface HandleDbRequests {
 
   List<MessageSchema> getAllSchemas();
 
+  List<Topic> getTopicsPage(int pageNo, int pageSize);
+
+  List<Acl> getSubscriptionsPage(int pageNo, int pageSize);
+
+  List<MessageSchema> getSchemasPage(int pageNo, int pageSize);
+
+  List<KwKafkaConnector> getConnectorsPage(int pageNo, int pageSize);
+
+  List<TopicRequest> getTopicRequestsPage(Timestamp changedSince, int pageNo, int pageSize);
+
+  List<AclRequests> getAclRequestsPage(Timestamp changedSince, int pageNo, int pageSize);
+
+  List<SchemaRequest> getSchemaRequestsPage(Timestamp changedSince, int pageNo, int pageSize);
+
+  List<KafkaConnectorRequest> getConnectorRequestsPage(
+      Timestamp changedSince, int pageNo, int pageSize);
+
   List<Team> getTeams();
 
   List<Env> getEnvs();
@@ -119,6 +119,7 @@ public class KwConstants {
   public static final String URI_CREATE_ACLS = "/topics/createAcls";
   public static final String URI_DELETE_ACLS = "/topics/deleteAcls";
   public static final String URI_GET_TOPICS = "/topics/getTopics/";
+  public static final String URI_GET_TOPICS_DELTA = "/topics/getTopicsDelta/";
   public static final String URI_CREATE_TOPICS = "/topics/createTopics";
   public static final String URI_UPDATE_TOPICS = "/topics/updateTopics";
   public static final String URI_DELETE_TOPICS = "/topics/deleteTopics";
@@ -138,6 +139,7 @@ public class KwConstants {
 
   public static final String URI_SCHEMA = "/topics/schemas/";
   public static final String URI_GET_METRICS = "/metrics/getMetrics";
+  public static final String URI_SCRAPE_METRICS = "/metrics/scrapeMetrics";
 
   public static final String URI_VALIDATE_SCHEMA = "/topics/schema/validate/compatibility";
   public static final String URI_AIVEN_SERVICE_ACCOUNT_DETAIL =
@@ -3,6 +3,7 @@ package io.aiven.klaw.helpers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.IntFunction;
 import org.apache.commons.lang3.math.NumberUtils;
 
 public class Pager {
@@ -76,6 +77,39 @@ public class Pager {
     return aclListMapUpdated;
   }
 
+  /**
+   * Like {@link #getItemsList(String, String, int, List, BiFunction)} for items paged by the data
+   * store, only the items of the requested page are loaded.
+   *
+   * @param totalRecs number of items on all pages
+   * @param pageLoader loads the items of the requested page number, at most recsPerPage items
+   */
+  public static <INPUT, OUTPUT> List<OUTPUT> getItemsPage(
+      String pageNo,
+      String currentPage,
+      int recsPerPage,
+      int totalRecs,
+      IntFunction<List<INPUT>> pageLoader,
+      BiFunction<PageContext, INPUT, OUTPUT> consumer) {
+    List<OUTPUT> itemsUpdated = new ArrayList<>();
+
+    int totalPages = totalRecs / recsPerPage + (totalRecs % recsPerPage > 0 ? 1 : 0);
+    final int requestPageNo = deriveCurrentPage(pageNo, currentPage, totalPages);
+    if (requestPageNo < 1 || requestPageNo > totalPages) {
+      return itemsUpdated;
+    }
+
+    List<String> numList = new ArrayList<>();
+    getAllPagesList(requestPageNo, currentPage, totalPages, numList);
+
+    PageContext pageContext =
+        PageContext.of(totalPages, numList, Integer.toString(requestPageNo), totalRecs);
+    for (INPUT item : pageLoader.apply(requestPageNo)) {
+      itemsUpdated.add(consumer.apply(pageContext, item));
+    }
+    return itemsUpdated;
+  }
+
   public static class PageContext {
     private final String totalPages;
     private final List<String> allPageNos;
@@ -4,10 +4,14 @@ import static io.aiven.klaw.error.KlawErrorMessages.DELETE_REQ_ERR;
 
 import io.aiven.klaw.dao.*;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.repository.*;
 import jakarta.transaction.Transactional;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,6 +72,15 @@ public class DeleteDataJdbc {
   @Autowired(required = false)
   private TenantRepo tenantRepo;
 
+  @Autowired(required = false)
+  private KwMetricsRepo metricsRepo;
+
+  @Autowired(required = false)
+  private KwMetricsRollupRepo metricsRollupRepo;
+
+  @Autowired(required = false)
+  private KwMailOutboxRepo mailOutboxRepo;
+
   public DeleteDataJdbc() {}
 
   public DeleteDataJdbc(
@@ -284,6 +297,24 @@ public class DeleteDataJdbc {
         connector.getConnectorName(), connector.getEnvironment(), connector.getTenantId());
   }
 
+  /**
+   * Deletes the kafka metrics samples and roll up buckets older than their retention.
+   *
+   * @param samplesBefore epoch millis, older samples are deleted
+   * @param rollupsBefore epoch millis per resolution, buckets starting before are deleted
+   * @return number of deleted rows
+   */
+  @Transactional
+  public int deleteMetrics(long samplesBefore, Map<MetricsResolution, Long> rollupsBefore) {
+    int deleted = metricsRepo.deleteByMetricsTimeBefore(String.valueOf(samplesBefore));
+    for (Map.Entry<MetricsResolution, Long> rollupBefore : rollupsBefore.entrySet()) {
+      deleted +=
+          metricsRollupRepo.deleteByResolutionBefore(
+              rollupBefore.getKey().value, rollupBefore.getValue());
+    }
+    return deleted;
+  }
+
   @Transactional
   public String deleteRole(String roleId, int tenantId) {
     kwRolesPermsRepo.deleteByRoleIdAndTenantId(roleId, tenantId);
@@ -372,4 +403,11 @@ public class DeleteDataJdbc {
         });
     return ApiResultStatus.SUCCESS.value;
   }
+
+  /** Deletes the sent and failed mails of the outbox queued before the given time. */
+  @Transactional
+  public int deleteMailsQueuedBefore(Timestamp queuedBefore) {
+    return mailOutboxRepo.deleteByStatusNotAndQueuedTimeBefore(
+        MailOutboxStatus.QUEUED.name(), queuedBefore);
+  }
 }
@@ -6,6 +6,8 @@ import io.aiven.klaw.helpers.HandleDbRequests;
 import io.aiven.klaw.model.enums.*;
 import io.aiven.klaw.model.response.DashboardStats;
 import io.aiven.klaw.service.CommonUtilsService;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -72,6 +74,11 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcInsertHelper.insertIntoClusters(kwClusters);
   }
 
+  @Override
+  public String updateClustersAndEnvsStatus(List<KwClusters> clusters, List<Env> envs) {
+    return jdbcInsertHelper.updateClustersAndEnvsStatus(clusters, envs);
+  }
+
   public String requestForSchema(SchemaRequest schemaRequest) {
     return jdbcInsertHelper.insertIntoRequestSchema(schemaRequest);
   }
@@ -98,6 +105,11 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcInsertHelper.hasSequence(entityName, tenantId);
   }
 
+  @Override
+  public long getNextMetadataUpdateSequence(int tenantId) {
+    return jdbcInsertHelper.getNextMetadataUpdateSequence(tenantId);
+  }
+
   @Override
   public String registerUser(RegisterUserInfo newUser) {
     return jdbcInsertHelper.insertIntoRegisterUsers(newUser);
@@ -115,7 +127,27 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
 
   @Override
   public String insertMetrics(KwMetrics kwMetrics) {
-    return jdbcInsertHelper.insertMetrics(kwMetrics);
+    return jdbcInsertHelper.insertMetrics(List.of(kwMetrics));
+  }
+
+  @Override
+  public String insertMetrics(List<KwMetrics> kwMetricsList) {
+    return jdbcInsertHelper.insertMetrics(kwMetricsList);
+  }
+
+  @Override
+  public boolean rollupStoredMetrics(int chunkSize) {
+    return jdbcInsertHelper.rollupStoredMetrics(chunkSize);
+  }
+
+  @Override
+  public List<KwApprovalJob> insertApprovalJobs(List<KwApprovalJob> approvalJobs) {
+    return jdbcInsertHelper.insertApprovalJobs(approvalJobs);
+  }
+
+  @Override
+  public List<KwMailOutbox> insertMails(List<KwMailOutbox> mails) {
+    return jdbcInsertHelper.insertMails(mails);
   }
 
   @Override
@@ -339,6 +371,24 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectSyncTopics(env, teamId, tenantId);
   }
 
+  @Override
+  public List<Topic> getSyncTopicsPage(
+      String env,
+      Integer teamId,
+      String topicNameSearch,
+      String afterTopicName,
+      int offset,
+      int limit,
+      int tenantId) {
+    return jdbcSelectHelper.selectSyncTopicsPage(
+        env, teamId, topicNameSearch, afterTopicName, offset, limit, tenantId);
+  }
+
+  @Override
+  public int getSyncTopicsCount(String env, Integer teamId, String topicNameSearch, int tenantId) {
+    return jdbcSelectHelper.countSyncTopics(env, teamId, topicNameSearch, tenantId);
+  }
+
   @Override
   public List<KwKafkaConnector> getSyncConnectors(String envId, Integer teamId, int tenantId) {
     return jdbcSelectHelper.selectSyncConnectors(envId, teamId, tenantId);
@@ -655,6 +705,38 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectAllRegisterUsersInfoForTenant(tenantId);
   }
 
+  @Override
+  public int getCountTopicRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    return jdbcSelectHelper.countTopicRequestsToApprove(
+        requestor, showRequestsOfAllTeams, envs, tenantId);
+  }
+
+  @Override
+  public int getCountAclRequestsToApprove(
+      String requestor,
+      String role,
+      boolean showRequestsOfAllTeams,
+      Collection<String> envs,
+      int tenantId) {
+    return jdbcSelectHelper.countAclRequestsToApprove(
+        requestor, role, showRequestsOfAllTeams, envs, tenantId);
+  }
+
+  @Override
+  public int getCountSchemaRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    return jdbcSelectHelper.countSchemaRequestsToApprove(
+        requestor, showRequestsOfAllTeams, envs, tenantId);
+  }
+
+  @Override
+  public int getCountConnectorRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    return jdbcSelectHelper.countConnectorRequestsToApprove(
+        requestor, showRequestsOfAllTeams, envs, tenantId);
+  }
+
   @Override
   public int getCountRegisterUsersInfoForTenant(int tenantId) {
     return jdbcSelectHelper.countRegisterUsersInfoForTenant(tenantId);
@@ -893,9 +975,62 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
   }
 
   @Override
-  public List<CommonUtilsService.ChartsOverviewItem<String, Integer>> getAllMetrics(
-      String metricsType, String metricsName, String env) {
-    return jdbcSelectHelper.selectAllMetrics(metricsType, metricsName, env);
+  public List<KwApprovalJob> getQueuedApprovalJobs(Set<String> excludedClusterKeys, int limit) {
+    return jdbcSelectHelper.selectQueuedApprovalJobs(excludedClusterKeys, limit);
+  }
+
+  @Override
+  public List<KwApprovalJob> getApprovalJobs(int tenantId, List<Integer> jobIds) {
+    return jdbcSelectHelper.selectApprovalJobs(tenantId, jobIds);
+  }
+
+  @Override
+  public List<KwApprovalJob> getOpenApprovalJobs(
+      int tenantId, String requestType, Integer requestId) {
+    return jdbcSelectHelper.selectOpenApprovalJobs(tenantId, requestType, requestId);
+  }
+
+  @Override
+  public boolean claimApprovalJob(KwApprovalJob approvalJob) {
+    return jdbcUpdateHelper.claimApprovalJob(approvalJob);
+  }
+
+  @Override
+  public void completeApprovalJob(
+      KwApprovalJob approvalJob, ApprovalJobStatus status, String message) {
+    jdbcUpdateHelper.completeApprovalJob(approvalJob, status, message);
+  }
+
+  @Override
+  public int requeueApprovalJobsStartedBefore(Timestamp startedBefore) {
+    return jdbcUpdateHelper.requeueApprovalJobsStartedBefore(startedBefore);
+  }
+
+  @Override
+  public List<KwMailOutbox> getDueMails(Timestamp dueTime, int limit) {
+    return jdbcSelectHelper.selectDueMails(dueTime, limit);
+  }
+
+  @Override
+  public List<KwMailOutbox> getMailsInDigestWindow(
+      Timestamp dueTime, Collection<Integer> tenantIds, int limit) {
+    return jdbcSelectHelper.selectMailsInDigestWindow(dueTime, tenantIds, limit);
+  }
+
+  @Override
+  public void updateMails(List<KwMailOutbox> mails) {
+    jdbcUpdateHelper.updateMails(mails);
+  }
+
+  @Override
+  public int deleteMailsQueuedBefore(Timestamp queuedBefore) {
+    return jdbcDeleteHelper.deleteMailsQueuedBefore(queuedBefore);
+  }
+
+  @Override
+  public List<CommonUtilsService.ChartsOverviewItem<String, Integer>> getMetrics(
+      String metricsType, String metricsName, String env, long fromMillis, long toMillis) {
+    return jdbcSelectHelper.selectMetrics(metricsType, metricsName, env, fromMillis, toMillis);
   }
 
   @Override
@@ -1073,6 +1208,11 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcDeleteHelper.deleteRole(roleId, tenantId);
   }
 
+  @Override
+  public int deleteMetrics(long samplesBefore, Map<MetricsResolution, Long> rollupsBefore) {
+    return jdbcDeleteHelper.deleteMetrics(samplesBefore, rollupsBefore);
+  }
+
   @Override
   public String deleteUserRequest(String userId) {
     return jdbcDeleteHelper.deleteUserRequest(userId);
@@ -1255,6 +1395,48 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectAllSchemas();
   }
 
+  @Override
+  public List<Topic> getTopicsPage(int pageNo, int pageSize) {
+    return jdbcSelectHelper.getTopicsPage(pageNo, pageSize);
+  }
+
+  @Override
+  public List<Acl> getSubscriptionsPage(int pageNo, int pageSize) {
+    return jdbcSelectHelper.getSubscriptionsPage(pageNo, pageSize);
+  }
+
+  @Override
+  public List<MessageSchema> getSchemasPage(int pageNo, int pageSize) {
+    return jdbcSelectHelper.getSchemasPage(pageNo, pageSize);
+  }
+
+  @Override
+  public List<KwKafkaConnector> getConnectorsPage(int pageNo, int pageSize) {
+    return jdbcSelectHelper.getConnectorsPage(pageNo, pageSize);
+  }
+
+  @Override
+  public List<TopicRequest> getTopicRequestsPage(Timestamp changedSince, int pageNo, int pageSize) {
+    return jdbcSelectHelper.getTopicRequestsPage(changedSince, pageNo, pageSize);
+  }
+
+  @Override
+  public List<AclRequests> getAclRequestsPage(Timestamp changedSince, int pageNo, int pageSize) {
+    return jdbcSelectHelper.getAclRequestsPage(changedSince, pageNo, pageSize);
+  }
+
+  @Override
+  public List<SchemaRequest> getSchemaRequestsPage(
+      Timestamp changedSince, int pageNo, int pageSize) {
+    return jdbcSelectHelper.getSchemaRequestsPage(changedSince, pageNo, pageSize);
+  }
+
+  @Override
+  public List<KafkaConnectorRequest> getConnectorRequestsPage(
+      Timestamp changedSince, int pageNo, int pageSize) {
+    return jdbcSelectHelper.getConnectorRequestsPage(changedSince, pageNo, pageSize);
+  }
+
   @Override
   public List<Team> getTeams() {
     return jdbcSelectHelper.selectTeams();
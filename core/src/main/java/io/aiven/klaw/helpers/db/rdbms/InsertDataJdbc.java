@@ -1,19 +1,30 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
+import static io.aiven.klaw.helpers.KwConstants.DEFAULT_TENANT_ID;
 import static org.springframework.beans.BeanUtils.copyProperties;
 
 import io.aiven.klaw.dao.*;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.EntityType;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.repository.*;
+import jakarta.transaction.Transactional;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +36,36 @@ public class InsertDataJdbc {
 
   public static final int DEFAULT_REQ_ID_NUMBER = 1001;
 
+  // rows per saveAll call when writing source of truth tables, aligned with
+  // hibernate.jdbc.batch_size so each call is flushed as one JDBC batch
+  static final int SOT_BATCH_SIZE = 500;
+
+  // kwentityseq entity names for id blocks of source of truth tables
+  static final String TOPIC_ID_SEQUENCE = "TOPIC_ID";
+  static final String ACL_ID_SEQUENCE = "ACL_ID";
+  static final String SCHEMA_ID_SEQUENCE = "SCHEMA_ID";
+  static final String CONNECTOR_ID_SEQUENCE = "CONNECTOR_ID";
+
+  // kwentityseq entity name numbering the metadata cache updates of a tenant, entity_name is
+  // limited to 15 characters
+  public static final String METADATA_UPDATES_SEQUENCE = "METADATA_SEQ";
+
+  // kwentityseq entity name of the kafka metrics ids, the table is shared by all tenants
+  public static final String METRICS_SEQUENCE = "KAFKA_METRICS";
+
+  // kwentityseq entity name of the id of the newest sample stored before the roll ups existed
+  // which is still to be rolled up, 0 once all are
+  public static final String METRICS_BACKFILL_SEQUENCE = "KAFKA_METRICS_BACKFILL";
+
+  // kwentityseq entity name of the approval job ids, the table is shared by all tenants
+  public static final String APPROVAL_JOBS_SEQUENCE = "APPROVAL_JOBS";
+
+  // kwentityseq entity name of the mail outbox ids, the table is shared by all tenants
+  public static final String MAIL_OUTBOX_SEQUENCE = "MAIL_OUTBOX";
+
+  // source of truth writes are serialised per tenant only, tenants do not block each other
+  private final Map<Integer, Lock> sotLocksPerTenant = new ConcurrentHashMap<>();
+
   @Autowired(required = false)
   private UserInfoRepo userInfoRepo;
 
@@ -85,6 +126,15 @@ public class InsertDataJdbc {
   @Autowired(required = false)
   private KwMetricsRepo metricsRepo;
 
+  @Autowired(required = false)
+  private KwMetricsRollupRepo metricsRollupRepo;
+
+  @Autowired(required = false)
+  private KwApprovalJobRepo approvalJobRepo;
+
+  @Autowired(required = false)
+  private KwMailOutboxRepo mailOutboxRepo;
+
   @Autowired(required = false)
   private KwEntitySequenceRepo kwEntitySequenceRepo;
 
@@ -134,50 +184,105 @@ public class InsertDataJdbc {
     return hashMap;
   }
 
-  public synchronized CRUDResponse<Topic> insertIntoTopicSOT(List<Topic> topics) {
+  public CRUDResponse<Topic> insertIntoTopicSOT(List<Topic> topics) {
+    groupByTenant(topics, Topic::getTenantId)
+        .forEach(
+            (tenantId, tenantTopics) ->
+                runWithTenantLock(
+                    tenantId, () -> insertTopicsSOTForTenant(tenantId, tenantTopics)));
+    return CRUDResponse.ok(topics);
+  }
+
+  private void insertTopicsSOTForTenant(int tenantId, List<Topic> topics) {
+    List<Integer> newTopicIds =
+        topics.stream()
+            .filter(t -> !t.isExistingTopic() && t.getTopicid() != null)
+            .map(Topic::getTopicid)
+            .collect(Collectors.toList());
     Set<Integer> existingTopicIds = new HashSet<>();
-    topicRepo
-        .findAllById(
-            topics.stream()
-                .filter(t -> !t.isExistingTopic())
-                .map(t -> new TopicID(t.getTopicid(), t.getTenantId()))
-                .collect(Collectors.toList()))
-        .forEach(entry -> existingTopicIds.add(entry.getTopicid()));
-
-    for (Topic topic : topics) {
-      if (existingTopicIds.contains(topic.getTopicid())) {
+    forEachBatch(
+        newTopicIds,
+        batch -> existingTopicIds.addAll(topicRepo.findExistingTopicIds(tenantId, batch)));
+
+    List<Topic> topicsWithoutId =
+        topics.stream()
+            .filter(
+                t ->
+                    t.getTopicid() == null
+                        || (!t.isExistingTopic() && existingTopicIds.contains(t.getTopicid())))
+            .toList();
+    if (!topicsWithoutId.isEmpty()) {
+      int nextId =
+          reserveIdBlock(
+              TOPIC_ID_SEQUENCE,
+              tenantId,
+              topicsWithoutId.size(),
+              topicRepo.getNextTopicRequestId(tenantId));
+      for (Topic topic : topicsWithoutId) {
         log.debug("insertIntoTopicSOT {} update topic Id", topic.getTopicname());
-        topic.setTopicid(getNextTopicRequestId("TOPIC_ID", topic.getTenantId()));
+        topic.setTopicid(nextId++);
+        topic.setNewEntity(true);
       }
-      log.debug("insertIntoTopicSOT {}", topic.getTopicname());
-      topicRepo.save(topic);
     }
+    // ids of new topics are unused now, insert them without a select per row
+    topics.stream().filter(t -> !t.isExistingTopic()).forEach(t -> t.setNewEntity(true));
 
-    return CRUDResponse.ok(topics);
+    log.debug("insertIntoTopicSOT {} topics for tenant {}", topics.size(), tenantId);
+    forEachBatch(topics, topicRepo::saveAll);
   }
 
-  public synchronized String insertIntoConnectorSOT(
+  public String insertIntoConnectorSOT(
       List<KwKafkaConnector> kafkaConnectors, boolean isSyncTopics) {
-
-    kafkaConnectors.forEach(
-        connector -> {
-          log.debug("insertIntoConnectorSOT {}", connector.getConnectorName());
-          if (!connector.isExistingConnector()) {
-            KwKafkaConnectorID kwKafkaConnectorID = new KwKafkaConnectorID();
-            kwKafkaConnectorID.setConnectorId(connector.getConnectorId());
-            kwKafkaConnectorID.setTenantId(connector.getTenantId());
-
-            if (kafkaConnectorRepo.existsById(kwKafkaConnectorID)) {
-              connector.setConnectorId(
-                  getNextConnectorRequestId("CONNECTOR_ID", connector.getTenantId()));
-            }
-          }
-          kafkaConnectorRepo.save(connector);
-        });
+    groupByTenant(kafkaConnectors, KwKafkaConnector::getTenantId)
+        .forEach(
+            (tenantId, tenantConnectors) ->
+                runWithTenantLock(
+                    tenantId, () -> insertConnectorsSOTForTenant(tenantId, tenantConnectors)));
 
     return ApiResultStatus.SUCCESS.value;
   }
 
+  private void insertConnectorsSOTForTenant(int tenantId, List<KwKafkaConnector> connectors) {
+    List<Integer> newConnectorIds =
+        connectors.stream()
+            .filter(c -> !c.isExistingConnector() && c.getConnectorId() != null)
+            .map(KwKafkaConnector::getConnectorId)
+            .collect(Collectors.toList());
+    Set<Integer> existingConnectorIds = new HashSet<>();
+    forEachBatch(
+        newConnectorIds,
+        batch ->
+            existingConnectorIds.addAll(
+                kafkaConnectorRepo.findExistingConnectorIds(tenantId, batch)));
+
+    List<KwKafkaConnector> connectorsWithoutId =
+        connectors.stream()
+            .filter(
+                c ->
+                    c.getConnectorId() == null
+                        || (!c.isExistingConnector()
+                            && existingConnectorIds.contains(c.getConnectorId())))
+            .toList();
+    if (!connectorsWithoutId.isEmpty()) {
+      int nextId =
+          reserveIdBlock(
+              CONNECTOR_ID_SEQUENCE,
+              tenantId,
+              connectorsWithoutId.size(),
+              kafkaConnectorRepo.getNextConnectorRequestId(tenantId));
+      for (KwKafkaConnector connector : connectorsWithoutId) {
+        log.debug("insertIntoConnectorSOT {} update connector Id", connector.getConnectorName());
+        connector.setConnectorId(nextId++);
+        connector.setNewEntity(true);
+      }
+    }
+    // ids of new connectors are unused now, insert them without a select per row
+    connectors.stream().filter(c -> !c.isExistingConnector()).forEach(c -> c.setNewEntity(true));
+
+    log.debug("insertIntoConnectorSOT {} connectors for tenant {}", connectors.size(), tenantId);
+    forEachBatch(connectors, kafkaConnectorRepo::saveAll);
+  }
+
   private String insertIntoActivityLog(ActivityLog activityLog) {
     log.debug("insertIntoActivityLog {}", activityLog.getActivityName());
     activityLogRepo.save(activityLog);
@@ -243,16 +348,31 @@ public class InsertDataJdbc {
     return hashMap;
   }
 
-  public synchronized String insertIntoAclsSOT(List<Acl> acls, boolean isSyncAcls) {
-
-    acls.forEach(
-        acl -> {
-          log.debug("insertIntoAclsSOT {}", acl.getTopicname());
-          if (acl.getReq_no() == null) {
-            acl.setReq_no(getNextAclId(acl.getTenantId()));
-          }
-          aclRepo.save(acl);
-        });
+  public String insertIntoAclsSOT(List<Acl> acls, boolean isSyncAcls) {
+    groupByTenant(acls, Acl::getTenantId)
+        .forEach(
+            (tenantId, tenantAcls) ->
+                runWithTenantLock(
+                    tenantId,
+                    () -> {
+                      List<Acl> aclsWithoutId =
+                          tenantAcls.stream().filter(acl -> acl.getReq_no() == null).toList();
+                      if (!aclsWithoutId.isEmpty()) {
+                        int nextId =
+                            reserveIdBlock(
+                                ACL_ID_SEQUENCE,
+                                tenantId,
+                                aclsWithoutId.size(),
+                                aclRepo.getNextAclId(tenantId));
+                        for (Acl acl : aclsWithoutId) {
+                          acl.setReq_no(nextId++);
+                          acl.setNewEntity(true);
+                        }
+                      }
+                      log.debug(
+                          "insertIntoAclsSOT {} acls for tenant {}", tenantAcls.size(), tenantId);
+                      forEachBatch(tenantAcls, aclRepo::saveAll);
+                    }));
     return ApiResultStatus.SUCCESS.value;
   }
 
@@ -272,16 +392,79 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public synchronized String insertIntoMessageSchemaSOT(List<MessageSchema> schemas) {
+  public String insertIntoMessageSchemaSOT(List<MessageSchema> schemas) {
+    groupByTenant(schemas, MessageSchema::getTenantId)
+        .forEach(
+            (tenantId, tenantSchemas) ->
+                runWithTenantLock(
+                    tenantId,
+                    () -> {
+                      List<MessageSchema> schemasWithoutId =
+                          tenantSchemas.stream().filter(s -> s.getReq_no() == null).toList();
+                      if (!schemasWithoutId.isEmpty()) {
+                        int nextId =
+                            reserveIdBlock(
+                                SCHEMA_ID_SEQUENCE,
+                                tenantId,
+                                schemasWithoutId.size(),
+                                messageSchemaRepo.getNextSchemaId(tenantId));
+                        for (MessageSchema mSchema : schemasWithoutId) {
+                          mSchema.setReq_no(nextId++);
+                          mSchema.setNewEntity(true);
+                        }
+                      }
+                      log.debug(
+                          "insertIntoMessageSchemaSOT {} schemas for tenant {}",
+                          tenantSchemas.size(),
+                          tenantId);
+                      forEachBatch(tenantSchemas, messageSchemaRepo::saveAll);
+                    }));
+    return ApiResultStatus.SUCCESS.value;
+  }
 
-    for (MessageSchema mSchema : schemas) {
-      log.debug("insertIntoMessageSchemaSOT {}", mSchema.getTopicname());
-      if (mSchema.getReq_no() == null) {
-        mSchema.setReq_no(getNextSchemaRequestId("SCHEMA_ID", mSchema.getTenantId()));
-      }
-      messageSchemaRepo.save(mSchema);
+  /**
+   * Reserves a block of consecutive ids for a source of truth table with a single update of its
+   * kwentityseq row (hi/lo). The block never starts at or below the highest stored id, so it does
+   * not collide with ids handed out as max(id) + 1 by the single row request flows.
+   *
+   * @param sequenceName kwentityseq entity name
+   * @param tenantId tenant of the rows
+   * @param blockSize number of ids required
+   * @param maxStoredId the current max id of the table for the tenant, or null if it is empty
+   * @return the first id of the reserved block
+   */
+  int reserveIdBlock(String sequenceName, int tenantId, int blockSize, Integer maxStoredId) {
+    int firstId = maxStoredId == null ? DEFAULT_REQ_ID_NUMBER : maxStoredId + 1;
+    List<KwEntitySequence> kwEntitySequenceList =
+        kwEntitySequenceRepo.findAllByEntityNameAndTenantId(sequenceName, tenantId);
+    if (!kwEntitySequenceList.isEmpty() && kwEntitySequenceList.get(0).getSeqId() != null) {
+      firstId = Math.max(firstId, kwEntitySequenceList.get(0).getSeqId());
+    }
+    insertIntoKwEntitySequence(sequenceName, firstId + blockSize, tenantId);
+    return firstId;
+  }
+
+  private void runWithTenantLock(int tenantId, Runnable action) {
+    Lock lock = sotLocksPerTenant.computeIfAbsent(tenantId, k -> new ReentrantLock());
+    lock.lock();
+    try {
+      action.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static <T> Map<Integer, List<T>> groupByTenant(
+      List<T> entities, Function<T, Integer> tenantIdGetter) {
+    return entities.stream()
+        .collect(Collectors.groupingBy(tenantIdGetter, LinkedHashMap::new, Collectors.toList()));
+  }
+
+  private static <T> void forEachBatch(List<T> entities, Consumer<List<T>> batchConsumer) {
+    for (int from = 0; from < entities.size(); from += SOT_BATCH_SIZE) {
+      batchConsumer.accept(
+          entities.subList(from, Math.min(entities.size(), from + SOT_BATCH_SIZE)));
     }
-    return ApiResultStatus.SUCCESS.value;
   }
 
   public String insertIntoUsers(UserInfo userInfo) {
@@ -337,6 +520,15 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
+  /** Saves the probed status of existing clusters and environments in one transaction. */
+  @Transactional
+  public String updateClustersAndEnvsStatus(List<KwClusters> clusters, List<Env> envs) {
+    log.debug("Update status of {} clusters and {} envs", clusters.size(), envs.size());
+    kwClusterRepo.saveAll(clusters);
+    envRepo.saveAll(envs);
+    return ApiResultStatus.SUCCESS.value;
+  }
+
   public void insertIntoKwEntitySequence(String entityName, int maxId, int tenantId) {
     KwEntitySequence kwEntitySequence = new KwEntitySequence();
     kwEntitySequence.setEntityName(entityName);
@@ -375,6 +567,24 @@ public class InsertDataJdbc {
     }
   }
 
+  /**
+   * Increments the metadata update sequence of the tenant in the db, so every instance sharing the
+   * db hands out distinct, ordered sequence numbers.
+   *
+   * @return the sequence number of the new metadata update
+   */
+  @Transactional
+  public long getNextMetadataUpdateSequence(int tenantId) {
+    if (kwEntitySequenceRepo.incrementSeqId(METADATA_UPDATES_SEQUENCE, tenantId) == 0) {
+      insertIntoKwEntitySequence(METADATA_UPDATES_SEQUENCE, 1, tenantId);
+      return 1;
+    }
+    return kwEntitySequenceRepo
+        .findAllByEntityNameAndTenantId(METADATA_UPDATES_SEQUENCE, tenantId)
+        .get(0)
+        .getSeqId();
+  }
+
   public String insertIntoRegisterUsers(RegisterUserInfo userInfo) {
     log.debug("insertIntoRegisterUsers {}", userInfo.getUsername());
 
@@ -504,20 +714,158 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public String insertMetrics(KwMetrics kwMetrics) {
-    Integer metricsId = metricsRepo.getNextId();
-    if (metricsId == null) {
-      metricsId = DEFAULT_REQ_ID_NUMBER;
-    } else {
-      metricsId += 1;
+  /**
+   * Appends the samples of one scrape in one batch and adds them to their 1m, 1h and 1d roll up
+   * buckets. Ids are reserved as one block of the kwentityseq row of the metrics table.
+   */
+  @Transactional
+  public String insertMetrics(List<KwMetrics> kwMetricsList) {
+    if (kwMetricsList.isEmpty()) {
+      return ApiResultStatus.SUCCESS.value;
+    }
+    int metricsId = reserveMetricsIds(kwMetricsList.size());
+    for (KwMetrics kwMetrics : kwMetricsList) {
+      kwMetrics.setMetricsId(metricsId++);
     }
 
-    kwMetrics.setMetricsId(metricsId);
-
-    metricsRepo.save(kwMetrics);
+    metricsRepo.saveAll(kwMetricsList);
+    rollupMetrics(kwMetricsList, false);
     return ApiResultStatus.SUCCESS.value;
   }
 
+  // the row of an existing table is seeded after its samples, which are left to
+  // rollupStoredMetrics
+  private int reserveMetricsIds(int blockSize) {
+    // the max id is only needed to seed the sequence of an existing table
+    Integer maxStoredId =
+        kwEntitySequenceRepo.existsByEntityNameAndTenantId(METRICS_SEQUENCE, DEFAULT_TENANT_ID)
+            ? null
+            : metricsRepo.getNextId();
+    int metricsId = reserveIdBlock(METRICS_SEQUENCE, DEFAULT_TENANT_ID, blockSize, maxStoredId);
+    if (maxStoredId != null) {
+      insertIntoKwEntitySequence(METRICS_BACKFILL_SEQUENCE, maxStoredId, DEFAULT_TENANT_ID);
+    }
+    return metricsId;
+  }
+
+  /**
+   * Rolls up the newest chunk of the samples stored before the roll ups existed, newer samples are
+   * rolled up when they are inserted. The progress is kept in the kwentityseq row of the back-fill,
+   * a chunk is skipped if another instance moved it.
+   *
+   * @return true if older stored samples are left
+   */
+  @Transactional
+  public boolean rollupStoredMetrics(int chunkSize) {
+    if (!kwEntitySequenceRepo.existsByEntityNameAndTenantId(METRICS_SEQUENCE, DEFAULT_TENANT_ID)) {
+      reserveMetricsIds(0);
+    }
+    List<KwEntitySequence> backfill =
+        kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            METRICS_BACKFILL_SEQUENCE, DEFAULT_TENANT_ID);
+    if (backfill.isEmpty()
+        || backfill.get(0).getSeqId() == null
+        || backfill.get(0).getSeqId() <= 0) {
+      return false;
+    }
+
+    int lastId = backfill.get(0).getSeqId();
+    // samples are read as columns, so the chunks do not stay in the persistence context
+    List<Object[]> samples = metricsRepo.findSamplesUpToId(lastId, chunkSize);
+    int nextLastId =
+        samples.size() < chunkSize
+            ? 0
+            : ((Number) samples.get(samples.size() - 1)[0]).intValue() - 1;
+    if (kwEntitySequenceRepo.updateSeqId(
+            METRICS_BACKFILL_SEQUENCE, DEFAULT_TENANT_ID, lastId, nextLastId)
+        == 0) {
+      return false;
+    }
+
+    List<KwMetrics> chunk = new ArrayList<>();
+    for (Object[] sample : samples) {
+      chunk.add(
+          KwMetrics.builder()
+              .metricsTime((String) sample[1])
+              .metricsAttributes((String) sample[2])
+              .env((String) sample[3])
+              .metricsType((String) sample[4])
+              .metricsName((String) sample[5])
+              .build());
+    }
+    Collections.reverse(chunk);
+    rollupMetrics(chunk, true);
+    return nextLastId > 0;
+  }
+
+  // older samples do not replace the last value of a bucket which already has samples
+  private void rollupMetrics(List<KwMetrics> kwMetricsList, boolean olderSamples) {
+    Map<KwMetricsRollupID, Double> latestValues = new LinkedHashMap<>();
+    Map<KwMetricsRollupID, List<Double>> bucketValues = new LinkedHashMap<>();
+    for (KwMetrics kwMetrics : kwMetricsList) {
+      double value;
+      long metricsTime;
+      try {
+        value = Double.parseDouble(kwMetrics.getMetricsAttributes());
+        metricsTime = Long.parseLong(kwMetrics.getMetricsTime());
+      } catch (NumberFormatException | NullPointerException e) {
+        log.debug("Not rolling up metrics sample {}", kwMetrics);
+        continue;
+      }
+      for (MetricsResolution resolution : MetricsResolution.values()) {
+        KwMetricsRollupID id =
+            new KwMetricsRollupID(
+                kwMetrics.getEnv(),
+                kwMetrics.getMetricsType(),
+                kwMetrics.getMetricsName(),
+                resolution.value,
+                resolution.bucketStart(metricsTime));
+        bucketValues.computeIfAbsent(id, k -> new ArrayList<>()).add(value);
+        latestValues.put(id, value);
+      }
+    }
+    if (bucketValues.isEmpty()) {
+      return;
+    }
+
+    // one read of the existing buckets, new buckets are created
+    Map<KwMetricsRollupID, KwMetricsRollup> rollups = new HashMap<>();
+    metricsRollupRepo
+        .findAllById(bucketValues.keySet())
+        .forEach(rollup -> rollups.put(rollup.getId(), rollup));
+    List<KwMetricsRollup> updatedRollups = new ArrayList<>();
+    bucketValues.forEach(
+        (id, values) -> {
+          KwMetricsRollup rollup = rollups.computeIfAbsent(id, InsertDataJdbc::newRollup);
+          boolean emptyBucket = rollup.getSamples() == 0;
+          for (Double value : values) {
+            rollup.setSamples(rollup.getSamples() + 1);
+            rollup.setMinValue(Math.min(rollup.getMinValue(), value));
+            rollup.setMaxValue(Math.max(rollup.getMaxValue(), value));
+            rollup.setSumValue(rollup.getSumValue() + value);
+          }
+          if (!olderSamples || emptyBucket) {
+            rollup.setLastValue(latestValues.get(id));
+          }
+          updatedRollups.add(rollup);
+        });
+    metricsRollupRepo.saveAll(updatedRollups);
+  }
+
+  private static KwMetricsRollup newRollup(KwMetricsRollupID id) {
+    KwMetricsRollup rollup = new KwMetricsRollup();
+    rollup.setEnv(id.getEnv());
+    rollup.setMetricsType(id.getMetricsType());
+    rollup.setMetricsName(id.getMetricsName());
+    rollup.setResolution(id.getResolution());
+    rollup.setBucketStart(id.getBucketStart());
+    rollup.setSamples(0);
+    rollup.setMinValue(Double.MAX_VALUE);
+    rollup.setMaxValue(-Double.MAX_VALUE);
+    rollup.setSumValue(0.0);
+    return rollup;
+  }
+
   public String insertDefaultKwProperties(List<KwProperties> kwPropertiesList) {
     kwPropertiesRepo.saveAll(kwPropertiesList);
     return ApiResultStatus.SUCCESS.value;
@@ -567,4 +915,42 @@ public class InsertDataJdbc {
     activityLog.setTenantId(tenantId);
     insertIntoActivityLog(activityLog);
   }
+
+  /** Stores the queued approval jobs, their ids are reserved as one block. */
+  @Transactional
+  public synchronized List<KwApprovalJob> insertApprovalJobs(List<KwApprovalJob> approvalJobs) {
+    if (approvalJobs.isEmpty()) {
+      return approvalJobs;
+    }
+    Integer maxStoredId =
+        kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+                APPROVAL_JOBS_SEQUENCE, DEFAULT_TENANT_ID)
+            ? null
+            : approvalJobRepo.getNextId();
+    int jobId =
+        reserveIdBlock(APPROVAL_JOBS_SEQUENCE, DEFAULT_TENANT_ID, approvalJobs.size(), maxStoredId);
+    for (KwApprovalJob approvalJob : approvalJobs) {
+      approvalJob.setJobId(jobId++);
+    }
+    approvalJobRepo.saveAll(approvalJobs);
+    return approvalJobs;
+  }
+
+  /** Stores the mails in the outbox, their ids are reserved as one block. */
+  @Transactional
+  public synchronized List<KwMailOutbox> insertMails(List<KwMailOutbox> mails) {
+    if (mails.isEmpty()) {
+      return mails;
+    }
+    Integer maxStoredId =
+        kwEntitySequenceRepo.existsByEntityNameAndTenantId(MAIL_OUTBOX_SEQUENCE, DEFAULT_TENANT_ID)
+            ? null
+            : mailOutboxRepo.getNextId();
+    int mailId = reserveIdBlock(MAIL_OUTBOX_SEQUENCE, DEFAULT_TENANT_ID, mails.size(), maxStoredId);
+    for (KwMailOutbox mail : mails) {
+      mail.setMailId(mailId++);
+    }
+    mailOutboxRepo.saveAll(mails);
+    return mails;
+  }
 }
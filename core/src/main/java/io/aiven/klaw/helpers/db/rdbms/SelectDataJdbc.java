@@ -8,7 +8,10 @@ import com.google.common.collect.Lists;
 import io.aiven.klaw.dao.*;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclType;
+import io.aiven.klaw.model.enums.ApprovalJobStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.NewUserStatus;
 import io.aiven.klaw.model.enums.OperationalRequestType;
 import io.aiven.klaw.model.enums.OrderBy;
@@ -46,6 +49,8 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -55,6 +60,12 @@ public class SelectDataJdbc {
   @Autowired(required = false)
   private UserInfoRepo userInfoRepo;
 
+  @Autowired(required = false)
+  private KwApprovalJobRepo approvalJobRepo;
+
+  @Autowired(required = false)
+  private KwMailOutboxRepo mailOutboxRepo;
+
   @Autowired(required = false)
   private KwPropertiesRepo kwPropertiesRepo;
 
@@ -107,7 +118,7 @@ public class SelectDataJdbc {
   private KwClusterRepo kwClusterRepo;
 
   @Autowired(required = false)
-  private KwMetricsRepo kwMetricsRepo;
+  private KwMetricsRollupRepo kwMetricsRollupRepo;
 
   @Autowired(required = false)
   private ProductDetailsRepo productDetailsRepo;
@@ -458,6 +469,67 @@ public class SelectDataJdbc {
     }
   }
 
+  /**
+   * A page of the topics {@link #selectSyncTopics(String, Integer, int)} returns, paged on the
+   * distinct topic names in the database. Rows of all environments are returned for the topic names
+   * of the page.
+   *
+   * @param topicNameSearch matches topic names or documentation containing it, null for all
+   * @param afterTopicName the page starts after this topic name, empty to start at the offset
+   * @param offset number of topic names to skip
+   * @param limit number of topic names on the page
+   */
+  public List<Topic> selectSyncTopicsPage(
+      String env,
+      Integer teamId,
+      String topicNameSearch,
+      String afterTopicName,
+      int offset,
+      int limit,
+      int tenantId) {
+    log.debug("selectSyncTopicsPage {} {} {}", env, teamId, afterTopicName);
+    Integer teamFilter = syncTopicsTeamFilter(teamId);
+    String envFilter = env == null ? "ALL" : env;
+    List<String> topicNames =
+        topicRepo.findSyncTopicNamesPage(
+            envFilter,
+            teamFilter,
+            syncTopicsSearchPattern(topicNameSearch),
+            afterTopicName == null ? "" : afterTopicName,
+            offset,
+            limit,
+            tenantId);
+    if (topicNames.isEmpty()) {
+      return new ArrayList<>();
+    }
+    if ("ALL".equals(envFilter) && teamFilter != -1) {
+      return topicRepo.findAllByTeamIdAndTenantIdAndTopicnameIn(teamFilter, tenantId, topicNames);
+    }
+    return topicRepo.findAllByTenantIdAndTopicnameIn(tenantId, topicNames);
+  }
+
+  /**
+   * @return the number of distinct topic names {@link #selectSyncTopicsPage} pages over
+   */
+  public int countSyncTopics(String env, Integer teamId, String topicNameSearch, int tenantId) {
+    return topicRepo.countSyncTopicNames(
+        env == null ? "ALL" : env,
+        syncTopicsTeamFilter(teamId),
+        syncTopicsSearchPattern(topicNameSearch),
+        tenantId);
+  }
+
+  private static Integer syncTopicsTeamFilter(Integer teamId) {
+    return teamId == null || teamId.equals(1) ? -1 : teamId;
+  }
+
+  private static String syncTopicsSearchPattern(String topicNameSearch) {
+    if (topicNameSearch == null || topicNameSearch.isEmpty()) {
+      return "%";
+    }
+    return "%" + topicNameSearch.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+  }
+
   public DashboardStats getDashboardStats(Integer teamId, int tenantId) {
     DashboardStats dashboardStats = new DashboardStats();
     dashboardStats.setProducerCount(
@@ -855,6 +927,104 @@ public class SelectDataJdbc {
     return topicRequestList;
   }
 
+  /**
+   * Counts the topic requests the user can approve, with the same filtering as {@link
+   * #selectFilteredTopicRequests} for approvers, restricted to the given environments.
+   */
+  public int countTopicRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    if (envs.isEmpty()) {
+      return 0;
+    }
+    String status = RequestStatus.CREATED.value;
+    if (showRequestsOfAllTeams) {
+      return (int)
+          topicRequestsRepo.countAllTeamsTopicRequestsToApprove(tenantId, requestor, status, envs);
+    }
+    Integer teamSelected = selectUserInfo(requestor).getTeamId();
+    return (int)
+        topicRequestsRepo.countTopicRequestsToApprove(
+            teamSelected, String.valueOf(teamSelected), tenantId, requestor, status, envs);
+  }
+
+  /**
+   * Counts the connector requests the user can approve, with the same filtering as {@link
+   * #selectFilteredKafkaConnectorRequests} for approvers, restricted to the given environments.
+   */
+  public int countConnectorRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    if (envs.isEmpty()) {
+      return 0;
+    }
+    String status = RequestStatus.CREATED.value;
+    if (showRequestsOfAllTeams) {
+      return (int)
+          kafkaConnectorRequestsRepo.countAllTeamsConnectorRequestsToApprove(
+              tenantId, requestor, status, envs);
+    }
+    Integer teamSelected = selectUserInfo(requestor).getTeamId();
+    return (int)
+        kafkaConnectorRequestsRepo.countConnectorRequestsToApprove(
+            teamSelected, String.valueOf(teamSelected), tenantId, requestor, status, envs);
+  }
+
+  /**
+   * Counts the schema requests the user can approve, with the same filtering as {@link
+   * #selectFilteredSchemaRequests} for approvers, restricted to the given environments.
+   */
+  public int countSchemaRequestsToApprove(
+      String requestor, boolean showRequestsOfAllTeams, Collection<String> envs, int tenantId) {
+    if (envs.isEmpty()) {
+      return 0;
+    }
+    String status = RequestStatus.CREATED.value;
+    if (showRequestsOfAllTeams) {
+      return (int)
+          schemaRequestRepo.countAllTeamsSchemaRequestsToApprove(tenantId, requestor, status, envs);
+    }
+    return (int)
+        schemaRequestRepo.countSchemaRequestsToApprove(
+            selectUserInfo(requestor).getTeamId(), tenantId, requestor, status, envs);
+  }
+
+  /**
+   * Counts the acl requests the user can approve, with the same filtering as {@link
+   * #selectFilteredAclRequests} for approvers, restricted to the given environments. Claims are
+   * counted when they wait for the approval of the team of the user.
+   */
+  public int countAclRequestsToApprove(
+      String requestor,
+      String role,
+      boolean showRequestsOfAllTeams,
+      Collection<String> envs,
+      int tenantId) {
+    if (envs.isEmpty()) {
+      return 0;
+    }
+    String status = RequestStatus.CREATED.value;
+    Integer teamSelected = selectUserInfo(requestor).getTeamId();
+    long count;
+    if (showRequestsOfAllTeams) {
+      count = aclRequestsRepo.countAllTeamsAclRequestsToApprove(tenantId, requestor, status, envs);
+    } else if (REQUESTOR_SUBSCRIPTIONS.equals(role)) {
+      count =
+          aclRequestsRepo.countAclRequestsToApproveByRequestingTeam(
+              teamSelected, tenantId, requestor, status, envs);
+    } else {
+      count =
+          aclRequestsRepo.countAclRequestsToApprove(
+              teamSelected, tenantId, requestor, status, envs);
+    }
+
+    Optional<Team> team = teamRepo.findById(new TeamID(teamSelected, tenantId));
+    if (team.isPresent()) {
+      count +=
+          aclRequestsRepo.countAclClaimRequestsToApprove(
+              team.get().getTeamname(), tenantId, requestor, status, envs);
+    }
+    return (int) count;
+  }
+
   public List<Topic> getTopicsByTopicNameAndTeamId(String topicName, int teamId, int tenantId) {
 
     return topicRepo.findAllByTopicnameAndTeamIdAndTenantId(topicName, teamId, tenantId);
@@ -1445,20 +1615,32 @@ public class SelectDataJdbc {
     return totalTopicCount;
   }
 
-  public List<CommonUtilsService.ChartsOverviewItem<String, Integer>> selectAllMetrics(
-      String metricsType, String metricsName, String env) {
+  /**
+   * Reads a metric for a time window from the roll up of the finest resolution which keeps the
+   * window below {@link MetricsResolution#MAX_POINTS} buckets, so the number of rows read does not
+   * grow with the number of stored samples.
+   */
+  public List<CommonUtilsService.ChartsOverviewItem<String, Integer>> selectMetrics(
+      String metricsType, String metricsName, String env, long fromMillis, long toMillis) {
     List<CommonUtilsService.ChartsOverviewItem<String, Integer>> metricsCount = new ArrayList<>();
+    MetricsResolution resolution = MetricsResolution.forWindow(toMillis - fromMillis);
     try {
-      List<Object[]> metrics =
-          kwMetricsRepo.findAllByEnvAndMetricsTypeAndMetricsName(env, metricsType, metricsName);
-
-      for (Object[] kwMetrics : metrics) {
+      for (KwMetricsRollup rollup :
+          kwMetricsRollupRepo
+              .findAllByEnvAndMetricsTypeAndMetricsNameAndResolutionAndBucketStartBetweenOrderByBucketStart(
+                  env,
+                  metricsType,
+                  metricsName,
+                  resolution.value,
+                  resolution.bucketStart(fromMillis),
+                  toMillis)) {
         metricsCount.add(
             CommonUtilsService.ChartsOverviewItem.of(
-                (String) kwMetrics[0], Integer.parseInt(kwMetrics[1].toString())));
+                String.valueOf(rollup.getBucketStart()),
+                (int) Math.min(Integer.MAX_VALUE, Math.round(rollup.getLastValue()))));
       }
     } catch (Exception e) {
-      log.error("Error from selectAllMetrics ", e);
+      log.error("Error from selectMetrics ", e);
     }
     return metricsCount;
   }
@@ -2018,6 +2200,53 @@ public class SelectDataJdbc {
     return Lists.newArrayList(kafkaConnectorRequestsRepo.findAll());
   }
 
+  public List<Topic> getTopicsPage(int pageNo, int pageSize) {
+    return topicRepo.findPage(PageRequest.of(pageNo, pageSize));
+  }
+
+  public List<Acl> getSubscriptionsPage(int pageNo, int pageSize) {
+    return aclRepo.findPage(PageRequest.of(pageNo, pageSize));
+  }
+
+  public List<MessageSchema> getSchemasPage(int pageNo, int pageSize) {
+    return messageSchemaRepo.findPage(PageRequest.of(pageNo, pageSize));
+  }
+
+  public List<KwKafkaConnector> getConnectorsPage(int pageNo, int pageSize) {
+    return kafkaConnectorRepo.findPage(PageRequest.of(pageNo, pageSize));
+  }
+
+  // requests created or approved since changedSince, all requests if changedSince is null
+  public List<TopicRequest> getTopicRequestsPage(Timestamp changedSince, int pageNo, int pageSize) {
+    Pageable page = PageRequest.of(pageNo, pageSize);
+    return changedSince == null
+        ? topicRequestsRepo.findPage(page)
+        : topicRequestsRepo.findPageChangedSince(changedSince, page);
+  }
+
+  public List<AclRequests> getAclRequestsPage(Timestamp changedSince, int pageNo, int pageSize) {
+    Pageable page = PageRequest.of(pageNo, pageSize);
+    return changedSince == null
+        ? aclRequestsRepo.findPage(page)
+        : aclRequestsRepo.findPageChangedSince(changedSince, page);
+  }
+
+  public List<SchemaRequest> getSchemaRequestsPage(
+      Timestamp changedSince, int pageNo, int pageSize) {
+    Pageable page = PageRequest.of(pageNo, pageSize);
+    return changedSince == null
+        ? schemaRequestRepo.findPage(page)
+        : schemaRequestRepo.findPageChangedSince(changedSince, page);
+  }
+
+  public List<KafkaConnectorRequest> getConnectorRequestsPage(
+      Timestamp changedSince, int pageNo, int pageSize) {
+    Pageable page = PageRequest.of(pageNo, pageSize);
+    return changedSince == null
+        ? kafkaConnectorRequestsRepo.findPage(page)
+        : kafkaConnectorRequestsRepo.findPageChangedSince(changedSince, page);
+  }
+
   public Integer getNextClusterId(int tenantId) {
     return kwClusterRepo.getNextClusterId(tenantId);
   }
@@ -2276,4 +2505,41 @@ public class SelectDataJdbc {
 
     return operationalRequestsRepo.findAll(Example.of(request));
   }
+
+  // jobs of the excluded clusters are left out, so they do not fill the page
+  public List<KwApprovalJob> selectQueuedApprovalJobs(Set<String> excludedClusterKeys, int limit) {
+    if (excludedClusterKeys.isEmpty()) {
+      return approvalJobRepo.findByStatusInQueueOrder(
+          ApprovalJobStatus.QUEUED.name(), PageRequest.of(0, limit));
+    }
+    return approvalJobRepo.findByStatusAndClusterKeyNotInInQueueOrder(
+        ApprovalJobStatus.QUEUED.name(), excludedClusterKeys, PageRequest.of(0, limit));
+  }
+
+  public List<KwApprovalJob> selectApprovalJobs(int tenantId, List<Integer> jobIds) {
+    return approvalJobRepo.findAllByTenantIdAndJobIdInOrderByJobId(tenantId, jobIds);
+  }
+
+  // jobs of the request which are queued or running
+  public List<KwApprovalJob> selectOpenApprovalJobs(
+      int tenantId, String requestType, Integer requestId) {
+    return approvalJobRepo.findAllByTenantIdAndRequestTypeAndRequestIdAndStatusIn(
+        tenantId,
+        requestType,
+        requestId,
+        List.of(ApprovalJobStatus.QUEUED.name(), ApprovalJobStatus.RUNNING.name()));
+  }
+
+  // queued mails whose next attempt is due, oldest first
+  public List<KwMailOutbox> selectDueMails(Timestamp dueTime, int limit) {
+    return mailOutboxRepo.findDue(
+        MailOutboxStatus.QUEUED.name(), dueTime, PageRequest.of(0, limit));
+  }
+
+  // queued mails not yet sent before which wait for further mails of a digest, oldest first
+  public List<KwMailOutbox> selectMailsInDigestWindow(
+      Timestamp dueTime, Collection<Integer> tenantIds, int limit) {
+    return mailOutboxRepo.findInDigestWindow(
+        MailOutboxStatus.QUEUED.name(), dueTime, tenantIds, PageRequest.of(0, limit));
+  }
 }
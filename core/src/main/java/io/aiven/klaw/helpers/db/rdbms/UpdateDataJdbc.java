@@ -5,13 +5,16 @@ import static org.springframework.beans.BeanUtils.copyProperties;
 import io.aiven.klaw.dao.*;
 import io.aiven.klaw.error.KlawNotAuthorizedException;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.ApprovalJobStatus;
 import io.aiven.klaw.model.enums.NewUserStatus;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.repository.AclRepo;
 import io.aiven.klaw.repository.AclRequestsRepo;
+import io.aiven.klaw.repository.KwApprovalJobRepo;
 import io.aiven.klaw.repository.KwKafkaConnectorRepo;
 import io.aiven.klaw.repository.KwKafkaConnectorRequestsRepo;
+import io.aiven.klaw.repository.KwMailOutboxRepo;
 import io.aiven.klaw.repository.KwPropertiesRepo;
 import io.aiven.klaw.repository.KwRolesPermsRepo;
 import io.aiven.klaw.repository.MessageSchemaRepo;
@@ -23,10 +26,12 @@ import io.aiven.klaw.repository.TenantRepo;
 import io.aiven.klaw.repository.TopicRepo;
 import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import jakarta.transaction.Transactional;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -89,6 +94,12 @@ public class UpdateDataJdbc {
   @Autowired(required = false)
   private TenantRepo tenantRepo;
 
+  @Autowired(required = false)
+  private KwApprovalJobRepo approvalJobRepo;
+
+  @Autowired(required = false)
+  private KwMailOutboxRepo mailOutboxRepo;
+
   @Autowired(required = false)
   private MessageSchemaRepo messageSchemaRepo;
 
@@ -658,4 +669,45 @@ public class UpdateDataJdbc {
     messageSchemaRepo.saveAll(schemaListUpdated);
     return ApiResultStatus.SUCCESS.value;
   }
+
+  /**
+   * Marks a queued approval job as running.
+   *
+   * @return false if the job is no longer queued, e.g. it was taken by another instance
+   */
+  @Transactional
+  public boolean claimApprovalJob(KwApprovalJob approvalJob) {
+    Timestamp startedTime = new Timestamp(System.currentTimeMillis());
+    if (approvalJobRepo.updateStatusIfUnchanged(
+            approvalJob.getJobId(),
+            ApprovalJobStatus.QUEUED.name(),
+            ApprovalJobStatus.RUNNING.name(),
+            startedTime)
+        == 0) {
+      return false;
+    }
+    approvalJob.setStatus(ApprovalJobStatus.RUNNING.name());
+    approvalJob.setStartedTime(startedTime);
+    return true;
+  }
+
+  public void completeApprovalJob(
+      KwApprovalJob approvalJob, ApprovalJobStatus status, String message) {
+    approvalJob.setStatus(status.name());
+    approvalJob.setMessage(StringUtils.abbreviate(message, 1000));
+    approvalJob.setCompletedTime(new Timestamp(System.currentTimeMillis()));
+    approvalJobRepo.save(approvalJob);
+  }
+
+  /** Queues again the jobs of instances which stopped while running them. */
+  @Transactional
+  public int requeueApprovalJobsStartedBefore(Timestamp startedBefore) {
+    return approvalJobRepo.updateStatusOfStartedBefore(
+        ApprovalJobStatus.RUNNING.name(), ApprovalJobStatus.QUEUED.name(), startedBefore);
+  }
+
+  /** Saves the status, attempts and next attempt time of mails of the outbox. */
+  public void updateMails(List<KwMailOutbox> mails) {
+    mailOutboxRepo.saveAll(mails);
+  }
 }
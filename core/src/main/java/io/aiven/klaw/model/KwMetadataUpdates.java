@@ -22,4 +22,7 @@ public class KwMetadataUpdates implements Serializable {
   private String operationType;
 
   private Timestamp createdTime;
+
+  // position of the update in the metadata update sequence of the tenant, null if not numbered
+  private Long sequence;
 }
@@ -0,0 +1,27 @@
+package io.aiven.klaw.model;
+
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Immutable view of a user's tenant, team, role and the permissions granted to that role. Built by
+ * ManageDatabase whenever users or roles are reloaded so request threads can resolve identities
+ * with a single map lookup.
+ */
+@ToString
+@Getter
+@Builder
+public class UserIdentity {
+
+  private final String username;
+
+  private final int tenantId;
+
+  private final int teamId;
+
+  private final String role;
+
+  private final Set<String> permissions;
+}
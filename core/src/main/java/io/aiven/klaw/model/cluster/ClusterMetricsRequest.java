@@ -0,0 +1,17 @@
+package io.aiven.klaw.model.cluster;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterMetricsRequest {
+  // JMX urls of the brokers of a cluster
+  private List<String> jmxUrls;
+
+  // MBean object names, patterns like kafka.server:type=BrokerTopicMetrics,* are allowed
+  private List<String> objectNames;
+}
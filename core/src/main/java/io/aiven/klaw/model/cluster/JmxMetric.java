@@ -0,0 +1,15 @@
+package io.aiven.klaw.model.cluster;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JmxMetric {
+  private String jmxUrl;
+  private String objectName;
+  private Map<String, String> attributes;
+}
@@ -16,4 +16,7 @@ public class LoadTopicsResponse {
   @NotNull private boolean loadingInProgress;
 
   private Set<TopicConfig> topicConfigSet;
+
+  // generation of the topics cache of the cluster, 0 if the cluster has no cached generation
+  private long generation;
 }
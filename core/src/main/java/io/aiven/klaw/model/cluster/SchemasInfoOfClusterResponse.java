@@ -7,4 +7,10 @@ import lombok.Data;
 @Data
 public class SchemasInfoOfClusterResponse implements Serializable {
   private List<SchemaInfoOfTopic> schemaInfoOfTopicList;
+
+  private boolean loadingInProgress;
+
+  private int subjectsTotal;
+
+  private int subjectsLoaded;
 }
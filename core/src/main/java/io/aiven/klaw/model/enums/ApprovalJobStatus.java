@@ -0,0 +1,9 @@
+package io.aiven.klaw.model.enums;
+
+/** States of a queued approval, a job is executed once and ends as SUCCESS or FAILED. */
+public enum ApprovalJobStatus {
+  QUEUED,
+  RUNNING,
+  SUCCESS,
+  FAILED
+}
@@ -0,0 +1,8 @@
+package io.aiven.klaw.model.enums;
+
+/** States of a mail in the outbox, a queued mail is retried until it is SENT or FAILED. */
+public enum MailOutboxStatus {
+  QUEUED,
+  SENT,
+  FAILED
+}
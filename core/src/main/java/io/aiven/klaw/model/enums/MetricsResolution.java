@@ -0,0 +1,35 @@
+package io.aiven.klaw.model.enums;
+
+import java.util.concurrent.TimeUnit;
+
+/** Resolutions of the kafka metrics roll ups, each sample is added to a bucket of each of them. */
+public enum MetricsResolution {
+  MINUTE("1m", TimeUnit.MINUTES.toMillis(1)),
+  HOUR("1h", TimeUnit.HOURS.toMillis(1)),
+  DAY("1d", TimeUnit.DAYS.toMillis(1));
+
+  // points of a chart, a window is read in the finest resolution which stays below it
+  public static final int MAX_POINTS = 360;
+
+  public final String value;
+
+  public final long bucketMillis;
+
+  MetricsResolution(String value, long bucketMillis) {
+    this.value = value;
+    this.bucketMillis = bucketMillis;
+  }
+
+  public long bucketStart(long timeMillis) {
+    return timeMillis - Math.floorMod(timeMillis, bucketMillis);
+  }
+
+  public static MetricsResolution forWindow(long windowMillis) {
+    for (MetricsResolution resolution : values()) {
+      if (windowMillis / resolution.bucketMillis <= MAX_POINTS) {
+        return resolution;
+      }
+    }
+    return DAY;
+  }
+}
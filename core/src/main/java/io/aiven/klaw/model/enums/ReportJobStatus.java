@@ -0,0 +1,9 @@
+package io.aiven.klaw.model.enums;
+
+/** States of a requested report, a COMPLETED report can be downloaded until the job expires. */
+public enum ReportJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
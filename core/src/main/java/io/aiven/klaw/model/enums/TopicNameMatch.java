@@ -0,0 +1,7 @@
+package io.aiven.klaw.model.enums;
+
+/** How a topic name search is matched against the topic names. */
+public enum TopicNameMatch {
+  PREFIX,
+  CONTAINS
+}
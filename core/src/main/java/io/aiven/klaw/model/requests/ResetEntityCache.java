@@ -16,4 +16,5 @@ public class ResetEntityCache {
   private String entityType;
   private String entityValue;
   private String operationType;
+  private Long sequence;
 }
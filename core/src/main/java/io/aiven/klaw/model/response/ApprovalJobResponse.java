@@ -0,0 +1,31 @@
+package io.aiven.klaw.model.response;
+
+import io.aiven.klaw.model.enums.ApprovalJobStatus;
+import io.aiven.klaw.model.enums.RequestEntityType;
+import jakarta.validation.constraints.NotNull;
+import java.sql.Timestamp;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ApprovalJobResponse {
+  @NotNull private Integer jobId;
+
+  @NotNull private RequestEntityType requestType;
+
+  @NotNull private Integer requestId;
+
+  @NotNull private ApprovalJobStatus status; // QUEUED,RUNNING,SUCCESS,FAILED
+
+  // result of the approval once completed
+  private String message;
+
+  @NotNull private String approver;
+
+  @NotNull private Timestamp queuedTime;
+
+  private Timestamp startedTime;
+
+  private Timestamp completedTime;
+}
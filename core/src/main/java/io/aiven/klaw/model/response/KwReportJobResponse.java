@@ -0,0 +1,25 @@
+package io.aiven.klaw.model.response;
+
+import io.aiven.klaw.model.enums.ReportJobStatus;
+import jakarta.validation.constraints.NotNull;
+import java.sql.Timestamp;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class KwReportJobResponse {
+  @NotNull private String jobId;
+
+  @NotNull private ReportJobStatus status; // QUEUED,RUNNING,COMPLETED,FAILED
+
+  // name of the zip file once completed
+  private String filename;
+
+  // error of a failed report
+  private String message;
+
+  @NotNull private Timestamp requestedTime;
+
+  private Timestamp completedTime;
+}
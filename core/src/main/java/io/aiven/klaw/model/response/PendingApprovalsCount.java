@@ -0,0 +1,13 @@
+package io.aiven.klaw.model.response;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class PendingApprovalsCount {
+  @NotNull private int topics;
+  @NotNull private int acls;
+  @NotNull private int schemas;
+  @NotNull private int connectors;
+  @NotNull private int users;
+}
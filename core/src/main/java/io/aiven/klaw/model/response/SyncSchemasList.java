@@ -8,4 +8,5 @@ import lombok.Data;
 public class SyncSchemasList implements Serializable {
   private List<SchemaSubjectInfoResponse> schemaSubjectInfoResponseList;
   private int allTopicsCount;
+  private boolean schemasLoadingStatus;
 }
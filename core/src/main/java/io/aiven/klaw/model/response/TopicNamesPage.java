@@ -0,0 +1,16 @@
+package io.aiven.klaw.model.response;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TopicNamesPage {
+  // matching topic names in natural order
+  @NotNull private List<String> topicNames;
+
+  // pass as cursor to fetch the next page, null on the last page
+  private String nextCursor;
+}
@@ -4,11 +4,15 @@ import io.aiven.klaw.dao.Acl;
 import io.aiven.klaw.dao.AclID;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface AclRepo extends CrudRepository<Acl, AclID> {
+  @Query("select r from Acl r order by r.tenantId, r.req_no")
+  List<Acl> findPage(Pageable pageable);
+
   Optional<Acl> findById(AclID aclID);
 
   List<Acl> findAllByEnvironmentAndTenantId(String environment, int tenantId);
@@ -2,8 +2,11 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.AclRequestID;
 import io.aiven.klaw.dao.AclRequests;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +14,15 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 public interface AclRequestsRepo
     extends CrudRepository<AclRequests, AclRequestID>, QueryByExampleExecutor<AclRequests> {
+  @Query("select r from AclRequests r order by r.tenantId, r.req_no")
+  List<AclRequests> findPage(Pageable pageable);
+
+  @Query(
+      "select r from AclRequests r where r.requesttime >= :changedSince or r.approvingtime >= :changedSince"
+          + " order by r.tenantId, r.req_no")
+  List<AclRequests> findPageChangedSince(
+      @Param("changedSince") Timestamp changedSince, Pageable pageable);
+
   Optional<AclRequests> findById(AclRequestID aclRequestID);
 
   List<AclRequests> findAllByTenantId(int tenantId);
@@ -103,5 +115,62 @@ public interface AclRequestsRepo
       @Param("requestor") String requestor,
       @Param("topicStatus") String topicStatus);
 
+  // requests to approve by the team owning the topic, deletes are approved by the requesting team
+  @Query(
+      value =
+          "select count(*) from kwaclrequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)"
+              + " and ((teamid = :teamId and acltype not in ('Claim', 'Delete'))"
+              + " or (requestingteam = :teamId and acltype = 'Delete'))",
+      nativeQuery = true)
+  long countAclRequestsToApprove(
+      @Param("teamId") Integer teamId,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
+  // requests to approve by the requesting team
+  @Query(
+      value =
+          "select count(*) from kwaclrequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)"
+              + " and requestingteam = :teamId and acltype != 'Claim'",
+      nativeQuery = true)
+  long countAclRequestsToApproveByRequestingTeam(
+      @Param("teamId") Integer teamId,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
+  @Query(
+      value =
+          "select count(*) from kwaclrequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)"
+              + " and acltype != 'Claim'",
+      nativeQuery = true)
+  long countAllTeamsAclRequestsToApprove(
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
+  // claims waiting for the approval of the team, which the user has not approved already
+  @Query(
+      "select count(r) from AclRequests r where r.tenantId = :tenantId"
+          + " and r.requestStatus = :requestStatus and r.requestor <> :requestor"
+          + " and r.environment in (:envs) and r.requestOperationType = 'Claim'"
+          + " and exists (select a from AclApproval a where a.parent = r"
+          + " and a.requiredApprover = :teamName and a.approverName is null)"
+          + " and not exists (select a from AclApproval a where a.parent = r"
+          + " and a.approverName = :requestor)")
+  long countAclClaimRequestsToApprove(
+      @Param("teamName") String teamName,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("requestStatus") String requestStatus,
+      @Param("envs") Collection<String> envs);
+
   void deleteByTenantId(int tenantId);
 }
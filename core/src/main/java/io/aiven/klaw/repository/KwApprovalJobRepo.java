@@ -0,0 +1,54 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwApprovalJob;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface KwApprovalJobRepo extends CrudRepository<KwApprovalJob, Integer> {
+
+  @Query("select j from KwApprovalJob j where j.status = :status order by j.queuedTime, j.jobId")
+  List<KwApprovalJob> findByStatusInQueueOrder(@Param("status") String status, Pageable pageable);
+
+  @Query(
+      "select j from KwApprovalJob j where j.status = :status"
+          + " and j.clusterKey not in :clusterKeys order by j.queuedTime, j.jobId")
+  List<KwApprovalJob> findByStatusAndClusterKeyNotInInQueueOrder(
+      @Param("status") String status,
+      @Param("clusterKeys") Collection<String> clusterKeys,
+      Pageable pageable);
+
+  List<KwApprovalJob> findAllByTenantIdAndJobIdInOrderByJobId(
+      int tenantId, Collection<Integer> jobIds);
+
+  List<KwApprovalJob> findAllByTenantIdAndRequestTypeAndRequestIdAndStatusIn(
+      int tenantId, String requestType, Integer requestId, Collection<String> statuses);
+
+  // the status condition lets only one instance take a queued job
+  @Modifying
+  @Query(
+      "update KwApprovalJob j set j.status = :toStatus, j.startedTime = :startedTime"
+          + " where j.jobId = :jobId and j.status = :fromStatus")
+  int updateStatusIfUnchanged(
+      @Param("jobId") Integer jobId,
+      @Param("fromStatus") String fromStatus,
+      @Param("toStatus") String toStatus,
+      @Param("startedTime") Timestamp startedTime);
+
+  @Modifying
+  @Query(
+      "update KwApprovalJob j set j.status = :toStatus, j.startedTime = null"
+          + " where j.status = :fromStatus and j.startedTime < :startedBefore")
+  int updateStatusOfStartedBefore(
+      @Param("fromStatus") String fromStatus,
+      @Param("toStatus") String toStatus,
+      @Param("startedBefore") Timestamp startedBefore);
+
+  @Query(value = "select max(jobid) from kwapprovaljobs", nativeQuery = true)
+  Integer getNextId();
+}
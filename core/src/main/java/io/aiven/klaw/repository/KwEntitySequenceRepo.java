@@ -4,7 +4,10 @@ import io.aiven.klaw.dao.KwEntitySequence;
 import io.aiven.klaw.dao.KwEntitySequenceID;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 public interface KwEntitySequenceRepo extends CrudRepository<KwEntitySequence, KwEntitySequenceID> {
   Optional<KwEntitySequence> findById(KwEntitySequenceID id);
@@ -12,4 +15,27 @@ public interface KwEntitySequenceRepo extends CrudRepository<KwEntitySequence, K
   List<KwEntitySequence> findAllByEntityNameAndTenantId(String entityName, Integer tenantId);
 
   boolean existsByEntityNameAndTenantId(String entityName, Integer tenantId);
+
+  // increments in the db, the row stays locked until the transaction ends
+  @Modifying(clearAutomatically = true)
+  @Query(
+      value =
+          "update kwentityseq set seq_id = seq_id + 1"
+              + " where entity_name = :entityName and tenantid = :tenantId",
+      nativeQuery = true)
+  int incrementSeqId(@Param("entityName") String entityName, @Param("tenantId") Integer tenantId);
+
+  // updates only from the expected value, the row stays locked until the transaction ends
+  @Modifying(clearAutomatically = true)
+  @Query(
+      value =
+          "update kwentityseq set seq_id = :seqId"
+              + " where entity_name = :entityName and tenantid = :tenantId"
+              + " and seq_id = :expectedSeqId",
+      nativeQuery = true)
+  int updateSeqId(
+      @Param("entityName") String entityName,
+      @Param("tenantId") Integer tenantId,
+      @Param("expectedSeqId") Integer expectedSeqId,
+      @Param("seqId") Integer seqId);
 }
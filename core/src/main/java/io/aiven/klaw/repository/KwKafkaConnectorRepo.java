@@ -4,11 +4,15 @@ import io.aiven.klaw.dao.KwKafkaConnector;
 import io.aiven.klaw.dao.KwKafkaConnectorID;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface KwKafkaConnectorRepo extends CrudRepository<KwKafkaConnector, KwKafkaConnectorID> {
+  @Query("select r from KwKafkaConnector r order by r.tenantId, r.connectorId")
+  List<KwKafkaConnector> findPage(Pageable pageable);
+
   Optional<KwKafkaConnector> findById(KwKafkaConnectorID topicId);
 
   List<KwKafkaConnector> findAllByTenantId(int tenantId);
@@ -35,6 +39,13 @@ public interface KwKafkaConnectorRepo extends CrudRepository<KwKafkaConnector, K
       nativeQuery = true)
   Integer getNextConnectorRequestId(@Param("tenantId") Integer tenantId);
 
+  @Query(
+      value =
+          "select connectorid from kwkafkaconnector where tenantid = :tenantId and connectorid in (:connectorIds)",
+      nativeQuery = true)
+  List<Integer> findExistingConnectorIds(
+      @Param("tenantId") Integer tenantId, @Param("connectorIds") List<Integer> connectorIds);
+
   void deleteByConnectorNameAndEnvironmentAndTenantId(
       String connectorName, String env, int tenantId);
 
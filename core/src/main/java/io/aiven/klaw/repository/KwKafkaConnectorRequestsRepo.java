@@ -3,8 +3,11 @@ package io.aiven.klaw.repository;
 import io.aiven.klaw.dao.KafkaConnectorRequest;
 import io.aiven.klaw.dao.KafkaConnectorRequestID;
 import io.aiven.klaw.model.enums.RequestStatus;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +16,15 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 public interface KwKafkaConnectorRequestsRepo
     extends CrudRepository<KafkaConnectorRequest, KafkaConnectorRequestID>,
         QueryByExampleExecutor<KafkaConnectorRequest> {
+  @Query("select r from KafkaConnectorRequest r order by r.tenantId, r.connectorId")
+  List<KafkaConnectorRequest> findPage(Pageable pageable);
+
+  @Query(
+      "select r from KafkaConnectorRequest r where r.requesttime >= :changedSince or r.approvingtime >= :changedSince"
+          + " order by r.tenantId, r.connectorId")
+  List<KafkaConnectorRequest> findPageChangedSince(
+      @Param("changedSince") Timestamp changedSince, Pageable pageable);
+
   Optional<KafkaConnectorRequest> findById(KafkaConnectorRequestID connectorRequestId);
 
   List<KafkaConnectorRequest> findAllByRequestStatusAndConnectorNameAndEnvironmentAndTenantId(
@@ -89,5 +101,34 @@ public interface KwKafkaConnectorRequestsRepo
       @Param("requestor") String requestor,
       @Param("connectorStatus") String connectorStatus);
 
+  // requests of the team to approve, claims are approved by the team owning the connector
+  @Query(
+      value =
+          "select count(*) from kwkafkaconnectorrequests where tenantid = :tenantId"
+              + " and connectorstatus = :connectorStatus and requestor != :requestor"
+              + " and env in (:envs)"
+              + " and ((teamid = :teamId and connectortype != 'Claim')"
+              + " or (approvingteamid = :approvingTeamId and connectortype = 'Claim'))",
+      nativeQuery = true)
+  long countConnectorRequestsToApprove(
+      @Param("teamId") Integer teamId,
+      @Param("approvingTeamId") String approvingTeamId,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("connectorStatus") String connectorStatus,
+      @Param("envs") Collection<String> envs);
+
+  @Query(
+      value =
+          "select count(*) from kwkafkaconnectorrequests where tenantid = :tenantId"
+              + " and connectorstatus = :connectorStatus and requestor != :requestor"
+              + " and env in (:envs)",
+      nativeQuery = true)
+  long countAllTeamsConnectorRequestsToApprove(
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("connectorStatus") String connectorStatus,
+      @Param("envs") Collection<String> envs);
+
   void deleteByTenantId(int tenantId);
 }
@@ -0,0 +1,38 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwMailOutbox;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface KwMailOutboxRepo extends CrudRepository<KwMailOutbox, Integer> {
+
+  @Query(
+      "select m from KwMailOutbox m where m.status = :status and m.nextAttemptTime <= :dueTime"
+          + " order by m.nextAttemptTime, m.mailId")
+  List<KwMailOutbox> findDue(
+      @Param("status") String status, @Param("dueTime") Timestamp dueTime, Pageable pageable);
+
+  @Query(
+      "select m from KwMailOutbox m where m.status = :status and m.attempts = 0"
+          + " and m.nextAttemptTime > :dueTime and m.tenantId in :tenantIds"
+          + " order by m.nextAttemptTime, m.mailId")
+  List<KwMailOutbox> findInDigestWindow(
+      @Param("status") String status,
+      @Param("dueTime") Timestamp dueTime,
+      @Param("tenantIds") Collection<Integer> tenantIds,
+      Pageable pageable);
+
+  @Modifying
+  @Query("delete from KwMailOutbox m where m.status <> :status and m.queuedTime < :queuedBefore")
+  int deleteByStatusNotAndQueuedTimeBefore(
+      @Param("status") String status, @Param("queuedBefore") Timestamp queuedBefore);
+
+  @Query(value = "select max(mailid) from kwmailoutbox", nativeQuery = true)
+  Integer getNextId();
+}
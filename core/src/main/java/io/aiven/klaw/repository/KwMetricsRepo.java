@@ -2,6 +2,7 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.KwMetrics;
 import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -10,16 +11,19 @@ public interface KwMetricsRepo extends CrudRepository<KwMetrics, Integer> {
 
   List<KwMetrics> findAllByEnv(String env);
 
+  // metricstime holds epoch millis, which compare like numbers as strings of the same length
+  @Modifying
+  @Query(value = "delete from kwkafkametrics where metricstime < :metricsTime", nativeQuery = true)
+  int deleteByMetricsTimeBefore(@Param("metricsTime") String metricsTime);
+
+  // newest first
   @Query(
       value =
-          "select metricstime, metricsattributes from kwkafkametrics where "
-              + " env=:envId and metricstype=:metricsType and metricsname=:metricsName"
-              + " order by metricsid desc limit 30;",
+          "select metricsid, metricstime, metricsattributes, env, metricstype, metricsname"
+              + " from kwkafkametrics where metricsid <= :lastId"
+              + " order by metricsid desc limit :limit",
       nativeQuery = true)
-  List<Object[]> findAllByEnvAndMetricsTypeAndMetricsName(
-      @Param("envId") String envId,
-      @Param("metricsType") String metricsType,
-      @Param("metricsName") String metricsName);
+  List<Object[]> findSamplesUpToId(@Param("lastId") Integer lastId, @Param("limit") Integer limit);
 
   @Query(value = "select max(metricsid) from kwkafkametrics", nativeQuery = true)
   Integer getNextId();
@@ -0,0 +1,30 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwMetricsRollup;
+import io.aiven.klaw.dao.KwMetricsRollupID;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface KwMetricsRollupRepo extends CrudRepository<KwMetricsRollup, KwMetricsRollupID> {
+
+  List<KwMetricsRollup>
+      findAllByEnvAndMetricsTypeAndMetricsNameAndResolutionAndBucketStartBetweenOrderByBucketStart(
+          String env,
+          String metricsType,
+          String metricsName,
+          String resolution,
+          Long fromBucketStart,
+          Long toBucketStart);
+
+  @Modifying
+  @Query(
+      value =
+          "delete from kwkafkametricsrollup where resolution = :resolution"
+              + " and bucketstart < :bucketStart",
+      nativeQuery = true)
+  int deleteByResolutionBefore(
+      @Param("resolution") String resolution, @Param("bucketStart") Long bucketStart);
+}
@@ -4,11 +4,15 @@ import io.aiven.klaw.dao.MessageSchema;
 import io.aiven.klaw.dao.MessageSchemaID;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface MessageSchemaRepo extends CrudRepository<MessageSchema, MessageSchemaID> {
+  @Query("select r from MessageSchema r order by r.tenantId, r.req_no")
+  List<MessageSchema> findPage(Pageable pageable);
+
   Optional<MessageSchema> findById(MessageSchemaID avroSchemaId);
 
   boolean existsByTenantIdAndTopicnameAndEnvironment(
@@ -2,8 +2,11 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.SchemaRequest;
 import io.aiven.klaw.dao.SchemaRequestID;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +14,15 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 public interface SchemaRequestRepo
     extends CrudRepository<SchemaRequest, SchemaRequestID>, QueryByExampleExecutor<SchemaRequest> {
+  @Query("select r from SchemaRequest r order by r.tenantId, r.req_no")
+  List<SchemaRequest> findPage(Pageable pageable);
+
+  @Query(
+      "select r from SchemaRequest r where r.requesttime >= :changedSince or r.approvingtime >= :changedSince"
+          + " order by r.tenantId, r.req_no")
+  List<SchemaRequest> findPageChangedSince(
+      @Param("changedSince") Timestamp changedSince, Pageable pageable);
+
   Optional<SchemaRequest> findById(SchemaRequestID schemaRequestId);
 
   boolean existsByTenantIdAndEnvironmentAndRequestStatusAndTopicname(
@@ -70,5 +82,29 @@ public interface SchemaRequestRepo
       @Param("requestor") String requestor,
       @Param("topicStatus") String topicStatus);
 
+  @Query(
+      value =
+          "select count(*) from kwschemarequests where tenantid = :tenantId"
+              + " and teamid = :teamId and topicstatus = :topicStatus and requestor != :requestor"
+              + " and env in (:envs)",
+      nativeQuery = true)
+  long countSchemaRequestsToApprove(
+      @Param("teamId") Integer teamId,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
+  @Query(
+      value =
+          "select count(*) from kwschemarequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)",
+      nativeQuery = true)
+  long countAllTeamsSchemaRequestsToApprove(
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
   void deleteByTenantId(int tenantId);
 }
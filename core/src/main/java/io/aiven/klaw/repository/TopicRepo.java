@@ -4,11 +4,15 @@ import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicID;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface TopicRepo extends CrudRepository<Topic, TopicID> {
+  @Query("select r from Topic r order by r.tenantId, r.topicid")
+  List<Topic> findPage(Pageable pageable);
+
   Optional<Topic> findById(TopicID topicId);
 
   List<Topic> findAllByTenantId(int tenantId);
@@ -85,6 +89,12 @@ public interface TopicRepo extends CrudRepository<Topic, TopicID> {
   @Query(value = "select max(topicid) from kwtopics where tenantid = :tenantId", nativeQuery = true)
   Integer getNextTopicRequestId(@Param("tenantId") Integer tenantId);
 
+  @Query(
+      value = "select topicid from kwtopics where tenantid = :tenantId and topicid in (:topicIds)",
+      nativeQuery = true)
+  List<Integer> findExistingTopicIds(
+      @Param("tenantId") Integer tenantId, @Param("topicIds") List<Integer> topicIds);
+
   @Query(
       value = "select topicname from kwtopics where env = :envId and tenantid = :tenantId",
       nativeQuery = true)
@@ -100,6 +110,39 @@ public interface TopicRepo extends CrudRepository<Topic, TopicID> {
       @Param("teamId") Integer teamId,
       @Param("tenantId") Integer tenantId);
 
+  List<Topic> findAllByTeamIdAndTenantIdAndTopicnameIn(
+      Integer teamId, int tenantId, List<String> topicsNamesList);
+
+  // envId ALL and teamId -1 match every environment and team, search is a like pattern
+  @Query(
+      value =
+          "select distinct topicname from kwtopics where tenantid = :tenantId"
+              + " and (:envId = 'ALL' or env = :envId) and (:teamId = -1 or teamid = :teamId)"
+              + " and (topicname like :search escape '!' or documentation like :search escape '!')"
+              + " and topicname > :afterTopicName"
+              + " order by topicname limit :limit offset :offset",
+      nativeQuery = true)
+  List<String> findSyncTopicNamesPage(
+      @Param("envId") String envId,
+      @Param("teamId") Integer teamId,
+      @Param("search") String search,
+      @Param("afterTopicName") String afterTopicName,
+      @Param("offset") int offset,
+      @Param("limit") int limit,
+      @Param("tenantId") Integer tenantId);
+
+  @Query(
+      value =
+          "select count(distinct topicname) from kwtopics where tenantid = :tenantId"
+              + " and (:envId = 'ALL' or env = :envId) and (:teamId = -1 or teamid = :teamId)"
+              + " and (topicname like :search escape '!' or documentation like :search escape '!')",
+      nativeQuery = true)
+  int countSyncTopicNames(
+      @Param("envId") String envId,
+      @Param("teamId") Integer teamId,
+      @Param("search") String search,
+      @Param("tenantId") Integer tenantId);
+
   void deleteByTopicnameAndEnvironmentAndTenantId(String topicName, String env, int tenantId);
 
   void deleteByTenantId(int tenantId);
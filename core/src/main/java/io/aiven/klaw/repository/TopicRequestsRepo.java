@@ -2,10 +2,13 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.TopicRequestID;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +16,15 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 public interface TopicRequestsRepo
     extends CrudRepository<TopicRequest, TopicRequestID>, QueryByExampleExecutor<TopicRequest> {
+  @Query("select r from TopicRequest r order by r.tenantId, r.topicid")
+  List<TopicRequest> findPage(Pageable pageable);
+
+  @Query(
+      "select r from TopicRequest r where r.requesttime >= :changedSince or r.approvingtime >= :changedSince"
+          + " order by r.tenantId, r.topicid")
+  List<TopicRequest> findPageChangedSince(
+      @Param("changedSince") Timestamp changedSince, Pageable pageable);
+
   Optional<TopicRequest> findById(TopicRequestID topicRequestId);
 
   List<TopicRequest> findAllByTenantId(int tenantId);
@@ -104,6 +116,33 @@ public interface TopicRequestsRepo
       @Param("requestor") String requestor,
       @Param("topicStatus") String topicStatus);
 
+  // requests of the team to approve, claims are approved by the team owning the topic
+  @Query(
+      value =
+          "select count(*) from kwtopicrequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)"
+              + " and ((teamid = :teamId and topictype != 'Claim')"
+              + " or (approvingteamid = :approvingTeamId and topictype = 'Claim'))",
+      nativeQuery = true)
+  long countTopicRequestsToApprove(
+      @Param("teamId") Integer teamId,
+      @Param("approvingTeamId") String approvingTeamId,
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
+  @Query(
+      value =
+          "select count(*) from kwtopicrequests where tenantid = :tenantId"
+              + " and topicstatus = :topicStatus and requestor != :requestor and env in (:envs)",
+      nativeQuery = true)
+  long countAllTeamsTopicRequestsToApprove(
+      @Param("tenantId") Integer tenantId,
+      @Param("requestor") String requestor,
+      @Param("topicStatus") String topicStatus,
+      @Param("envs") Collection<String> envs);
+
   void deleteByTenantId(int tenantId);
 
   private Map<String, Long> deriveCountsFromRequests(List<Object[]> list) {
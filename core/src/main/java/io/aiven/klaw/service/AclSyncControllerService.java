@@ -13,7 +13,6 @@ import io.aiven.klaw.dao.AclRequests;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.dao.Team;
-import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.helpers.Pager;
 import io.aiven.klaw.model.AclInfo;
@@ -30,7 +29,10 @@ import io.aiven.klaw.model.enums.KafkaFlavors;
 import io.aiven.klaw.model.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
+import io.aiven.klaw.service.utils.AclReconciliation;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -319,18 +321,25 @@ public class AclSyncControllerService {
       List<Map<String, String>> groupedList, List<Map<String, String>> clusterAclList) {
     List<Map<String, String>> updateList = new ArrayList<>(groupedList);
 
+    // first consumer group read binding per host and principal
+    Map<List<String>, String> consumerGroupByHostAndPrincipal = new HashMap<>();
+    for (Map<String, String> hMapItem : clusterAclList) {
+      if (AclPermissionType.READ.value.equals(hMapItem.get("operation"))
+          && "GROUP".equals(hMapItem.get("resourceType"))) {
+        consumerGroupByHostAndPrincipal.putIfAbsent(
+            Arrays.asList(hMapItem.get("host"), hMapItem.get("principle")),
+            hMapItem.get("resourceName"));
+      }
+    }
+
     for (Map<String, String> hMapGroupItem : groupedList) {
-      for (Map<String, String> hMapItem : clusterAclList) {
-        if (AclPermissionType.READ.value.equals(hMapGroupItem.get("operation"))
-            && AclPermissionType.READ.value.equals(hMapItem.get("operation"))
-            && "GROUP".equals(hMapItem.get("resourceType"))) {
-          if (Objects.equals(hMapItem.get("host"), hMapGroupItem.get("host"))
-              && Objects.equals(hMapItem.get("principle"), hMapGroupItem.get("principle"))) {
-            Map<String, String> hashMap = new HashMap<>(hMapGroupItem);
-            hashMap.put("consumerGroup", hMapItem.get("resourceName"));
-            updateList.add(hashMap);
-            break;
-          }
+      if (AclPermissionType.READ.value.equals(hMapGroupItem.get("operation"))) {
+        List<String> hostAndPrincipal =
+            Arrays.asList(hMapGroupItem.get("host"), hMapGroupItem.get("principle"));
+        if (consumerGroupByHostAndPrincipal.containsKey(hostAndPrincipal)) {
+          Map<String, String> hashMap = new HashMap<>(hMapGroupItem);
+          hashMap.put("consumerGroup", consumerGroupByHostAndPrincipal.get(hostAndPrincipal));
+          updateList.add(hashMap);
         }
       }
     }
@@ -464,12 +473,15 @@ public class AclSyncControllerService {
       Integer loggedInUserTeam, List<Acl> aclsFromSOT, int tenantId) {
 
     List<AclInfo> aclList = new ArrayList<>();
+    Map<String, String> envNames = new HashMap<>();
     AclInfo mp;
 
     for (Acl aclSotItem : aclsFromSOT) {
       mp = new AclInfo();
       mp.setEnvironment(aclSotItem.getEnvironment());
-      mp.setEnvironmentName(getEnvDetails(aclSotItem.getEnvironment(), tenantId).getName());
+      mp.setEnvironmentName(
+          envNames.computeIfAbsent(
+              aclSotItem.getEnvironment(), envId -> getEnvDetails(envId, tenantId).getName()));
       mp.setTopicname(aclSotItem.getTopicname());
       mp.setAcl_ip(aclSotItem.getAclip());
       mp.setAcl_ssl(aclSotItem.getAclssl());
@@ -501,13 +513,14 @@ public class AclSyncControllerService {
     List<String> teamList = new ArrayList<>();
     teamList = tenantFiltering(teamList);
 
-    List<String> topicListInSelectedEnv =
-        manageDatabase.getTopicsForTenant(tenantId).stream()
-            .filter(topic -> topic.getEnvironment().equals(env))
-            .map(Topic::getTopicname)
-            .toList();
+    Set<String> topicListInSelectedEnv =
+        TopicCatalog.topicNamesOf(manageDatabase.getTopicCatalog(tenantId).getTopicsByEnv(env));
+
+    AclReconciliation reconciliation =
+        AclReconciliation.reconcile(aclListFromCluster, aclsFromMetadata, kafkaFlavor);
 
-    for (Map<String, String> aclListItem : aclListFromCluster) {
+    for (AclReconciliation.ClusterAcl clusterAcl : reconciliation.getClusterAcls()) {
+      Map<String, String> aclListItem = clusterAcl.getClusterAcl();
       AclInfo mp = new AclInfo();
       mp.setEnvironment(env);
       mp.setPossibleTeams(teamList);
@@ -517,17 +530,9 @@ public class AclSyncControllerService {
         mp.setAclId(aclListItem.get(AIVEN_ACL_ID_KEY));
       }
 
-      String tmpPermType = aclListItem.get("operation");
-
-      if (AclPermissionType.WRITE.value.equals(tmpPermType)) {
-        mp.setTopictype(AclType.PRODUCER.value);
-      } else if (AclPermissionType.READ.value.equals(tmpPermType)) {
-        mp.setTopictype(AclType.CONSUMER.value);
-        if (aclListItem.get("consumerGroup") != null) {
-          mp.setConsumergroup(aclListItem.get("consumerGroup"));
-        } else {
-          continue;
-        }
+      mp.setTopictype(clusterAcl.getAclType());
+      if (AclType.CONSUMER.value.equals(clusterAcl.getAclType())) {
+        mp.setConsumergroup(aclListItem.get("consumerGroup"));
       }
 
       if (TOPIC_RESOURCE.equalsIgnoreCase(aclListItem.get("resourceType"))) {
@@ -537,35 +542,12 @@ public class AclSyncControllerService {
       mp.setAcl_ip(aclListItem.get("host"));
       mp.setAcl_ssl(aclListItem.get("principle"));
 
-      for (Acl aclSotItem : aclsFromMetadata) {
-        String acl_ssl = aclSotItem.getAclssl();
-        String acl_host = aclSotItem.getAclip();
-
-        if (acl_ssl == null || acl_ssl.equals("")) {
-          acl_ssl = "User:*";
-        } else {
-          if (!KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor)
-              && !"User:*".equals(acl_ssl)
-              && !acl_ssl.startsWith("User:")) {
-            acl_ssl = "User:" + acl_ssl;
-          }
-        }
-
-        if (acl_host == null || acl_host.equals("")) {
-          acl_host = "*";
-        }
-
-        if (aclSotItem.getTopicname() != null
-            && Objects.equals(aclListItem.get("resourceName"), aclSotItem.getTopicname())
-            && Objects.equals(aclListItem.get("host"), acl_host)
-            && Objects.equals(aclListItem.get("principle"), acl_ssl)
-            && Objects.equals(aclSotItem.getAclType(), mp.getTopictype())) {
-          mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
-          mp.setTeamid(aclSotItem.getTeamId());
-          mp.setReq_no(aclSotItem.getReq_no() + "");
-          mp.setRemarks("IN_SYNC");
-          break;
-        }
+      Acl aclSotItem = clusterAcl.getMetadataAcl();
+      if (aclSotItem != null) {
+        mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
+        mp.setTeamid(aclSotItem.getTeamId());
+        mp.setReq_no(aclSotItem.getReq_no() + "");
+        mp.setRemarks("IN_SYNC");
       }
 
       if (mp.getTeamname() == null) {
@@ -591,8 +573,7 @@ public class AclSyncControllerService {
       }
     }
 
-    lookForDeletedAclsOnCluster(
-        aclListFromCluster, aclsFromMetadata, aclListMap, kafkaFlavor, tenantId, env);
+    lookForDeletedAclsOnCluster(reconciliation.getRemoved(), aclListMap, tenantId, env);
 
     aclListMap =
         aclListMap.stream()
@@ -602,91 +583,31 @@ public class AclSyncControllerService {
   }
 
   private void lookForDeletedAclsOnCluster(
-      List<Map<String, String>> aclListFromCluster,
-      List<Acl> aclsFromMetadata,
-      List<AclInfo> aclListMap,
-      String kafkaFlavor,
-      int tenantId,
-      String env) {
-
-    for (Acl aclSotItem : aclsFromMetadata) {
-      String acl_ssl = aclSotItem.getAclssl();
-      String acl_host = aclSotItem.getAclip();
-
-      if (acl_ssl == null || acl_ssl.equals("")) {
-        acl_ssl = "User:*";
-      } else {
-        if (!KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor)
-            && !"User:*".equals(acl_ssl)
-            && !acl_ssl.startsWith("User:")) {
-          acl_ssl = "User:" + acl_ssl;
-        }
-      }
+      List<Acl> aclsDeletedOnCluster, List<AclInfo> aclListMap, int tenantId, String env) {
 
-      if (acl_host == null || acl_host.equals("")) {
-        acl_host = "*";
-      }
-
-      String finalAcl_host = acl_host;
-      String finalAcl_ssl = acl_ssl;
+    for (Acl aclSotItem : aclsDeletedOnCluster) {
       AclInfo mp = new AclInfo();
+      mp.setEnvironment(env);
+      mp.setTopicname(aclSotItem.getTopicname());
+      mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
+      mp.setTeamid(aclSotItem.getTeamId());
 
-      List<Map<String, String>> aclListFromClusterSubList =
-          aclListFromCluster.stream()
-              .filter(
-                  aclListItem -> {
-                    return Objects.equals(
-                            aclListItem.get("resourceName"), aclSotItem.getTopicname())
-                        && Objects.equals(aclListItem.get("host"), finalAcl_host)
-                        && Objects.equals(aclListItem.get("principle"), finalAcl_ssl);
-                  })
-              .toList();
-
-      boolean aclFoundMatch = false;
-
-      for (Map<String, String> aclListItem : aclListFromClusterSubList) {
-        String tmpPermType = aclListItem.get("operation");
-
-        if (AclPermissionType.WRITE.value.equals(tmpPermType)) {
-          mp.setTopictype(AclType.PRODUCER.value);
-        } else if (AclPermissionType.READ.value.equals(tmpPermType)) {
-          mp.setTopictype(AclType.CONSUMER.value);
-          if (aclListItem.get("consumerGroup") != null) {
-            mp.setConsumergroup(aclListItem.get("consumerGroup"));
-          } else {
-            continue;
-          }
-        }
-
-        if (Objects.equals(aclSotItem.getAclType(), mp.getTopictype())) {
-          aclFoundMatch = true;
-          break;
-        }
-      }
-
-      if (!aclFoundMatch) {
-        mp.setEnvironment(env);
-        mp.setTopicname(aclSotItem.getTopicname());
-        mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
-        mp.setTeamid(aclSotItem.getTeamId());
-
-        List<String> possibleTeams = new ArrayList<>();
-        possibleTeams.add(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
-        possibleTeams.add(SYNC_102);
-        mp.setPossibleTeams(possibleTeams);
+      List<String> possibleTeams = new ArrayList<>();
+      possibleTeams.add(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
+      possibleTeams.add(SYNC_102);
+      mp.setPossibleTeams(possibleTeams);
 
-        mp.setReq_no(aclSotItem.getReq_no() + "");
-        mp.setAcl_ip(aclSotItem.getAclip());
-        mp.setAcl_ssl(aclSotItem.getAclssl());
-        mp.setTopictype(aclSotItem.getAclType());
-        mp.setRemarks("DELETED");
-        aclListMap.add(mp);
-      }
+      mp.setReq_no(aclSotItem.getReq_no() + "");
+      mp.setAcl_ip(aclSotItem.getAclip());
+      mp.setAcl_ssl(aclSotItem.getAclssl());
+      mp.setTopictype(aclSotItem.getAclType());
+      mp.setRemarks("DELETED");
+      aclListMap.add(mp);
     }
   }
 
   private boolean verifyIfTopicExists(
-      Map<String, String> aclListItemFromCluster, List<String> topicListInSelectedEnv) {
+      Map<String, String> aclListItemFromCluster, Set<String> topicListInSelectedEnv) {
     String topicName;
     if (TOPIC_RESOURCE.equalsIgnoreCase(aclListItemFromCluster.get("resourceType"))) {
       topicName = aclListItemFromCluster.get("resourceName");
@@ -7,40 +7,71 @@ import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_104;
 import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_105;
 import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_106;
 import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_107;
+import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_108;
+import static io.aiven.klaw.error.KlawErrorMessages.ANALYTICS_109;
 
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.constants.MapConstants;
 import io.aiven.klaw.dao.Acl;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.error.KlawBadRequestException;
 import io.aiven.klaw.helpers.KwConstants;
+import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.charts.ChartsJsOverview;
 import io.aiven.klaw.model.charts.TeamOverview;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.model.enums.ReportJobStatus;
 import io.aiven.klaw.model.response.AclsCountPerEnv;
+import io.aiven.klaw.model.response.KwReportJobResponse;
 import io.aiven.klaw.model.response.TopicsCountPerEnv;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.*;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
+@EnableScheduling
 public class AnalyticsControllerService {
 
   // ColumnChart, PieChart, LineChart, Bar, ComboChart
@@ -76,6 +107,53 @@ public class AnalyticsControllerService {
           .toFormatter()
           .withZone(ZoneId.systemDefault());
 
+  // rows of a report sheet held in memory, older rows are flushed to a temporary file
+  private static final int REPORT_ROW_WINDOW = 100;
+
+  @Value("${klaw.reports.query.threads:4}")
+  private int queryThreads;
+
+  @Value("${klaw.reports.async.threads:2}")
+  private int reportThreads;
+
+  @Value("${klaw.reports.async.retention.minutes:60}")
+  private long reportRetentionMinutes;
+
+  // runs the chart queries as the user who requested them
+  private ExecutorService queryExecutor;
+
+  private ExecutorService reportExecutor;
+
+  // key job id, reports are written to the local reports location of this instance
+  private final Map<String, ReportJob> reportJobs = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void startExecutors() {
+    queryExecutor =
+        new DelegatingSecurityContextExecutorService(
+            Executors.newFixedThreadPool(queryThreads, newThreadFactory("klaw-report-query-")));
+    reportExecutor = Executors.newFixedThreadPool(reportThreads, newThreadFactory("klaw-report-"));
+  }
+
+  @PreDestroy
+  void stopExecutors() {
+    if (reportExecutor != null) {
+      reportExecutor.shutdownNow();
+    }
+    if (queryExecutor != null) {
+      queryExecutor.shutdownNow();
+    }
+  }
+
+  private static ThreadFactory newThreadFactory(String namePrefix) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
   private String getCurrentUserName() {
     return commonUtilsService.getCurrentUserName();
   }
@@ -342,43 +420,92 @@ public class AnalyticsControllerService {
 
     final String currentUserName = getCurrentUserName();
     Integer userTeamId = commonUtilsService.getTeamId(currentUserName);
+    int tenantId = commonUtilsService.getTenantId(currentUserName);
 
+    // the charts are independent queries, they run concurrently
+    List<CompletableFuture<Void>> charts = new ArrayList<>();
     if (commonUtilsService.isNotAuthorizedUser(getPrincipal(), PermissionType.ALL_TEAMS_REPORTS)) {
-      int tenantId = commonUtilsService.getTenantId(currentUserName);
-
-      teamOverview.setProducerAclsPerTeamsOverview(
-          getProducerAclsTeamsOverview(userTeamId, tenantId));
-      teamOverview.setConsumerAclsPerTeamsOverview(
-          getConsumerAclsTeamsOverview(userTeamId, tenantId));
-
-      teamOverview.setTopicsPerEnvOverview(getTopicsPerTeamEnvOverview(tenantId));
-      teamOverview.setPartitionsPerEnvOverview(getPartitionsEnvOverview(userTeamId, tenantId));
-
-      teamOverview.setActivityLogOverview(
-          getActivityLogOverview(userTeamId, tenantId, numberOfDays));
-      teamOverview.setAclsPerEnvOverview(getAclsEnvOverview(userTeamId, tenantId));
-
-      teamOverview.setTopicsPerTeamsOverview(getTopicsTeamsOverview(userTeamId, tenantId));
-      listTeamOverview.add(teamOverview);
+      charts.add(
+          loadChart(
+              () -> getProducerAclsTeamsOverview(userTeamId, tenantId),
+              teamOverview::setProducerAclsPerTeamsOverview));
+      charts.add(
+          loadChart(
+              () -> getConsumerAclsTeamsOverview(userTeamId, tenantId),
+              teamOverview::setConsumerAclsPerTeamsOverview));
+
+      charts.add(
+          loadChart(
+              () -> getTopicsPerTeamEnvOverview(tenantId), teamOverview::setTopicsPerEnvOverview));
+      charts.add(
+          loadChart(
+              () -> getPartitionsEnvOverview(userTeamId, tenantId),
+              teamOverview::setPartitionsPerEnvOverview));
+
+      charts.add(
+          loadChart(
+              () -> getActivityLogOverview(userTeamId, tenantId, numberOfDays),
+              teamOverview::setActivityLogOverview));
+      charts.add(
+          loadChart(
+              () -> getAclsEnvOverview(userTeamId, tenantId), teamOverview::setAclsPerEnvOverview));
+
+      charts.add(
+          loadChart(
+              () -> getTopicsTeamsOverview(userTeamId, tenantId),
+              teamOverview::setTopicsPerTeamsOverview));
     } else {
-      int tenantId = commonUtilsService.getTenantId(currentUserName);
-
-      teamOverview.setTopicsPerEnvOverview(
-          getTopicsEnvOverview(tenantId, PermissionType.ALL_TEAMS_REPORTS));
-      teamOverview.setPartitionsPerEnvOverview(getPartitionsEnvOverview(null, tenantId));
-      teamOverview.setAclsPerEnvOverview(getAclsEnvOverview(null, tenantId));
-
-      teamOverview.setTopicsPerTeamsOverview(getTopicsTeamsOverview(null, tenantId));
+      charts.add(
+          loadChart(
+              () -> getTopicsEnvOverview(tenantId, PermissionType.ALL_TEAMS_REPORTS),
+              teamOverview::setTopicsPerEnvOverview));
+      charts.add(
+          loadChart(
+              () -> getPartitionsEnvOverview(null, tenantId),
+              teamOverview::setPartitionsPerEnvOverview));
+      charts.add(
+          loadChart(() -> getAclsEnvOverview(null, tenantId), teamOverview::setAclsPerEnvOverview));
+
+      charts.add(
+          loadChart(
+              () -> getTopicsTeamsOverview(null, tenantId),
+              teamOverview::setTopicsPerTeamsOverview));
+
+      charts.add(
+          loadChart(
+              () -> getProducerAclsTeamsOverview(null, tenantId),
+              teamOverview::setProducerAclsPerTeamsOverview));
+      charts.add(
+          loadChart(
+              () -> getConsumerAclsTeamsOverview(null, tenantId),
+              teamOverview::setConsumerAclsPerTeamsOverview));
+
+      charts.add(
+          loadChart(
+              () -> getActivityLogOverview(null, tenantId, numberOfDays),
+              teamOverview::setActivityLogOverview));
+    }
+    join(charts);
+    listTeamOverview.add(teamOverview);
 
-      teamOverview.setProducerAclsPerTeamsOverview(getProducerAclsTeamsOverview(null, tenantId));
-      teamOverview.setConsumerAclsPerTeamsOverview(getConsumerAclsTeamsOverview(null, tenantId));
+    return listTeamOverview;
+  }
 
-      teamOverview.setActivityLogOverview(getActivityLogOverview(null, tenantId, numberOfDays));
+  private CompletableFuture<Void> loadChart(
+      Supplier<ChartsJsOverview> query, Consumer<ChartsJsOverview> setter) {
+    return CompletableFuture.supplyAsync(query, queryExecutor).thenAccept(setter);
+  }
 
-      listTeamOverview.add(teamOverview);
+  // waits for all queries and rethrows the exception of a failed query
+  private static void join(List<? extends CompletableFuture<?>> queries) {
+    try {
+      CompletableFuture.allOf(queries.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
     }
-
-    return listTeamOverview;
   }
 
   public TeamOverview getActivityLogForTeamOverview(String forTeam, int numberOfDays) {
@@ -397,100 +524,88 @@ public class AnalyticsControllerService {
 
   public File generateReport(int numberOfDays) {
     int tenantId = commonUtilsService.getTenantId(getCurrentUserName());
-    String kwReportsLocation =
-        manageDatabase.getKwPropertyValue(KwConstants.KW_REPORTS_TMP_LOCATION_KEY, tenantId);
-
-    List<TeamOverview> totalOverviewList = getTeamsOverview(null, numberOfDays);
-    final Map<String, List<String>> topicNames = getTopicNames(tenantId);
-    final Map<String, List<String>> consumerGroups = getConsumerGroups(tenantId);
-    File zipFile =
-        new File(
-            kwReportsLocation + "KwReport" + DATE_TIME_FORMATTER.format(Instant.now()) + ".zip");
-    ZipOutputStream zipOutputStream = null;
-    try {
-      zipOutputStream = new ZipOutputStream(new FileOutputStream(zipFile));
-    } catch (FileNotFoundException e) {
-      log.error("Exception:", e);
-    }
-
-    String actualFileName;
-    List<File> reportFilesOfTenants = new ArrayList<>();
-    for (TeamOverview totalOverview : totalOverviewList) {
-      if (totalOverview.getTenantName() != null) {
-        actualFileName = "Klaw-" + totalOverview.getTenantName() + ".xlsx";
-      } else {
-        actualFileName = "KlawReport" + ".xlsx";
-      }
-
-      String fileName = kwReportsLocation + actualFileName;
-      File reportFile = new File(fileName);
-      reportFilesOfTenants.add(reportFile);
-
-      XSSFWorkbook workbook = new XSSFWorkbook();
-
-      generateReportPerView(totalOverview.getTopicsPerEnvOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getPartitionsPerEnvOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getTopicsPerTeamsOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getAclsPerEnvOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getProducerAclsPerTeamsOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getConsumerAclsPerTeamsOverview(), workbook, reportFile);
-      generateReportPerView(totalOverview.getActivityLogOverview(), workbook, reportFile);
-
-      addTopicNamesPerEnvToReport(topicNames, workbook, reportFile, "Topics");
-      addTopicNamesPerEnvToReport(consumerGroups, workbook, reportFile, "ConsumerGroups");
-
-      log.info("Report generated");
-      if (zipOutputStream != null) {
-        writeToZipFile(zipOutputStream, fileName, actualFileName);
-      }
-    }
-
+    File zipFile = newReportFile(tenantId);
     try {
-      if (zipOutputStream != null) {
-        zipOutputStream.close();
-        // delete xlsx report file after writing to zip file.
-        for (File reportFilesOfTenant : reportFilesOfTenants) {
-          reportFilesOfTenant.delete();
-        }
-      }
+      writeReport(zipFile, tenantId, numberOfDays);
     } catch (IOException e) {
       log.error("Exception:", e);
     }
-
     return zipFile;
   }
 
-  private void writeToZipFile(ZipOutputStream zos, String fullFileName, String fileName) {
-    try {
-      ZipEntry e = new ZipEntry(fileName);
-      zos.putNextEntry(e);
+  private File newReportFile(int tenantId) {
+    String kwReportsLocation =
+        manageDatabase.getKwPropertyValue(KwConstants.KW_REPORTS_TMP_LOCATION_KEY, tenantId);
+    return new File(
+        kwReportsLocation + "KwReport" + DATE_TIME_FORMATTER.format(Instant.now()) + ".zip");
+  }
 
-      FileInputStream fis = new FileInputStream(fullFileName);
+  /**
+   * Writes one xlsx workbook per overview into the zip file. The workbooks are streamed into the
+   * zip, only the last REPORT_ROW_WINDOW rows of a sheet are held in memory.
+   */
+  private void writeReport(File zipFile, int tenantId, int numberOfDays) throws IOException {
+    CompletableFuture<Map<String, List<String>>> topicNames =
+        CompletableFuture.supplyAsync(() -> getTopicNames(tenantId), queryExecutor);
+    CompletableFuture<Map<String, List<String>>> consumerGroups =
+        CompletableFuture.supplyAsync(() -> getConsumerGroups(tenantId), queryExecutor);
+    // runs on this thread, its charts are loaded on the query executor
+    List<TeamOverview> totalOverviewList = getTeamsOverview(null, numberOfDays);
+    join(List.of(topicNames, consumerGroups));
+
+    try (ZipOutputStream zipOutputStream =
+        new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile)))) {
+      String actualFileName;
+      for (TeamOverview totalOverview : totalOverviewList) {
+        if (totalOverview.getTenantName() != null) {
+          actualFileName = "Klaw-" + totalOverview.getTenantName() + ".xlsx";
+        } else {
+          actualFileName = "KlawReport" + ".xlsx";
+        }
 
-      byte[] bytes = new byte[1024];
-      int length;
-      while ((length = fis.read(bytes)) >= 0) {
-        zos.write(bytes, 0, length);
+        zipOutputStream.putNextEntry(new ZipEntry(actualFileName));
+        writeWorkbook(totalOverview, topicNames.join(), consumerGroups.join(), zipOutputStream);
+        zipOutputStream.closeEntry();
+        log.info("Report generated {}", actualFileName);
       }
+    }
+  }
 
-    } catch (IOException e) {
-      log.error("Exception:", e);
+  private void writeWorkbook(
+      TeamOverview totalOverview,
+      Map<String, List<String>> topicNames,
+      Map<String, List<String>> consumerGroups,
+      OutputStream out)
+      throws IOException {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(REPORT_ROW_WINDOW);
+    try {
+      generateReportPerView(totalOverview.getTopicsPerEnvOverview(), workbook);
+      generateReportPerView(totalOverview.getPartitionsPerEnvOverview(), workbook);
+      generateReportPerView(totalOverview.getTopicsPerTeamsOverview(), workbook);
+      generateReportPerView(totalOverview.getAclsPerEnvOverview(), workbook);
+      generateReportPerView(totalOverview.getProducerAclsPerTeamsOverview(), workbook);
+      generateReportPerView(totalOverview.getConsumerAclsPerTeamsOverview(), workbook);
+      generateReportPerView(totalOverview.getActivityLogOverview(), workbook);
+
+      addTopicNamesPerEnvToReport(topicNames, workbook, "Topics");
+      addTopicNamesPerEnvToReport(consumerGroups, workbook, "ConsumerGroups");
+
+      // the workbook closes the stream it is written to, the zip stays open for the next entry
+      workbook.write(CloseShieldOutputStream.wrap(out));
+    } finally {
+      // also deletes the temporary files of the flushed rows
+      workbook.close();
     }
   }
 
   private void addTopicNamesPerEnvToReport(
-      Map<String, List<String>> topicNames,
-      XSSFWorkbook workbook,
-      File reportFile,
-      String sheetName) {
-    XSSFSheet sheet = workbook.createSheet(sheetName);
-    Map<Integer, Object[]> data = new TreeMap<>();
-    int id = 1;
+      Map<String, List<String>> topicNames, SXSSFWorkbook workbook, String sheetName) {
+    SXSSFSheet sheet = workbook.createSheet(sheetName);
+    int rownum = 0;
     List<String> envNames = new ArrayList<>(topicNames.keySet());
 
     // set header row
-    data.put(id, new Object[] {"S.No", envNames});
-    id++;
+    addRow(sheet, rownum++, "S.No", envNames);
 
     int maxSize = 0;
 
@@ -513,81 +628,175 @@ public class AnalyticsControllerService {
           rowValList.add("");
         }
       }
-      data.put(id, new Object[] {id - 1, rowValList});
-      id++;
-    }
-
-    addData(sheet, data);
-    writeToFile(sheetName, workbook, reportFile);
-  }
-
-  private void addData(XSSFSheet sheet, Map<Integer, Object[]> data) {
-    int rownum = 0;
-    org.apache.poi.ss.usermodel.Row rowXl;
-    Set<Integer> keyset = data.keySet();
-    for (Integer key : keyset) {
-      rowXl = sheet.createRow(rownum++);
-      Object[] objArr = data.get(key);
-      int cellnum = 0;
-      Cell cell;
-      for (Object obj : objArr) {
-        if (obj instanceof String) {
-          cell = rowXl.createCell(cellnum++);
-          cell.setCellValue((String) obj);
-        } else if (obj instanceof Integer) {
-          cell = rowXl.createCell(cellnum++);
-          cell.setCellValue((Integer) obj);
-        } else if (obj instanceof List) {
-          List<String> strList = (List<String>) obj;
-          for (String s : strList) {
-            cell = rowXl.createCell(cellnum++);
-            cell.setCellValue(s);
-          }
-        }
-      }
+      addRow(sheet, rownum, rownum, rowValList);
+      rownum++;
     }
+    log.info("Added Sheet {}", sheetName);
   }
 
-  private void generateReportPerView(
-      ChartsJsOverview chartsJsOverview, XSSFWorkbook workbook, File reportFile) {
+  private void generateReportPerView(ChartsJsOverview chartsJsOverview, SXSSFWorkbook workbook) {
     // Create a blank sheet
-    XSSFSheet sheet = workbook.createSheet(chartsJsOverview.getTitleForReport());
-    // This data needs to be written (Object[])
-    Map<Integer, Object[]> data = new HashMap<>();
+    SXSSFSheet sheet = workbook.createSheet(chartsJsOverview.getTitleForReport());
     List<Integer> data1 = chartsJsOverview.getData();
     List<String> labels = chartsJsOverview.getLabels();
 
     // header
-    data.put(
-        1,
-        new Object[] {"S.No", chartsJsOverview.getXAxisLabel(), chartsJsOverview.getYAxisLabel()});
-    int id = 2;
+    int rownum = 0;
+    addRow(
+        sheet,
+        rownum++,
+        "S.No",
+        chartsJsOverview.getXAxisLabel(),
+        chartsJsOverview.getYAxisLabel());
 
     // content
     for (int i = 0; i < data1.size(); i++) {
       if (!"".equals(labels.get(i))) {
-        data.put(id, new Object[] {id - 1, labels.get(i), data1.get(i)});
-        id++;
+        addRow(sheet, rownum, rownum, labels.get(i), data1.get(i));
+        rownum++;
+      }
+    }
+
+    log.info("Added Sheet {}", chartsJsOverview.getOptions().getTitle());
+  }
+
+  // Strings and Integers are written to one cell each, a List to one cell per element
+  private void addRow(SXSSFSheet sheet, int rownum, Object... values) {
+    org.apache.poi.ss.usermodel.Row rowXl = sheet.createRow(rownum);
+    int cellnum = 0;
+    Cell cell;
+    for (Object obj : values) {
+      if (obj instanceof String) {
+        cell = rowXl.createCell(cellnum++);
+        cell.setCellValue((String) obj);
+      } else if (obj instanceof Integer) {
+        cell = rowXl.createCell(cellnum++);
+        cell.setCellValue((Integer) obj);
+      } else if (obj instanceof List) {
+        List<String> strList = (List<String>) obj;
+        for (String s : strList) {
+          cell = rowXl.createCell(cellnum++);
+          cell.setCellValue(s);
+        }
       }
     }
+  }
+
+  /**
+   * Queues a report of the current user, its status is returned by {@link #getReportJob(String)}. A
+   * report of the user which is still queued or running is not queued again.
+   *
+   * @return response with the job id as data
+   */
+  public ApiResponse requestReport(int numberOfDays) {
+    String userName = getCurrentUserName();
+    int tenantId = commonUtilsService.getTenantId(userName);
+    removeExpiredReportJobs();
+
+    Optional<ReportJob> openJob =
+        reportJobs.values().stream()
+            .filter(
+                job ->
+                    job.getTenantId() == tenantId
+                        && job.getUserName().equals(userName)
+                        && job.getNumberOfDays() == numberOfDays
+                        && (job.getStatus() == ReportJobStatus.QUEUED
+                            || job.getStatus() == ReportJobStatus.RUNNING))
+            .findFirst();
+    if (openJob.isPresent()) {
+      return ApiResponse.builder()
+          .success(true)
+          .message(ApiResultStatus.SUCCESS.value)
+          .data(openJob.get().getJobId())
+          .build();
+    }
+
+    ReportJob job =
+        new ReportJob(
+            UUID.randomUUID().toString(),
+            userName,
+            tenantId,
+            numberOfDays,
+            new Timestamp(System.currentTimeMillis()));
+    reportJobs.put(job.getJobId(), job);
+
+    // the report is generated as the requesting user, after the http request has completed
+    SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+    securityContext.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+    reportExecutor.execute(
+        new DelegatingSecurityContextRunnable(() -> runReportJob(job), securityContext));
+
+    return ApiResponse.builder()
+        .success(true)
+        .message(ApiResultStatus.SUCCESS.value)
+        .data(job.getJobId())
+        .build();
+  }
 
-    addData(sheet, data);
+  public KwReportJobResponse getReportJob(String jobId) throws KlawBadRequestException {
+    ReportJob job = getReportJobOfUser(jobId);
+    return KwReportJobResponse.builder()
+        .jobId(job.getJobId())
+        .status(job.getStatus())
+        .filename(job.getFile() == null ? null : job.getFile().getName())
+        .message(job.getMessage())
+        .requestedTime(job.getRequestedTime())
+        .completedTime(job.getCompletedTime())
+        .build();
+  }
+
+  public File getReportJobFile(String jobId) throws KlawBadRequestException {
+    ReportJob job = getReportJobOfUser(jobId);
+    if (job.getStatus() != ReportJobStatus.COMPLETED) {
+      throw new KlawBadRequestException(String.format(ANALYTICS_109, job.getStatus()));
+    }
+    return job.getFile();
+  }
 
-    writeToFile(chartsJsOverview.getOptions().getTitle().toString(), workbook, reportFile);
+  private ReportJob getReportJobOfUser(String jobId) throws KlawBadRequestException {
+    ReportJob job = jobId == null ? null : reportJobs.get(jobId);
+    if (job == null
+        || job.getTenantId() != commonUtilsService.getTenantId(getCurrentUserName())
+        || !job.getUserName().equals(getCurrentUserName())) {
+      throw new KlawBadRequestException(ANALYTICS_108);
+    }
+    return job;
   }
 
-  private void writeToFile(String title, XSSFWorkbook workbook, File reportFile) {
+  private void runReportJob(ReportJob job) {
+    job.setStatus(ReportJobStatus.RUNNING);
+    File zipFile = newReportFile(job.getTenantId());
     try {
-      // Write the workbook in file system
-      FileOutputStream out = new FileOutputStream(reportFile);
-      workbook.write(out);
-      out.close();
-      log.info("Added Sheet {}", title);
+      writeReport(zipFile, job.getTenantId(), job.getNumberOfDays());
+      job.setFile(zipFile);
+      job.setCompletedTime(new Timestamp(System.currentTimeMillis()));
+      job.setStatus(ReportJobStatus.COMPLETED);
     } catch (Exception e) {
-      log.error("Error : writeToFile ", e);
+      log.error("Exception: Report job {} failed", job.getJobId(), e);
+      FileUtils.deleteQuietly(zipFile);
+      job.setMessage(e.getMessage());
+      job.setCompletedTime(new Timestamp(System.currentTimeMillis()));
+      job.setStatus(ReportJobStatus.FAILED);
     }
   }
 
+  // completed and failed jobs are kept for the retention time, their reports are deleted with them
+  @Scheduled(fixedDelayString = "${klaw.reports.async.cleanup.ms:60000}", initialDelay = 60000)
+  void removeExpiredReportJobs() {
+    Instant expiry = Instant.now().minus(Duration.ofMinutes(reportRetentionMinutes));
+    reportJobs
+        .values()
+        .removeIf(
+            job -> {
+              if (job.getCompletedTime() == null
+                  || job.getCompletedTime().toInstant().isAfter(expiry)) {
+                return false;
+              }
+              FileUtils.deleteQuietly(job.getFile());
+              return true;
+            });
+  }
+
   private Map<String, List<String>> getTopicNames(int tenantId) {
     // tenant filtering
     final Set<String> allowedEnvIdSet = commonUtilsService.getEnvsFromUserId(getCurrentUserName());
@@ -669,4 +878,19 @@ public class AnalyticsControllerService {
   private Object getPrincipal() {
     return SecurityContextHolder.getContext().getAuthentication().getPrincipal();
   }
+
+  @Getter
+  @Setter
+  @RequiredArgsConstructor
+  private static class ReportJob {
+    private final String jobId;
+    private final String userName;
+    private final int tenantId;
+    private final int numberOfDays;
+    private final Timestamp requestedTime;
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    private volatile File file;
+    private volatile String message;
+    private volatile Timestamp completedTime;
+  }
 }
@@ -0,0 +1,418 @@
+package io.aiven.klaw.service;
+
+import static io.aiven.klaw.error.KlawErrorMessages.REQ_ERR_101;
+import static io.aiven.klaw.error.KlawErrorMessages.REQ_SER_ERR_101;
+import static io.aiven.klaw.error.KlawErrorMessages.REQ_SER_ERR_103;
+import static io.aiven.klaw.error.KlawErrorMessages.REQ_SER_ERR_105;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.AclRequests;
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwApprovalJob;
+import io.aiven.klaw.dao.TopicRequest;
+import io.aiven.klaw.helpers.HandleDbRequests;
+import io.aiven.klaw.model.ApiResponse;
+import io.aiven.klaw.model.enums.ApprovalJobStatus;
+import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.model.enums.RequestEntityType;
+import io.aiven.klaw.model.enums.RequestStatus;
+import io.aiven.klaw.model.response.ApprovalJobResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executes approvals of topic and acl requests in the background. An approval is stored as a job in
+ * the database and returns immediately, a pool of workers executes the queued jobs against
+ * cluster-api with a limit of concurrent jobs per cluster. Jobs are claimed with a conditional
+ * update of their status, so several Klaw instances can share the queue.
+ */
+@Service
+@Slf4j
+@EnableScheduling
+public class ApprovalPipelineService {
+
+  // queued jobs read per dispatch, jobs of busy clusters are skipped
+  static final int DISPATCH_BATCH_SIZE = 200;
+
+  private static final String APPROVAL_QUEUED = "Approval of requestId %s queued.";
+
+  private static final String APPROVAL_ALREADY_QUEUED = "Approval of requestId %s already queued.";
+
+  @Value("${klaw.approvals.async.enable:false}")
+  private boolean asyncApprovalsEnabled;
+
+  @Value("${klaw.approvals.async.threads:8}")
+  private int workerThreads;
+
+  // concurrent approvals against one cluster of a tenant
+  @Value("${klaw.approvals.async.cluster.concurrency:2}")
+  private int clusterConcurrency;
+
+  // running jobs not completed within this time are queued again, e.g. after a restart
+  @Value("${klaw.approvals.async.stale.minutes:15}")
+  private long staleMinutes;
+
+  @Autowired ManageDatabase manageDatabase;
+
+  @Autowired private CommonUtilsService commonUtilsService;
+
+  @Autowired private TopicControllerService topicControllerService;
+
+  @Autowired private AclControllerService aclControllerService;
+
+  private final ConcurrentMap<String, Semaphore> clusterPermits = new ConcurrentHashMap<>();
+
+  private Semaphore workerPermits;
+
+  private ExecutorService executor;
+
+  @PostConstruct
+  void startWorkers() {
+    if (!asyncApprovalsEnabled) {
+      return;
+    }
+    workerPermits = new Semaphore(workerThreads);
+    AtomicInteger threadCount = new AtomicInteger();
+    executor =
+        Executors.newFixedThreadPool(
+            workerThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "klaw-approval-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @PreDestroy
+  void stopWorkers() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  public boolean isEnabled(RequestEntityType requestEntityType) {
+    return asyncApprovalsEnabled
+        && (requestEntityType == RequestEntityType.TOPIC
+            || requestEntityType == RequestEntityType.ACL);
+  }
+
+  /**
+   * Queues the approval of the requests for the current user. The response of a queued request
+   * carries the id of its job, which is queried with {@link #getApprovalJobs(List)}. Permissions
+   * are checked here and again when the job is executed.
+   */
+  public List<ApiResponse> queueApprovals(
+      List<String> reqIds, RequestEntityType requestEntityType) {
+    String userName = commonUtilsService.getCurrentUserName();
+    int tenantId = commonUtilsService.getTenantId(userName);
+    if (!isEnabled(requestEntityType)) {
+      return Collections.nCopies(reqIds.size(), ApiResponse.notOk(REQ_SER_ERR_103));
+    }
+    if (isNotAuthorizedToApprove(requestEntityType)) {
+      return Collections.nCopies(reqIds.size(), ApiResponse.NOT_AUTHORIZED);
+    }
+
+    String loginUrl = commonUtilsService.getLoginUrl();
+    HandleDbRequests dbHandle = manageDatabase.getHandleDbRequests();
+    Timestamp queuedTime = Timestamp.from(Instant.now());
+    // per request id the response or the job to be queued
+    List<Object> results = new ArrayList<>();
+    Map<Integer, KwApprovalJob> newJobs = new HashMap<>();
+    for (String reqId : reqIds) {
+      try {
+        Integer requestId = Integer.parseInt(reqId);
+        if (newJobs.containsKey(requestId)) {
+          results.add(newJobs.get(requestId));
+          continue;
+        }
+        String environment = getEnvironmentOfCreatedRequest(requestEntityType, requestId, tenantId);
+        if (environment == null) {
+          results.add(ApiResponse.notOk(REQ_ERR_101));
+          continue;
+        }
+        List<KwApprovalJob> openJobs =
+            dbHandle.getOpenApprovalJobs(tenantId, requestEntityType.name(), requestId);
+        if (!openJobs.isEmpty()) {
+          results.add(queuedResponse(APPROVAL_ALREADY_QUEUED, openJobs.get(0)));
+          continue;
+        }
+        KwApprovalJob job =
+            KwApprovalJob.builder()
+                .tenantId(tenantId)
+                .requestType(requestEntityType.name())
+                .requestId(requestId)
+                .clusterKey(getClusterKey(tenantId, environment))
+                .approver(userName)
+                .loginUrl(loginUrl)
+                .status(ApprovalJobStatus.QUEUED.name())
+                .queuedTime(queuedTime)
+                .build();
+        newJobs.put(requestId, job);
+        results.add(job);
+      } catch (Exception e) {
+        log.error("Exception:", e);
+        results.add(ApiResponse.notOk(String.format(REQ_SER_ERR_105, reqId)));
+      }
+    }
+
+    if (!newJobs.isEmpty()) {
+      try {
+        dbHandle.insertApprovalJobs(new ArrayList<>(newJobs.values()));
+      } catch (Exception e) {
+        log.error("Exception:", e);
+        results.replaceAll(
+            result ->
+                result instanceof KwApprovalJob job
+                    ? ApiResponse.notOk(String.format(REQ_SER_ERR_105, job.getRequestId()))
+                    : result);
+        return toResponses(results);
+      }
+      dispatch();
+    }
+    return toResponses(results);
+  }
+
+  /** Returns the jobs of the tenant of the current user with the given ids. */
+  public List<ApprovalJobResponse> getApprovalJobs(List<Integer> jobIds) {
+    int tenantId = commonUtilsService.getTenantId(commonUtilsService.getCurrentUserName());
+    if (jobIds == null || jobIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return manageDatabase.getHandleDbRequests().getApprovalJobs(tenantId, jobIds).stream()
+        .map(ApprovalPipelineService::toApprovalJobResponse)
+        .toList();
+  }
+
+  @Scheduled(fixedDelayString = "${klaw.approvals.async.poll.ms:5000}", initialDelay = 30000)
+  void pollApprovalJobs() {
+    if (!asyncApprovalsEnabled) {
+      return;
+    }
+    try {
+      Timestamp staleTime = Timestamp.from(Instant.now().minus(Duration.ofMinutes(staleMinutes)));
+      int requeued =
+          manageDatabase.getHandleDbRequests().requeueApprovalJobsStartedBefore(staleTime);
+      if (requeued > 0) {
+        log.warn("Queued {} approval jobs again, they were not completed in time", requeued);
+      }
+      dispatch();
+    } catch (Exception e) {
+      log.error("Exception:", e);
+    }
+  }
+
+  /**
+   * Hands queued jobs to free workers. Jobs of clusters which already run the maximum number of
+   * jobs are not read, so they do not take the places of the jobs of other clusters in the batch. A
+   * job of a cluster which became busy while the batch was handed out is picked up once a job of
+   * the cluster completes.
+   */
+  synchronized void dispatch() {
+    if (executor == null || executor.isShutdown() || workerPermits.availablePermits() == 0) {
+      return;
+    }
+    HandleDbRequests dbHandle = manageDatabase.getHandleDbRequests();
+    boolean clusterBecameBusy;
+    do {
+      clusterBecameBusy = false;
+      for (KwApprovalJob job :
+          dbHandle.getQueuedApprovalJobs(getBusyClusterKeys(), DISPATCH_BATCH_SIZE)) {
+        if (!workerPermits.tryAcquire()) {
+          return;
+        }
+        Semaphore clusterPermit =
+            clusterPermits.computeIfAbsent(
+                job.getClusterKey(), clusterKey -> new Semaphore(clusterConcurrency));
+        if (!clusterPermit.tryAcquire()) {
+          workerPermits.release();
+          clusterBecameBusy = true;
+          continue;
+        }
+        try {
+          // another instance may have claimed the job in the meantime
+          if (!dbHandle.claimApprovalJob(job)) {
+            clusterPermit.release();
+            workerPermits.release();
+            continue;
+          }
+          executor.execute(
+              () -> {
+                try {
+                  execute(job);
+                } finally {
+                  clusterPermit.release();
+                  workerPermits.release();
+                  dispatch();
+                }
+              });
+        } catch (RejectedExecutionException e) {
+          // shutting down, the claimed job is queued again once it is stale
+          clusterPermit.release();
+          workerPermits.release();
+          return;
+        } catch (Exception e) {
+          log.error("Exception:", e);
+          clusterPermit.release();
+          workerPermits.release();
+        }
+      }
+      // the next batch leaves out the clusters which became busy, so the set of busy clusters
+      // grows with every batch read again
+    } while (clusterBecameBusy);
+  }
+
+  private Set<String> getBusyClusterKeys() {
+    Set<String> busyClusterKeys = new HashSet<>();
+    clusterPermits.forEach(
+        (clusterKey, permits) -> {
+          if (permits.availablePermits() == 0) {
+            busyClusterKeys.add(clusterKey);
+          }
+        });
+    return busyClusterKeys;
+  }
+
+  // approves the request as the user who queued it
+  void execute(KwApprovalJob job) {
+    log.info(
+        "Executing approval job {} of {} {}",
+        job.getJobId(),
+        job.getRequestType(),
+        job.getRequestId());
+    ApprovalJobStatus status;
+    String message;
+    SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+    securityContext.setAuthentication(
+        new UsernamePasswordAuthenticationToken(job.getApprover(), null, Collections.emptyList()));
+    SecurityContextHolder.setContext(securityContext);
+    try {
+      ApiResponse response =
+          commonUtilsService.callWithLoginUrl(job.getLoginUrl(), () -> approve(job));
+      status = response.isSuccess() ? ApprovalJobStatus.SUCCESS : ApprovalJobStatus.FAILED;
+      message = response.getMessage();
+    } catch (Exception e) {
+      log.error("Exception:", e);
+      status = ApprovalJobStatus.FAILED;
+      message = String.format(REQ_SER_ERR_101, job.getRequestId()) + " " + e.getMessage();
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+
+    try {
+      manageDatabase.getHandleDbRequests().completeApprovalJob(job, status, message);
+    } catch (Exception e) {
+      log.error("Unable to complete approval job {}", job.getJobId(), e);
+    }
+  }
+
+  private ApiResponse approve(KwApprovalJob job) throws Exception {
+    String reqId = String.valueOf(job.getRequestId());
+    return switch (RequestEntityType.valueOf(job.getRequestType())) {
+      case TOPIC -> topicControllerService.approveTopicRequests(reqId);
+      case ACL -> aclControllerService.approveAclRequests(reqId);
+      default -> ApiResponse.notOk(REQ_SER_ERR_103);
+    };
+  }
+
+  private boolean isNotAuthorizedToApprove(RequestEntityType requestEntityType) {
+    Set<PermissionType> permissions =
+        requestEntityType == RequestEntityType.TOPIC
+            ? Set.of(PermissionType.APPROVE_TOPICS, PermissionType.APPROVE_TOPICS_CREATE)
+            : Set.of(PermissionType.APPROVE_SUBSCRIPTIONS);
+    return commonUtilsService.isNotAuthorizedUser(
+        SecurityContextHolder.getContext().getAuthentication().getPrincipal(), permissions);
+  }
+
+  // environment of the request, null if it does not exist or is no longer open
+  private String getEnvironmentOfCreatedRequest(
+      RequestEntityType requestEntityType, Integer requestId, int tenantId) {
+    HandleDbRequests dbHandle = manageDatabase.getHandleDbRequests();
+    String requestStatus;
+    String environment;
+    if (requestEntityType == RequestEntityType.TOPIC) {
+      TopicRequest topicRequest = dbHandle.getTopicRequestsForTopic(requestId, tenantId);
+      if (topicRequest == null) {
+        return null;
+      }
+      requestStatus = topicRequest.getRequestStatus();
+      environment = topicRequest.getEnvironment();
+    } else {
+      AclRequests aclRequest = dbHandle.getAclRequest(requestId, tenantId);
+      if (aclRequest == null) {
+        return null;
+      }
+      requestStatus = aclRequest.getRequestStatus();
+      environment = aclRequest.getEnvironment();
+    }
+    return RequestStatus.CREATED.value.equals(requestStatus) ? environment : null;
+  }
+
+  // environments sharing a cluster share its concurrency limit
+  private String getClusterKey(int tenantId, String environment) {
+    Integer clusterId =
+        manageDatabase
+            .getKafkaEnv(tenantId, Integer.parseInt(environment))
+            .map(Env::getClusterId)
+            .orElse(null);
+    return tenantId + "-" + (clusterId == null ? "env" + environment : clusterId);
+  }
+
+  private static List<ApiResponse> toResponses(List<Object> results) {
+    return results.stream()
+        .map(
+            result ->
+                result instanceof KwApprovalJob job
+                    ? queuedResponse(APPROVAL_QUEUED, job)
+                    : (ApiResponse) result)
+        .toList();
+  }
+
+  private static ApiResponse queuedResponse(String message, KwApprovalJob job) {
+    return ApiResponse.builder()
+        .success(true)
+        .message(String.format(message, job.getRequestId()))
+        .data(job.getJobId())
+        .build();
+  }
+
+  private static ApprovalJobResponse toApprovalJobResponse(KwApprovalJob job) {
+    return ApprovalJobResponse.builder()
+        .jobId(job.getJobId())
+        .requestType(RequestEntityType.valueOf(job.getRequestType()))
+        .requestId(job.getRequestId())
+        .status(ApprovalJobStatus.valueOf(job.getStatus()))
+        .message(job.getMessage())
+        .approver(job.getApprover())
+        .queuedTime(job.getQueuedTime())
+        .startedTime(job.getStartedTime())
+        .completedTime(job.getCompletedTime())
+        .build();
+  }
+}
@@ -15,11 +15,14 @@ import io.aiven.klaw.error.RestErrorResponse;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.cluster.ClusterAclRequest;
 import io.aiven.klaw.model.cluster.ClusterConnectorRequest;
+import io.aiven.klaw.model.cluster.ClusterMetricsRequest;
 import io.aiven.klaw.model.cluster.ClusterSchemaRequest;
 import io.aiven.klaw.model.cluster.ClusterTopicRequest;
 import io.aiven.klaw.model.cluster.ConnectorsStatus;
+import io.aiven.klaw.model.cluster.JmxMetric;
 import io.aiven.klaw.model.cluster.LoadTopicsResponse;
 import io.aiven.klaw.model.cluster.SchemasInfoOfClusterResponse;
+import io.aiven.klaw.model.cluster.TopicsDeltaResponse;
 import io.aiven.klaw.model.cluster.consumergroup.ResetConsumerGroupOffsetsRequest;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclType;
@@ -34,6 +37,7 @@ import io.aiven.klaw.model.enums.SchemaType;
 import io.aiven.klaw.model.requests.KafkaConnectorRestartModel;
 import io.aiven.klaw.model.response.OffsetDetails;
 import io.aiven.klaw.model.response.ServiceAccountDetails;
+import io.aiven.klaw.model.response.TopicConfig;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.annotation.PostConstruct;
@@ -55,13 +59,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.spec.SecretKeySpec;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
@@ -128,6 +137,10 @@ public class ClusterApiService {
   protected static HttpComponentsClientHttpRequestFactory requestFactory;
   RestTemplate httpRestTemplate, httpsRestTemplate;
 
+  // topics of each cluster as last received from cluster api, key tenant, bootstrap servers,
+  // protocol and cluster
+  private final Map<String, TopicsMirror> topicsMirrors = new ConcurrentHashMap<>();
+
   public ClusterApiService(ManageDatabase manageDatabase) {
     this.manageDatabase = manageDatabase;
   }
@@ -150,11 +163,15 @@ public class ClusterApiService {
   }
 
   private void getClusterApiProperties(int tenantId) {
-    clusterConnUrl = manageDatabase.getKwPropertyValue(CLUSTER_CONN_URL_KEY, tenantId);
+    clusterConnUrl = getTenantClusterConnUrl(tenantId);
+  }
+
+  private String getTenantClusterConnUrl(int tenantId) {
     if (clusterApiAccessBase64Secret.isBlank()) {
       log.info(
           "CONFIGURE CLUSTER API SECRET FOR CLUSTER OPERATIONS. klaw.clusterapi.access.base64.secret");
     }
+    return manageDatabase.getKwPropertyValue(CLUSTER_CONN_URL_KEY, tenantId);
   }
 
   public ClusterStatus getClusterApiStatus(
@@ -191,11 +208,12 @@ public class ClusterApiService {
       String kafkaFlavor,
       int tenantId) {
     log.debug("getKafkaClusterStatus {} {}", bootstrapHost, protocol);
-    getClusterApiProperties(tenantId);
+    // probes of different tenants run concurrently, do not read the shared cluster api url
+    String tenantClusterConnUrl = getTenantClusterConnUrl(tenantId);
 
     try {
       String uri =
-          clusterConnUrl
+          tenantClusterConnUrl
               + URI_KAFKA_SR_CONN_STATUS
               + bootstrapHost
               + URL_DELIMITER
@@ -208,7 +226,8 @@ public class ClusterApiService {
                   kafkaFlavor);
 
       ResponseEntity<ClusterStatus> resultBody =
-          getRestTemplate(null).exchange(uri, HttpMethod.GET, getHttpEntity(), ClusterStatus.class);
+          getRestTemplate(tenantClusterConnUrl)
+              .exchange(uri, HttpMethod.GET, getHttpEntity(), ClusterStatus.class);
       return Objects.requireNonNull(resultBody.getBody());
     } catch (Exception e) {
       log.error("Error from getKafkaClusterStatus ", e);
@@ -370,6 +389,11 @@ public class ClusterApiService {
     return aclListOriginal;
   }
 
+  /**
+   * Topics of a cluster. Topics of Apache Kafka clusters are kept in a local mirror per cluster,
+   * cluster api only sends the changes since the generation of the mirror, or nothing if the topics
+   * did not change.
+   */
   public LoadTopicsResponse getAllTopics(
       String bootstrapHost,
       KafkaSupportedProtocol protocol,
@@ -381,12 +405,40 @@ public class ClusterApiService {
     log.info("getAllTopics {} {}", bootstrapHost, protocol);
     getClusterApiProperties(tenantId);
 
-    LoadTopicsResponse loadTopicsResponse;
-    String aclsNativeType = AclsNativeType.NATIVE.value;
-
     if (KafkaFlavors.CONFLUENT_CLOUD.value.equals(kafkaFlavors)) {
-      aclsNativeType = AclsNativeType.CONFLUENT_CLOUD.value;
+      return getAllTopicsFull(
+          bootstrapHost,
+          protocol,
+          clusterIdentification,
+          AclsNativeType.CONFLUENT_CLOUD.value,
+          resetTopicsCache);
     }
+
+    try {
+      return getAllTopicsFromMirror(
+          bootstrapHost, protocol, clusterIdentification, tenantId, resetTopicsCache);
+    } catch (HttpClientErrorException.NotFound e) {
+      // cluster api without the delta endpoint
+      return getAllTopicsFull(
+          bootstrapHost,
+          protocol,
+          clusterIdentification,
+          AclsNativeType.NATIVE.value,
+          resetTopicsCache);
+    } catch (Exception e) {
+      log.error("Error from getAllTopics", e);
+      throw new KlawException(CLUSTER_API_ERR_104);
+    }
+  }
+
+  private LoadTopicsResponse getAllTopicsFull(
+      String bootstrapHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String aclsNativeType,
+      boolean resetTopicsCache)
+      throws KlawException {
+    LoadTopicsResponse loadTopicsResponse;
     try {
       String uriGetTopicsFull =
           clusterConnUrl
@@ -416,6 +468,73 @@ public class ClusterApiService {
     return loadTopicsResponse;
   }
 
+  private LoadTopicsResponse getAllTopicsFromMirror(
+      String bootstrapHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      int tenantId,
+      boolean resetTopicsCache)
+      throws KlawException {
+    String mirrorKey =
+        String.join(
+            URL_DELIMITER,
+            String.valueOf(tenantId),
+            bootstrapHost,
+            protocol.getName(),
+            clusterIdentification);
+    TopicsMirror topicsMirror = topicsMirrors.get(mirrorKey);
+
+    String uriGetTopicsDelta =
+        clusterConnUrl
+            + URI_GET_TOPICS_DELTA
+            + bootstrapHost
+            + URL_DELIMITER
+            + String.join(
+                URL_DELIMITER,
+                protocol.getName(),
+                clusterIdentification,
+                RESET_CACHE,
+                String.valueOf(resetTopicsCache));
+
+    HttpHeaders headers = createHeaders(clusterApiUser);
+    headers.add("Accept", MediaType.APPLICATION_JSON_VALUE);
+    if (topicsMirror != null) {
+      headers.setIfNoneMatch("\"" + topicsMirror.getGeneration() + "\"");
+    }
+    ResponseEntity<TopicsDeltaResponse> response =
+        getRestTemplate(null)
+            .exchange(
+                uriGetTopicsDelta,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<>() {});
+
+    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && topicsMirror != null) {
+      return topicsMirror.toLoadTopicsResponse();
+    }
+    TopicsDeltaResponse topicsDelta = Objects.requireNonNull(response.getBody());
+    if (topicsDelta.isLoadingInProgress()) {
+      return LoadTopicsResponse.builder()
+          .loadingInProgress(true)
+          .topicConfigSet(new HashSet<>())
+          .build();
+    }
+
+    TopicsMirror updatedMirror =
+        topicsMirror == null || topicsDelta.isFullSnapshot()
+            ? TopicsMirror.of(topicsDelta)
+            : topicsMirror.apply(topicsDelta);
+    if (updatedMirror.getGeneration() != 0) {
+      // a slower concurrent response must not replace a newer mirror
+      topicsMirrors.merge(
+          mirrorKey,
+          updatedMirror,
+          (current, updated) ->
+              updated.getGeneration() >= current.getGeneration() ? updated : current);
+    }
+    return updatedMirror.toLoadTopicsResponse();
+  }
+
   public String approveConnectorRequests(
       String connectorName,
       KafkaSupportedProtocol protocol,
@@ -1154,6 +1273,31 @@ public class ClusterApiService {
     }
   }
 
+  /**
+   * Reads the given MBeans, or MBean patterns, of all brokers of a cluster in one request. Brokers
+   * which cannot be reached are left out of the result.
+   */
+  public List<JmxMetric> scrapeMetrics(List<String> jmxUrls, List<String> objectNames)
+      throws KlawException {
+    log.debug("scrapeMetrics {} {}", jmxUrls, objectNames);
+    getClusterApiProperties(101);
+    try {
+      String uri = clusterConnUrl + URI_SCRAPE_METRICS;
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      HttpEntity<ClusterMetricsRequest> request =
+          new HttpEntity<>(new ClusterMetricsRequest(jmxUrls, objectNames), headers);
+
+      ResponseEntity<List<JmxMetric>> response =
+          getRestTemplate(null)
+              .exchange(uri, HttpMethod.POST, request, new ParameterizedTypeReference<>() {});
+      return Objects.requireNonNull(response.getBody());
+    } catch (Exception e) {
+      log.error("Error from scrapeMetrics {} ", jmxUrls, e);
+      throw new KlawException(CLUSTER_API_ERR_116);
+    }
+  }
+
   public ApiResponse resetConsumerOffsets(
       ResetConsumerGroupOffsetsRequest resetConsumerGroupOffsetsRequest,
       String environmentId,
@@ -1286,4 +1430,41 @@ public class ClusterApiService {
     headers.add("Accept", MediaType.APPLICATION_JSON_VALUE);
     return new HttpEntity<>(headers);
   }
+
+  /** Immutable copy of the topics of a cluster at a generation of the cluster api topic cache. */
+  @Getter
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class TopicsMirror {
+    private final long generation;
+
+    private final Map<String, TopicConfig> topics;
+
+    private static TopicsMirror of(TopicsDeltaResponse topicsDelta) {
+      Map<String, TopicConfig> topics = new HashMap<>();
+      for (TopicConfig topicConfig : topicsDelta.getTopicConfigSet()) {
+        topics.put(topicConfig.getTopicName(), topicConfig);
+      }
+      return new TopicsMirror(topicsDelta.getGeneration(), Collections.unmodifiableMap(topics));
+    }
+
+    private TopicsMirror apply(TopicsDeltaResponse topicsDelta) {
+      Map<String, TopicConfig> updatedTopics = new HashMap<>(topics);
+      if (topicsDelta.getRemovedTopicNames() != null) {
+        topicsDelta.getRemovedTopicNames().forEach(updatedTopics::remove);
+      }
+      for (TopicConfig topicConfig : topicsDelta.getTopicConfigSet()) {
+        updatedTopics.put(topicConfig.getTopicName(), topicConfig);
+      }
+      return new TopicsMirror(
+          topicsDelta.getGeneration(), Collections.unmodifiableMap(updatedTopics));
+    }
+
+    private LoadTopicsResponse toLoadTopicsResponse() {
+      return LoadTopicsResponse.builder()
+          .loadingInProgress(false)
+          .topicConfigSet(new HashSet<>(topics.values()))
+          .generation(generation)
+          .build();
+    }
+  }
 }
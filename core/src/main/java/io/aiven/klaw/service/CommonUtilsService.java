@@ -15,6 +15,7 @@ import io.aiven.klaw.helpers.UtilMethods;
 import io.aiven.klaw.model.KwMetadataUpdates;
 import io.aiven.klaw.model.KwTenantConfigModel;
 import io.aiven.klaw.model.ResourceHistory;
+import io.aiven.klaw.model.UserIdentity;
 import io.aiven.klaw.model.charts.ChartsJsOverview;
 import io.aiven.klaw.model.charts.Options;
 import io.aiven.klaw.model.charts.Title;
@@ -24,6 +25,7 @@ import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestEntityType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.requests.ResetEntityCache;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.io.*;
 import java.sql.Timestamp;
 import java.time.Instant;
@@ -37,7 +39,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -73,6 +77,9 @@ public class CommonUtilsService {
   public static final TypeReference<List<ResourceHistory>> VALUE_TYPE_REF =
       new TypeReference<>() {};
 
+  // set while work of an http request is executed on another thread
+  private static final ThreadLocal<String> LOGIN_URL_OF_THREAD = new ThreadLocal<>();
+
   @Value("${klaw.enable.authorization.ad:false}")
   private boolean enableUserAuthorizationFromAD;
 
@@ -101,6 +108,9 @@ public class CommonUtilsService {
   @Autowired(required = false)
   private InMemoryUserDetailsManager inMemoryUserDetailsManager;
 
+  // last metadata update sequence applied to the cache per tenant
+  private final Map<Integer, Long> appliedMetadataSequences = new ConcurrentHashMap<>();
+
   private RestTemplate getRestTemplate() {
     return HARestMessagingService.getRestTemplate();
   }
@@ -153,10 +163,13 @@ public class CommonUtilsService {
 
   public boolean isNotAuthorizedUser(Object principal, Set<PermissionType> permissionTypes) {
     try {
-      Set<String> existingPermissions = getPermissions(principal);
-      existingPermissions.retainAll(
-          permissionTypes.stream().map(Enum::name).collect(Collectors.toList()));
-      return existingPermissions.isEmpty();
+      Set<String> existingPermissions = getCachedPermissions(principal);
+      for (PermissionType permissionType : permissionTypes) {
+        if (existingPermissions.contains(permissionType.name())) {
+          return false;
+        }
+      }
+      return true;
     } catch (Exception e) {
       log.debug(
           "Error isNotAuthorizedUser / Check if role exists. {} {} {}",
@@ -169,9 +182,21 @@ public class CommonUtilsService {
   }
 
   public Set<String> getPermissions(Object principal) {
-    return new HashSet<>(
+    return new HashSet<>(getCachedPermissions(principal));
+  }
+
+  // Returns the permission set shared by the identity cache, callers must not modify it
+  private Set<String> getCachedPermissions(Object principal) {
+    String userName = getUserName(principal);
+    if (!enableUserAuthorizationFromAD) {
+      UserIdentity userIdentity = manageDatabase.getUserIdentity(userName);
+      if (userIdentity != null) {
+        return Objects.requireNonNull(userIdentity.getPermissions());
+      }
+    }
+    return Objects.requireNonNull(
         manageDatabase
-            .getRolesPermissionsPerTenant(getTenantId(getUserName(principal)))
+            .getRolesPermissionsPerTenant(getTenantId(userName))
             .get(getAuthority(principal)));
   }
 
@@ -269,6 +294,7 @@ public class CommonUtilsService {
             .entityValue(entityValue)
             .operationType(operationType.name())
             .createdTime(new Timestamp(System.currentTimeMillis()))
+            .sequence(getNextMetadataUpdateSequence(tenantId))
             .build();
     updateMetadataCache(kwMetadataUpdates, true);
 
@@ -283,6 +309,22 @@ public class CommonUtilsService {
     }
   }
 
+  private Long getNextMetadataUpdateSequence(int tenantId) {
+    try {
+      return manageDatabase.getHandleDbRequests().getNextMetadataUpdateSequence(tenantId);
+    } catch (Exception e) {
+      // the update is applied without a sequence, other instances then reload the entity type
+      log.error("Unable to number the metadata update of tenant {}", tenantId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Applies a metadata update to the cache. Numbered updates of topics and users only reload the
+   * named topic or user. If a numbered update does not directly follow the last update applied for
+   * the tenant, an update was missed and all metadata of the tenant is reloaded instead. Updates
+   * without a sequence reload the whole entity type.
+   */
   public synchronized void updateMetadataCache(
       KwMetadataUpdates kwMetadataUpdates, boolean isLocal) {
     final EntityType entityType = EntityType.of(kwMetadataUpdates.getEntityType());
@@ -291,10 +333,33 @@ public class CommonUtilsService {
     }
     final MetadataOperationType operationType =
         MetadataOperationType.of(kwMetadataUpdates.getOperationType());
+    if (entityType == EntityType.USERS && DATABASE.value.equals(authenticationType) && !isLocal) {
+      updateInMemoryAuthenticationManager(kwMetadataUpdates, operationType);
+    }
+
+    final int tenantId = kwMetadataUpdates.getTenantId();
+    final String entityValue = kwMetadataUpdates.getEntityValue();
+    final boolean hasEntityValue = entityValue != null && !"na".equals(entityValue);
+    final MetadataSequenceState sequenceState = checkMetadataSequence(kwMetadataUpdates);
+    if (sequenceState == MetadataSequenceState.APPLIED) {
+      log.debug("Metadata update {} is already part of the cache", kwMetadataUpdates);
+      return;
+    } else if (sequenceState == MetadataSequenceState.GAP
+        && !(entityType == EntityType.TENANT && operationType == MetadataOperationType.DELETE)) {
+      log.info(
+          "Metadata update {} of tenant {} does not follow the last applied update, reloading the"
+              + " tenant",
+          kwMetadataUpdates.getSequence(),
+          tenantId);
+      manageDatabase.updateStaticDataForTenant(tenantId);
+      return;
+    }
+
     if (entityType == EntityType.USERS) {
-      manageDatabase.loadUsersForAllTenants();
-      if (DATABASE.value.equals(authenticationType) && !isLocal) {
-        updateInMemoryAuthenticationManager(kwMetadataUpdates, operationType);
+      if (sequenceState == MetadataSequenceState.NEXT && hasEntityValue) {
+        manageDatabase.loadOneUser(entityValue, tenantId);
+      } else {
+        manageDatabase.loadUsersForAllTenants();
       }
     } else if (entityType == EntityType.TEAM) {
       manageDatabase.loadEnvsForOneTenant(kwMetadataUpdates.getTenantId());
@@ -323,10 +388,37 @@ public class CommonUtilsService {
     } else if (entityType == EntityType.PROPERTIES) {
       manageDatabase.loadKwPropsPerOneTenant(null, kwMetadataUpdates.getTenantId());
     } else if (entityType == EntityType.TOPICS) {
-      manageDatabase.loadTopicsForOneTenant(kwMetadataUpdates.getTenantId());
+      if (sequenceState == MetadataSequenceState.NEXT && hasEntityValue) {
+        manageDatabase.loadTopicsForOneTopicName(tenantId, entityValue);
+      } else {
+        manageDatabase.loadTopicsForOneTenant(tenantId);
+      }
     }
   }
 
+  private MetadataSequenceState checkMetadataSequence(KwMetadataUpdates kwMetadataUpdates) {
+    Long sequence = kwMetadataUpdates.getSequence();
+    if (sequence == null) {
+      return MetadataSequenceState.NOT_NUMBERED;
+    }
+    Long applied = appliedMetadataSequences.get(kwMetadataUpdates.getTenantId());
+    if (applied != null && sequence <= applied) {
+      // a reload triggered by a later update has already read this update from the db
+      return MetadataSequenceState.APPLIED;
+    }
+    appliedMetadataSequences.put(kwMetadataUpdates.getTenantId(), sequence);
+    return applied != null && sequence == applied + 1
+        ? MetadataSequenceState.NEXT
+        : MetadataSequenceState.GAP;
+  }
+
+  private enum MetadataSequenceState {
+    NOT_NUMBERED,
+    NEXT,
+    APPLIED,
+    GAP
+  }
+
   private void updateInMemoryAuthenticationManager(
       KwMetadataUpdates kwMetadataUpdates, MetadataOperationType operationType) {
     UserInfo userInfo =
@@ -369,9 +461,26 @@ public class CommonUtilsService {
   }
 
   public String getLoginUrl() {
+    String loginUrl = LOGIN_URL_OF_THREAD.get();
+    if (loginUrl != null) {
+      return loginUrl;
+    }
     return ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString() + "/login";
   }
 
+  /**
+   * Runs the callable with a fixed login url, for work executed outside of the http request which
+   * triggered it.
+   */
+  public <T> T callWithLoginUrl(String loginUrl, Callable<T> callable) throws Exception {
+    LOGIN_URL_OF_THREAD.set(loginUrl);
+    try {
+      return callable.call();
+    } finally {
+      LOGIN_URL_OF_THREAD.remove();
+    }
+  }
+
   public String getBaseUrl() {
     if ("".equals(kwContextPath))
       return ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
@@ -412,6 +521,7 @@ public class CommonUtilsService {
                   .entityType(kwMetadataUpdates.getEntityType())
                   .entityValue(kwMetadataUpdates.getEntityValue())
                   .operationType(kwMetadataUpdates.getOperationType())
+                  .sequence(kwMetadataUpdates.getSequence())
                   .build();
 
           HttpHeaders headers = new HttpHeaders();
@@ -436,19 +546,13 @@ public class CommonUtilsService {
   }
 
   public int getTenantId(String userId) {
-    return manageDatabase.selectAllCachedUserInfo().stream()
-        .filter(userInfo -> userInfo.getUsername().equals(userId))
-        .findFirst()
-        .map(UserInfo::getTenantId)
-        .orElse(0);
+    UserIdentity userIdentity = manageDatabase.getUserIdentity(userId);
+    return userIdentity == null ? 0 : userIdentity.getTenantId();
   }
 
   public Integer getTeamId(String userName) {
-    return manageDatabase.selectAllCachedUserInfo().stream()
-        .filter(userInfo -> userInfo.getUsername().equals(userName))
-        .findFirst()
-        .map(UserInfo::getTeamId)
-        .orElse(0);
+    UserIdentity userIdentity = manageDatabase.getUserIdentity(userName);
+    return userIdentity == null ? 0 : userIdentity.getTeamId();
   }
 
   public Object getPrincipal() {
@@ -541,66 +645,34 @@ public class CommonUtilsService {
   }
 
   public List<Topic> getTopicsForTopicName(String topicName, int tenantId) {
+    TopicCatalog topicCatalog = manageDatabase.getTopicCatalog(tenantId);
     if (topicName != null) {
-      return manageDatabase.getTopicsForTenant(tenantId).stream()
-          .filter(topic -> topic.getTopicname().equals(topicName))
-          .toList();
+      return topicCatalog.getTopicsByName(topicName);
     } else {
-      return manageDatabase.getTopicsForTenant(tenantId);
+      return topicCatalog.getTopics();
     }
   }
 
   public List<Topic> getTopics(String env, Integer teamId, int tenantId) {
     log.debug("getSyncTopics {} {}", env, teamId);
-    List<Topic> allTopicsList = manageDatabase.getTopicsForTenant(tenantId);
+    TopicCatalog topicCatalog = manageDatabase.getTopicCatalog(tenantId);
     if (teamId == null || teamId.equals(1)) {
       if (env == null || env.equals("ALL")) {
-        return allTopicsList;
+        return topicCatalog.getTopics();
       } else {
-        Set<String> uniqueTopicNamesList =
-            new HashSet<>(
-                allTopicsList.stream()
-                    .filter(
-                        topic -> {
-                          return topic.getEnvironment().equals(env);
-                        })
-                    .map(Topic::getTopicname)
-                    .toList());
-        return getSubTopics(allTopicsList, uniqueTopicNamesList);
+        return topicCatalog.getTopicsByNames(
+            TopicCatalog.topicNamesOf(topicCatalog.getTopicsByEnv(env)));
       }
     } else {
       if (env == null || "ALL".equals(env)) {
-        return allTopicsList.stream().filter(topic -> topic.getTeamId().equals(teamId)).toList();
+        return topicCatalog.getTopicsByTeam(teamId);
       } else {
-        Set<String> uniqueTopicNamesList =
-            new HashSet<>(
-                allTopicsList.stream()
-                    .filter(
-                        topic -> {
-                          return topic.getEnvironment().equals(env)
-                              && topic.getTeamId().equals(teamId);
-                        })
-                    .map(Topic::getTopicname)
-                    .toList());
-        return getSubTopics(allTopicsList, uniqueTopicNamesList);
+        return topicCatalog.getTopicsByNames(
+            TopicCatalog.topicNamesOf(topicCatalog.getTopicsByEnvAndTeam(env, teamId)));
       }
     }
   }
 
-  private List<Topic> getSubTopics(List<Topic> allTopicsList, Set<String> uniqueTopicNamesList) {
-    List<Topic> subTopicsList = new ArrayList<>();
-    uniqueTopicNamesList.forEach(
-        topicName -> {
-          allTopicsList.forEach(
-              topic -> {
-                if (topic.getTopicname().equals(topicName)) {
-                  subTopicsList.add(topic);
-                }
-              });
-        });
-    return subTopicsList;
-  }
-
   public List<ResourceHistory> saveTopicHistory(
       String requestOperationType,
       String topicName,
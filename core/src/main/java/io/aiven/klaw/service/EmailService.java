@@ -4,16 +4,18 @@ import static io.aiven.klaw.helpers.KwConstants.DEFAULT_TENANT_ID;
 import static io.aiven.klaw.helpers.KwConstants.EMAIL_NOTIFICATIONS_ENABLED_KEY;
 
 import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwMailOutbox;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
 import jakarta.mail.Address;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import java.io.UnsupportedEncodingException;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,7 +33,7 @@ public class EmailService {
   private static final String KW_LOGO_PNG =
       "https://raw.githubusercontent.com/Aiven-Open/klaw/main/core/src/main/resources/static/assets/images/Klaw-logo-sm.png";
 
-  private static String headerString =
+  private static final String HEADER_TEMPLATE =
       "<html><table style=\"height:40px;width:60%;background-color:#0788d1;color:white;text-align:center;font-family: Arial, Helvetica, sans-serif; margin-left: auto;margin-right: auto;\">\n"
           + "\t<tr>\n"
           + "\t\t\n"
@@ -47,7 +49,7 @@ public class EmailService {
           + "\t<tr>\n"
           + "\t\t<td>";
 
-  private static final String footerString =
+  private static final String FOOTER =
       "<br>\n"
           + "<table style=\"height:40px; width:60%;background-color:#0788d1;color:white;text-align:center;font-family: Arial, Helvetica, sans-serif; margin-left: auto;margin-right: auto;\">\n"
           + "\t<tr>\n"
@@ -58,6 +60,10 @@ public class EmailService {
           + "</table>\n"
           + "<table style=\"height:40px; width:60%;background-color:#0788d1;color:white;text-align:center;font-family: Arial, Helvetica, sans-serif; margin-left: auto;margin-right: auto;\">\n"
           + "</table></html>";
+
+  // header with the configured logo, see updateHeaderText
+  private String header = HEADER_TEMPLATE.replace("LOGO", KW_LOGO_PNG);
+
   @Autowired private JavaMailSender emailSender;
 
   @Autowired ManageDatabase manageDatabase;
@@ -76,6 +82,17 @@ public class EmailService {
   @Value("${klaw.notification.header.logo:http://yourcompany/logo.png}")
   private String notificationHeaderLogo;
 
+  @Value("${klaw.mail.outbox.enable:false}")
+  private boolean mailOutboxEnabled;
+
+  @Value("${klaw.mail.outbox.digest.enable:false}")
+  private boolean digestEnabled;
+
+  @Value("${klaw.mail.outbox.digest.window.seconds:60}")
+  private long digestWindowSeconds;
+
+  // called on the proxy, the list overload below runs on the same pool thread
+  @Async("notificationsThreadPool")
   public void sendSimpleMessage(
       String to, String cc, String subject, String text, int tenantId, String loginUrl) {
     List<String> toList = new ArrayList<>();
@@ -85,6 +102,10 @@ public class EmailService {
     sendSimpleMessage(toList, ccList, null, subject, text, tenantId, loginUrl);
   }
 
+  /**
+   * Sends the mail, or stores it in the outbox to be sent by {@link MailOutboxService} when the
+   * outbox is enabled.
+   */
   @Async("notificationsThreadPool")
   public void sendSimpleMessage(
       List<String> to,
@@ -96,51 +117,90 @@ public class EmailService {
       String loginUrl) {
     String emailNotificationsEnabled =
         manageDatabase.getKwPropertyValue(EMAIL_NOTIFICATIONS_ENABLED_KEY, DEFAULT_TENANT_ID);
-    try {
-      MimeMessage message = emailSender.createMimeMessage();
-      addEmailRecipientsToEmail(to, message, Message.RecipientType.TO);
-      addEmailRecipientsToEmail(cc, message, Message.RecipientType.CC);
-      addEmailRecipientsToEmail(bcc, message, Message.RecipientType.BCC);
-
-      message.setSubject(subject);
-      Address address = new InternetAddress(noReplyMailId);
-      message.setReplyTo(new Address[] {address});
-      message.setFrom(new InternetAddress(fromMailId, noReplyMailIdDisplay));
-
-      text = text.replace("\\n", "<br>");
-
-      text =
-          text
-              + "<br><br>\n"
-              + "<a href="
-              + loginUrl
-              + "><b>Login Now</b></a>\n"
-              + "<br><br>\n"
-              + "Thanks,<br>Klaw\n"
-              + "\t\t</td>\n"
-              + "\t</tr>\n"
-              + "</table>";
-
-      text = headerString + text + footerString;
-      message.setContent(text, "text/html");
-
-      if ("true".equals(emailNotificationsEnabled)) {
-        try {
-          CompletableFuture.runAsync(
-                  () -> {
-                    emailSender.send(message);
-                  })
-              .get();
-        } catch (InterruptedException | ExecutionException e) {
-          log.error("Exception:", e);
-        }
-      }
+    if (!"true".equals(emailNotificationsEnabled)) {
+      return;
+    }
+    if (mailOutboxEnabled) {
+      queueMail(to, cc, bcc, subject, text, tenantId, loginUrl);
+      return;
+    }
 
+    try {
+      emailSender.send(createMessage(to, cc, bcc, subject, text, loginUrl));
     } catch (MailException | MessagingException | UnsupportedEncodingException e) {
       log.error("Exception:", e);
     }
   }
 
+  private void queueMail(
+      List<String> to,
+      List<String> cc,
+      List<String> bcc,
+      String subject,
+      String text,
+      int tenantId,
+      String loginUrl) {
+    Instant now = Instant.now();
+    // in digest mode the mail waits for further mails to the same recipients
+    Instant nextAttempt = digestEnabled ? now.plusSeconds(digestWindowSeconds) : now;
+    KwMailOutbox mail =
+        KwMailOutbox.builder()
+            .tenantId(tenantId)
+            .recipientsTo(joinAddresses(to))
+            .recipientsCc(joinAddresses(cc))
+            .recipientsBcc(joinAddresses(bcc))
+            .subject(subject)
+            .content(text)
+            .loginUrl(loginUrl)
+            .status(MailOutboxStatus.QUEUED.name())
+            .attempts(0)
+            .queuedTime(Timestamp.from(now))
+            .nextAttemptTime(Timestamp.from(nextAttempt))
+            .build();
+    try {
+      manageDatabase.getHandleDbRequests().insertMails(List.of(mail));
+    } catch (Exception e) {
+      log.error("Exception: Mail {} not queued", subject, e);
+    }
+  }
+
+  /** Builds the html mail, the text is placed between the Klaw header and footer. */
+  MimeMessage createMessage(
+      List<String> to,
+      List<String> cc,
+      List<String> bcc,
+      String subject,
+      String text,
+      String loginUrl)
+      throws MessagingException, UnsupportedEncodingException {
+    MimeMessage message = emailSender.createMimeMessage();
+    addEmailRecipientsToEmail(to, message, Message.RecipientType.TO);
+    addEmailRecipientsToEmail(cc, message, Message.RecipientType.CC);
+    addEmailRecipientsToEmail(bcc, message, Message.RecipientType.BCC);
+
+    message.setSubject(subject);
+    Address address = new InternetAddress(noReplyMailId);
+    message.setReplyTo(new Address[] {address});
+    message.setFrom(new InternetAddress(fromMailId, noReplyMailIdDisplay));
+    message.setContent(getMailContent(text, loginUrl), "text/html");
+    return message;
+  }
+
+  private String getMailContent(String text, String loginUrl) {
+    return new StringBuilder(header.length() + FOOTER.length() + text.length() + 256)
+        .append(header)
+        .append(text.replace("\\n", "<br>"))
+        .append("<br><br>\n<a href=")
+        .append(loginUrl)
+        .append("><b>Login Now</b></a>\n<br><br>\nThanks,<br>Klaw\n\t\t</td>\n\t</tr>\n</table>")
+        .append(FOOTER)
+        .toString();
+  }
+
+  private static String joinAddresses(List<String> addresses) {
+    return addresses == null || addresses.isEmpty() ? null : String.join(",", addresses);
+  }
+
   private static void addEmailRecipientsToEmail(
       List<String> addresses, MimeMessage message, Message.RecipientType recipientType)
       throws MessagingException {
@@ -163,6 +223,6 @@ public class EmailService {
       notificationHeaderLogo = KW_LOGO_PNG;
     }
 
-    headerString = headerString.replace("LOGO", notificationHeaderLogo);
+    header = HEADER_TEMPLATE.replace("LOGO", notificationHeaderLogo);
   }
 }
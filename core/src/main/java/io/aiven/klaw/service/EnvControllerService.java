@@ -1,22 +1,46 @@
 package io.aiven.klaw.service;
 
 import static io.aiven.klaw.helpers.KwConstants.DATE_TIME_DDMMMYYYY_HHMMSS_FORMATTER;
+import static org.springframework.beans.BeanUtils.copyProperties;
 
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KwClusters;
-import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.model.enums.ClusterStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Probes the status of the clusters of all environments. Environments on the same cluster share one
+ * probe, the probes run concurrently and a probe not answered within the timeout marks the cluster
+ * NOT_KNOWN. Online clusters are probed again after the healthy interval, all others after the
+ * failing interval.
+ *
+ * <p>Clusters are told apart by tenant and cluster id, not by their bootstrap servers. A cluster
+ * registered by several tenants is probed once per tenant, since each tenant reaches it through its
+ * own cluster api and the credentials the cluster api keeps for that cluster id.
+ */
 @EnableScheduling
 @Service
 @Slf4j
@@ -26,66 +50,231 @@ public class EnvControllerService {
 
   @Autowired ManageDatabase manageDatabase;
 
-  @Scheduled(fixedRateString = "PT1H", initialDelay = 9000)
+  @Value("${klaw.clusterstatus.probe.threads:8}")
+  private int probeThreads;
+
+  @Value("${klaw.clusterstatus.probe.timeout.ms:30000}")
+  private long probeTimeoutMs;
+
+  @Value("${klaw.clusterstatus.healthy.interval.minutes:60}")
+  private long healthyIntervalMinutes;
+
+  @Value("${klaw.clusterstatus.failing.interval.minutes:5}")
+  private long failingIntervalMinutes;
+
+  // key cluster, value time from which the cluster is probed again
+  private final Map<ClusterKey, Instant> nextProbes = new ConcurrentHashMap<>();
+
+  @Scheduled(fixedDelayString = "${klaw.clusterstatus.poll.ms:60000}", initialDelay = 9000)
   public void loadEnvsWithStatus() {
-    updateEnvsStatus();
+    updateEnvsStatus(false);
   }
 
+  /** Probes all clusters, whether or not their next probe is due. */
   public void updateEnvsStatus() {
-    log.info("Scheduled job (klaw.reloadclusterstatus.interval) : Update cluster status");
-    try {
-      Set<Integer> tenants = manageDatabase.getTenantMap().keySet();
+    updateEnvsStatus(true);
+  }
 
-      for (Integer tenantId : tenants) {
-        List<Env> envList = manageDatabase.getKafkaEnvListAllTenants(tenantId);
+  private synchronized void updateEnvsStatus(boolean allClusters) {
+    log.debug("Scheduled job (klaw.clusterstatus.poll.ms) : Update cluster status");
+    try {
+      Map<ClusterKey, ProbeTarget> targets = getProbeTargets();
+      nextProbes.keySet().retainAll(targets.keySet());
 
-        for (Env env : envList) {
-          updateEnvStatusPerEnv(tenantId, env);
-        }
+      Instant now = Instant.now();
+      if (!allClusters) {
+        targets.keySet().removeIf(key -> nextProbes.getOrDefault(key, now).isAfter(now));
       }
+      if (targets.isEmpty()) {
+        return;
+      }
+      log.info("Probing the status of {} clusters", targets.size());
+      Map<ClusterKey, ClusterStatus> statuses = probe(targets);
+      saveStatuses(targets, statuses);
+    } catch (Exception e) {
+      log.error("Error in loading cluster status ", e);
+    }
+  }
 
-      for (Integer tenantId : tenants) {
-        List<Env> envList = manageDatabase.getSchemaRegEnvList(tenantId);
+  // kafka, schema registry and kafka connect environments of all tenants, grouped by cluster
+  private Map<ClusterKey, ProbeTarget> getProbeTargets() {
+    Map<ClusterKey, ProbeTarget> targets = new LinkedHashMap<>();
+    for (Integer tenantId : manageDatabase.getTenantMap().keySet()) {
+      List<Env> envList = new ArrayList<>(manageDatabase.getKafkaEnvListAllTenants(tenantId));
+      envList.addAll(manageDatabase.getSchemaRegEnvList(tenantId));
+      envList.addAll(manageDatabase.getKafkaConnectEnvList(tenantId));
 
-        for (Env env : envList) {
-          updateEnvStatusPerEnv(tenantId, env);
+      for (Env env : envList) {
+        KwClusters kwClusters =
+            manageDatabase
+                .getClusters(KafkaClustersType.of(env.getType()), tenantId)
+                .get(env.getClusterId());
+        if (kwClusters == null) {
+          log.warn("Cluster {} of env {} not found", env.getClusterId(), env.getName());
+          continue;
+        }
+        ClusterKey key = new ClusterKey(tenantId, env.getType(), env.getClusterId());
+        List<Env> clusterEnvs =
+            targets.computeIfAbsent(key, k -> new ProbeTarget(kwClusters)).getEnvs();
+        if (!clusterEnvs.contains(env)) {
+          clusterEnvs.add(env);
         }
       }
+    }
+    return targets;
+  }
+
+  private Map<ClusterKey, ClusterStatus> probe(Map<ClusterKey, ProbeTarget> targets) {
+    AtomicInteger threadCount = new AtomicInteger();
+    int threads = Math.max(1, Math.min(probeThreads, targets.size()));
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "klaw-cluster-status-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      Map<ClusterKey, ProbeTask> probes = new LinkedHashMap<>();
+      targets.forEach(
+          (key, target) -> {
+            ProbeTask probe = new ProbeTask(executor, key, target);
+            executor.execute(probe);
+            probes.put(key, probe);
+          });
+
+      Map<ClusterKey, ClusterStatus> statuses = new LinkedHashMap<>();
+      probes.forEach((key, probe) -> statuses.put(key, probe.status.join()));
+      return statuses;
+    } finally {
+      // probes still waiting on a cluster after their timeout are abandoned
+      executor.shutdownNow();
+    }
+  }
 
-      for (Integer tenantId : tenants) {
-        List<Env> envList = manageDatabase.getKafkaConnectEnvList(tenantId);
+  private ClusterStatus getKafkaClusterStatus(int tenantId, ProbeTarget target) {
+    KwClusters kwClusters = target.getKwClusters();
+    return clusterApiService.getKafkaClusterStatus(
+        kwClusters.getBootstrapServers(),
+        kwClusters.getProtocol(),
+        kwClusters.getClusterName() + kwClusters.getClusterId(),
+        target.getEnvs().get(0).getType(),
+        kwClusters.getKafkaFlavor(),
+        tenantId);
+  }
+
+  private void saveStatuses(
+      Map<ClusterKey, ProbeTarget> targets, Map<ClusterKey, ClusterStatus> statuses) {
+    LocalDateTime statusTime = LocalDateTime.now(ZoneOffset.UTC);
+    String statusTimeString = DATE_TIME_DDMMMYYYY_HHMMSS_FORMATTER.format(statusTime);
+    Instant now = Instant.now();
+
+    // the cached clusters and environments are shared with readers, their copies are updated
+    Map<Integer, List<KwClusters>> clustersPerTenant = new LinkedHashMap<>();
+    Map<Integer, List<Env>> envsPerTenant = new LinkedHashMap<>();
+    statuses.forEach(
+        (key, status) -> {
+          ProbeTarget target = targets.get(key);
+          KwClusters kwClusters = new KwClusters();
+          copyProperties(target.getKwClusters(), kwClusters);
+          kwClusters.setClusterStatus(status);
+          clustersPerTenant
+              .computeIfAbsent(key.getTenantId(), tenantId -> new ArrayList<>())
+              .add(kwClusters);
+          for (Env cachedEnv : target.getEnvs()) {
+            Env env = new Env();
+            copyProperties(cachedEnv, env);
+            env.setEnvStatus(status);
+            env.setEnvStatusTime(statusTime);
+            env.setEnvStatusTimeString(statusTimeString);
+            envsPerTenant
+                .computeIfAbsent(key.getTenantId(), tenantId -> new ArrayList<>())
+                .add(env);
+          }
+          nextProbes.put(key, now.plus(getProbeInterval(status)));
+        });
+
+    clustersPerTenant.forEach(
+        (tenantId, clusters) -> {
+          List<Env> envs = envsPerTenant.get(tenantId);
+          manageDatabase.getHandleDbRequests().updateClustersAndEnvsStatus(clusters, envs);
+          manageDatabase.updateClusterStatuses(tenantId, clusters, envs, true);
+        });
+  }
+
+  private Duration getProbeInterval(ClusterStatus status) {
+    return status == ClusterStatus.ONLINE
+        ? Duration.ofMinutes(healthyIntervalMinutes)
+        : Duration.ofMinutes(failingIntervalMinutes);
+  }
+
+  // environments of a tenant pointing to the same cluster share its status, see the class comment
+  @Data
+  private static class ClusterKey {
+    private final int tenantId;
+    private final String type;
+    private final Integer clusterId;
+  }
+
+  /**
+   * Probe of one cluster. A probe not answered within the timeout marks the cluster NOT_KNOWN and
+   * is interrupted. As a blocked call may not end on an interrupt, the pool gets another thread in
+   * its place, so a hung probe does not delay the probes of the other clusters.
+   */
+  private final class ProbeTask extends FutureTask<ClusterStatus> {
+    private final ThreadPoolExecutor executor;
+    private final ClusterKey key;
+    private final CompletableFuture<ClusterStatus> status = new CompletableFuture<>();
 
-        for (Env env : envList) {
-          updateEnvStatusPerEnv(tenantId, env);
+    private ProbeTask(ThreadPoolExecutor executor, ClusterKey key, ProbeTarget target) {
+      super(() -> getKafkaClusterStatus(key.getTenantId(), target));
+      this.executor = executor;
+      this.key = key;
+    }
+
+    @Override
+    public void run() {
+      // the timeout starts with the probe, not while it waits for a thread
+      CompletableFuture.delayedExecutor(probeTimeoutMs, TimeUnit.MILLISECONDS)
+          .execute(this::timeOut);
+      super.run();
+    }
+
+    @Override
+    protected void done() {
+      if (isCancelled()) {
+        status.complete(ClusterStatus.NOT_KNOWN);
+        return;
+      }
+      try {
+        status.complete(get());
+      } catch (ExecutionException | InterruptedException e) {
+        log.error("Error probing cluster {}", key, e);
+        status.complete(ClusterStatus.NOT_KNOWN);
+      }
+    }
+
+    private void timeOut() {
+      if (status.complete(ClusterStatus.NOT_KNOWN) && cancel(true)) {
+        log.warn("Probe of cluster {} not answered in {} ms", key, probeTimeoutMs);
+        synchronized (executor) {
+          executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+          executor.setCorePoolSize(executor.getCorePoolSize() + 1);
         }
       }
-    } catch (Exception e) {
-      log.error("Error in loading cluster status ", e);
     }
   }
 
-  private void updateEnvStatusPerEnv(Integer tenantId, Env env) throws KlawException {
-    ClusterStatus status;
-    LocalDateTime statusTime = LocalDateTime.now(ZoneOffset.UTC);
-    KwClusters kwClusters =
-        manageDatabase
-            .getClusters(KafkaClustersType.of(env.getType()), tenantId)
-            .get(env.getClusterId());
-    status =
-        clusterApiService.getKafkaClusterStatus(
-            kwClusters.getBootstrapServers(),
-            kwClusters.getProtocol(),
-            kwClusters.getClusterName() + kwClusters.getClusterId(),
-            env.getType(),
-            kwClusters.getKafkaFlavor(),
-            tenantId);
-
-    env.setEnvStatus(status);
-    kwClusters.setClusterStatus(status);
-    env.setEnvStatusTime(statusTime);
-    env.setEnvStatusTimeString(DATE_TIME_DDMMMYYYY_HHMMSS_FORMATTER.format(statusTime));
-    manageDatabase.addEnvToCache(tenantId, env, true);
-    manageDatabase.getHandleDbRequests().addNewCluster(kwClusters);
-    manageDatabase.getHandleDbRequests().addNewEnv(env);
+  @Getter
+  @RequiredArgsConstructor
+  private static class ProbeTarget {
+    private final KwClusters kwClusters;
+    private final List<Env> envs = new ArrayList<>();
   }
 }
@@ -965,15 +965,27 @@ public class EnvsClustersTenantsControllerService {
       log.error("Error from getUpdateEnvStatus ", e);
     }
     LocalDateTime statusTime = LocalDateTime.now(ZoneOffset.UTC);
-    env.setEnvStatus(status);
-    env.setEnvStatusTime(statusTime);
-    env.setEnvStatusTimeString(DATE_TIME_DDMMMYYYY_HHMMSS_FORMATTER.format(statusTime));
+    // environments on the same cluster share its status, the cached cluster and environments are
+    // replaced by updated copies and other instances receive the environments in one message
+    List<Env> clusterEnvs = new ArrayList<>();
+    for (Env clusterEnv : allEnvs) {
+      if (Objects.equals(clusterEnv.getType(), env.getType())
+          && Objects.equals(clusterEnv.getClusterId(), env.getClusterId())) {
+        Env updatedEnv = new Env();
+        copyProperties(clusterEnv, updatedEnv);
+        updatedEnv.setEnvStatus(status);
+        updatedEnv.setEnvStatusTime(statusTime);
+        updatedEnv.setEnvStatusTimeString(DATE_TIME_DDMMMYYYY_HHMMSS_FORMATTER.format(statusTime));
+        clusterEnvs.add(updatedEnv);
+      }
+    }
 
-    // Is this required can we remove it?
-    kwClusters.setClusterStatus(status);
-    manageDatabase.getHandleDbRequests().addNewCluster(kwClusters);
+    KwClusters updatedCluster = new KwClusters();
+    copyProperties(kwClusters, updatedCluster);
+    updatedCluster.setClusterStatus(status);
+    manageDatabase.getHandleDbRequests().addNewCluster(updatedCluster);
 
-    manageDatabase.addEnvToCache(tenantId, env, false);
+    manageDatabase.updateClusterStatuses(tenantId, List.of(updatedCluster), clusterEnvs, false);
 
     envUpdatedStatus.setResult(ApiResultStatus.SUCCESS.value);
     envUpdatedStatus.setEnvStatus(status);
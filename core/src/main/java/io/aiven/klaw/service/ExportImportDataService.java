@@ -3,22 +3,47 @@ package io.aiven.klaw.service;
 import static io.aiven.klaw.helpers.KwConstants.INFRATEAM;
 import static io.aiven.klaw.helpers.KwConstants.STAGINGTEAM;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.dao.AclRequests;
+import io.aiven.klaw.dao.KafkaConnectorRequest;
+import io.aiven.klaw.dao.KwKafkaConnector;
+import io.aiven.klaw.dao.MessageSchema;
 import io.aiven.klaw.dao.ProductDetails;
+import io.aiven.klaw.dao.SchemaRequest;
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.dao.metadata.KwAdminConfig;
 import io.aiven.klaw.dao.metadata.KwData;
 import io.aiven.klaw.dao.metadata.KwRequests;
 import io.aiven.klaw.helpers.HandleDbRequests;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.jasypt.util.text.BasicTextEncryptor;
@@ -32,6 +57,8 @@ import org.springframework.stereotype.Service;
 /*
 - Export Klaw metadata (Admin config, Core data, Requests data) to json files
 - Import json files into Klaw metadata
+- Core data and requests are paged from the database and streamed to and from the files, so
+  neither side holds a whole table in memory
  */
 @Slf4j
 @Service
@@ -49,9 +76,21 @@ public class ExportImportDataService {
   @Value("${klaw.export.scheduler.enable:false}")
   private boolean exportMetadata;
 
+  @Value("${klaw.export.gzip.enable:false}")
+  private boolean gzipExport;
+
+  @Value("${klaw.export.incremental.enable:false}")
+  private boolean incrementalExport;
+
+  @Value("${klaw.export.page.size:1000}")
+  private int exportPageSize = 1000;
+
   @Value("${klaw.import.enable:false}")
   private boolean importMetadata;
 
+  @Value("${klaw.import.batch.size:1000}")
+  private int importBatchSize = 1000;
+
   @Value("${klaw.import.adminconfig.enable:false}")
   private boolean importAdminConfigMetadata;
 
@@ -76,12 +115,23 @@ public class ExportImportDataService {
       new ObjectMapper()
           .configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true)
           .configure(SerializationFeature.WRAP_ROOT_VALUE, true);
-  ;
+
+  // elements of the streamed arrays are not wrapped, only the document root is
+  private static final ObjectWriter ELEMENT_WRITER =
+      OBJECT_MAPPER
+          .writer()
+          .without(SerializationFeature.WRAP_ROOT_VALUE)
+          .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  private static final ObjectReader ELEMENT_READER =
+      OBJECT_MAPPER.reader().without(DeserializationFeature.UNWRAP_ROOT_VALUE);
+
   private static final String FILE_EXT = ".json";
+  private static final String GZIP_FILE_EXT = ".gz";
   private static final String FILE_PREFIX = "kwmetadata";
   private static final String ADMIN_CONFIG_PREFIX = "admin_config";
   private static final String KW_DATA_PREFIX = "kwdata";
   private static final String KW_REQUEST_DATA_PREFIX = "kwrequests_data";
+  private static final String LAST_EXPORT_FILE = "kwmetadata-last_export";
 
   private static final DateTimeFormatter DATE_TIME_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss").withZone(ZoneId.systemDefault());
@@ -105,33 +155,63 @@ public class ExportImportDataService {
     }
   }
 
+  // requests are inserted one by one, as every insert assigns the request id and approvals
   private void importKwRequestsData(HandleDbRequests handleDbRequests) throws IOException {
     if (importKwRequestsDataMetadata) {
-      KwRequests kwRequests =
-          OBJECT_MAPPER.readValue(new File(klawImportKwRequestsDataFilePath), KwRequests.class);
-      kwRequests.getTopicRequests().forEach(handleDbRequests::requestForTopic);
-      kwRequests.getSubscriptionRequests().forEach(handleDbRequests::requestForAcl);
-      kwRequests.getSchemaRequests().forEach(handleDbRequests::requestForSchema);
-      kwRequests.getConnectorRequests().forEach(handleDbRequests::requestForConnector);
+      try (JsonParser parser = openImportFile(klawImportKwRequestsDataFilePath, KwRequests.class)) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String fieldName = parser.currentName();
+          parser.nextToken();
+          switch (fieldName) {
+            case "topicRequests" -> readArray(
+                parser,
+                TopicRequest.class,
+                batch -> batch.forEach(handleDbRequests::requestForTopic));
+            case "subscriptionRequests" -> readArray(
+                parser, AclRequests.class, batch -> batch.forEach(handleDbRequests::requestForAcl));
+            case "schemaRequests" -> readArray(
+                parser,
+                SchemaRequest.class,
+                batch -> batch.forEach(handleDbRequests::requestForSchema));
+            case "connectorRequests" -> readArray(
+                parser,
+                KafkaConnectorRequest.class,
+                batch -> batch.forEach(handleDbRequests::requestForConnector));
+            default -> parser.skipChildren();
+          }
+        }
+      }
       log.info("Klaw KwRequestsData metadata imported !!");
     }
   }
 
   private void importKwData(HandleDbRequests handleDbRequests) throws IOException {
     if (importKwDataMetadata) {
-      KwData kwData = OBJECT_MAPPER.readValue(new File(klawImportKwDataFilePath), KwData.class);
-      handleDbRequests.addToSynctopics(kwData.getTopics());
-      handleDbRequests.addToSyncacls(kwData.getSubscriptions());
-      handleDbRequests.insertIntoMessageSchemaSOT(kwData.getSchemas());
-      handleDbRequests.addToSyncConnectors(kwData.getKafkaConnectors());
+      try (JsonParser parser = openImportFile(klawImportKwDataFilePath, KwData.class)) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String fieldName = parser.currentName();
+          parser.nextToken();
+          switch (fieldName) {
+            case "topics" -> readArray(parser, Topic.class, handleDbRequests::addToSynctopics);
+            case "subscriptions" -> readArray(parser, Acl.class, handleDbRequests::addToSyncacls);
+            case "schemas" -> readArray(
+                parser, MessageSchema.class, handleDbRequests::insertIntoMessageSchemaSOT);
+            case "kafkaConnectors" -> readArray(
+                parser, KwKafkaConnector.class, handleDbRequests::addToSyncConnectors);
+            default -> parser.skipChildren();
+          }
+        }
+      }
       log.info("Klaw KwData metadata imported !!");
     }
   }
 
   void importKlawAdminConfig(HandleDbRequests handleDbRequests) throws IOException {
     if (importAdminConfigMetadata) {
-      KwAdminConfig kwAdminConfig =
-          OBJECT_MAPPER.readValue(new File(klawImportAdminConfigFilePath), KwAdminConfig.class);
+      KwAdminConfig kwAdminConfig;
+      try (InputStream inputStream = openInputStream(klawImportAdminConfigFilePath)) {
+        kwAdminConfig = OBJECT_MAPPER.readValue(inputStream, KwAdminConfig.class);
+      }
       kwAdminConfig.getTenants().forEach(handleDbRequests::addNewTenant);
       handleDbRequests.insertDefaultRolesPermissions(kwAdminConfig.getRolesPermissions());
       handleDbRequests.insertDefaultKwProperties(kwAdminConfig.getProperties());
@@ -166,24 +246,20 @@ public class ExportImportDataService {
   }
 
   // select data from database, write to files in json format
-  private void exportKwMetadata() {
+  void exportKwMetadata() {
     String timeStamp = getTimeStamp();
+    Instant exportStartTime = Instant.now();
     HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
-    KwAdminConfig adminConfig = getAdminConfig(handleDbRequests, timeStamp);
-    KwData kwData = getKwData(handleDbRequests, timeStamp);
-    KwRequests kwRequestData = getRequestsData(handleDbRequests, timeStamp);
 
-    // write to files
     try {
-      OBJECT_MAPPER
-          .writerWithDefaultPrettyPrinter()
-          .writeValue(getFile(ADMIN_CONFIG_PREFIX, timeStamp), adminConfig);
-      OBJECT_MAPPER
-          .writerWithDefaultPrettyPrinter()
-          .writeValue(getFile(KW_DATA_PREFIX, timeStamp), kwData);
-      OBJECT_MAPPER
-          .writerWithDefaultPrettyPrinter()
-          .writeValue(getFile(KW_REQUEST_DATA_PREFIX, timeStamp), kwRequestData);
+      Timestamp changedSince = incrementalExport ? getLastExportTime() : null;
+      KwAdminConfig adminConfig = getAdminConfig(handleDbRequests, timeStamp);
+      try (OutputStream outputStream = openExportFile(ADMIN_CONFIG_PREFIX, timeStamp)) {
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(outputStream, adminConfig);
+      }
+      exportKwData(handleDbRequests, timeStamp);
+      exportRequestsData(handleDbRequests, timeStamp, changedSince);
+      Files.writeString(Path.of(klawExportFilePath, LAST_EXPORT_FILE), exportStartTime.toString());
       log.info("Klaw metadata exported !!");
     } catch (IOException e) {
       log.error("Error during parsing/writing to files : ", e);
@@ -222,37 +298,148 @@ public class ExportImportDataService {
     return userList;
   }
 
-  // Get core configuration of topics, acls, schemas, connectors
-  public KwData getKwData(HandleDbRequests handleDbRequests, String timeStamp) {
-    log.info("Selecting Kw Data (topics, acls, schemas, connectors) --- STARTED");
-    KwData kwMetadata =
-        KwData.builder()
-            .topics(handleDbRequests.getAllTopics())
-            .subscriptions(handleDbRequests.getAllSubscriptions())
-            .schemas(handleDbRequests.getAllSchemas())
-            .kafkaConnectors(handleDbRequests.getAllConnectors())
-            .klawVersion(buildProperties.getVersion())
-            .createdTime(timeStamp)
-            .build();
-    log.info("Selecting Kw Data --- STARTED");
-    return kwMetadata;
+  // Write core configuration of topics, acls, schemas, connectors
+  private void exportKwData(HandleDbRequests handleDbRequests, String timeStamp)
+      throws IOException {
+    log.info("Exporting Kw Data (topics, acls, schemas, connectors) --- STARTED");
+    try (JsonGenerator generator = createGenerator(KW_DATA_PREFIX, timeStamp)) {
+      generator.writeStartObject();
+      generator.writeObjectFieldStart(KwData.class.getSimpleName());
+      generator.writeStringField("klawVersion", buildProperties.getVersion());
+      generator.writeStringField("createdTime", timeStamp);
+      writeArray(generator, "topics", handleDbRequests::getTopicsPage);
+      writeArray(generator, "subscriptions", handleDbRequests::getSubscriptionsPage);
+      writeArray(generator, "schemas", handleDbRequests::getSchemasPage);
+      writeArray(generator, "kafkaConnectors", handleDbRequests::getConnectorsPage);
+      generator.writeEndObject();
+      generator.writeEndObject();
+    }
+    log.info("Exporting Kw Data --- ENDED");
   }
 
-  // Get requests data and activity log
-  public KwRequests getRequestsData(HandleDbRequests handleDbRequests, String timeStamp) {
+  // Write requests data, only the requests created or approved since changedSince if it is set
+  private void exportRequestsData(
+      HandleDbRequests handleDbRequests, String timeStamp, Timestamp changedSince)
+      throws IOException {
     log.info(
-        "Selecting Kw Requests Data (topic, subscription, schema and connector requests, activity log)--- STARTED");
-    KwRequests kwMetadata =
-        KwRequests.builder()
-            .topicRequests(handleDbRequests.getAllTopicRequests())
-            .subscriptionRequests(handleDbRequests.getAllAclRequests())
-            .schemaRequests(handleDbRequests.getAllSchemaRequests())
-            .connectorRequests(handleDbRequests.getAllConnectorRequests())
-            .klawVersion(buildProperties.getVersion())
-            .createdTime(timeStamp)
-            .build();
-    log.info("Selecting Kw Requests Data --- ENDED");
-    return kwMetadata;
+        "Exporting Kw Requests Data (topic, subscription, schema and connector requests) changed since {} --- STARTED",
+        changedSince);
+    try (JsonGenerator generator = createGenerator(KW_REQUEST_DATA_PREFIX, timeStamp)) {
+      generator.writeStartObject();
+      generator.writeObjectFieldStart(KwRequests.class.getSimpleName());
+      generator.writeStringField("klawVersion", buildProperties.getVersion());
+      generator.writeStringField("createdTime", timeStamp);
+      if (changedSince != null) {
+        generator.writeStringField("changedSince", changedSince.toInstant().toString());
+      }
+      writeArray(
+          generator,
+          "topicRequests",
+          (pageNo, pageSize) ->
+              handleDbRequests.getTopicRequestsPage(changedSince, pageNo, pageSize));
+      writeArray(
+          generator,
+          "subscriptionRequests",
+          (pageNo, pageSize) ->
+              handleDbRequests.getAclRequestsPage(changedSince, pageNo, pageSize));
+      writeArray(
+          generator,
+          "schemaRequests",
+          (pageNo, pageSize) ->
+              handleDbRequests.getSchemaRequestsPage(changedSince, pageNo, pageSize));
+      writeArray(
+          generator,
+          "connectorRequests",
+          (pageNo, pageSize) ->
+              handleDbRequests.getConnectorRequestsPage(changedSince, pageNo, pageSize));
+      generator.writeEndObject();
+      generator.writeEndObject();
+    }
+    log.info("Exporting Kw Requests Data --- ENDED");
+  }
+
+  private <T> void writeArray(
+      JsonGenerator generator, String fieldName, BiFunction<Integer, Integer, List<T>> pageSelector)
+      throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    int pageNo = 0;
+    int count = 0;
+    List<T> page;
+    do {
+      page = pageSelector.apply(pageNo++, exportPageSize);
+      for (T element : page) {
+        ELEMENT_WRITER.writeValue(generator, element);
+      }
+      count += page.size();
+    } while (page.size() == exportPageSize);
+    generator.writeEndArray();
+    log.info("Exported {} {}", count, fieldName);
+  }
+
+  // reads the array the parser is positioned on and hands its elements on in batches
+  private <T> void readArray(JsonParser parser, Class<T> type, Consumer<List<T>> batchConsumer)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return;
+    }
+    ObjectReader reader = ELEMENT_READER.forType(type);
+    List<T> batch = new ArrayList<>();
+    int count = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      batch.add(reader.readValue(parser));
+      if (batch.size() == importBatchSize) {
+        batchConsumer.accept(batch);
+        count += batch.size();
+        batch = new ArrayList<>();
+      }
+    }
+    if (!batch.isEmpty()) {
+      batchConsumer.accept(batch);
+      count += batch.size();
+    }
+    log.info("Imported {} {}", count, type.getSimpleName());
+  }
+
+  // positions the parser on the fields of the wrapped root object
+  private JsonParser openImportFile(String filePath, Class<?> rootType) throws IOException {
+    JsonParser parser = OBJECT_MAPPER.getFactory().createParser(openInputStream(filePath));
+    if (parser.nextToken() != JsonToken.START_OBJECT
+        || parser.nextToken() != JsonToken.FIELD_NAME
+        || !rootType.getSimpleName().equals(parser.currentName())
+        || parser.nextToken() != JsonToken.START_OBJECT) {
+      parser.close();
+      throw new IOException(
+          "File " + filePath + " does not contain " + rootType.getSimpleName() + " metadata");
+    }
+    return parser;
+  }
+
+  private InputStream openInputStream(String filePath) throws IOException {
+    InputStream inputStream = new FileInputStream(filePath);
+    return filePath.endsWith(GZIP_FILE_EXT) ? new GZIPInputStream(inputStream) : inputStream;
+  }
+
+  private JsonGenerator createGenerator(String fileName, String timeStamp) throws IOException {
+    return OBJECT_MAPPER
+        .getFactory()
+        .createGenerator(openExportFile(fileName, timeStamp))
+        .useDefaultPrettyPrinter();
+  }
+
+  private OutputStream openExportFile(String fileName, String timeStamp) throws IOException {
+    OutputStream outputStream = new FileOutputStream(getFile(fileName, timeStamp));
+    return gzipExport ? new GZIPOutputStream(outputStream) : outputStream;
+  }
+
+  // start time of the last successful export, null if there is none
+  private Timestamp getLastExportTime() throws IOException {
+    Path lastExportFile = Path.of(klawExportFilePath, LAST_EXPORT_FILE);
+    if (!Files.exists(lastExportFile)) {
+      log.info("No previous export found, exporting all requests");
+      return null;
+    }
+    return Timestamp.from(Instant.parse(Files.readString(lastExportFile).trim()));
   }
 
   private File getFile(String fileName, String timeStamp) {
@@ -264,7 +451,8 @@ public class ExportImportDataService {
             .concat(fileName)
             .concat("-")
             .concat(timeStamp)
-            .concat(FILE_EXT);
+            .concat(FILE_EXT)
+            .concat(gzipExport ? GZIP_FILE_EXT : "");
     File file = new File(filePath);
     log.info("File : {}", filePath);
     return file;
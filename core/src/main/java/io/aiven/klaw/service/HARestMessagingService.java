@@ -7,14 +7,28 @@ import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.service.interfaces.HAMessagingServiceI;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.net.InetAddress;
 import java.security.Key;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.crypto.spec.SecretKeySpec;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -40,15 +54,54 @@ public class HARestMessagingService implements HAMessagingServiceI {
   public static final String NAME = "name";
   public static final String ENTITY_TYPE = "entityType";
   public static final String CACHE = "cache";
+  public static final String BULK = "bulk";
   public static final String CACHE_ADMIN = "CACHE_ADMIN";
   public static final String APP_2_APP = "App2App";
   @Autowired Environment environment;
 
+  public static final String REPLICATION_LAG_METRIC = "klaw.ha.replication.lag";
+  public static final String REPLICATION_PENDING_METRIC = "klaw.ha.replication.pending";
+  public static final String PEER = "peer";
+
+  // tokens are valid for 3 minutes and are renewed a minute before they expire
+  private static final long TOKEN_VALIDITY_SECONDS = 180;
+  private static final long TOKEN_RENEWAL_SECONDS = 60;
+
+  private static final long MAX_RETRY_BACKOFF_MILLIS = 30_000;
+
   private List<String> clusterUrls;
 
   private RestTemplate rest;
   private static volatile HttpComponentsClientHttpRequestFactory requestFactory = null;
 
+  // pooled client for peers reached over http, https peers share the pool of cluster api
+  private static volatile HttpComponentsClientHttpRequestFactory httpRequestFactory = null;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  // replication state of each peer
+  private final Map<String, PeerReplication> peerReplications = new ConcurrentHashMap<>();
+
+  // orders the messages of all peers, a retry is dropped if a newer message for the key exists
+  private final AtomicLong replicationSequence = new AtomicLong();
+
+  private volatile ScheduledExecutorService replicationExecutor;
+
+  private volatile CachedToken cachedToken;
+
+  @Value("${klaw.core.ha.replication.threads:4}")
+  private int replicationThreads = 4;
+
+  @Value("${klaw.core.ha.replication.max-attempts:5}")
+  private int replicationMaxAttempts = 5;
+
+  @Value("${klaw.core.ha.replication.initial-backoff-ms:500}")
+  private long replicationInitialBackoffMillis = 500;
+
+  @Value("${klaw.core.ha.replication.timeout-ms:5000}")
+  private int replicationTimeoutMillis = 5000;
+
   private static Map<String, String> baseUrlsMap;
 
   @Value("${klaw.core.app2app.base64.secret:#{''}}")
@@ -109,7 +162,21 @@ public class HARestMessagingService implements HAMessagingServiceI {
       }
       return new RestTemplate(requestFactory);
     } else {
-      return new RestTemplate();
+      if (httpRequestFactory == null) {
+        synchronized (HARestMessagingService.class) {
+          if (httpRequestFactory == null) {
+            HttpComponentsClientHttpRequestFactory pooledRequestFactory =
+                new HttpComponentsClientHttpRequestFactory(
+                    HttpClients.custom()
+                        .setConnectionManager(new PoolingHttpClientConnectionManager())
+                        .build());
+            pooledRequestFactory.setConnectTimeout(replicationTimeoutMillis);
+            pooledRequestFactory.setConnectionRequestTimeout(replicationTimeoutMillis);
+            httpRequestFactory = pooledRequestFactory;
+          }
+        }
+      }
+      return new RestTemplate(httpRequestFactory);
     }
   }
 
@@ -125,14 +192,24 @@ public class HARestMessagingService implements HAMessagingServiceI {
 
   public HttpHeaders createHeaders() throws KlawException {
     HttpHeaders httpHeaders = new HttpHeaders();
-    String authHeader = BEARER + generateToken(apiUser);
+    String authHeader = BEARER + getToken();
     httpHeaders.set(AUTHORIZATION, authHeader);
     httpHeaders.setContentType(MediaType.APPLICATION_JSON);
 
     return httpHeaders;
   }
 
-  private String generateToken(String username) throws KlawException {
+  private String getToken() throws KlawException {
+    CachedToken token = cachedToken;
+    Instant now = Instant.now();
+    if (token == null || now.isAfter(token.renewAfter)) {
+      token = new CachedToken(generateToken(apiUser, now), now.plusSeconds(TOKEN_RENEWAL_SECONDS));
+      cachedToken = token;
+    }
+    return token.value;
+  }
+
+  private String generateToken(String username, Instant now) throws KlawException {
     if (app2AppApiKey.isBlank()) {
       log.error(CLUSTER_API_ERR_117);
       throw new KlawException(CLUSTER_API_ERR_117);
@@ -141,59 +218,134 @@ public class HARestMessagingService implements HAMessagingServiceI {
     Key hmacKey =
         new SecretKeySpec(
             Base64.decodeBase64(app2AppApiKey), SignatureAlgorithm.HS256.getJcaName());
-    Instant now = Instant.now();
-
     return Jwts.builder()
         .claim(NAME, username)
         .claim(ROLES, List.of(CACHE_ADMIN, APP_2_APP))
         .subject(username)
         .id(UUID.randomUUID().toString())
         .issuedAt(Date.from(now))
-        .expiration(Date.from(now.plus(3L, ChronoUnit.MINUTES))) // expiry in 3 minutes
+        .expiration(Date.from(now.plus(TOKEN_VALIDITY_SECONDS, ChronoUnit.SECONDS)))
         .signWith(hmacKey)
         .compact();
   }
 
   @Override
   public void sendUpdate(String entityType, int tenantId, Object entry) {
+    sendUpdate(entityType, tenantId, null, entry);
+  }
+
+  /**
+   * Queues the update for every other instance and returns. Updates of the same entity waiting to
+   * be sent are replaced by the latest one.
+   */
+  @Override
+  public void sendUpdate(String entityType, int tenantId, Integer id, Object entry) {
     if (isLazyLoaded()) {
       throw new RuntimeException("Unable to load High Availability Cache");
     }
+    replicate(entityType, tenantId, id, entry, false, false);
+  }
 
-    for (String url : clusterUrls) {
-      try {
-        HttpEntity<Object> request = new HttpEntity<>(entry, createHeaders());
-        rest.postForObject(getUrl(url, entityType, tenantId, null), request, ApiResponse.class);
-
-      } catch (KlawException | RestClientException clientException) {
-        log.error(
-            "Exception while sending HA updates to another instance {} in the cluster.",
-            url,
-            clientException);
-      }
+  /** Queues the entries for every other instance as one message and returns. */
+  @Override
+  public void sendBulkUpdate(String entityType, int tenantId, List<?> entries) {
+    if (isLazyLoaded()) {
+      throw new RuntimeException("Unable to load High Availability Cache");
     }
+    replicate(entityType, tenantId, null, List.copyOf(entries), false, true);
   }
 
+  /** Queues the removal for every other instance and returns. */
   @Override
   public void sendRemove(String entityType, int tenantId, int id) {
     if (isLazyLoaded()) {
       throw new RuntimeException("Unable to load High Availability Cache");
     }
+    replicate(entityType, tenantId, id, null, true, false);
+  }
 
+  private void replicate(
+      String entityType, int tenantId, Integer id, Object entry, boolean isRemove, boolean isBulk) {
+    long sequence = replicationSequence.incrementAndGet();
+    // updates without an id are never coalesced
+    String entityKey = id == null ? "update-" + sequence : id.toString();
+    ReplicationMessage message =
+        new ReplicationMessage(
+            new ReplicationKey(entityType, tenantId, entityKey),
+            id,
+            entry,
+            isRemove,
+            isBulk,
+            sequence,
+            System.currentTimeMillis(),
+            1);
     for (String url : clusterUrls) {
-      try {
-        rest.exchange(
-            getUrl(url, entityType, tenantId, id),
-            HttpMethod.DELETE,
-            new HttpEntity<>(createHeaders()),
-            Void.class);
-      } catch (RestClientException | KlawException clientException) {
-        log.error(
-            "Exception while sending HA updates to another instance {} in the cluster.",
-            url,
-            clientException);
+      peerReplications.computeIfAbsent(url, this::createPeerReplication).enqueue(message);
+    }
+  }
+
+  private PeerReplication createPeerReplication(String url) {
+    PeerReplication peerReplication = new PeerReplication(url);
+    if (meterRegistry != null) {
+      Gauge.builder(REPLICATION_LAG_METRIC, peerReplication, PeerReplication::getLagSeconds)
+          .description("Age of the oldest cache update not yet replicated to the peer")
+          .baseUnit("seconds")
+          .tag(PEER, url)
+          .register(meterRegistry);
+      Gauge.builder(REPLICATION_PENDING_METRIC, peerReplication, PeerReplication::getUndelivered)
+          .description("Cache updates not yet replicated to the peer")
+          .tag(PEER, url)
+          .register(meterRegistry);
+    }
+    return peerReplication;
+  }
+
+  private ScheduledExecutorService getReplicationExecutor() {
+    if (replicationExecutor == null) {
+      synchronized (this) {
+        if (replicationExecutor == null) {
+          AtomicInteger threadCount = new AtomicInteger();
+          replicationExecutor =
+              Executors.newScheduledThreadPool(
+                  Math.max(1, replicationThreads),
+                  runnable -> {
+                    Thread thread =
+                        new Thread(runnable, "ha-replication-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                  });
+        }
       }
     }
+    return replicationExecutor;
+  }
+
+  @PreDestroy
+  public void shutdownReplication() {
+    if (replicationExecutor != null) {
+      replicationExecutor.shutdown();
+    }
+  }
+
+  private void deliver(String url, ReplicationMessage message) throws KlawException {
+    ReplicationKey key = message.getKey();
+    if (message.isRemove()) {
+      rest.exchange(
+          getUrl(url, key.entityType, key.tenantId, message.getId()),
+          HttpMethod.DELETE,
+          new HttpEntity<>(createHeaders()),
+          Void.class);
+    } else if (message.isBulk()) {
+      HttpEntity<Object> request = new HttpEntity<>(message.getEntry(), createHeaders());
+      rest.postForObject(
+          getUrl(url, key.entityType, key.tenantId, null) + URL_SEPERATOR + BULK,
+          request,
+          ApiResponse.class);
+    } else {
+      HttpEntity<Object> request = new HttpEntity<>(message.getEntry(), createHeaders());
+      rest.postForObject(
+          getUrl(url, key.entityType, key.tenantId, null), request, ApiResponse.class);
+    }
   }
 
   private boolean isLazyLoaded() {
@@ -225,4 +377,162 @@ public class HARestMessagingService implements HAMessagingServiceI {
           URL_SEPERATOR, url, CACHE, TENANT, Integer.toString(tenantId), ENTITY_TYPE, entityType);
     }
   }
+
+  /**
+   * Sends the queued messages of one peer in order on the replication executor. Peers are drained
+   * in parallel, a slow or dead peer only delays its own messages.
+   */
+  private final class PeerReplication {
+    private final String url;
+
+    // messages waiting to be sent, latest message per key
+    private final Map<ReplicationKey, ReplicationMessage> pending = new LinkedHashMap<>();
+
+    // sequence of the latest message per key not yet delivered
+    private final Map<ReplicationKey, Long> latestSequences = new HashMap<>();
+
+    // messages queued, in flight or waiting for a retry
+    private final Set<ReplicationMessage> undelivered = ConcurrentHashMap.newKeySet();
+
+    private boolean draining;
+
+    private PeerReplication(String url) {
+      this.url = url;
+    }
+
+    private void enqueue(ReplicationMessage message) {
+      synchronized (this) {
+        ReplicationMessage replaced = pending.remove(message.getKey());
+        if (replaced != null) {
+          undelivered.remove(replaced);
+          // the coalesced message is as old as the first change it replaces
+          message = message.withCreatedAtMillis(replaced.getCreatedAtMillis());
+        }
+        pending.put(message.getKey(), message);
+        latestSequences.put(message.getKey(), message.getSequence());
+        undelivered.add(message);
+        if (draining) {
+          return;
+        }
+        draining = true;
+      }
+      getReplicationExecutor().execute(this::drain);
+    }
+
+    private void retry(ReplicationMessage message) {
+      synchronized (this) {
+        if (!Objects.equals(latestSequences.get(message.getKey()), message.getSequence())) {
+          // a newer message for the same entity supersedes this one
+          undelivered.remove(message);
+          return;
+        }
+        pending.put(message.getKey(), message);
+        if (draining) {
+          return;
+        }
+        draining = true;
+      }
+      getReplicationExecutor().execute(this::drain);
+    }
+
+    private void drain() {
+      while (true) {
+        List<ReplicationMessage> messages;
+        synchronized (this) {
+          if (pending.isEmpty()) {
+            draining = false;
+            return;
+          }
+          messages = new ArrayList<>(pending.values());
+          pending.clear();
+        }
+        messages.forEach(this::send);
+      }
+    }
+
+    private void send(ReplicationMessage message) {
+      try {
+        deliver(url, message);
+        completed(message);
+      } catch (KlawException | RestClientException clientException) {
+        if (message.getAttempt() >= replicationMaxAttempts) {
+          log.error(
+              "Exception while sending HA updates to another instance {} in the cluster.",
+              url,
+              clientException);
+          completed(message);
+          return;
+        }
+        long backoffMillis =
+            Math.min(
+                replicationInitialBackoffMillis << (message.getAttempt() - 1),
+                MAX_RETRY_BACKOFF_MILLIS);
+        log.warn(
+            "Sending HA update to instance {} failed (attempt {}), retrying in {} ms: {}",
+            url,
+            message.getAttempt(),
+            backoffMillis,
+            clientException.getMessage());
+        getReplicationExecutor()
+            .schedule(() -> retry(message.nextAttempt()), backoffMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private void completed(ReplicationMessage message) {
+      synchronized (this) {
+        latestSequences.remove(message.getKey(), message.getSequence());
+      }
+      undelivered.remove(message);
+    }
+
+    private double getLagSeconds() {
+      long oldest = Long.MAX_VALUE;
+      for (ReplicationMessage message : undelivered) {
+        oldest = Math.min(oldest, message.getCreatedAtMillis());
+      }
+      return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private double getUndelivered() {
+      return undelivered.size();
+    }
+  }
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static final class ReplicationKey {
+    private final String entityType;
+    private final int tenantId;
+    private final String entityKey;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static final class ReplicationMessage {
+    private final ReplicationKey key;
+    private final Integer id;
+    private final Object entry;
+    private final boolean remove;
+    // entry is a list of entries
+    private final boolean bulk;
+    private final long sequence;
+    private final long createdAtMillis;
+    private final int attempt;
+
+    private ReplicationMessage withCreatedAtMillis(long createdAtMillis) {
+      return new ReplicationMessage(
+          key, id, entry, remove, bulk, sequence, createdAtMillis, attempt);
+    }
+
+    private ReplicationMessage nextAttempt() {
+      return new ReplicationMessage(
+          key, id, entry, remove, bulk, sequence, createdAtMillis, attempt + 1);
+    }
+  }
+
+  @AllArgsConstructor
+  private static final class CachedToken {
+    private final String value;
+    private final Instant renewAfter;
+  }
 }
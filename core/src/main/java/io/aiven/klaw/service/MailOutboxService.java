@@ -0,0 +1,276 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwMailOutbox;
+import io.aiven.klaw.helpers.HandleDbRequests;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.io.UnsupportedEncodingException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends the mails queued in the outbox by {@link EmailService}. Mails with the same subject are
+ * sent together over one smtp connection, in digest mode the due mails of the same recipients are
+ * sent as one mail together with their mails still waiting in the digest window. Mails which cannot
+ * be sent are retried with an exponential backoff.
+ */
+@EnableScheduling
+@Service
+@Slf4j
+public class MailOutboxService {
+
+  static final String DIGEST_SUBJECT = "Klaw - %d notifications";
+
+  private static final String DIGEST_SEPARATOR = "<br><hr><br>";
+
+  @Autowired private JavaMailSender emailSender;
+
+  @Autowired private EmailService emailService;
+
+  @Autowired ManageDatabase manageDatabase;
+
+  @Value("${klaw.mail.outbox.enable:false}")
+  private boolean mailOutboxEnabled;
+
+  @Value("${klaw.mail.outbox.digest.enable:false}")
+  private boolean digestEnabled;
+
+  // due mails read per drain
+  @Value("${klaw.mail.outbox.batch.size:200}")
+  private int batchSize;
+
+  // messages sent over one smtp connection
+  @Value("${klaw.mail.outbox.session.size:50}")
+  private int sessionSize;
+
+  @Value("${klaw.mail.outbox.max.attempts:5}")
+  private int maxAttempts;
+
+  @Value("${klaw.mail.outbox.retry.backoff.seconds:30}")
+  private long retryBackoffSeconds;
+
+  @Value("${klaw.mail.outbox.retry.backoff.max.seconds:3600}")
+  private long retryBackoffMaxSeconds;
+
+  @Value("${klaw.mail.outbox.retention.days:7}")
+  private int retentionDays;
+
+  private Instant lastCleanup = Instant.EPOCH;
+
+  @Scheduled(fixedDelayString = "${klaw.mail.outbox.poll.ms:10000}", initialDelay = 30000)
+  @SchedulerLock(
+      name = "TaskScheduler_MailOutbox",
+      lockAtMostFor = "${klaw.mail.outbox.lockAtMostFor:PT10M}")
+  public void drainOutbox() {
+    if (!mailOutboxEnabled) {
+      return;
+    }
+    try {
+      drain();
+      deleteOldMails();
+    } catch (Exception e) {
+      log.error("Error in sending mails of the outbox ", e);
+    }
+  }
+
+  /**
+   * Sends one batch of due mails and stores their new status.
+   *
+   * @return number of mails read from the outbox
+   */
+  int drain() {
+    HandleDbRequests dbHandle = manageDatabase.getHandleDbRequests();
+    Instant now = Instant.now();
+    List<KwMailOutbox> dueMails = dbHandle.getDueMails(Timestamp.from(now), batchSize);
+    if (dueMails.isEmpty()) {
+      return 0;
+    }
+
+    // each entry becomes one message
+    Collection<List<KwMailOutbox>> messageMails;
+    List<KwMailOutbox> drainedMails = dueMails;
+    if (digestEnabled) {
+      Map<List<Object>, List<KwMailOutbox>> mailsPerRecipients = new LinkedHashMap<>();
+      for (KwMailOutbox mail : dueMails) {
+        mailsPerRecipients
+            .computeIfAbsent(getRecipients(mail), recipients -> new ArrayList<>())
+            .add(mail);
+      }
+      // mails still in their window join the due mails of the same recipients, so a digest covers
+      // the window of its first mail
+      drainedMails = new ArrayList<>(dueMails);
+      Set<Integer> tenantIds = new HashSet<>();
+      dueMails.forEach(mail -> tenantIds.add(mail.getTenantId()));
+      for (KwMailOutbox mail :
+          dbHandle.getMailsInDigestWindow(Timestamp.from(now), tenantIds, batchSize)) {
+        List<KwMailOutbox> recipientsMails = mailsPerRecipients.get(getRecipients(mail));
+        if (recipientsMails != null) {
+          recipientsMails.add(mail);
+          drainedMails.add(mail);
+        }
+      }
+      messageMails = mailsPerRecipients.values();
+    } else {
+      messageMails = dueMails.stream().map(Collections::singletonList).toList();
+    }
+
+    Map<String, List<List<KwMailOutbox>>> messagesPerSubject = new LinkedHashMap<>();
+    for (List<KwMailOutbox> mails : messageMails) {
+      messagesPerSubject.computeIfAbsent(getSubject(mails), s -> new ArrayList<>()).add(mails);
+    }
+    for (List<List<KwMailOutbox>> messages : messagesPerSubject.values()) {
+      for (int from = 0; from < messages.size(); from += sessionSize) {
+        send(messages.subList(from, Math.min(from + sessionSize, messages.size())), now);
+      }
+    }
+
+    dbHandle.updateMails(drainedMails);
+    return drainedMails.size();
+  }
+
+  private static List<Object> getRecipients(KwMailOutbox mail) {
+    return Arrays.asList(
+        mail.getTenantId(),
+        mail.getRecipientsTo(),
+        mail.getRecipientsCc(),
+        mail.getRecipientsBcc());
+  }
+
+  private void send(List<List<KwMailOutbox>> messageMails, Instant now) {
+    // mime messages are compared by identity, kept in the order of the outbox
+    Map<MimeMessage, List<KwMailOutbox>> messages = new LinkedHashMap<>();
+    for (List<KwMailOutbox> mails : messageMails) {
+      try {
+        messages.put(createMessage(mails), mails);
+      } catch (MessagingException | UnsupportedEncodingException e) {
+        log.error("Exception: Mail {} not created", mails.get(0).getMailId(), e);
+        retryLater(mails, e, now);
+      }
+    }
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    Map<Object, Exception> failedMessages = Collections.emptyMap();
+    try {
+      emailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+    } catch (MailSendException e) {
+      // also thrown with all messages when the connection to the smtp server failed
+      failedMessages = e.getFailedMessages();
+    } catch (MailException e) {
+      failedMessages = new HashMap<>();
+      for (MimeMessage message : messages.keySet()) {
+        failedMessages.put(message, e);
+      }
+    }
+
+    for (Map.Entry<MimeMessage, List<KwMailOutbox>> message : messages.entrySet()) {
+      Exception failure = failedMessages.get(message.getKey());
+      if (failure == null) {
+        for (KwMailOutbox mail : message.getValue()) {
+          mail.setStatus(MailOutboxStatus.SENT.name());
+          mail.setAttempts(mail.getAttempts() + 1);
+          mail.setMessage(null);
+          mail.setSentTime(Timestamp.from(now));
+        }
+      } else {
+        log.error("Exception: Mail {} not sent", message.getValue().get(0).getMailId(), failure);
+        retryLater(message.getValue(), failure, now);
+      }
+    }
+  }
+
+  private MimeMessage createMessage(List<KwMailOutbox> mails)
+      throws MessagingException, UnsupportedEncodingException {
+    KwMailOutbox first = mails.get(0);
+    String text;
+    if (mails.size() == 1) {
+      text = first.getContent();
+    } else {
+      StringBuilder digest = new StringBuilder();
+      for (KwMailOutbox mail : mails) {
+        if (!digest.isEmpty()) {
+          digest.append(DIGEST_SEPARATOR);
+        }
+        digest.append("<b>").append(mail.getSubject()).append("</b><br>");
+        digest.append(mail.getContent());
+      }
+      text = digest.toString();
+    }
+    return emailService.createMessage(
+        splitAddresses(first.getRecipientsTo()),
+        splitAddresses(first.getRecipientsCc()),
+        splitAddresses(first.getRecipientsBcc()),
+        getSubject(mails),
+        text,
+        first.getLoginUrl());
+  }
+
+  private static String getSubject(List<KwMailOutbox> mails) {
+    String subject = mails.get(0).getSubject();
+    boolean sameSubject =
+        mails.stream().allMatch(mail -> Objects.equals(subject, mail.getSubject()));
+    return sameSubject ? subject : String.format(DIGEST_SUBJECT, mails.size());
+  }
+
+  private void retryLater(List<KwMailOutbox> mails, Exception failure, Instant now) {
+    for (KwMailOutbox mail : mails) {
+      int attempts = mail.getAttempts() + 1;
+      mail.setAttempts(attempts);
+      mail.setMessage(StringUtils.abbreviate(failure.getMessage(), 1000));
+      if (attempts >= maxAttempts) {
+        mail.setStatus(MailOutboxStatus.FAILED.name());
+      } else {
+        mail.setNextAttemptTime(Timestamp.from(now.plus(getRetryBackoff(attempts))));
+      }
+    }
+  }
+
+  // doubles with each failed attempt
+  private Duration getRetryBackoff(int attempts) {
+    long backoffSeconds = retryBackoffSeconds << Math.min(attempts - 1, 20);
+    return Duration.ofSeconds(Math.min(backoffSeconds, retryBackoffMaxSeconds));
+  }
+
+  private void deleteOldMails() {
+    Instant now = Instant.now();
+    if (lastCleanup.isAfter(now.minus(Duration.ofHours(1)))) {
+      return;
+    }
+    lastCleanup = now;
+    int deleted =
+        manageDatabase
+            .getHandleDbRequests()
+            .deleteMailsQueuedBefore(Timestamp.from(now.minus(Duration.ofDays(retentionDays))));
+    log.debug("Deleted {} sent or failed mails of the outbox", deleted);
+  }
+
+  private static List<String> splitAddresses(String addresses) {
+    return addresses == null ? Collections.emptyList() : Arrays.asList(addresses.split(","));
+  }
+}
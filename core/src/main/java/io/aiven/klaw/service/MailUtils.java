@@ -15,13 +15,13 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.function.TriFunction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -70,6 +70,11 @@ public class MailUtils {
 
   @Autowired private EmailService emailService;
 
+  // recipients are looked up off the request thread, the mails are sent by EmailService
+  @Autowired
+  @Qualifier("notificationsThreadPool")
+  private Executor notificationsExecutor;
+
   public String getUserName(Object principal) {
     return UtilMethods.getUserName(principal, preferredUsernameAttribute, emailAttribute);
   }
@@ -118,19 +123,15 @@ public class MailUtils {
       int tenantId,
       String loginUrl) {
     if (mailType == MailType.SCHEMA_APPROVED_NOTIFY_SUBSCRIBERS) {
-      CompletableFuture.runAsync(
-          () ->
-              emailService.sendSimpleMessage(
-                  toMailIds,
-                  Collections.singletonList(ccOwnerTeamMailId),
-                  Collections.emptyList(),
-                  mailType.subject,
-                  mailType.apply(
-                      manageDatabase,
-                      tenantId,
-                      MailInfo.of(topicName, envName, null, teamName, null)),
-                  tenantId,
-                  loginUrl));
+      emailService.sendSimpleMessage(
+          toMailIds,
+          Collections.singletonList(ccOwnerTeamMailId),
+          Collections.emptyList(),
+          mailType.subject,
+          mailType.apply(
+              manageDatabase, tenantId, MailInfo.of(topicName, envName, null, teamName, null)),
+          tenantId,
+          loginUrl);
     }
   }
 
@@ -227,29 +228,16 @@ public class MailUtils {
         manageDatabase.getKwPropertyValue(RECONCILIATION_TOPICS_KEY, tenantId);
     String formattedStr = String.format(reconMailContent, tenantName) + "\n\n" + reconTopicsContent;
 
-    try {
-      CompletableFuture.runAsync(
-              () -> {
-                if (kwAdminMailId != null) {
-                  emailService.sendSimpleMessage(
-                      kwAdminMailId, null, subject, formattedStr, tenantId, loginUrl);
-                }
-              })
-          .get();
-    } catch (InterruptedException | ExecutionException e) {
-      log.error("Exception:", e);
+    if (kwAdminMailId != null) {
+      emailService.sendSimpleMessage(
+          kwAdminMailId, null, subject, formattedStr, tenantId, loginUrl);
     }
   }
 
   public void sendMailToAdmin(String subject, String mailContent, int tenantId, String loginUrl) {
-
-    CompletableFuture.runAsync(
-        () -> {
-          if (kwAdminMailId != null) {
-            emailService.sendSimpleMessage(
-                kwAdminMailId, null, subject, mailContent, tenantId, loginUrl);
-          }
-        });
+    if (kwAdminMailId != null) {
+      emailService.sendSimpleMessage(kwAdminMailId, null, subject, mailContent, tenantId, loginUrl);
+    }
   }
 
   protected void sendMail(
@@ -264,7 +252,7 @@ public class MailUtils {
       String loginUrl,
       boolean copyTeam) {
 
-    CompletableFuture.runAsync(
+    notificationsExecutor.execute(
         () -> {
           List to = new ArrayList<>();
           List cc = new ArrayList<>();
@@ -322,7 +310,7 @@ public class MailUtils {
       int tenantId,
       String loginUrl) {
 
-    CompletableFuture.runAsync(
+    notificationsExecutor.execute(
         () -> {
           String requesterEmail, approverEmail;
 
@@ -405,7 +393,7 @@ public class MailUtils {
       int tenantId,
       String loginUrl) {
 
-    CompletableFuture.runAsync(
+    notificationsExecutor.execute(
         () -> {
           String emailId;
 
@@ -5,7 +5,12 @@ import io.aiven.klaw.dao.KwMetrics;
 import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.model.charts.ChartsJsOverview;
 import io.aiven.klaw.model.charts.JmxOverview;
+import io.aiven.klaw.model.cluster.JmxMetric;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -34,6 +39,34 @@ public class MetricsControllerService {
     return mailService.getUserName(getPrincipal());
   }
 
+  // comma separated JMX urls of the brokers of the monitored cluster
+  @Value("${klaw.monitoring.metrics.jmx.urls:service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi}")
+  private String jmxUrls;
+
+  // semicolon separated MBean names or patterns, read from every broker each cycle
+  @Value(
+      "${klaw.monitoring.metrics.objectnames:kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec}")
+  private String metricsObjectNames;
+
+  @Value("${klaw.monitoring.metrics.env:1}")
+  private String metricsEnv;
+
+  @Value("${klaw.monitoring.metrics.retention.samples.days:2}")
+  private long sampleRetentionDays;
+
+  @Value("${klaw.monitoring.metrics.retention.1m.days:7}")
+  private long minuteRetentionDays;
+
+  @Value("${klaw.monitoring.metrics.retention.1h.days:90}")
+  private long hourRetentionDays;
+
+  @Value("${klaw.monitoring.metrics.retention.1d.days:730}")
+  private long dayRetentionDays;
+
+  // samples stored before the roll ups existed, rolled up per transaction
+  @Value("${klaw.monitoring.metrics.backfill.chunk.size:1000}")
+  private int backfillChunkSize;
+
   // default 1 min
   @Scheduled(
       fixedRateString = "${klaw.monitoring.metrics.collectinterval.ms:60000}",
@@ -45,27 +78,101 @@ public class MetricsControllerService {
 
     log.info("Scheduled job : Collect metrics");
 
-    String metricsType = "kafka.server:type=BrokerTopicMetrics";
-    String metricsName = "name=MessagesInPerSec";
-    String metricsObjectName = metricsType + "," + metricsName;
-    String jmxUrl = "service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi";
-
     try {
-      Map<String, String> metrics = clusterApiService.retrieveMetrics(jmxUrl, metricsObjectName);
-      KwMetrics kwMetrics =
-          KwMetrics.builder()
-              .metricsTime(new Date().getTime() + "")
-              .metricsType(metricsType)
-              .metricsName(metricsName)
-              .metricsAttributes(metrics.get("Count"))
-              .env("1")
-              .build();
-      manageDatabase.getHandleDbRequests().insertMetrics(kwMetrics);
+      List<JmxMetric> metrics =
+          clusterApiService.scrapeMetrics(
+              Arrays.asList(jmxUrls.split(",")), Arrays.asList(metricsObjectNames.split(";")));
+      manageDatabase
+          .getHandleDbRequests()
+          .insertMetrics(getClusterMetrics(metrics, new Date().getTime() + "", metricsEnv));
     } catch (KlawException e) {
-      log.error("Error from  retrieveMetrics {}", jmxUrl, e);
+      log.error("Error from scrapeMetrics {}", jmxUrls, e);
     }
   }
 
+  // once after startup, the stored samples are rolled up newest first
+  @Scheduled(initialDelayString = "${klaw.monitoring.metrics.backfill.delay.ms:30000}")
+  void rollupStoredMetricsScheduler() {
+    if ("false".equals(enableMetrics)) {
+      return;
+    }
+
+    int chunks = 0;
+    boolean olderSamplesLeft;
+    do {
+      olderSamplesLeft =
+          manageDatabase.getHandleDbRequests().rollupStoredMetrics(backfillChunkSize);
+      chunks++;
+    } while (olderSamplesLeft);
+    log.info("Scheduled job : Rolled up stored metrics in {} chunks", chunks);
+  }
+
+  // hourly, samples and roll ups are kept for the retention of their resolution
+  @Scheduled(cron = "${klaw.monitoring.metrics.prune.cron:0 5 * * * ?}")
+  void pruneMetricsScheduler() {
+    if ("false".equals(enableMetrics)) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    Map<MetricsResolution, Long> rollupsBefore = new EnumMap<>(MetricsResolution.class);
+    rollupsBefore.put(MetricsResolution.MINUTE, now - TimeUnit.DAYS.toMillis(minuteRetentionDays));
+    rollupsBefore.put(MetricsResolution.HOUR, now - TimeUnit.DAYS.toMillis(hourRetentionDays));
+    rollupsBefore.put(MetricsResolution.DAY, now - TimeUnit.DAYS.toMillis(dayRetentionDays));
+    int deleted =
+        manageDatabase
+            .getHandleDbRequests()
+            .deleteMetrics(now - TimeUnit.DAYS.toMillis(sampleRetentionDays), rollupsBefore);
+    log.info("Scheduled job : Pruned {} metrics rows", deleted);
+  }
+
+  /**
+   * Sums the Count attribute of every MBean over the brokers of the cluster, one row per MBean. The
+   * MBean name is stored split into its type (domain and type key) and its remaining keys.
+   */
+  static List<KwMetrics> getClusterMetrics(
+      List<JmxMetric> metrics, String metricsTime, String env) {
+    Map<String, Long> countsByObjectName = new TreeMap<>();
+    for (JmxMetric metric : metrics) {
+      String count = metric.getAttributes().get("Count");
+      if (count == null) {
+        continue;
+      }
+      try {
+        countsByObjectName.merge(metric.getObjectName(), Long.parseLong(count), Long::sum);
+      } catch (NumberFormatException e) {
+        log.debug("Ignoring count {} of {}", count, metric.getObjectName());
+      }
+    }
+
+    List<KwMetrics> kwMetricsList = new ArrayList<>();
+    countsByObjectName.forEach(
+        (objectName, count) -> {
+          try {
+            ObjectName name = new ObjectName(objectName);
+            StringJoiner metricsName = new StringJoiner(",");
+            new TreeMap<>(name.getKeyPropertyList())
+                .forEach(
+                    (key, value) -> {
+                      if (!"type".equals(key)) {
+                        metricsName.add(key + "=" + value);
+                      }
+                    });
+            kwMetricsList.add(
+                KwMetrics.builder()
+                    .metricsTime(metricsTime)
+                    .metricsType(name.getDomain() + ":type=" + name.getKeyProperty("type"))
+                    .metricsName(metricsName.toString())
+                    .metricsAttributes(count.toString())
+                    .env(env)
+                    .build());
+          } catch (MalformedObjectNameException e) {
+            log.error("Ignoring invalid MBean name {}", objectName);
+          }
+        });
+    return kwMetricsList;
+  }
+
   public JmxOverview getBrokerTopMetrics() {
     int tenantId = commonUtilsService.getTenantId(getUserName());
     JmxOverview jmxOverview = new JmxOverview();
@@ -78,7 +185,8 @@ public class MetricsControllerService {
   }
 
   private ChartsJsOverview getBrokerTopMetricsOverview() {
-    int numberOfDays = 30;
+    // the last 30 minutes are read in the 1m resolution
+    int numberOfMinutes = 30;
     List<CommonUtilsService.ChartsOverviewItem<String, Integer>> metricsCountList;
     String title = "Messages Per Sec";
 
@@ -91,10 +199,16 @@ public class MetricsControllerService {
     // tenant filtering
     //            List<String> allowedEnvIdList = getEnvsFromUserId(getUserName());
     try {
+      long now = System.currentTimeMillis();
       metricsCountList =
           manageDatabase
               .getHandleDbRequests()
-              .getAllMetrics("kafka.server:type=BrokerTopicMetrics", "name=MessagesInPerSec", "1");
+              .getMetrics(
+                  "kafka.server:type=BrokerTopicMetrics",
+                  "name=MessagesInPerSec",
+                  metricsEnv,
+                  now - TimeUnit.MINUTES.toMillis(numberOfMinutes),
+                  now);
     } catch (Exception e) {
       log.error("No environments/clusters found.", e);
       metricsCountList = new ArrayList<>();
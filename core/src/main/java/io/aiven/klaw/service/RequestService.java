@@ -8,6 +8,7 @@ import static io.aiven.klaw.error.KlawErrorMessages.REQ_SER_ERR_104;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.enums.RequestEntityType;
 import io.aiven.klaw.model.requests.RequestVerdict;
+import io.aiven.klaw.model.response.ApprovalJobResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
@@ -28,7 +29,13 @@ public class RequestService {
 
   @Autowired private OperationalRequestsService operationalRequestsService;
 
+  @Autowired private ApprovalPipelineService approvalPipelineService;
+
   public List<ApiResponse> processApprovalRequests(RequestVerdict requestVerdict) {
+    if (approvalPipelineService.isEnabled(requestVerdict.getRequestEntityType())) {
+      return approvalPipelineService.queueApprovals(
+          requestVerdict.getReqIds(), requestVerdict.getRequestEntityType());
+    }
     return requestVerdict.getReqIds().stream()
         .map(req -> processApprovalRequests(req, requestVerdict.getRequestEntityType()))
         .collect(Collectors.toList());
@@ -49,6 +56,10 @@ public class RequestService {
     }
   }
 
+  public List<ApprovalJobResponse> getApprovalJobs(List<Integer> jobIds) {
+    return approvalPipelineService.getApprovalJobs(jobIds);
+  }
+
   public List<ApiResponse> processDeclineRequests(RequestVerdict requestVerdict) {
     return requestVerdict.getReqIds().stream()
         .map(
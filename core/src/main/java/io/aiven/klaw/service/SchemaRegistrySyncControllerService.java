@@ -156,10 +156,7 @@ public class SchemaRegistrySyncControllerService {
   private List<SchemaSubjectInfoResponse> getSchemasFromDb(
       String kafkaEnvId, int tenantId, String schemaEnvId) {
     List<SchemaSubjectInfoResponse> schemaInfoList = new ArrayList<>();
-    List<Topic> topicList =
-        manageDatabase.getTopicsForTenant(tenantId).stream()
-            .filter(topic -> topic.getEnvironment().equals(kafkaEnvId))
-            .toList();
+    List<Topic> topicList = manageDatabase.getTopicCatalog(tenantId).getTopicsByEnv(kafkaEnvId);
 
     Map<String, Set<String>> topicSchemaVersionsInDb =
         manageDatabase
@@ -313,6 +310,7 @@ public class SchemaRegistrySyncControllerService {
                 mp.setPossibleTeams(getPossibleTeams(mp));
                 return mp;
               }));
+      syncSchemasList.setSchemasLoadingStatus(schemasInfoOfClusterResponse.isLoadingInProgress());
       return syncSchemasList;
     } catch (Exception e) {
       log.error("Exception:", e);
@@ -60,6 +60,7 @@ import io.aiven.klaw.model.enums.*;
 import io.aiven.klaw.model.requests.TopicRequestModel;
 import io.aiven.klaw.model.response.TopicConfig;
 import io.aiven.klaw.model.response.TopicDetailsPerEnv;
+import io.aiven.klaw.model.response.TopicNamesPage;
 import io.aiven.klaw.model.response.TopicRequestsResponseModel;
 import io.aiven.klaw.model.response.TopicTeamResponse;
 import io.aiven.klaw.validation.PermissionAllowed;
@@ -90,6 +91,10 @@ import org.springframework.stereotype.Service;
 public class TopicControllerService {
 
   public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  // topic names returned by one type ahead search
+  static final int MAX_TOPIC_NAMES_PAGE_SIZE = 100;
+
   @Autowired private final ClusterApiService clusterApiService;
 
   @Autowired ManageDatabase manageDatabase;
@@ -778,7 +783,7 @@ public class TopicControllerService {
 
     if (updateTopicReqStatus.equals(ApiResultStatus.SUCCESS.value)) {
       commonUtilsService.updateMetadata(
-          tenantId, EntityType.TOPICS, MetadataOperationType.CREATE, null);
+          tenantId, EntityType.TOPICS, MetadataOperationType.CREATE, topicRequest.getTopicname());
     }
 
     String message = "Topic Status: " + updateTopicReqStatus + updateSchemaMsg;
@@ -945,6 +950,36 @@ public class TopicControllerService {
     return topicsList.stream().distinct().collect(Collectors.toList());
   }
 
+  /**
+   * Returns a page of the topic names matching the search, for type ahead fields. Names are read
+   * from the sorted name indexes of the topic catalog instead of the list of all topics.
+   */
+  public TopicNamesPage searchTopicNames(
+      boolean isMyTeamTopics,
+      String envSelected,
+      String search,
+      TopicNameMatch match,
+      String cursor,
+      int limit) {
+    String userName = getUserName();
+    int pageSize = Math.max(1, Math.min(limit, MAX_TOPIC_NAMES_PAGE_SIZE));
+    String env = envSelected == null || "ALL".equals(envSelected) ? null : envSelected;
+    Integer teamId = isMyTeamTopics ? commonUtilsService.getTeamId(userName) : null;
+
+    // one extra name tells whether a next page exists
+    List<String> topicNames =
+        manageDatabase
+            .getTopicCatalog(commonUtilsService.getTenantId(userName))
+            .searchTopicNames(
+                env, teamId, search, match == TopicNameMatch.CONTAINS, cursor, pageSize + 1);
+    String nextCursor = null;
+    if (topicNames.size() > pageSize) {
+      topicNames = topicNames.subList(0, pageSize);
+      nextCursor = topicNames.get(pageSize - 1);
+    }
+    return TopicNamesPage.builder().topicNames(topicNames).nextCursor(nextCursor).build();
+  }
+
   public ApiResponse saveTopicDocumentation(TopicInfo topicInfo) throws KlawException {
     Topic topic = new Topic();
     String userName = getUserName();
@@ -964,7 +999,7 @@ public class TopicControllerService {
         String status = manageDatabase.getHandleDbRequests().updateTopicDocumentation(topic);
         if (status.equals(ApiResultStatus.SUCCESS.value)) {
           commonUtilsService.updateMetadata(
-              tenantId, EntityType.TOPICS, MetadataOperationType.UPDATE, null);
+              tenantId, EntityType.TOPICS, MetadataOperationType.UPDATE, topicInfo.getTopicName());
         }
         return ApiResultStatus.SUCCESS.value.equals(status)
             ? ApiResponse.ok(status)
@@ -27,7 +27,6 @@ import io.aiven.klaw.helpers.KlawResourceUtils;
 import io.aiven.klaw.helpers.Pager;
 import io.aiven.klaw.helpers.UtilMethods;
 import io.aiven.klaw.model.ApiResponse;
-import io.aiven.klaw.model.KwMetadataUpdates;
 import io.aiven.klaw.model.SyncBackTopics;
 import io.aiven.klaw.model.SyncTopicUpdates;
 import io.aiven.klaw.model.SyncTopicsBulk;
@@ -38,6 +37,7 @@ import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.ClusterStatus;
 import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetadataOperationType;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.response.SyncTopicsList;
@@ -62,6 +62,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -76,6 +77,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class TopicSyncControllerService {
 
+  private static final int TOPICS_PER_PAGE = 21;
+
   @Value("${server.port}")
   private String serverPort;
 
@@ -737,16 +740,9 @@ public class TopicSyncControllerService {
         }
       }
     }
-    // Single reset on other servers.
-    // Later this should be updated to send particular object across instead of having the cache
-    // reloaded on the other side.
-
-    commonUtilsService.resetCacheOnOtherServers(
-        KwMetadataUpdates.builder()
-            .tenantId(tenantId)
-            .entityType(EntityType.TOPICS.name())
-            .operationType(RequestOperationType.CREATE.value)
-            .build());
+    // numbered update naming the topic, the other servers reload only this topic
+    commonUtilsService.updateMetadata(
+        tenantId, EntityType.TOPICS, MetadataOperationType.CREATE, topicFound.getTopicname());
   }
 
   public List<TopicInfo> getTopicsRowView(
@@ -755,11 +751,13 @@ public class TopicSyncControllerService {
       String currentPage,
       String topicNameSearch,
       Integer teamId,
-      String topicType) {
+      String topicType,
+      String lastTopicName) {
     log.info("getTopicsRowView {}", topicNameSearch);
     int tenantId = commonUtilsService.getTenantId(getUserName());
     List<TopicInfo> topicListUpdated =
-        getTopicsPaginated(env, pageNo, currentPage, topicNameSearch, teamId, topicType, tenantId);
+        getTopicsPaginated(
+            env, pageNo, currentPage, topicNameSearch, teamId, topicType, lastTopicName, tenantId);
 
     if (topicListUpdated != null && topicListUpdated.size() > 0) {
       return topicListUpdated;
@@ -775,36 +773,106 @@ public class TopicSyncControllerService {
       String topicNameSearch,
       Integer teamId,
       String topicType,
+      String lastTopicName,
       int tenantId) {
     if (topicNameSearch != null) topicNameSearch = topicNameSearch.trim();
 
     HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+    List<Env> listAllEnvs = manageDatabase.getKafkaEnvList(tenantId);
+    String orderOfEnvs = commonUtilsService.getEnvProperty(tenantId, ORDER_OF_TOPIC_ENVS);
 
     // To get Producer or Consumer topics, first get all topics based on acls and then filter
-    List<Topic> producerConsumerTopics = new ArrayList<>();
     if ((AclType.PRODUCER.value.equals(topicType) || AclType.CONSUMER.value.equals(topicType))
         && teamId != 0) {
-      producerConsumerTopics =
-          handleDbRequests.getAllTopicsByTopictypeAndTeamnameAndEnv(
-              topicType, teamId, tenantId, env);
-
-      // tenant filtering, not really necessary though, as based on team is searched.
-      //      producerConsumerTopics =
-      //          commonUtilsService.getFilteredTopicsForTenant(producerConsumerTopics);
+      return getProducerConsumerTopicsPaginated(
+          env,
+          pageNo,
+          currentPage,
+          topicNameSearch,
+          teamId,
+          topicType,
+          tenantId,
+          listAllEnvs,
+          orderOfEnvs);
+    }
 
-      // select all topics and then filter
-      env = "ALL";
-      teamId = 0;
+    // filtering and paging on distinct topic names happens in the database, only the rows of
+    // the topics on the requested page are loaded
+    final String envFilter = env;
+    final Integer teamFilter = teamId;
+    final String topicSearchFilter = topicNameSearch;
+    int totalTopics =
+        handleDbRequests.getSyncTopicsCount(envFilter, teamFilter, topicSearchFilter, tenantId);
+    if (totalTopics == 0) {
+      return null;
     }
 
+    return Pager.getItemsPage(
+        pageNo,
+        currentPage,
+        TOPICS_PER_PAGE,
+        totalTopics,
+        requestPageNo -> {
+          List<Topic> pageTopics;
+          if (lastTopicName != null
+              && !lastTopicName.isEmpty()
+              && NumberUtils.isCreatable(currentPage)
+              && requestPageNo == Integer.parseInt(currentPage) + 1) {
+            // next page, continue after the last topic of the current page
+            pageTopics =
+                handleDbRequests.getSyncTopicsPage(
+                    envFilter,
+                    teamFilter,
+                    topicSearchFilter,
+                    lastTopicName,
+                    0,
+                    TOPICS_PER_PAGE,
+                    tenantId);
+          } else {
+            pageTopics =
+                handleDbRequests.getSyncTopicsPage(
+                    envFilter,
+                    teamFilter,
+                    topicSearchFilter,
+                    "",
+                    (requestPageNo - 1) * TOPICS_PER_PAGE,
+                    TOPICS_PER_PAGE,
+                    tenantId);
+          }
+          return commonUtilsService.groupTopicsByEnv(pageTopics).stream()
+              .sorted(new TopicControllerService.TopicNameComparator())
+              .collect(Collectors.toList());
+        },
+        (pageContext, topicSOT) ->
+            getTopicInfo(pageContext, topicSOT, listAllEnvs, orderOfEnvs, tenantId));
+  }
+
+  private List<TopicInfo> getProducerConsumerTopicsPaginated(
+      String env,
+      String pageNo,
+      String currentPage,
+      String topicNameSearch,
+      Integer teamId,
+      String topicType,
+      int tenantId,
+      List<Env> listAllEnvs,
+      String orderOfEnvs) {
+    HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+    List<Topic> producerConsumerTopics =
+        handleDbRequests.getAllTopicsByTopictypeAndTeamnameAndEnv(topicType, teamId, tenantId, env);
+
+    // tenant filtering, not really necessary though, as based on team is searched.
+    //      producerConsumerTopics =
+    //          commonUtilsService.getFilteredTopicsForTenant(producerConsumerTopics);
+
+    // select all topics and then filter
+    env = "ALL";
+    teamId = 0;
+
     // Get Sync topics
     List<Topic> topicsFromSOT = handleDbRequests.getSyncTopics(env, teamId, tenantId);
     //    topicsFromSOT = commonUtilsService.getFilteredTopicsForTenant(topicsFromSOT);
 
-    // tenant filtering
-    List<Env> listAllEnvs = manageDatabase.getKafkaEnvList(tenantId);
-    String orderOfEnvs = commonUtilsService.getEnvProperty(tenantId, ORDER_OF_TOPIC_ENVS);
-
     topicsFromSOT = commonUtilsService.groupTopicsByEnv(topicsFromSOT);
     List<Topic> filterProducerConsumerList = new ArrayList<>();
     String tmpTopicFull, tmpTopicSub;
@@ -871,31 +939,39 @@ public class TopicSyncControllerService {
         : Pager.getItemsList(
             pageNo,
             currentPage,
-            21,
+            TOPICS_PER_PAGE,
             topicsFromSOT,
-            (pageContext, topicSOT) -> {
-              int counterInc = counterIncrement();
-              TopicInfo mp = new TopicInfo();
-              mp.setSequence(counterInc + "");
-
-              TreeSet<String> envSet = new TreeSet<>(Comparator.comparingInt(orderOfEnvs::indexOf));
-              envSet.addAll(topicSOT.getEnvironmentsSet());
-
-              mp.setTopicid(topicSOT.getTopicid());
-              mp.setEnvName(topicSOT.getEnvironment());
-              mp.setEnvironmentsList(KlawResourceUtils.getConvertedEnvs(listAllEnvs, envSet));
-              mp.setTopicName(topicSOT.getTopicname());
-              mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, topicSOT.getTeamId()));
-
-              mp.setNoOfReplicas(topicSOT.getNoOfReplicas());
-              mp.setNoOfPartitions(topicSOT.getNoOfPartitions());
-              mp.setDescription(topicSOT.getDescription());
-
-              mp.setTotalNoPages(pageContext.getTotalPages());
-              mp.setCurrentPage(pageContext.getPageNo());
-              mp.setAllPageNos(pageContext.getAllPageNos());
-              return mp;
-            });
+            (pageContext, topicSOT) ->
+                getTopicInfo(pageContext, topicSOT, listAllEnvs, orderOfEnvs, tenantId));
+  }
+
+  private TopicInfo getTopicInfo(
+      Pager.PageContext pageContext,
+      Topic topicSOT,
+      List<Env> listAllEnvs,
+      String orderOfEnvs,
+      int tenantId) {
+    int counterInc = counterIncrement();
+    TopicInfo mp = new TopicInfo();
+    mp.setSequence(counterInc + "");
+
+    TreeSet<String> envSet = new TreeSet<>(Comparator.comparingInt(orderOfEnvs::indexOf));
+    envSet.addAll(topicSOT.getEnvironmentsSet());
+
+    mp.setTopicid(topicSOT.getTopicid());
+    mp.setEnvName(topicSOT.getEnvironment());
+    mp.setEnvironmentsList(KlawResourceUtils.getConvertedEnvs(listAllEnvs, envSet));
+    mp.setTopicName(topicSOT.getTopicname());
+    mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, topicSOT.getTeamId()));
+
+    mp.setNoOfReplicas(topicSOT.getNoOfReplicas());
+    mp.setNoOfPartitions(topicSOT.getNoOfPartitions());
+    mp.setDescription(topicSOT.getDescription());
+
+    mp.setTotalNoPages(pageContext.getTotalPages());
+    mp.setCurrentPage(pageContext.getPageNo());
+    mp.setAllPageNos(pageContext.getAllPageNos());
+    return mp;
   }
 
   private int counterIncrement() {
@@ -10,10 +10,6 @@ import static io.aiven.klaw.model.enums.RolesType.SUPERADMIN;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.config.ManageDatabase;
-import io.aiven.klaw.dao.AclRequests;
-import io.aiven.klaw.dao.KafkaConnectorRequest;
-import io.aiven.klaw.dao.SchemaRequest;
-import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.helpers.HandleDbRequests;
 import io.aiven.klaw.helpers.KwConstants;
@@ -22,22 +18,19 @@ import io.aiven.klaw.model.KwMetadataUpdates;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.PermissionType;
-import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.model.requests.ResetEntityCache;
 import io.aiven.klaw.model.response.AuthenticationInfo;
 import io.aiven.klaw.model.response.DashboardStats;
+import io.aiven.klaw.model.response.PendingApprovalsCount;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -128,11 +121,21 @@ public class UtilControllerService implements InitializingBean {
     }
   }
 
-  public Map<String, String> getAllRequestsToBeApproved(String requestor, int tenantId) {
-    log.debug("getAllRequestsToBeApproved {}", requestor);
+  /** Counts of the requests waiting for the approval of the logged-in user. */
+  public PendingApprovalsCount getPendingApprovalsCount() {
+    String userName = getUserName();
+    return getPendingApprovalsCount(userName, commonUtilsService.getTenantId(userName));
+  }
+
+  /**
+   * Counts the requests the user can approve with COUNT queries, filtered the same way as the
+   * approval lists of each request type, instead of loading and filtering the requests.
+   */
+  public PendingApprovalsCount getPendingApprovalsCount(String requestor, int tenantId) {
+    log.debug("getPendingApprovalsCount {}", requestor);
     HandleDbRequests reqsHandle = manageDatabase.getHandleDbRequests();
+    PendingApprovalsCount pendingApprovalsCount = new PendingApprovalsCount();
 
-    Map<String, String> countList = new HashMap<>();
     String roleToSet = "";
     if (!commonUtilsService.isNotAuthorizedUser(
         getPrincipal(), PermissionType.APPROVE_SUBSCRIPTIONS)) {
@@ -142,115 +145,39 @@ public class UtilControllerService implements InitializingBean {
         getPrincipal(), PermissionType.REQUEST_CREATE_SUBSCRIPTIONS)) {
       roleToSet = REQUESTOR_SUBSCRIPTIONS;
     }
-    List<SchemaRequest> allSchemaReqs =
-        reqsHandle.getAllSchemaRequests(
-            true,
-            requestor,
-            tenantId,
-            null,
-            null,
-            null,
-            null,
-            null,
-            !commonUtilsService.isNotAuthorizedUser(
-                getPrincipal(), PermissionType.APPROVE_ALL_REQUESTS_TEAMS),
-            false);
-
-    List<AclRequests> allAclReqs;
-    List<TopicRequest> allTopicReqs;
-    List<KafkaConnectorRequest> allConnectorReqs;
-
-    if (commonUtilsService.isNotAuthorizedUser(
-        getPrincipal(), PermissionType.APPROVE_ALL_REQUESTS_TEAMS)) {
-      allAclReqs =
-          reqsHandle.getAllAclRequests(
-              true,
-              requestor,
-              roleToSet,
-              RequestStatus.CREATED.value,
-              false,
-              null,
-              null,
-              null,
-              null,
-              null,
-              false,
-              tenantId);
-      allTopicReqs =
-          reqsHandle.getCreatedTopicRequests(
-              requestor, RequestStatus.CREATED.value, false, tenantId);
-      allConnectorReqs =
-          reqsHandle.getCreatedConnectorRequests(
-              requestor, RequestStatus.CREATED.value, false, tenantId, null, null, null);
-    } else {
-      allAclReqs =
-          reqsHandle.getAllAclRequests(
-              true,
-              requestor,
-              roleToSet,
-              RequestStatus.CREATED.value,
-              true,
-              null,
-              null,
-              null,
-              null,
-              null,
-              false,
-              tenantId);
-      allTopicReqs =
-          reqsHandle.getCreatedTopicRequests(
-              requestor, RequestStatus.CREATED.value, true, tenantId);
-      allConnectorReqs =
-          reqsHandle.getCreatedConnectorRequests(
-              requestor, RequestStatus.CREATED.value, true, tenantId, null, null, null);
-    }
+    boolean showRequestsOfAllTeams =
+        !commonUtilsService.isNotAuthorizedUser(
+            getPrincipal(), PermissionType.APPROVE_ALL_REQUESTS_TEAMS);
 
     try {
       // tenant filtering
-      final Set<String> allowedEnvIdSet = commonUtilsService.getEnvsFromUserId(getUserName());
-      allAclReqs =
-          allAclReqs.stream()
-              .filter(request -> allowedEnvIdSet.contains(request.getEnvironment()))
-              .collect(Collectors.toList());
-
-      // tenant filtering
-      allSchemaReqs =
-          allSchemaReqs.stream()
-              .filter(request -> allowedEnvIdSet.contains(request.getEnvironment()))
-              .collect(Collectors.toList());
-
-      // tenant filtering
-      allTopicReqs =
-          allTopicReqs.stream()
-              .filter(request -> allowedEnvIdSet.contains(request.getEnvironment()))
-              .collect(Collectors.toList());
-
-      // tenant filtering
-      allConnectorReqs =
-          allConnectorReqs.stream()
-              .filter(request -> allowedEnvIdSet.contains(request.getEnvironment()))
-              .collect(Collectors.toList());
+      final Set<String> allowedEnvIdSet = commonUtilsService.getEnvsFromUserId(requestor);
+      pendingApprovalsCount.setTopics(
+          reqsHandle.getCountTopicRequestsToApprove(
+              requestor, showRequestsOfAllTeams, allowedEnvIdSet, tenantId));
+      pendingApprovalsCount.setAcls(
+          reqsHandle.getCountAclRequestsToApprove(
+              requestor, roleToSet, showRequestsOfAllTeams, allowedEnvIdSet, tenantId));
+      pendingApprovalsCount.setSchemas(
+          reqsHandle.getCountSchemaRequestsToApprove(
+              requestor, showRequestsOfAllTeams, allowedEnvIdSet, tenantId));
+      pendingApprovalsCount.setConnectors(
+          reqsHandle.getCountConnectorRequestsToApprove(
+              requestor, showRequestsOfAllTeams, allowedEnvIdSet, tenantId));
     } catch (Exception e) {
       log.error("No environments/clusters found.", e);
-      allAclReqs = new ArrayList<>();
-      allSchemaReqs = new ArrayList<>();
-      allTopicReqs = new ArrayList<>();
-      allConnectorReqs = new ArrayList<>();
+      pendingApprovalsCount.setTopics(0);
+      pendingApprovalsCount.setAcls(0);
+      pendingApprovalsCount.setSchemas(0);
+      pendingApprovalsCount.setConnectors(0);
     }
 
-    countList.put("topics", allTopicReqs.size() + "");
-    countList.put("acls", allAclReqs.size() + "");
-    countList.put("schemas", allSchemaReqs.size() + "");
-    countList.put("connectors", allConnectorReqs.size() + "");
-
-    if (commonUtilsService.isNotAuthorizedUser(
+    if (!commonUtilsService.isNotAuthorizedUser(
         getPrincipal(), PermissionType.ADD_EDIT_DELETE_USERS)) {
-      countList.put("users", "0");
-    } else {
-      countList.put("users", reqsHandle.getCountRegisterUsersInfoForTenant(tenantId) + "");
+      pendingApprovalsCount.setUsers(reqsHandle.getCountRegisterUsersInfoForTenant(tenantId));
     }
 
-    return countList;
+    return pendingApprovalsCount;
   }
 
   public AuthenticationInfo getAuth() {
@@ -261,42 +188,19 @@ public class UtilControllerService implements InitializingBean {
       String teamName =
           manageDatabase.getTeamNameFromTeamId(tenantId, commonUtilsService.getTeamId(userName));
       String authority = commonUtilsService.getAuthority(getPrincipal());
-      Map<String, String> outstanding = getAllRequestsToBeApproved(userName, tenantId);
-
-      String outstandingTopicReqs = outstanding.get("topics");
-      int outstandingTopicReqsInt = Integer.parseInt(outstandingTopicReqs);
-
-      String outstandingAclReqs = outstanding.get("acls");
-      int outstandingAclReqsInt = Integer.parseInt(outstandingAclReqs);
-
-      String outstandingSchemasReqs = outstanding.get("schemas");
-      int outstandingSchemasReqsInt = Integer.parseInt(outstandingSchemasReqs);
-
-      String outstandingConnectorReqs = outstanding.get("connectors");
-      int outstandingConnectorReqsInt = Integer.parseInt(outstandingConnectorReqs);
-
-      String outstandingUserReqs = outstanding.get("users");
-      int outstandingUserReqsInt = Integer.parseInt(outstandingUserReqs);
-
-      if (outstandingTopicReqsInt <= 0) {
-        outstandingTopicReqs = "0";
-      }
-
-      if (outstandingAclReqsInt <= 0) {
-        outstandingAclReqs = "0";
-      }
+      PendingApprovalsCount outstanding = getPendingApprovalsCount(userName, tenantId);
 
-      if (outstandingSchemasReqsInt <= 0) {
-        outstandingSchemasReqs = "0";
-      }
+      int outstandingTopicReqsInt = outstanding.getTopics();
+      int outstandingAclReqsInt = outstanding.getAcls();
+      int outstandingSchemasReqsInt = outstanding.getSchemas();
+      int outstandingConnectorReqsInt = outstanding.getConnectors();
+      int outstandingUserReqsInt = outstanding.getUsers();
 
-      if (outstandingConnectorReqsInt <= 0) {
-        outstandingConnectorReqs = "0";
-      }
-
-      if (outstandingUserReqsInt <= 0) {
-        outstandingUserReqs = "0";
-      }
+      String outstandingTopicReqs = String.valueOf(outstandingTopicReqsInt);
+      String outstandingAclReqs = String.valueOf(outstandingAclReqsInt);
+      String outstandingSchemasReqs = String.valueOf(outstandingSchemasReqsInt);
+      String outstandingConnectorReqs = String.valueOf(outstandingConnectorReqsInt);
+      String outstandingUserReqs = String.valueOf(outstandingUserReqsInt);
 
       AuthenticationInfo authenticationInfo = new AuthenticationInfo();
 
@@ -607,6 +511,7 @@ public class UtilControllerService implements InitializingBean {
             .entityValue(resetEntityCache.getEntityValue())
             .operationType(resetEntityCache.getOperationType())
             .createdTime(new Timestamp(System.currentTimeMillis()))
+            .sequence(resetEntityCache.getSequence())
             .build();
     if (getUserName().equals(ANONYMOUS_USER)) {
       // continue with the request, ANONYMOUS_USER is generated by spring to access protected
@@ -1,8 +1,25 @@
 package io.aiven.klaw.service.interfaces;
 
+import java.util.List;
+
 public interface HAMessagingServiceI {
 
   void sendUpdate(String entityType, int tenantId, Object entry);
 
+  /**
+   * @param id id of the entry in the cache, lets queued updates of the same entry be coalesced
+   */
+  default void sendUpdate(String entityType, int tenantId, Integer id, Object entry) {
+    sendUpdate(entityType, tenantId, entry);
+  }
+
+  /**
+   * Sends several entries of the same entity type at once. Implementations which cannot send them
+   * in one message send an update per entry.
+   */
+  default void sendBulkUpdate(String entityType, int tenantId, List<?> entries) {
+    entries.forEach(entry -> sendUpdate(entityType, tenantId, entry));
+  }
+
   void sendRemove(String entityType, int tenantId, int id);
 }
@@ -0,0 +1,172 @@
+package io.aiven.klaw.service.utils;
+
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.model.enums.AclPermissionType;
+import io.aiven.klaw.model.enums.AclType;
+import io.aiven.klaw.model.enums.KafkaFlavors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Joins the topic ACLs read from a cluster with the ACLs stored in Klaw metadata. Both sides are
+ * normalised once into keys of topic, host, principal and acl type (producer / consumer) and joined
+ * through hash maps, so a reconciliation costs O(n + m) instead of comparing every cluster ACL with
+ * every metadata ACL.
+ *
+ * <p>Pattern type is not part of the key, clusters only report literal ACLs for sync.
+ */
+public final class AclReconciliation {
+
+  public static final String ANY_PRINCIPAL = "User:*";
+
+  public static final String ANY_HOST = "*";
+
+  private static final String USER_PRINCIPAL_PREFIX = "User:";
+
+  private final List<ClusterAcl> clusterAcls;
+
+  private final List<Acl> removed;
+
+  private AclReconciliation(List<ClusterAcl> clusterAcls, List<Acl> removed) {
+    this.clusterAcls = Collections.unmodifiableList(clusterAcls);
+    this.removed = Collections.unmodifiableList(removed);
+  }
+
+  /**
+   * @param aclsFromCluster topic ACLs of the cluster, consumer ACLs carry their consumer group
+   * @param aclsFromMetadata ACLs stored in Klaw for the same environment
+   * @param kafkaFlavor flavor of the cluster, decides how metadata principals are normalised
+   * @return the cluster ACLs with their metadata counterpart, and the metadata ACLs missing on the
+   *     cluster
+   */
+  public static AclReconciliation reconcile(
+      List<Map<String, String>> aclsFromCluster, List<Acl> aclsFromMetadata, String kafkaFlavor) {
+    Map<AclKey, Acl> metadataByKey = new HashMap<>();
+    for (Acl acl : aclsFromMetadata) {
+      if (acl.getTopicname() != null) {
+        metadataByKey.putIfAbsent(metadataKey(acl, kafkaFlavor), acl);
+      }
+    }
+
+    List<ClusterAcl> clusterAcls = new ArrayList<>(aclsFromCluster.size());
+    Set<AclKey> clusterKeys = new HashSet<>();
+    for (Map<String, String> clusterAcl : aclsFromCluster) {
+      String operation = clusterAcl.get("operation");
+      String aclType = null;
+      if (AclPermissionType.WRITE.value.equals(operation)) {
+        aclType = AclType.PRODUCER.value;
+      } else if (AclPermissionType.READ.value.equals(operation)) {
+        if (clusterAcl.get("consumerGroup") == null) {
+          // topic read binding without a group, its grouped copy carries the consumer group
+          continue;
+        }
+        aclType = AclType.CONSUMER.value;
+      }
+
+      AclKey key =
+          new AclKey(
+              clusterAcl.get("resourceName"),
+              clusterAcl.get("host"),
+              clusterAcl.get("principle"),
+              aclType);
+      if (aclType != null) {
+        clusterKeys.add(key);
+      }
+      clusterAcls.add(new ClusterAcl(clusterAcl, aclType, metadataByKey.get(key)));
+    }
+
+    List<Acl> removed = new ArrayList<>();
+    for (Acl acl : aclsFromMetadata) {
+      if (!clusterKeys.contains(metadataKey(acl, kafkaFlavor))) {
+        removed.add(acl);
+      }
+    }
+    return new AclReconciliation(clusterAcls, removed);
+  }
+
+  /**
+   * @return every cluster ACL taking part in the reconciliation in cluster order, matched or not
+   */
+  public List<ClusterAcl> getClusterAcls() {
+    return clusterAcls;
+  }
+
+  /**
+   * @return cluster ACLs which have a metadata counterpart
+   */
+  public List<ClusterAcl> getMatched() {
+    return clusterAcls.stream().filter(ClusterAcl::isMatched).toList();
+  }
+
+  /**
+   * @return cluster ACLs unknown to Klaw metadata
+   */
+  public List<ClusterAcl> getAdded() {
+    return clusterAcls.stream().filter(clusterAcl -> !clusterAcl.isMatched()).toList();
+  }
+
+  /**
+   * @return metadata ACLs which do not exist on the cluster
+   */
+  public List<Acl> getRemoved() {
+    return removed;
+  }
+
+  public static String normalisePrincipal(String principal, String kafkaFlavor) {
+    if (principal == null || principal.isEmpty()) {
+      return ANY_PRINCIPAL;
+    }
+    if (!KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor)
+        && !principal.startsWith(USER_PRINCIPAL_PREFIX)) {
+      return USER_PRINCIPAL_PREFIX + principal;
+    }
+    return principal;
+  }
+
+  public static String normaliseHost(String host) {
+    return host == null || host.isEmpty() ? ANY_HOST : host;
+  }
+
+  private static AclKey metadataKey(Acl acl, String kafkaFlavor) {
+    return new AclKey(
+        acl.getTopicname(),
+        normaliseHost(acl.getAclip()),
+        normalisePrincipal(acl.getAclssl(), kafkaFlavor),
+        acl.getAclType());
+  }
+
+  /** A cluster ACL with the acl type derived from its operation and its metadata match. */
+  @Getter
+  @AllArgsConstructor
+  public static final class ClusterAcl {
+
+    private final Map<String, String> clusterAcl;
+
+    // producer or consumer, null for other operations
+    private final String aclType;
+
+    // null if the ACL is not in Klaw metadata
+    private final Acl metadataAcl;
+
+    public boolean isMatched() {
+      return metadataAcl != null;
+    }
+  }
+
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static final class AclKey {
+    private final String topicName;
+    private final String host;
+    private final String principal;
+    private final String aclType;
+  }
+}
@@ -1,9 +1,19 @@
 package io.aiven.klaw.service.utils;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
 import io.aiven.klaw.service.interfaces.HAMessagingServiceI;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 
 /**
  * This cache provides a standardised way with built in inter instance update to other caches when
@@ -11,26 +21,58 @@ import org.springframework.http.*;
  * the most efficient use of the cache is used along with the ability to use Java Streams with the
  * output for complex queries.
  *
+ * <p>The cache is safe for concurrent use. The list of entries of a tenant is built once and shared
+ * by all readers until the entries of the tenant change. Optionally the entries of a tenant are
+ * bounded in size and expire after they were written.
+ *
  * @param <T> The Entity Type that is to be stored in this Cache.
  */
 @Slf4j
 public class CacheService<T> {
 
-  private final Map<Integer, Map<Integer, T>> cache;
+  public static final String CACHE_GETS_METRIC = "klaw.cache.gets";
+  public static final String CACHE_EVICTIONS_METRIC = "klaw.cache.evictions";
+  public static final String CACHE_SIZE_METRIC = "klaw.cache.size";
+
+  private final ConcurrentMap<Integer, TenantCache> cache = new ConcurrentHashMap<>();
 
   private final String urlEndpoint;
   private final String entityType;
 
   private final HAMessagingServiceI utilsService;
 
+  // 0 for an unbounded cache
+  private final long maximumSize;
+
+  // null if entries do not expire
+  private final Duration expireAfterWrite;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
   public CacheService(String entityType, HAMessagingServiceI utilsService) {
+    this(entityType, utilsService, 0, null);
+  }
+
+  /**
+   * @param maximumSize maximum number of entries per tenant, 0 for no limit
+   * @param expireAfterWrite time after which an entry is evicted once written, null to keep entries
+   *     until they are removed
+   */
+  public CacheService(
+      String entityType,
+      HAMessagingServiceI utilsService,
+      long maximumSize,
+      Duration expireAfterWrite) {
     // TODO an interface needs to be added to allow the passing in of different communication
     // methods (kafka/https/rabbitmq etc) to allow any org to use what they want for maintaining
     // cache.
-    this.cache = new HashMap<>();
     this.urlEndpoint = "cache";
     this.entityType = entityType;
     this.utilsService = utilsService;
+    this.maximumSize = maximumSize;
+    this.expireAfterWrite = expireAfterWrite;
   }
 
   public T add(int tenantId, Integer id, T entry) {
@@ -38,10 +80,21 @@ public class CacheService<T> {
   }
 
   public void addAll(int tenantId, Map<Integer, T> entries) {
-    if (entries == null) {
-      entries = new HashMap<>();
+    addAll(tenantId, entries, true);
+  }
+
+  /**
+   * Adds all entries to the cache of the tenant. Unless this is a local update, the entries are
+   * sent to the other instances in a single message.
+   */
+  public void addAll(int tenantId, Map<Integer, T> entries, boolean isLocalUpdate) {
+    if (entries == null || entries.isEmpty()) {
+      return;
+    }
+    getTenantCache(tenantId).putAll(entries);
+    if (!isLocalUpdate) {
+      sendHighAvailabilityBulkUpdate(tenantId, entries);
     }
-    getCache(tenantId).putAll(entries);
   }
 
   public T remove(int tenantId, Integer id, boolean isLocalUpdate) {
@@ -49,11 +102,12 @@ public class CacheService<T> {
     if (!isLocalUpdate) {
       sendHighAvailabilityRemove(tenantId, id);
     }
-    return getCache(tenantId).remove(id);
+    return getTenantCache(tenantId).remove(id);
   }
 
   public Map<Integer, T> removeCache(int tenantId) {
-    return cache.remove(tenantId);
+    TenantCache removed = cache.remove(tenantId);
+    return removed == null ? null : new HashMap<>(removed.entries);
   }
 
   public T update(int tenantId, Integer id, T entry) {
@@ -62,30 +116,148 @@ public class CacheService<T> {
 
   public T addOrUpdate(int tenantId, Integer id, T entry, boolean isLocalUpdate) {
     log.debug("addOrUpdate {}", entry);
-    getCache(tenantId).put(id, entry);
+    getTenantCache(tenantId).put(id, entry);
     if (!isLocalUpdate) {
-      sendHighAvailabilityUpdate(tenantId, entry);
+      sendHighAvailabilityUpdate(tenantId, id, entry);
     }
     return entry;
   }
 
   public Optional<T> get(int tenantId, Integer id) {
-    return Optional.ofNullable(getCache(tenantId).get(id));
+    T entry = getTenantCache(tenantId).entries.get(id);
+    (entry == null ? misses : hits).increment();
+    return Optional.ofNullable(entry);
   }
 
+  /** Returns a read only view of the entries of the tenant. */
   public Map<Integer, T> getCache(Integer tenantId) {
-    return cache.computeIfAbsent(tenantId, k -> new HashMap<>());
+    return Collections.unmodifiableMap(getTenantCache(tenantId).entries);
   }
 
+  /** Returns the entries of the tenant, the list is immutable and shared between callers. */
   public List<T> getCacheAsList(Integer tenantId) {
-    return new ArrayList<>(getCache(tenantId).values());
+    return getTenantCache(tenantId).asList();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public long size() {
+    return cache.values().stream().mapToLong(tenantCache -> tenantCache.entries.size()).sum();
+  }
+
+  /** Publishes hits, misses, evictions and the size of this cache tagged with the cache name. */
+  public void registerMetrics(MeterRegistry meterRegistry, String cacheName) {
+    FunctionCounter.builder(CACHE_GETS_METRIC, hits, LongAdder::sum)
+        .description("Lookups of an entry found in the cache")
+        .tags("cache", cacheName, "result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder(CACHE_GETS_METRIC, misses, LongAdder::sum)
+        .description("Lookups of an entry not found in the cache")
+        .tags("cache", cacheName, "result", "miss")
+        .register(meterRegistry);
+    FunctionCounter.builder(CACHE_EVICTIONS_METRIC, evictions, LongAdder::sum)
+        .description("Entries evicted because of their size or age")
+        .tag("cache", cacheName)
+        .register(meterRegistry);
+    Gauge.builder(CACHE_SIZE_METRIC, this, CacheService::size)
+        .description("Entries of all tenants in the cache")
+        .tag("cache", cacheName)
+        .register(meterRegistry);
+  }
+
+  private TenantCache getTenantCache(int tenantId) {
+    return cache.computeIfAbsent(tenantId, k -> new TenantCache());
   }
 
-  private void sendHighAvailabilityUpdate(int tenantId, T entry) {
-    utilsService.sendUpdate(entityType, tenantId, entry);
+  private ConcurrentMap<Integer, T> newEntries(TenantCache tenantCache) {
+    if (maximumSize <= 0 && expireAfterWrite == null) {
+      return new ConcurrentHashMap<>();
+    }
+    // evict on the writing thread, so the list is invalidated before the write returns
+    Caffeine<Object, Object> builder = Caffeine.newBuilder().executor(Runnable::run);
+    if (maximumSize > 0) {
+      builder.maximumSize(maximumSize);
+    }
+    if (expireAfterWrite != null) {
+      // expire entries promptly, so the shared list does not keep them
+      builder.expireAfterWrite(expireAfterWrite).scheduler(Scheduler.systemScheduler());
+    }
+    return builder
+        .<Integer, T>evictionListener(
+            (id, entry, cause) -> {
+              evictions.increment();
+              tenantCache.invalidate();
+            })
+        .build()
+        .asMap();
+  }
+
+  private void sendHighAvailabilityUpdate(int tenantId, Integer id, T entry) {
+    utilsService.sendUpdate(entityType, tenantId, id, entry);
+  }
+
+  private void sendHighAvailabilityBulkUpdate(int tenantId, Map<Integer, T> entries) {
+    utilsService.sendBulkUpdate(entityType, tenantId, new ArrayList<>(entries.values()));
   }
 
   private void sendHighAvailabilityRemove(int tenantId, Integer id) {
     utilsService.sendRemove(entityType, tenantId, id);
   }
+
+  /** Entries of one tenant and the list view built from them. */
+  private final class TenantCache {
+    private final ConcurrentMap<Integer, T> entries = newEntries(this);
+
+    // incremented after every change of the entries
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile ListView<T> view;
+
+    private void put(Integer id, T entry) {
+      entries.put(id, entry);
+      invalidate();
+    }
+
+    private void putAll(Map<Integer, T> added) {
+      entries.putAll(added);
+      invalidate();
+    }
+
+    private T remove(Integer id) {
+      T removed = entries.remove(id);
+      invalidate();
+      return removed;
+    }
+
+    private void invalidate() {
+      version.incrementAndGet();
+    }
+
+    private List<T> asList() {
+      long currentVersion = version.get();
+      ListView<T> current = view;
+      if (current == null || current.version != currentVersion) {
+        // a list built while the entries change is replaced by the next read
+        current = new ListView<>(currentVersion, List.copyOf(entries.values()));
+        view = current;
+      }
+      return current.list;
+    }
+  }
+
+  @AllArgsConstructor
+  private static final class ListView<T> {
+    private final long version;
+    private final List<T> list;
+  }
 }
@@ -0,0 +1,270 @@
+package io.aiven.klaw.service.utils;
+
+import io.aiven.klaw.dao.Topic;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, indexed snapshot of the topics of one tenant. Topics can be looked up by name,
+ * environment, team and environment + team without scanning, and topic names can be searched by
+ * prefix through sorted name indexes of the tenant and of each environment and team.
+ *
+ * <p>Updates never modify an existing catalog, {@link #withTopic(Topic)} returns a new snapshot
+ * which the owner publishes in place of the old one. Readers holding a reference therefore always
+ * see a consistent view and never need to lock.
+ */
+public final class TopicCatalog {
+
+  private static final TopicCatalog EMPTY = new TopicCatalog(Collections.emptyList());
+
+  private final List<Topic> topics;
+
+  private final Map<String, List<Topic>> topicsByName;
+
+  private final Map<String, List<Topic>> topicsByEnv;
+
+  private final Map<Integer, List<Topic>> topicsByTeam;
+
+  // key env id, sub key team id
+  private final Map<String, Map<Integer, List<Topic>>> topicsByEnvAndTeam;
+
+  private final String[] sortedTopicNames;
+
+  // sorted names of the topics of an environment and team, built on first use. Key env id and team
+  // id, null for all environments or teams
+  private final Map<List<Object>, String[]> sortedTopicNamesByEnvAndTeam =
+      new ConcurrentHashMap<>();
+
+  private TopicCatalog(List<Topic> topics) {
+    Map<String, List<Topic>> byName = new HashMap<>();
+    Map<String, List<Topic>> byEnv = new HashMap<>();
+    Map<Integer, List<Topic>> byTeam = new HashMap<>();
+    Map<String, Map<Integer, List<Topic>>> byEnvAndTeam = new HashMap<>();
+
+    for (Topic topic : topics) {
+      byName.computeIfAbsent(topic.getTopicname(), k -> new ArrayList<>()).add(topic);
+      byEnv.computeIfAbsent(topic.getEnvironment(), k -> new ArrayList<>()).add(topic);
+      byTeam.computeIfAbsent(topic.getTeamId(), k -> new ArrayList<>()).add(topic);
+      byEnvAndTeam
+          .computeIfAbsent(topic.getEnvironment(), k -> new HashMap<>())
+          .computeIfAbsent(topic.getTeamId(), k -> new ArrayList<>())
+          .add(topic);
+    }
+
+    this.topics = Collections.unmodifiableList(topics);
+    this.topicsByName = freeze(byName);
+    this.topicsByEnv = freeze(byEnv);
+    this.topicsByTeam = freeze(byTeam);
+    Map<String, Map<Integer, List<Topic>>> frozenByEnvAndTeam = new HashMap<>();
+    byEnvAndTeam.forEach((env, teams) -> frozenByEnvAndTeam.put(env, freeze(teams)));
+    this.topicsByEnvAndTeam = Collections.unmodifiableMap(frozenByEnvAndTeam);
+
+    this.sortedTopicNames =
+        byName.keySet().stream().filter(Objects::nonNull).sorted().toArray(String[]::new);
+  }
+
+  private static <K> Map<K, List<Topic>> freeze(Map<K, List<Topic>> index) {
+    index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    return Collections.unmodifiableMap(index);
+  }
+
+  public static TopicCatalog empty() {
+    return EMPTY;
+  }
+
+  public static TopicCatalog of(Collection<Topic> topics) {
+    if (topics == null || topics.isEmpty()) {
+      return EMPTY;
+    }
+    return new TopicCatalog(new ArrayList<>(topics));
+  }
+
+  /**
+   * @param topic topic to add, replaces an existing entry with the same topic id
+   * @return a new catalog containing the topic, or this catalog if the topic is already present
+   */
+  public TopicCatalog withTopic(Topic topic) {
+    List<Topic> updatedTopics = new ArrayList<>(topics.size() + 1);
+    boolean replaced = false;
+    for (Topic existing : topics) {
+      if (existing == topic) {
+        return this;
+      }
+      if (!replaced
+          && topic.getTopicid() != null
+          && Objects.equals(existing.getTopicid(), topic.getTopicid())) {
+        updatedTopics.add(topic);
+        replaced = true;
+      } else {
+        updatedTopics.add(existing);
+      }
+    }
+    if (!replaced) {
+      updatedTopics.add(topic);
+    }
+    return new TopicCatalog(updatedTopics);
+  }
+
+  /**
+   * @param topicName name of the topic
+   * @param topics every topic (across all environments) currently stored with the name
+   * @return a new catalog in which the topics of the name are replaced by the given topics
+   */
+  public TopicCatalog withTopicsNamed(String topicName, Collection<Topic> topics) {
+    List<Topic> updatedTopics = new ArrayList<>(this.topics.size() + topics.size());
+    for (Topic existing : this.topics) {
+      if (!Objects.equals(existing.getTopicname(), topicName)) {
+        updatedTopics.add(existing);
+      }
+    }
+    updatedTopics.addAll(topics);
+    return updatedTopics.isEmpty() ? EMPTY : new TopicCatalog(updatedTopics);
+  }
+
+  public List<Topic> getTopics() {
+    return topics;
+  }
+
+  public int size() {
+    return topics.size();
+  }
+
+  public List<Topic> getTopicsByName(String topicName) {
+    return topicsByName.getOrDefault(topicName, Collections.emptyList());
+  }
+
+  public List<Topic> getTopicsByEnv(String env) {
+    return topicsByEnv.getOrDefault(env, Collections.emptyList());
+  }
+
+  public List<Topic> getTopicsByTeam(Integer teamId) {
+    return topicsByTeam.getOrDefault(teamId, Collections.emptyList());
+  }
+
+  public List<Topic> getTopicsByEnvAndTeam(String env, Integer teamId) {
+    return topicsByEnvAndTeam
+        .getOrDefault(env, Collections.emptyMap())
+        .getOrDefault(teamId, Collections.emptyList());
+  }
+
+  /**
+   * @param topicNames distinct topic names
+   * @return every topic (across all environments) with one of the given names
+   */
+  public List<Topic> getTopicsByNames(Collection<String> topicNames) {
+    List<Topic> result = new ArrayList<>();
+    for (String topicName : topicNames) {
+      result.addAll(getTopicsByName(topicName));
+    }
+    return result;
+  }
+
+  /**
+   * @param topics topics to collect the names from
+   * @return the distinct names of the given topics in encounter order
+   */
+  public static Set<String> topicNamesOf(List<Topic> topics) {
+    Set<String> names = new LinkedHashSet<>();
+    for (Topic topic : topics) {
+      names.add(topic.getTopicname());
+    }
+    return names;
+  }
+
+  /**
+   * @param prefix the start of the topic name, an empty prefix matches every topic
+   * @return the distinct topic names starting with the prefix in natural order
+   */
+  public List<String> getTopicNamesWithPrefix(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      return Collections.unmodifiableList(Arrays.asList(sortedTopicNames));
+    }
+    int from = Arrays.binarySearch(sortedTopicNames, prefix);
+    if (from < 0) {
+      from = -from - 1;
+    }
+    int to = from;
+    while (to < sortedTopicNames.length && sortedTopicNames[to].startsWith(prefix)) {
+      to++;
+    }
+    return Collections.unmodifiableList(Arrays.asList(sortedTopicNames).subList(from, to));
+  }
+
+  /**
+   * Returns topic names of an environment and team in natural order, for type ahead searches which
+   * fetch the names page by page.
+   *
+   * @param env environment id, null for all environments
+   * @param teamId owning team, null for all teams
+   * @param search the start of the topic name, or any part of it if contains is set. Empty or null
+   *     matches every topic
+   * @param contains match the search anywhere in the name instead of at its start
+   * @param after the last name of the previous page, null for the first page
+   * @param limit maximum number of names returned
+   * @return the distinct matching names following after
+   */
+  public List<String> searchTopicNames(
+      String env, Integer teamId, String search, boolean contains, String after, int limit) {
+    String[] names = getSortedTopicNames(env, teamId);
+    boolean matchAll = search == null || search.isEmpty();
+    int from = after == null ? 0 : indexAfter(names, after);
+    if (!matchAll && !contains) {
+      from = Math.max(from, insertionPoint(names, search));
+    }
+
+    List<String> result = new ArrayList<>(Math.min(limit, names.length));
+    for (int i = from; i < names.length && result.size() < limit; i++) {
+      if (matchAll || (contains && names[i].contains(search))) {
+        result.add(names[i]);
+      } else if (!contains) {
+        if (!names[i].startsWith(search)) {
+          // names with the prefix are adjacent
+          break;
+        }
+        result.add(names[i]);
+      }
+    }
+    return result;
+  }
+
+  private String[] getSortedTopicNames(String env, Integer teamId) {
+    if (env == null && teamId == null) {
+      return sortedTopicNames;
+    }
+    return sortedTopicNamesByEnvAndTeam.computeIfAbsent(
+        Arrays.asList(env, teamId),
+        key -> {
+          List<Topic> topicsOfKey;
+          if (env == null) {
+            topicsOfKey = getTopicsByTeam(teamId);
+          } else if (teamId == null) {
+            topicsOfKey = getTopicsByEnv(env);
+          } else {
+            topicsOfKey = getTopicsByEnvAndTeam(env, teamId);
+          }
+          return topicNamesOf(topicsOfKey).stream()
+              .filter(Objects::nonNull)
+              .sorted()
+              .toArray(String[]::new);
+        });
+  }
+
+  private static int insertionPoint(String[] sortedNames, String name) {
+    int index = Arrays.binarySearch(sortedNames, name);
+    return index < 0 ? -index - 1 : index;
+  }
+
+  private static int indexAfter(String[] sortedNames, String name) {
+    int index = Arrays.binarySearch(sortedNames, name);
+    return index < 0 ? -index - 1 : index + 1;
+  }
+}
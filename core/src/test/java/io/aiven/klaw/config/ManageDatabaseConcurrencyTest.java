@@ -0,0 +1,209 @@
+package io.aiven.klaw.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.dao.KwRolesPermissions;
+import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.Team;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.UserIdentity;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.model.enums.RolesType;
+import io.aiven.klaw.service.utils.CacheService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Readers query the cached metadata while a writer keeps reloading it. Every reload switches
+ * between two generations of clusters and environments, so a reader must always see one complete
+ * generation and never a partially updated, mixed or missing tenant.
+ */
+public class ManageDatabaseConcurrencyTest {
+
+  private static final int TENANT_ID = 101;
+  private static final int TEAM_ID = 1001;
+  private static final int READERS = 4;
+  private static final int RELOADS = 500;
+
+  private final ManageDatabase manageDatabase = new ManageDatabase();
+  private final HandleDbRequestsJdbc handleDbRequests = mock(HandleDbRequestsJdbc.class);
+  private ExecutorService executor;
+
+  // 2 or 3 clusters and environments, switched by the writer before each reload
+  private volatile int generation = 2;
+
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(manageDatabase, "handleDbRequests", handleDbRequests);
+    for (String envCache :
+        List.of(
+            "kafkaEnvListPerTenant",
+            "schemaRegEnvListPerTenant",
+            "kafkaConnectEnvListPerTenant",
+            "allEnvListPerTenant")) {
+      ReflectionTestUtils.setField(manageDatabase, envCache, mock(CacheService.class));
+    }
+    executor = Executors.newFixedThreadPool(READERS + 1);
+
+    KwTenants tenant = new KwTenants();
+    tenant.setTenantId(TENANT_ID);
+    tenant.setTenantName("tenant");
+    Team team = new Team();
+    team.setTeamId(TEAM_ID);
+    team.setTeamname("Octopus");
+    team.setTenantId(TENANT_ID);
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUsername("james");
+    userInfo.setTenantId(TENANT_ID);
+    userInfo.setTeamId(TEAM_ID);
+    userInfo.setRole(RolesType.USER.name());
+    KwRolesPermissions rolesPermissions = new KwRolesPermissions();
+    rolesPermissions.setTenantId(TENANT_ID);
+    rolesPermissions.setRoleId(RolesType.USER.name());
+    rolesPermissions.setPermission(PermissionType.REQUEST_CREATE_TOPICS.name());
+
+    when(handleDbRequests.getMyTenants(TENANT_ID)).thenReturn(Optional.of(tenant));
+    when(handleDbRequests.getAllTeams(TENANT_ID)).thenReturn(List.of(team));
+    when(handleDbRequests.getAllUsersInfo(TENANT_ID)).thenReturn(List.of(userInfo));
+    when(handleDbRequests.getAllUsersInfoForTeam(TEAM_ID, TENANT_ID)).thenReturn(List.of(userInfo));
+    when(handleDbRequests.getRolesPermissions()).thenReturn(List.of(rolesPermissions));
+    when(handleDbRequests.getAllClusters(eq(KafkaClustersType.KAFKA), eq(TENANT_ID)))
+        .thenAnswer(invocation -> clusters(generation));
+    when(handleDbRequests.getAllKafkaEnvs(TENANT_ID)).thenAnswer(invocation -> envs(generation));
+    when(handleDbRequests.getAllEnvs(TENANT_ID)).thenAnswer(invocation -> envs(generation));
+
+    manageDatabase.loadOneTenant(TENANT_ID);
+    reload();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void readersSeeCompleteMetadataWhileItIsReloaded() throws Exception {
+    AtomicBoolean reloading = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> readers = new ArrayList<>();
+    for (int i = 0; i < READERS; i++) {
+      readers.add(
+          executor.submit(
+              () -> {
+                start.await();
+                int reads = 0;
+                do {
+                  assertConsistentView();
+                  reads++;
+                } while (reloading.get());
+                return reads;
+              }));
+    }
+    Future<?> writer =
+        executor.submit(
+            () -> {
+              start.await();
+              try {
+                for (int i = 0; i < RELOADS; i++) {
+                  generation = generation == 2 ? 3 : 2;
+                  reload();
+                }
+              } finally {
+                reloading.set(false);
+              }
+              return null;
+            });
+
+    start.countDown();
+    writer.get(60, TimeUnit.SECONDS);
+    for (Future<Integer> reader : readers) {
+      assertThat(reader.get(60, TimeUnit.SECONDS)).isPositive();
+    }
+  }
+
+  // the clusters and environments of a tenant are read together and published as one snapshot
+  private void reload() {
+    manageDatabase.updateStaticDataForTenant(TENANT_ID);
+  }
+
+  private void assertConsistentView() {
+    // all parts of one snapshot belong to the same generation
+    MetadataSnapshot snapshot =
+        (MetadataSnapshot) ReflectionTestUtils.getField(manageDatabase, "metadata");
+    TenantMetadata tenant = snapshot.getTenant(TENANT_ID);
+    int snapshotGeneration = tenant.getKafkaClusters().size();
+    assertThat(snapshotGeneration).isBetween(2, 3);
+    assertThat(tenant.getAllClusters()).hasSize(snapshotGeneration);
+    assertThat(tenant.getEnvMap()).hasSize(snapshotGeneration);
+    assertThat(tenant.getEnvIds()).hasSize(snapshotGeneration);
+    assertThat(tenant.getAllowedEnvs(TEAM_ID)).hasSize(snapshotGeneration);
+    assertThat(snapshot.getEnvIdsPerTenant().get(TENANT_ID)).hasSize(snapshotGeneration);
+    assertThat(tenant.getTeamIds()).containsExactly(TEAM_ID);
+    assertThat(tenant.getUsersPerTeam().get(TEAM_ID)).hasSize(1);
+
+    assertThat(manageDatabase.getTenantMap()).containsExactly(Map.entry(TENANT_ID, "tenant"));
+    assertThat(manageDatabase.getTeamsForTenant(TENANT_ID)).containsExactly(TEAM_ID);
+
+    Map<Integer, KwClusters> clusters =
+        manageDatabase.getClusters(KafkaClustersType.KAFKA, TENANT_ID);
+    assertThat(clusters.size()).isBetween(2, 3);
+    assertThat(clusters.keySet()).containsAll(List.of(1, 2));
+    assertThat(manageDatabase.getClusters(KafkaClustersType.ALL, TENANT_ID).size()).isBetween(2, 3);
+
+    List<String> allowedEnvs = manageDatabase.getTeamsAndAllowedEnvs(TEAM_ID, TENANT_ID);
+    assertThat(allowedEnvs).isIn(List.of("1", "2"), List.of("1", "2", "3"));
+    assertThat(manageDatabase.getEnvsOfTenantsMap().get(TENANT_ID))
+        .isIn(List.of("1", "2"), List.of("1", "2", "3"));
+
+    UserIdentity userIdentity = manageDatabase.getUserIdentity("james");
+    assertThat(userIdentity).isNotNull();
+    assertThat(userIdentity.getPermissions())
+        .containsExactly(PermissionType.REQUEST_CREATE_TOPICS.name());
+    assertThat(manageDatabase.getUsersPerTeamAndTenant(TEAM_ID, TENANT_ID)).hasSize(1);
+  }
+
+  private static List<KwClusters> clusters(int count) {
+    return IntStream.rangeClosed(1, count)
+        .mapToObj(
+            clusterId -> {
+              KwClusters cluster = new KwClusters();
+              cluster.setClusterId(clusterId);
+              cluster.setTenantId(TENANT_ID);
+              return cluster;
+            })
+        .toList();
+  }
+
+  private static List<Env> envs(int count) {
+    return IntStream.rangeClosed(1, count)
+        .mapToObj(
+            envId -> {
+              Env env = new Env();
+              env.setId(String.valueOf(envId));
+              env.setTenantId(TENANT_ID);
+              env.setEnvExists("true");
+              return env;
+            })
+        .toList();
+  }
+}
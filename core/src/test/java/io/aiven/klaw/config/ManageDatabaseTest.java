@@ -7,14 +7,26 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.dao.KwRolesPermissions;
+import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.Team;
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.UserIdentity;
+import io.aiven.klaw.model.enums.ClusterStatus;
 import io.aiven.klaw.model.enums.EntityType;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RolesType;
+import io.aiven.klaw.service.interfaces.HAMessagingServiceI;
+import io.aiven.klaw.service.utils.CacheService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +43,7 @@ public class ManageDatabaseTest {
   public static final int TENANT_ID = 101;
   private ManageDatabase manageDatabase = new ManageDatabase();
   @Mock private HandleDbRequestsJdbc handleDbRequests;
+  @Mock private HAMessagingServiceI haMessagingService;
 
   @BeforeEach
   public void setUp() {
@@ -140,6 +153,163 @@ public class ManageDatabaseTest {
     assertThat(result.get(103).getTenantId()).isEqualTo(103);
   }
 
+  @Test
+  public void loadUsersForAllTenantsBuildsUserIdentities() {
+    UserInfo info = buildUserInfo();
+    info.setUsername("superadmin");
+    info.setTeamId(1001);
+    KwRolesPermissions rolesPermissions = new KwRolesPermissions();
+    rolesPermissions.setTenantId(TENANT_ID);
+    rolesPermissions.setRoleId(RolesType.SUPERADMIN.name());
+    rolesPermissions.setPermission(PermissionType.ALL_TEAMS_REPORTS.name());
+    loadTenant();
+    when(handleDbRequests.getRolesPermissions()).thenReturn(List.of(rolesPermissions));
+    when(handleDbRequests.getAllUsersInfo(TENANT_ID)).thenReturn(List.of(info));
+
+    manageDatabase.loadRolesPermissionsOneTenant(null, TENANT_ID);
+    manageDatabase.loadUsersForAllTenants();
+
+    UserIdentity userIdentity = manageDatabase.getUserIdentity("superadmin");
+    assertThat(userIdentity.getTenantId()).isEqualTo(TENANT_ID);
+    assertThat(userIdentity.getTeamId()).isEqualTo(1001);
+    assertThat(userIdentity.getRole()).isEqualTo(RolesType.SUPERADMIN.name());
+    assertThat(userIdentity.getPermissions())
+        .containsExactly(PermissionType.ALL_TEAMS_REPORTS.name());
+    assertThat(manageDatabase.getUserIdentity("unknown")).isNull();
+  }
+
+  @Test
+  public void loadTopicsForOneTopicName() {
+    Topic t = new Topic();
+    t.setTopicid(1);
+    t.setTopicname("FirstTopic");
+    t.setTenantId(TENANT_ID);
+    manageDatabase.addTopicToCache(TENANT_ID, t);
+    Topic updated = new Topic();
+    updated.setTopicid(2);
+    updated.setTopicname("FirstTopic");
+    updated.setTenantId(TENANT_ID);
+    when(handleDbRequests.getTopics("FirstTopic", TENANT_ID)).thenReturn(List.of(updated));
+
+    manageDatabase.loadTopicsForOneTopicName(TENANT_ID, "FirstTopic");
+
+    assertThat(manageDatabase.getTopicsForTenant(TENANT_ID)).containsExactly(updated);
+    verify(handleDbRequests, times(1)).getAllTopics(TENANT_ID);
+  }
+
+  @Test
+  public void loadOneUserReplacesCachedUser() {
+    UserInfo info = buildUserInfo();
+    info.setUsername("james");
+    info.setTeamId(1001);
+    UserInfo other = buildUserInfo();
+    other.setUsername("other");
+    other.setTeamId(1001);
+    loadTenant();
+    Team team = new Team();
+    team.setTeamId(1001);
+    when(handleDbRequests.getAllUsersInfo(TENANT_ID)).thenReturn(List.of(info, other));
+    when(handleDbRequests.getAllTeams(TENANT_ID)).thenReturn(List.of(team));
+    when(handleDbRequests.getAllUsersInfoForTeam(1001, TENANT_ID)).thenReturn(List.of(info, other));
+    manageDatabase.loadUsersForAllTenants();
+
+    UserInfo moved = buildUserInfo();
+    moved.setUsername("james");
+    moved.setTeamId(1002);
+    when(handleDbRequests.getUsersInfo("james")).thenReturn(moved);
+    manageDatabase.loadOneUser("james", TENANT_ID);
+
+    assertThat(manageDatabase.getUserIdentity("james").getTeamId()).isEqualTo(1002);
+    assertThat(manageDatabase.getUsersPerTeamAndTenant(1001, TENANT_ID)).containsExactly(other);
+    assertThat(manageDatabase.getUsersPerTeamAndTenant(1002, TENANT_ID)).containsExactly(moved);
+    assertThat(manageDatabase.selectAllCachedUserInfo()).containsExactly(moved, other);
+
+    when(handleDbRequests.getUsersInfo("james")).thenReturn(null);
+    manageDatabase.loadOneUser("james", TENANT_ID);
+
+    assertThat(manageDatabase.getUserIdentity("james")).isNull();
+    assertThat(manageDatabase.selectAllCachedUserInfo()).containsExactly(other);
+    verify(handleDbRequests, times(1)).getAllUsersInfo(TENANT_ID);
+  }
+
+  @Test
+  public void teamsAreAllowedOnEnvironmentsAddedAfterTheTeamsWereLoaded() {
+    loadTenant();
+    Team team = new Team();
+    team.setTeamId(1001);
+    team.setTeamname("Octopus");
+    team.setTenantId(TENANT_ID);
+    manageDatabase.loadTenantTeamsForOneTenant(List.of(team), TENANT_ID);
+    assertThat(manageDatabase.getTeamsAndAllowedEnvs(1001, TENANT_ID)).isEmpty();
+
+    Env env = new Env();
+    env.setId("1");
+    env.setType(KafkaClustersType.KAFKA.value);
+    env.setEnvExists("true");
+    when(handleDbRequests.getAllKafkaEnvs(TENANT_ID)).thenReturn(List.of(env));
+    manageDatabase.loadEnvsForOneTenant(TENANT_ID);
+
+    assertThat(manageDatabase.getTeamsAndAllowedEnvs(1001, TENANT_ID)).containsExactly("1");
+    assertThat(manageDatabase.getEnvsOfTenantsMap().get(TENANT_ID)).containsExactly("1");
+    assertThat(manageDatabase.getTeamsAndAllowedEnvs(1002, TENANT_ID)).isNull();
+  }
+
+  @Test
+  public void updateClusterStatusesPublishesTheCopies() {
+    for (String envCache :
+        List.of(
+            "kafkaEnvListPerTenant",
+            "schemaRegEnvListPerTenant",
+            "kafkaConnectEnvListPerTenant",
+            "allEnvListPerTenant")) {
+      ReflectionTestUtils.setField(
+          manageDatabase, envCache, new CacheService<Env>("environment", haMessagingService));
+    }
+    loadTenant();
+    KwClusters cluster = new KwClusters();
+    cluster.setClusterId(1);
+    manageDatabase.loadClustersForOneTenant(List.of(cluster), List.of(), List.of(), TENANT_ID);
+    Env env = new Env();
+    env.setId("1");
+    env.setClusterId(1);
+    env.setType(KafkaClustersType.KAFKA.value);
+    env.setEnvExists("true");
+    when(handleDbRequests.getAllEnvs(TENANT_ID)).thenReturn(List.of(env));
+    manageDatabase.loadEnvMapForOneTenant(TENANT_ID);
+    Map<Integer, KwClusters> previousClusters =
+        manageDatabase.getClusters(KafkaClustersType.KAFKA, TENANT_ID);
+
+    KwClusters probedCluster = new KwClusters();
+    probedCluster.setClusterId(1);
+    probedCluster.setClusterStatus(ClusterStatus.ONLINE);
+    Env probedEnv = new Env();
+    probedEnv.setId("1");
+    probedEnv.setClusterId(1);
+    probedEnv.setType(KafkaClustersType.KAFKA.value);
+    probedEnv.setEnvStatus(ClusterStatus.ONLINE);
+    manageDatabase.updateClusterStatuses(
+        TENANT_ID, List.of(probedCluster), List.of(probedEnv), true);
+
+    assertThat(manageDatabase.getClusters(KafkaClustersType.KAFKA, TENANT_ID).get(1))
+        .isSameAs(probedCluster);
+    assertThat(manageDatabase.getClusters(KafkaClustersType.ALL, TENANT_ID).get(1))
+        .isSameAs(probedCluster);
+    assertThat(manageDatabase.getEnvMap(TENANT_ID).get("1")).isSameAs(probedEnv);
+    assertThat(manageDatabase.getKafkaEnvList(TENANT_ID)).containsExactly(probedEnv);
+    // readers of the previous snapshot keep the unchanged cluster
+    assertThat(previousClusters.get(1)).isSameAs(cluster);
+    assertThat(cluster.getClusterStatus()).isNull();
+  }
+
+  private void loadTenant() {
+    KwTenants tenant = new KwTenants();
+    tenant.setTenantId(TENANT_ID);
+    tenant.setTenantName("tenant");
+    when(handleDbRequests.getMyTenants(TENANT_ID)).thenReturn(Optional.of(tenant));
+    manageDatabase.loadOneTenant(TENANT_ID);
+    assertThat(manageDatabase.getTenantMap()).containsEntry(TENANT_ID, "tenant");
+  }
+
   private List<Topic> getTopicFromCache(int tenantId, int topicId) {
     return manageDatabase.getTopicsForTenant(tenantId).stream()
         .filter(entry -> entry.getTopicid().equals(topicId))
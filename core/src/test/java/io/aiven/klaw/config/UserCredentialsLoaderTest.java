@@ -0,0 +1,87 @@
+package io.aiven.klaw.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.aiven.klaw.dao.UserInfo;
+import java.util.List;
+import java.util.Properties;
+import org.jasypt.util.text.BasicTextEncryptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+public class UserCredentialsLoaderTest {
+
+  private static final String SECRET_KEY = "kw2021secretkey";
+
+  @Test
+  public void parallelHashesAllPasswords() throws Exception {
+    UserCredentialsLoader loader =
+        new UserCredentialsLoader(SECRET_KEY, UserCredentialsLoader.Mode.PARALLEL, 2);
+
+    Properties credentials =
+        loader.loadUsers(
+            List.of(
+                user("james", encrypt("pwd1")),
+                user("jackie", encrypt("pwd2")),
+                user("nopwd", null),
+                user("corrupt", "not encrypted")));
+
+    assertThat(credentials.stringPropertyNames()).containsExactlyInAnyOrder("james", "jackie");
+    String jamesCredentials = credentials.getProperty("james");
+    assertThat(jamesCredentials).startsWith("{bcrypt}").endsWith(",USER,enabled");
+    assertThat(
+            loader
+                .passwordEncoder()
+                .matches("pwd1", jamesCredentials.substring(0, jamesCredentials.indexOf(','))))
+        .isTrue();
+  }
+
+  @Test
+  public void lazyHashesThePasswordOnFirstLogin() throws Exception {
+    UserCredentialsLoader loader =
+        new UserCredentialsLoader(SECRET_KEY, UserCredentialsLoader.Mode.LAZY, 0);
+    Properties credentials =
+        loader.loadUsers(List.of(user("james", encrypt("pwd1")), user("nopwd", "")));
+    assertThat(credentials.stringPropertyNames()).containsExactly("james");
+    assertThat(credentials.getProperty("james")).startsWith("{jasypt}");
+
+    InMemoryUserDetailsManager userDetailsManager = new InMemoryUserDetailsManager(credentials);
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider(loader.passwordEncoder());
+    provider.setUserDetailsService(userDetailsManager);
+    provider.setUserDetailsPasswordService(userDetailsManager);
+
+    assertThatThrownBy(
+            () -> provider.authenticate(new UsernamePasswordAuthenticationToken("james", "wrong")))
+        .isInstanceOf(BadCredentialsException.class);
+    assertThat(userDetailsManager.loadUserByUsername("james").getPassword()).startsWith("{jasypt}");
+
+    Authentication authentication =
+        provider.authenticate(new UsernamePasswordAuthenticationToken("james", "pwd1"));
+    assertThat(authentication.isAuthenticated()).isTrue();
+    assertThat(userDetailsManager.loadUserByUsername("james").getPassword()).startsWith("{bcrypt}");
+    assertThat(
+            provider
+                .authenticate(new UsernamePasswordAuthenticationToken("james", "pwd1"))
+                .isAuthenticated())
+        .isTrue();
+  }
+
+  private static UserInfo user(String username, String encryptedPwd) {
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUsername(username);
+    userInfo.setRole("USER");
+    userInfo.setPwd(encryptedPwd);
+    return userInfo;
+  }
+
+  private static String encrypt(String pwd) {
+    BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
+    textEncryptor.setPasswordCharArray(SECRET_KEY.toCharArray());
+    return textEncryptor.encrypt(pwd);
+  }
+}
@@ -45,4 +45,18 @@ public class AnalyticsControllerTest {
     verify(chartsProcessor, times(1))
         .getActivityLogForTeamOverview("true", Integer.parseInt(numberOfDays));
   }
+
+  @ParameterizedTest
+  @CsvSource({"-1", "0", "91"})
+  public void requestKwReportThrowsException(String numberOfDays) {
+    assertThatThrownBy(() -> controller.requestKwReport(Integer.parseInt(numberOfDays)))
+        .isInstanceOf(KlawBadRequestException.class);
+    verifyNoInteractions(chartsProcessor);
+  }
+
+  @Test
+  public void requestKwReport() throws KlawBadRequestException {
+    controller.requestKwReport(7);
+    verify(chartsProcessor, times(1)).requestReport(7);
+  }
 }
@@ -42,6 +42,8 @@ class RequestControllerTest {
 
   @Mock private AclControllerService aclControllerService;
 
+  @Mock private ApprovalPipelineService approvalPipelineService;
+
   private RequestService service;
 
   private RequestController controller;
@@ -56,6 +58,7 @@ class RequestControllerTest {
         service, "kafkaConnectControllerService", kafkaConnectControllerService);
     ReflectionTestUtils.setField(
         service, "schemaRegistryControllerService", schemaRegistryControllerService);
+    ReflectionTestUtils.setField(service, "approvalPipelineService", approvalPipelineService);
 
     ReflectionTestUtils.setField(controller, "service", service);
   }
@@ -791,6 +794,24 @@ class RequestControllerTest {
     verify(topicControllerService, times(0)).deleteTopicRequests(anyString());
   }
 
+  @Order(54)
+  @Test
+  public void givenAsyncApprovalsQueueRequestsInsteadOfApproving() throws KlawException {
+    when(approvalPipelineService.isEnabled(RequestEntityType.TOPIC)).thenReturn(true);
+    when(approvalPipelineService.queueApprovals(
+            eq(List.of("1001", "2001")), eq(RequestEntityType.TOPIC)))
+        .thenReturn(
+            List.of(
+                getApiResponse(ApiResultStatus.SUCCESS, true),
+                getApiResponse(ApiResultStatus.SUCCESS, true)));
+    ResponseEntity<List<ApiResponse>> result =
+        controller.approveRequest(
+            createRequestVerdict(RequestEntityType.TOPIC, null, "1001", "2001"));
+    assertThat(result.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(200));
+    assertThat(result.getBody()).hasSize(2);
+    verify(topicControllerService, times(0)).approveTopicRequests(anyString());
+  }
+
   private RequestVerdict createRequestVerdict(
       RequestEntityType type, String reason, String... reqIds) {
     RequestVerdict verdict = new RequestVerdict();
@@ -16,6 +16,7 @@ import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.RequestMode;
 import io.aiven.klaw.model.requests.ResetEntityCache;
 import io.aiven.klaw.model.response.AuthenticationInfo;
+import io.aiven.klaw.model.response.PendingApprovalsCount;
 import io.aiven.klaw.model.response.RequestsCountOverview;
 import io.aiven.klaw.service.RequestStatisticsService;
 import io.aiven.klaw.service.UtilControllerService;
@@ -92,6 +93,25 @@ public class UtilControllerTest {
         .andExpect(jsonPath("$.requestEntityStatistics", hasSize(5)));
   }
 
+  @Test
+  @Order(4)
+  public void getPendingApprovalsCount() throws Exception {
+    PendingApprovalsCount pendingApprovalsCount = new PendingApprovalsCount();
+    pendingApprovalsCount.setTopics(3);
+    pendingApprovalsCount.setAcls(2);
+    when(utilControllerService.getPendingApprovalsCount()).thenReturn(pendingApprovalsCount);
+
+    mvc.perform(
+            MockMvcRequestBuilders.get("/requests/pendingApprovals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding(StandardCharsets.UTF_8)
+                .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.topics", is(3)))
+        .andExpect(jsonPath("$.acls", is(2)))
+        .andExpect(jsonPath("$.schemas", is(0)));
+  }
+
   @Test
   public void resetMemoryCache() throws Exception {
     ResetEntityCache resetEntityCache = utilMethods.getResetEntityCache();
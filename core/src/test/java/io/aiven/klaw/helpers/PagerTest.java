@@ -2,9 +2,11 @@ package io.aiven.klaw.helpers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -30,6 +32,42 @@ public class PagerTest {
                 pageInfoTestSpec.biFunction));
   }
 
+  @Test
+  void testGetItemsPage() {
+    List<Integer> requestedPages = new ArrayList<>();
+    List<String> items =
+        Pager.getItemsPage(
+            ">",
+            "1",
+            5,
+            12,
+            requestPageNo -> {
+              requestedPages.add(requestPageNo);
+              return List.of("6", "7", "8", "9", "10");
+            },
+            (pageContext, s) ->
+                s + "/" + pageContext.getPageNo() + "/" + pageContext.getTotalPages());
+
+    assertThat(requestedPages).containsExactly(2);
+    assertThat(items).containsExactly("6/2/3", "7/2/3", "8/2/3", "9/2/3", "10/2/3");
+  }
+
+  @Test
+  void testGetItemsPageOutOfRange() {
+    List<String> items =
+        Pager.<String, String>getItemsPage(
+            "4",
+            "",
+            5,
+            12,
+            requestPageNo -> {
+              throw new IllegalStateException("page 4 does not exist");
+            },
+            (pageContext, s) -> s);
+
+    assertThat(items).isEmpty();
+  }
+
   static Stream<PageInfoTestSpec> pagerInfoProvider() {
     return Stream.of(
         PageInfoTestSpec.of(
@@ -1,5 +1,6 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
+import static io.aiven.klaw.helpers.KwConstants.APPROVER_SUBSCRIPTIONS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.Lists;
@@ -11,6 +12,7 @@ import io.aiven.klaw.model.enums.*;
 import io.aiven.klaw.repository.*;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -804,6 +806,53 @@ public class AclRequestsIntegrationTest {
     assertThat(requests).hasSize(Integer.valueOf(20));
   }
 
+  @Order(29)
+  @ParameterizedTest
+  @CsvSource({
+    "James,APPROVER_SUBSCRIPTIONS,false",
+    "James,REQUESTOR_SUBSCRIPTIONS,false",
+    "James,APPROVER_SUBSCRIPTIONS,true",
+    "Jackie,APPROVER_SUBSCRIPTIONS,false",
+    "Jackie,APPROVER_SUBSCRIPTIONS,true",
+    "John,APPROVER_SUBSCRIPTIONS,false"
+  })
+  public void countAclRequestsToApprove_MatchesApprovalList(
+      String requestor, String role, boolean showRequestsOfAllTeams) {
+    int tenantId = "John".equals(requestor) ? 103 : 101;
+    List<AclRequests> requests =
+        selectDataJdbc.selectFilteredAclRequests(
+            true,
+            requestor,
+            role,
+            RequestStatus.CREATED.value,
+            null,
+            showRequestsOfAllTeams,
+            null,
+            null,
+            null,
+            null,
+            false,
+            tenantId);
+
+    assertThat(
+            selectDataJdbc.countAclRequestsToApprove(
+                requestor, role, showRequestsOfAllTeams, Set.of("dev", "test"), tenantId))
+        .isEqualTo(requests.size());
+  }
+
+  @Order(30)
+  @Test
+  public void countAclRequestsToApprove_OnlyAllowedEnvironments() {
+    assertThat(
+            selectDataJdbc.countAclRequestsToApprove(
+                "James", APPROVER_SUBSCRIPTIONS, true, Set.of("test"), 101))
+        .isEqualTo(1);
+    assertThat(
+            selectDataJdbc.countAclRequestsToApprove(
+                "James", APPROVER_SUBSCRIPTIONS, true, Set.of(), 101))
+        .isZero();
+  }
+
   private void generateData(
       int number,
       int tenantId,
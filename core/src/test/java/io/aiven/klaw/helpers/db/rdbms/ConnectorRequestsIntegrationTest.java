@@ -10,13 +10,17 @@ import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.repository.KwKafkaConnectorRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
@@ -176,6 +180,29 @@ public class ConnectorRequestsIntegrationTest {
     assertThat(operationTypeCount.get(RequestOperationType.CREATE.value)).isEqualTo(0L);
   }
 
+  @ParameterizedTest
+  @Order(4)
+  @CsvSource({"James,false", "James,true", "John,false", "John,true"})
+  public void countConnectorRequestsToApprove_MatchesApprovalList(
+      String requestor, boolean showRequestsOfAllTeams) {
+    List<KafkaConnectorRequest> requests =
+        selectDataJdbc.selectFilteredKafkaConnectorRequests(
+            true,
+            requestor,
+            RequestStatus.CREATED.value,
+            null,
+            showRequestsOfAllTeams,
+            101,
+            null,
+            null,
+            false);
+
+    assertThat(
+            selectDataJdbc.countConnectorRequestsToApprove(
+                requestor, showRequestsOfAllTeams, Set.of("dev"), 101))
+        .isEqualTo(requests.size());
+  }
+
   private void generateData(
       int number,
       int teamId,
@@ -196,6 +223,7 @@ public class ConnectorRequestsIntegrationTest {
       connectorRequest.setRequestOperationType(requestOperationType.value);
       connectorRequest.setConnectorId(topicIdentifier + i);
       connectorRequest.setConnectorConfig("{config}");
+      connectorRequest.setRequestor("Jackie");
 
       entityManager.persistAndFlush(connectorRequest);
     }
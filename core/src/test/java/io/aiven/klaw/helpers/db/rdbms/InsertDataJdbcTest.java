@@ -1,18 +1,26 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.dao.*;
+import io.aiven.klaw.helpers.KwConstants;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.repository.AclRepo;
 import io.aiven.klaw.repository.AclRequestsRepo;
 import io.aiven.klaw.repository.ActivityLogRepo;
 import io.aiven.klaw.repository.EnvRepo;
 import io.aiven.klaw.repository.KwEntitySequenceRepo;
+import io.aiven.klaw.repository.KwMetricsRepo;
+import io.aiven.klaw.repository.KwMetricsRollupRepo;
 import io.aiven.klaw.repository.MessageSchemaRepo;
 import io.aiven.klaw.repository.RegisterInfoRepo;
 import io.aiven.klaw.repository.SchemaRequestRepo;
@@ -24,6 +32,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +41,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -64,6 +76,12 @@ public class InsertDataJdbcTest {
 
   @Mock SelectDataJdbc jdbcSelectHelper;
 
+  @Mock private KwMetricsRepo metricsRepo;
+
+  @Mock private KwMetricsRollupRepo metricsRollupRepo;
+
+  @Captor private ArgumentCaptor<List<KwMetricsRollup>> rollupsCaptor;
+
   private InsertDataJdbc insertData;
 
   private UtilMethods utilMethods;
@@ -85,6 +103,8 @@ public class InsertDataJdbcTest {
     ReflectionTestUtils.setField(insertData, "envRepo", envRepo);
     ReflectionTestUtils.setField(insertData, "kwEntitySequenceRepo", kwEntitySequenceRepo);
     ReflectionTestUtils.setField(insertData, "registerInfoRepo", registerInfoRepo);
+    ReflectionTestUtils.setField(insertData, "metricsRepo", metricsRepo);
+    ReflectionTestUtils.setField(insertData, "metricsRollupRepo", metricsRollupRepo);
   }
 
   @Test
@@ -108,6 +128,262 @@ public class InsertDataJdbcTest {
     assertThat(result).isEqualTo(ApiResultStatus.SUCCESS.value);
   }
 
+  @Test
+  public void insertIntoTopicSOTReassignsClashingIdsFromOneBlock() {
+    List<Topic> topics = generateTopics(5, false);
+    when(topicRepo.findExistingTopicIds(eq(101), any())).thenReturn(List.of(0, 1, 2));
+    when(topicRepo.getNextTopicRequestId(anyInt())).thenReturn(31);
+
+    insertData.insertIntoTopicSOT(topics);
+
+    assertThat(topics).extracting(Topic::getTopicid).containsExactly(32, 33, 34, 3, 4);
+    verify(topicRepo, times(1)).getNextTopicRequestId(101);
+    verify(kwEntitySequenceRepo, times(1)).save(any(KwEntitySequence.class));
+    verify(topicRepo, times(1)).saveAll(topics);
+  }
+
+  @Test
+  public void reserveIdBlockStartsAfterReservedSequence() {
+    KwEntitySequence kwEntitySequence = new KwEntitySequence();
+    kwEntitySequence.setEntityName(InsertDataJdbc.ACL_ID_SEQUENCE);
+    kwEntitySequence.setTenantId(101);
+    kwEntitySequence.setSeqId(2001);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(InsertDataJdbc.ACL_ID_SEQUENCE, 101))
+        .thenReturn(List.of(kwEntitySequence));
+
+    assertThat(insertData.reserveIdBlock(InsertDataJdbc.ACL_ID_SEQUENCE, 101, 10, 1500))
+        .isEqualTo(2001);
+    assertThat(insertData.reserveIdBlock(InsertDataJdbc.TOPIC_ID_SEQUENCE, 101, 10, null))
+        .isEqualTo(InsertDataJdbc.DEFAULT_REQ_ID_NUMBER);
+  }
+
+  @Test
+  public void getNextMetadataUpdateSequence() {
+    KwEntitySequence kwEntitySequence = new KwEntitySequence();
+    kwEntitySequence.setEntityName(InsertDataJdbc.METADATA_UPDATES_SEQUENCE);
+    kwEntitySequence.setTenantId(101);
+    kwEntitySequence.setSeqId(8);
+    when(kwEntitySequenceRepo.incrementSeqId(InsertDataJdbc.METADATA_UPDATES_SEQUENCE, 101))
+        .thenReturn(1);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            InsertDataJdbc.METADATA_UPDATES_SEQUENCE, 101))
+        .thenReturn(List.of(kwEntitySequence));
+
+    assertThat(insertData.getNextMetadataUpdateSequence(101)).isEqualTo(8);
+  }
+
+  @Test
+  public void getNextMetadataUpdateSequenceCreatesSequence() {
+    when(kwEntitySequenceRepo.incrementSeqId(InsertDataJdbc.METADATA_UPDATES_SEQUENCE, 101))
+        .thenReturn(0);
+
+    assertThat(insertData.getNextMetadataUpdateSequence(101)).isEqualTo(1);
+    verify(kwEntitySequenceRepo, times(1)).save(any(KwEntitySequence.class));
+  }
+
+  @Test
+  public void insertMetricsReservesIdBlockAndRollsUp() {
+    long minute = 1_700_000_040_000L;
+    KwMetricsRollup existingHour = new KwMetricsRollup();
+    existingHour.setEnv("1");
+    existingHour.setMetricsType("kafka.server:type=BrokerTopicMetrics");
+    existingHour.setMetricsName("name=MessagesInPerSec");
+    existingHour.setResolution(MetricsResolution.HOUR.value);
+    existingHour.setBucketStart(MetricsResolution.HOUR.bucketStart(minute));
+    existingHour.setSamples(2);
+    existingHour.setMinValue(5.0);
+    existingHour.setMaxValue(8.0);
+    existingHour.setSumValue(13.0);
+    existingHour.setLastValue(8.0);
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(false);
+    when(metricsRepo.getNextId()).thenReturn(1500);
+    when(metricsRollupRepo.findAllById(any())).thenReturn(List.of(existingHour));
+
+    List<KwMetrics> samples =
+        List.of(metricsSample(minute, "10"), metricsSample(minute + 15_000, "12"));
+    assertThat(insertData.insertMetrics(samples)).isEqualTo(ApiResultStatus.SUCCESS.value);
+
+    assertThat(samples).extracting(KwMetrics::getMetricsId).containsExactly(1501, 1502);
+    verify(metricsRepo).saveAll(samples);
+    verify(metricsRollupRepo).saveAll(rollupsCaptor.capture());
+    Map<String, KwMetricsRollup> rollups =
+        rollupsCaptor.getValue().stream()
+            .collect(Collectors.toMap(KwMetricsRollup::getResolution, Function.identity()));
+    assertThat(rollups).hasSize(3);
+    KwMetricsRollup minuteRollup = rollups.get(MetricsResolution.MINUTE.value);
+    assertThat(minuteRollup.getBucketStart()).isEqualTo(minute);
+    assertThat(minuteRollup.getSamples()).isEqualTo(2);
+    assertThat(minuteRollup.getMinValue()).isEqualTo(10.0);
+    assertThat(minuteRollup.getMaxValue()).isEqualTo(12.0);
+    assertThat(minuteRollup.getLastValue()).isEqualTo(12.0);
+    KwMetricsRollup hourRollup = rollups.get(MetricsResolution.HOUR.value);
+    assertThat(hourRollup).isSameAs(existingHour);
+    assertThat(hourRollup.getSamples()).isEqualTo(4);
+    assertThat(hourRollup.getMinValue()).isEqualTo(5.0);
+    assertThat(hourRollup.getMaxValue()).isEqualTo(12.0);
+    assertThat(hourRollup.getSumValue()).isEqualTo(35.0);
+  }
+
+  @Test
+  public void insertMetricsFirstBatchLeavesStoredSamplesToBackfill() {
+    long minute = 1_700_000_040_000L;
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(false);
+    when(metricsRepo.getNextId()).thenReturn(7);
+
+    insertData.insertMetrics(List.of(metricsSample(minute, "10")));
+
+    ArgumentCaptor<KwEntitySequence> sequences = ArgumentCaptor.forClass(KwEntitySequence.class);
+    verify(kwEntitySequenceRepo, times(2)).save(sequences.capture());
+    assertThat(sequences.getAllValues())
+        .extracting(KwEntitySequence::getEntityName, KwEntitySequence::getSeqId)
+        .containsExactly(
+            tuple(InsertDataJdbc.METRICS_SEQUENCE, 9),
+            tuple(InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, 7));
+    verify(metricsRepo, never()).findSamplesUpToId(any(), any());
+  }
+
+  @Test
+  public void rollupStoredMetricsRollsUpNewestChunk() {
+    long minute = 1_700_000_040_000L;
+    KwMetricsRollup existingMinute = new KwMetricsRollup();
+    existingMinute.setEnv("1");
+    existingMinute.setMetricsType("kafka.server:type=BrokerTopicMetrics");
+    existingMinute.setMetricsName("name=MessagesInPerSec");
+    existingMinute.setResolution(MetricsResolution.MINUTE.value);
+    existingMinute.setBucketStart(minute);
+    existingMinute.setSamples(1);
+    existingMinute.setMinValue(12.0);
+    existingMinute.setMaxValue(12.0);
+    existingMinute.setSumValue(12.0);
+    existingMinute.setLastValue(12.0);
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(true);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(List.of(backfillSequence(7)));
+    when(metricsRepo.findSamplesUpToId(7, 2))
+        .thenReturn(List.of(storedSample(7, minute + 30_000, "11"), storedSample(6, minute, "9")));
+    when(kwEntitySequenceRepo.updateSeqId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID, 7, 5))
+        .thenReturn(1);
+    when(metricsRollupRepo.findAllById(any())).thenReturn(List.of(existingMinute));
+
+    assertThat(insertData.rollupStoredMetrics(2)).isTrue();
+
+    verify(metricsRollupRepo).saveAll(rollupsCaptor.capture());
+    Map<String, KwMetricsRollup> rollups =
+        rollupsCaptor.getValue().stream()
+            .collect(Collectors.toMap(KwMetricsRollup::getResolution, Function.identity()));
+    // the bucket already holds a newer sample than the stored ones
+    KwMetricsRollup minuteRollup = rollups.get(MetricsResolution.MINUTE.value);
+    assertThat(minuteRollup.getSamples()).isEqualTo(3);
+    assertThat(minuteRollup.getSumValue()).isEqualTo(32.0);
+    assertThat(minuteRollup.getLastValue()).isEqualTo(12.0);
+    assertThat(rollups.get(MetricsResolution.HOUR.value).getLastValue()).isEqualTo(11.0);
+  }
+
+  @Test
+  public void rollupStoredMetricsFinishesWithLastChunk() {
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(true);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(List.of(backfillSequence(5)));
+    when(metricsRepo.findSamplesUpToId(5, 2))
+        .thenReturn(List.<Object[]>of(storedSample(5, 1_700_000_040_000L, "8")));
+    when(kwEntitySequenceRepo.updateSeqId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID, 5, 0))
+        .thenReturn(1);
+
+    assertThat(insertData.rollupStoredMetrics(2)).isFalse();
+    verify(metricsRollupRepo).saveAll(any());
+  }
+
+  @Test
+  public void rollupStoredMetricsSkipsChunkMovedByAnotherInstance() {
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(true);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(List.of(backfillSequence(5)));
+    when(metricsRepo.findSamplesUpToId(5, 2))
+        .thenReturn(List.<Object[]>of(storedSample(5, 1_700_000_040_000L, "8")));
+    when(kwEntitySequenceRepo.updateSeqId(
+            InsertDataJdbc.METRICS_BACKFILL_SEQUENCE, KwConstants.DEFAULT_TENANT_ID, 5, 0))
+        .thenReturn(0);
+
+    assertThat(insertData.rollupStoredMetrics(2)).isFalse();
+    verify(metricsRollupRepo, never()).saveAll(any());
+  }
+
+  @Test
+  public void rollupStoredMetricsWithoutStoredSamples() {
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(false);
+    when(metricsRepo.getNextId()).thenReturn(null);
+
+    assertThat(insertData.rollupStoredMetrics(2)).isFalse();
+    verify(metricsRepo, never()).findSamplesUpToId(any(), any());
+  }
+
+  private static KwEntitySequence backfillSequence(int seqId) {
+    KwEntitySequence kwEntitySequence = new KwEntitySequence();
+    kwEntitySequence.setEntityName(InsertDataJdbc.METRICS_BACKFILL_SEQUENCE);
+    kwEntitySequence.setTenantId(KwConstants.DEFAULT_TENANT_ID);
+    kwEntitySequence.setSeqId(seqId);
+    return kwEntitySequence;
+  }
+
+  private static Object[] storedSample(int metricsId, long metricsTime, String value) {
+    return new Object[] {
+      metricsId,
+      String.valueOf(metricsTime),
+      value,
+      "1",
+      "kafka.server:type=BrokerTopicMetrics",
+      "name=MessagesInPerSec"
+    };
+  }
+
+  @Test
+  public void insertMetricsUsesExistingSequence() {
+    KwEntitySequence kwEntitySequence = new KwEntitySequence();
+    kwEntitySequence.setEntityName(InsertDataJdbc.METRICS_SEQUENCE);
+    kwEntitySequence.setTenantId(KwConstants.DEFAULT_TENANT_ID);
+    kwEntitySequence.setSeqId(2000);
+    when(kwEntitySequenceRepo.existsByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(true);
+    when(kwEntitySequenceRepo.findAllByEntityNameAndTenantId(
+            InsertDataJdbc.METRICS_SEQUENCE, KwConstants.DEFAULT_TENANT_ID))
+        .thenReturn(List.of(kwEntitySequence));
+
+    KwMetrics sample = metricsSample(1_700_000_040_000L, "not a number");
+    insertData.insertMetrics(List.of(sample));
+
+    assertThat(sample.getMetricsId()).isEqualTo(2000);
+    verify(metricsRepo, times(0)).getNextId();
+    verify(metricsRollupRepo, times(0)).saveAll(any());
+  }
+
+  private static KwMetrics metricsSample(long metricsTime, String value) {
+    return KwMetrics.builder()
+        .metricsTime(String.valueOf(metricsTime))
+        .env("1")
+        .metricsType("kafka.server:type=BrokerTopicMetrics")
+        .metricsName("name=MessagesInPerSec")
+        .metricsAttributes(value)
+        .build();
+  }
+
   @Test
   public void insertIntoRequestAcl() {
     when(jdbcSelectHelper.selectUserInfo("uiuser1")).thenReturn(utilMethods.getUserInfoMockDao());
@@ -201,7 +477,8 @@ public class InsertDataJdbcTest {
   @ParameterizedTest
   @MethodSource
   public void insertIntoTopicSOTAndReturnTopics(List<Topic> topics, List<Topic> existingIds) {
-    when(topicRepo.findAllById(any())).thenReturn(existingIds);
+    when(topicRepo.findExistingTopicIds(anyInt(), any()))
+        .thenReturn(existingIds.stream().map(Topic::getTopicid).toList());
     when(topicRepo.getNextTopicRequestId(anyInt())).thenReturn(31);
     CRUDResponse<Topic> result = insertData.insertIntoTopicSOT(topics);
     assertThat(result.getResultStatus()).isEqualTo(ApiResultStatus.SUCCESS.value);
@@ -1,6 +1,7 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.dao.SchemaRequest;
@@ -11,8 +12,12 @@ import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.repository.SchemaRequestRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -727,6 +732,70 @@ public class SchemaRequestsIntegrationTest {
     assertThat(james).hasSize(Integer.valueOf(7));
   }
 
+  @ParameterizedTest
+  @Order(30)
+  @CsvSource({"James,false", "James,true", "Jackie,false", "Jackie,true"})
+  public void countSchemaRequestsToApprove_MatchesApprovalList(
+      String requestor, boolean showRequestsOfAllTeams) {
+    List<SchemaRequest> requests =
+        selectDataJdbc.selectFilteredSchemaRequests(
+            true,
+            requestor,
+            101,
+            null,
+            null,
+            null,
+            RequestStatus.CREATED.value,
+            null,
+            showRequestsOfAllTeams,
+            false);
+
+    assertThat(
+            selectDataJdbc.countSchemaRequestsToApprove(
+                requestor, showRequestsOfAllTeams, Set.of("dev", "test"), 101))
+        .isEqualTo(requests.size());
+  }
+
+  @Test
+  @Order(31)
+  public void getSchemaRequestsPage_pagesInIdOrder() {
+    List<SchemaRequest> pagedRequests = new ArrayList<>();
+    List<SchemaRequest> page;
+    int pageNo = 0;
+    do {
+      page = selectDataJdbc.getSchemaRequestsPage(null, pageNo++, 10);
+      pagedRequests.addAll(page);
+    } while (page.size() == 10);
+
+    List<SchemaRequest> allRequests = selectDataJdbc.getAllSchemaRequests();
+    allRequests.sort(
+        Comparator.comparing(SchemaRequest::getTenantId).thenComparing(SchemaRequest::getReq_no));
+    assertThat(pageNo).isEqualTo(3);
+    assertThat(pagedRequests)
+        .extracting(SchemaRequest::getTenantId, SchemaRequest::getReq_no)
+        .containsExactlyElementsOf(
+            allRequests.stream().map(req -> tuple(req.getTenantId(), req.getReq_no())).toList());
+  }
+
+  @Test
+  @Order(32)
+  public void getSchemaRequestsPage_onlyChangedSince() {
+    Timestamp lastExport = new Timestamp(System.currentTimeMillis() - 60_000);
+    for (SchemaRequest schemaRequest : schemaRequestRepo.findAll()) {
+      schemaRequest.setRequesttime(new Timestamp(lastExport.getTime() - 60_000));
+      if (schemaRequest.getReq_no() == 100) {
+        schemaRequest.setRequesttime(new Timestamp(System.currentTimeMillis()));
+      } else if (schemaRequest.getReq_no() == 200) {
+        schemaRequest.setApprovingtime(new Timestamp(System.currentTimeMillis()));
+      }
+      entityManager.persistAndFlush(schemaRequest);
+    }
+
+    assertThat(selectDataJdbc.getSchemaRequestsPage(lastExport, 0, 10))
+        .extracting(SchemaRequest::getReq_no)
+        .containsExactly(100, 200);
+  }
+
   private void generateData(
       int number,
       int teamId,
@@ -0,0 +1,114 @@
+package io.aiven.klaw.helpers.db.rdbms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.dao.TopicID;
+import io.aiven.klaw.repository.KwEntitySequenceRepo;
+import io.aiven.klaw.repository.TopicRepo;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures rows/sec of writing topics to the source of truth table on H2, comparing the batched
+ * insertIntoTopicSOT with the previous implementation, which looked up every new topic id by
+ * primary key and saved row by row.
+ *
+ * <p>Not picked up by surefire, run with {@code mvn test -Dtest=SotBulkInsertBenchmark
+ * -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+public class SotBulkInsertBenchmark {
+
+  private static final int TENANT_ID = 101;
+  private static final int WARM_UP_TENANT_ID = 102;
+  private static final int WARM_UP_ROWS = 5_000;
+
+  @Autowired TestEntityManager entityManager;
+  @Autowired TopicRepo topicRepo;
+  @Autowired KwEntitySequenceRepo kwEntitySequenceRepo;
+
+  private InsertDataJdbc insertDataJdbc;
+
+  @BeforeEach
+  public void setUp() {
+    insertDataJdbc = new InsertDataJdbc();
+    ReflectionTestUtils.setField(insertDataJdbc, "topicRepo", topicRepo);
+    ReflectionTestUtils.setField(insertDataJdbc, "kwEntitySequenceRepo", kwEntitySequenceRepo);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1_000, 10_000, 100_000})
+  public void batchedInsert(int rows) {
+    insertDataJdbc.insertIntoTopicSOT(generateTopics(WARM_UP_TENANT_ID, WARM_UP_ROWS));
+    entityManager.flush();
+    entityManager.clear();
+    List<Topic> topics = generateTopics(TENANT_ID, rows);
+
+    long start = System.nanoTime();
+    insertDataJdbc.insertIntoTopicSOT(topics);
+    entityManager.flush();
+    report("batched", rows, System.nanoTime() - start);
+
+    entityManager.clear();
+    assertThat(topicRepo.findAllByTenantId(TENANT_ID)).hasSize(rows);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1_000, 10_000, 100_000})
+  public void rowByRowInsert(int rows) {
+    insertRowByRow(generateTopics(WARM_UP_TENANT_ID, WARM_UP_ROWS));
+    entityManager.flush();
+    entityManager.clear();
+    List<Topic> topics = generateTopics(TENANT_ID, rows);
+
+    long start = System.nanoTime();
+    insertRowByRow(topics);
+    entityManager.flush();
+    report("row by row", rows, System.nanoTime() - start);
+
+    entityManager.clear();
+    assertThat(topicRepo.findAllByTenantId(TENANT_ID)).hasSize(rows);
+  }
+
+  private void insertRowByRow(List<Topic> topics) {
+    topicRepo.findAllById(
+        topics.stream().map(t -> new TopicID(t.getTopicid(), t.getTenantId())).toList());
+    for (Topic topic : topics) {
+      topicRepo.save(topic);
+    }
+  }
+
+  private static void report(String mode, int rows, long elapsedNanos) {
+    System.out.printf(
+        "%s insert of %d topics: %d ms, %.0f rows/sec%n",
+        mode, rows, elapsedNanos / 1_000_000, rows / (elapsedNanos / 1_000_000_000.0));
+  }
+
+  private static List<Topic> generateTopics(int tenantId, int rows) {
+    List<Topic> topics = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      Topic topic = new Topic();
+      topic.setTopicid(InsertDataJdbc.DEFAULT_REQ_ID_NUMBER + i);
+      topic.setTopicname("topic" + i);
+      topic.setEnvironment("1");
+      topic.setTeamId(1001 + i % 10);
+      topic.setTenantId(tenantId);
+      topic.setNoOfPartitions(3);
+      topic.setNoOfReplicas("2");
+      topic.setExistingTopic(false);
+      topics.add(topic);
+    }
+    return topics;
+  }
+}
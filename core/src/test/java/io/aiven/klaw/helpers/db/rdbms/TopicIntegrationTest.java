@@ -234,6 +234,51 @@ public class TopicIntegrationTest {
     assertThat(res2.size()).isEqualTo(1);
   }
 
+  @Test
+  @Order(12)
+  public void selectSyncTopicsPage() {
+    // page 2 of the distinct topic names of env dev, 5 names per page
+    List<Topic> page = selectDataJdbc.selectSyncTopicsPage("dev", null, null, "", 5, 5, 101);
+    List<Topic> nextPage =
+        selectDataJdbc.selectSyncTopicsPage("dev", null, null, "firsttopic9", 0, 5, 101);
+
+    assertThat(selectDataJdbc.countSyncTopics("dev", null, null, 101)).isEqualTo(20);
+    assertThat(page)
+        .extracting(Topic::getTopicname)
+        .containsExactlyInAnyOrder(
+            "firsttopic5", "firsttopic6", "firsttopic7", "firsttopic8", "firsttopic9");
+    // rows of all environments are returned for the topic names of the page, secondtopic0 twice
+    // in tst
+    assertThat(nextPage).hasSize(11);
+    assertThat(nextPage)
+        .extracting(Topic::getTopicname)
+        .containsOnly(
+            "secondtopic0", "secondtopic1", "secondtopic2", "secondtopic3", "secondtopic4");
+  }
+
+  @Test
+  @Order(13)
+  public void selectSyncTopicsPageWithSearchAndTeam() {
+    Topic documented = new Topic();
+    documented.setTopicid(100);
+    documented.setTenantId(101);
+    documented.setTeamId(102);
+    documented.setTopicname("thirdtopic_0");
+    documented.setEnvironment("tst");
+    documented.setDocumentation("Orders of the shop");
+    entityManager.persistAndFlush(documented);
+
+    assertThat(selectDataJdbc.countSyncTopics("ALL", null, "topic1", 101)).isEqualTo(2);
+    assertThat(selectDataJdbc.countSyncTopics("ALL", null, "Orders", 101)).isEqualTo(1);
+    assertThat(selectDataJdbc.countSyncTopics("ALL", null, "c_", 101)).isEqualTo(1);
+    assertThat(selectDataJdbc.countSyncTopics("ALL", null, "%", 101)).isEqualTo(0);
+    assertThat(selectDataJdbc.countSyncTopics("ALL", 102, null, 101)).isEqualTo(1);
+    assertThat(selectDataJdbc.countSyncTopics("dev", 102, null, 101)).isEqualTo(0);
+    assertThat(selectDataJdbc.selectSyncTopicsPage("ALL", 102, null, "", 0, 21, 101))
+        .extracting(Topic::getTopicname)
+        .containsExactly("thirdtopic_0");
+  }
+
   private void generateData(
       int number,
       int tenantId,
@@ -15,6 +15,7 @@ import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -913,6 +914,42 @@ public class TopicRequestsIntegrationTest {
     assertThat(james).hasSize(Integer.valueOf(7));
   }
 
+  @Order(35)
+  @ParameterizedTest
+  @CsvSource({"James,false", "James,true", "John,false", "John,true", "Jackie,false"})
+  public void countTopicRequestsToApprove_MatchesApprovalList(
+      String requestor, boolean showRequestsOfAllTeams) {
+    List<TopicRequest> requests =
+        selectDataJdbc.selectFilteredTopicRequests(
+            true,
+            requestor,
+            RequestStatus.CREATED.value,
+            showRequestsOfAllTeams,
+            101,
+            null,
+            null,
+            null,
+            null,
+            false);
+
+    assertThat(
+            selectDataJdbc.countTopicRequestsToApprove(
+                requestor, showRequestsOfAllTeams, Set.of("dev", "test"), 101))
+        .isEqualTo(requests.size());
+  }
+
+  @Order(36)
+  @Test
+  public void countTopicRequestsToApprove_OnlyAllowedEnvironments() {
+    List<TopicRequest> requests =
+        selectDataJdbc.selectFilteredTopicRequests(
+            true, "John", RequestStatus.CREATED.value, true, 101, null, null, "dev", null, false);
+
+    assertThat(selectDataJdbc.countTopicRequestsToApprove("John", true, Set.of("dev"), 101))
+        .isEqualTo(requests.size());
+    assertThat(selectDataJdbc.countTopicRequestsToApprove("John", true, Set.of(), 101)).isZero();
+  }
+
   private void generateData(
       int number,
       int teamId,
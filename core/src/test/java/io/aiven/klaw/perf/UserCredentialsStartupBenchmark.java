@@ -0,0 +1,84 @@
+package io.aiven.klaw.perf;
+
+import io.aiven.klaw.config.UserCredentialsLoader;
+import io.aiven.klaw.dao.UserInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.jasypt.util.text.BasicTextEncryptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * Measures building the in memory user store of database authentication at startup, from the
+ * encrypted passwords of the users to the InMemoryUserDetailsManager. PARALLEL with one thread is
+ * the previous serial loading.
+ *
+ * <p>Each hydration is measured once per iteration, bcrypt makes the larger user counts take
+ * minutes in parallel mode. Not picked up by surefire, run the main method (or
+ * org.openjdk.jmh.Main) from the core test classpath, e.g. with -p userCount=1000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class UserCredentialsStartupBenchmark {
+
+  private static final String SECRET_KEY = "kw2021secretkey";
+
+  @Param({"100", "1000", "6000"})
+  private int userCount;
+
+  @Param({"PARALLEL", "LAZY"})
+  private UserCredentialsLoader.Mode mode;
+
+  // 0 for one thread per processor
+  @Param({"1", "0"})
+  private int threads;
+
+  private List<UserInfo> users;
+
+  @Setup
+  public void setUp() {
+    BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
+    textEncryptor.setPasswordCharArray(SECRET_KEY.toCharArray());
+    users = new ArrayList<>(userCount);
+    for (int i = 0; i < userCount; i++) {
+      UserInfo userInfo = new UserInfo();
+      userInfo.setUsername("user" + i);
+      userInfo.setRole("USER");
+      userInfo.setPwd(textEncryptor.encrypt("password" + i));
+      users.add(userInfo);
+    }
+  }
+
+  @Benchmark
+  public InMemoryUserDetailsManager loadUsers() throws InterruptedException {
+    Properties credentials = new UserCredentialsLoader(SECRET_KEY, mode, threads).loadUsers(users);
+    return new InMemoryUserDetailsManager(credentials);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(UserCredentialsStartupBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
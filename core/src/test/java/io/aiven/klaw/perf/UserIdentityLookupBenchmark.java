@@ -0,0 +1,126 @@
+package io.aiven.klaw.perf;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwRolesPermissions;
+import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.service.CommonUtilsService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares resolving a user's tenant by scanning the cached user list (the previous implementation
+ * of CommonUtilsService.getTenantId) with the username keyed identity snapshot.
+ *
+ * <p>Not picked up by surefire, run the main method (or org.openjdk.jmh.Main) from the core test
+ * classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserIdentityLookupBenchmark {
+
+  private static final int TENANTS = 10;
+
+  @Param({"100", "1000", "8000"})
+  private int userCount;
+
+  private ManageDatabase manageDatabase;
+  private CommonUtilsService commonUtilsService;
+  private String[] userNames;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    HandleDbRequestsJdbc handleDbRequests = mock(HandleDbRequestsJdbc.class);
+    Map<Integer, List<UserInfo>> usersPerTenant = new HashMap<>();
+    List<KwRolesPermissions> rolesPermissions = new ArrayList<>();
+    userNames = new String[userCount];
+    for (int i = 0; i < userCount; i++) {
+      UserInfo userInfo = new UserInfo();
+      userInfo.setUsername("user" + i);
+      userInfo.setTenantId(101 + i % TENANTS);
+      userInfo.setTeamId(1001 + i % 50);
+      userInfo.setRole("USER");
+      usersPerTenant.computeIfAbsent(userInfo.getTenantId(), id -> new ArrayList<>()).add(userInfo);
+      userNames[i] = userInfo.getUsername();
+    }
+    for (int tenantId = 101; tenantId < 101 + TENANTS; tenantId++) {
+      KwTenants tenant = new KwTenants();
+      tenant.setTenantId(tenantId);
+      tenant.setTenantName("tenant" + tenantId);
+      KwRolesPermissions rolesPermission = new KwRolesPermissions();
+      rolesPermission.setTenantId(tenantId);
+      rolesPermission.setRoleId("USER");
+      rolesPermission.setPermission("REQUEST_CREATE_TOPICS");
+      rolesPermissions.add(rolesPermission);
+      when(handleDbRequests.getMyTenants(tenantId)).thenReturn(Optional.of(tenant));
+      when(handleDbRequests.getAllUsersInfo(tenantId))
+          .thenReturn(usersPerTenant.getOrDefault(tenantId, List.of()));
+    }
+    when(handleDbRequests.getRolesPermissions()).thenReturn(rolesPermissions);
+
+    manageDatabase = new ManageDatabase();
+    ReflectionTestUtils.setField(manageDatabase, "handleDbRequests", handleDbRequests);
+    for (int tenantId = 101; tenantId < 101 + TENANTS; tenantId++) {
+      manageDatabase.loadOneTenant(tenantId);
+    }
+    manageDatabase.loadRolesForAllTenants();
+    manageDatabase.loadUsersForAllTenants();
+
+    commonUtilsService = new CommonUtilsService();
+    ReflectionTestUtils.setField(commonUtilsService, "manageDatabase", manageDatabase);
+  }
+
+  private String nextUserName() {
+    next = (next + 7919) % userNames.length;
+    return userNames[next];
+  }
+
+  @Benchmark
+  public int streamScan() {
+    String userName = nextUserName();
+    return manageDatabase.selectAllCachedUserInfo().stream()
+        .filter(userInfo -> userInfo.getUsername().equals(userName))
+        .findFirst()
+        .map(UserInfo::getTenantId)
+        .orElse(0);
+  }
+
+  @Benchmark
+  public int identityLookup() {
+    return commonUtilsService.getTenantId(nextUserName());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(UserIdentityLookupBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
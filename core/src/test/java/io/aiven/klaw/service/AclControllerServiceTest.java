@@ -47,6 +47,7 @@ import io.aiven.klaw.model.enums.RequestStatus;
 import io.aiven.klaw.model.requests.AclRequestsModel;
 import io.aiven.klaw.model.response.AclRequestsResponseModel;
 import io.aiven.klaw.model.response.ServiceAccountDetails;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -518,7 +519,7 @@ public class AclControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic");
     t1.setEnvironment("1");
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     ApiResponse apiResp = aclControllerService.approveAclRequests("112");
     assertThat(apiResp.isSuccess()).isTrue();
@@ -551,7 +552,7 @@ public class AclControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic");
     t1.setEnvironment("1");
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     ApiResponse apiResp = aclControllerService.approveAclRequests("112");
     assertThat(apiResp.isSuccess()).isTrue();
@@ -590,7 +591,7 @@ public class AclControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic");
     t1.setEnvironment("1");
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     ApiResponse apiResponse = ApiResponse.notOk("failure");
     when(clusterApiService.approveAclRequests(any(), anyInt()))
@@ -614,7 +615,7 @@ public class AclControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic");
     t1.setEnvironment("1");
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     ApiResponse apiResponse = ApiResponse.SUCCESS;
     when(clusterApiService.approveAclRequests(any(), anyInt()))
@@ -1082,7 +1083,7 @@ public class AclControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic1"); // non-existing topic
     t1.setEnvironment("1");
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     ApiResponse apiResp = aclControllerService.approveAclRequests(req_no);
     assertThat(apiResp.getMessage()).isEqualTo(ACL_ERR_101);
@@ -1252,7 +1253,7 @@ public class AclControllerServiceTest {
         .thenReturn((Optional.of(createClaimAcl())));
     ArrayList<Topic> topics = new ArrayList<>();
     topics.add(createTopic());
-    when(manageDatabase.getTopicsForTenant(TENANT_ID)).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(TENANT_ID)).thenReturn(TopicCatalog.of(topics));
     when(approvalService.isRequestFullyApproved(any())).thenReturn(true);
     // No acl_ssl service name left owned by the team.
     when(manageDatabase
@@ -1309,7 +1310,7 @@ public class AclControllerServiceTest {
         .thenReturn((Optional.of(createClaimAcl())));
     ArrayList<Topic> topics = new ArrayList<>();
     topics.add(createTopic());
-    when(manageDatabase.getTopicsForTenant(TENANT_ID)).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(TENANT_ID)).thenReturn(TopicCatalog.of(topics));
     when(approvalService.isRequestFullyApproved(any())).thenReturn(true);
     // Another acl_ssl (service acc) is owned by the team.
     when(manageDatabase
@@ -1352,7 +1353,7 @@ public class AclControllerServiceTest {
         .thenReturn((Optional.of(createClaimAcl())));
     ArrayList<Topic> topics = new ArrayList<>();
     topics.add(createTopic());
-    when(manageDatabase.getTopicsForTenant(TENANT_ID)).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(TENANT_ID)).thenReturn(TopicCatalog.of(topics));
     when(approvalService.isRequestFullyApproved(any())).thenReturn(false);
 
     ApiResponse apiResp = aclControllerService.approveAclRequests(String.valueOf(reqNum));
@@ -1390,7 +1391,7 @@ public class AclControllerServiceTest {
         .thenReturn((Optional.of(createClaimAcl())));
     ArrayList<Topic> topics = new ArrayList<>();
     topics.add(createTopic());
-    when(manageDatabase.getTopicsForTenant(TENANT_ID)).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(TENANT_ID)).thenReturn(TopicCatalog.of(topics));
     when(approvalService.isRequestFullyApproved(any())).thenReturn(true);
     List<Team> existingTeams = getTeamsListWithServiceAccounts(aclReq);
     for (Team team : existingTeams) {
@@ -1453,7 +1454,7 @@ public class AclControllerServiceTest {
         .thenReturn((Optional.of(createClaimAcl())));
     ArrayList<Topic> topics = new ArrayList<>();
     topics.add(createTopic());
-    when(manageDatabase.getTopicsForTenant(TENANT_ID)).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(TENANT_ID)).thenReturn(TopicCatalog.of(topics));
     when(approvalService.isRequestFullyApproved(any())).thenReturn(true);
     List<Team> existingTeams = getTeamsListWithServiceAccounts(aclReq);
     for (Team team : existingTeams) {
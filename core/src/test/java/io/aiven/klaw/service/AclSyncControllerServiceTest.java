@@ -29,6 +29,7 @@ import io.aiven.klaw.model.enums.KafkaClustersType;
 import io.aiven.klaw.model.enums.KafkaFlavors;
 import io.aiven.klaw.model.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -181,7 +182,7 @@ public class AclSyncControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic1");
     t1.setEnvironment(envSelected);
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
     when(handleDbRequests.getSyncAcls(anyString(), anyInt())).thenReturn(getAclsSOT0());
     when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
         .thenReturn(clustersHashMap);
@@ -210,7 +211,7 @@ public class AclSyncControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic1");
     t1.setEnvironment(envSelected);
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
     when(handleDbRequests.getSyncAcls(anyString(), anyInt()))
         .thenReturn(getAclsSOT0NonApacheKafka());
     when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
@@ -242,7 +243,7 @@ public class AclSyncControllerServiceTest {
     Topic t1 = new Topic();
     t1.setTopicname("testtopic1");
     t1.setEnvironment(envSelected);
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(List.of(t1));
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(List.of(t1)));
 
     List<Acl> metadataAcls = getAclsSOT0NonApacheKafka();
 
@@ -287,6 +288,7 @@ public class AclSyncControllerServiceTest {
     when(handleDbRequests.getAllTeamsOfUsers(anyString(), anyInt()))
         .thenReturn(getAvailableTeams());
     when(handleDbRequests.getSyncAcls(anyString(), anyInt())).thenReturn(getAclsSOT0());
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.empty());
     when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
         .thenReturn(clustersHashMap);
     when(clustersHashMap.get(any())).thenReturn(kwClusters);
@@ -1,5 +1,7 @@
 package io.aiven.klaw.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -15,21 +17,32 @@ import io.aiven.klaw.constants.TestConstants;
 import io.aiven.klaw.dao.Acl;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.error.KlawBadRequestException;
+import io.aiven.klaw.error.KlawErrorMessages;
 import io.aiven.klaw.helpers.KwConstants;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.charts.ChartsJsOverview;
 import io.aiven.klaw.model.charts.TeamOverview;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.model.enums.ReportJobStatus;
 import io.aiven.klaw.model.response.AclsCountPerEnv;
+import io.aiven.klaw.model.response.KwReportJobResponse;
 import io.aiven.klaw.model.response.TopicsCountPerEnv;
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -41,6 +54,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class AnalyticsControllerServiceTest {
@@ -52,6 +66,19 @@ class AnalyticsControllerServiceTest {
   @Mock private HandleDbRequestsJdbc handleDbRequestsJdbc;
   @Mock private UserDetails userDetails;
 
+  @BeforeEach
+  public void setUp() {
+    ReflectionTestUtils.setField(analyticsControllerService, "queryThreads", 4);
+    ReflectionTestUtils.setField(analyticsControllerService, "reportThreads", 1);
+    ReflectionTestUtils.setField(analyticsControllerService, "reportRetentionMinutes", 60L);
+    analyticsControllerService.startExecutors();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    analyticsControllerService.stopExecutors();
+  }
+
   private void loginMock() {
     Authentication authentication = Mockito.mock(Authentication.class);
     SecurityContext securityContext = Mockito.mock(SecurityContext.class);
@@ -613,7 +640,7 @@ class AnalyticsControllerServiceTest {
   }
 
   @Test
-  public void generateReport_AuthorizedUser() {
+  public void generateReport_AuthorizedUser() throws Exception {
     TeamOverview teamOverview = UtilMethods.getDummyTeamOverview();
 
     List<TeamOverview> listTeamsOverview = List.of(teamOverview);
@@ -648,5 +675,140 @@ class AnalyticsControllerServiceTest {
     File actual = analyticsControllerService.generateReport(NUMBER_OF_DAYS);
     Assertions.assertNotNull(actual);
     actual.deleteOnExit();
+
+    // the workbook is streamed into the zip with all chart and name sheets
+    try (ZipFile zipFile = new ZipFile(actual)) {
+      ZipEntry entry = zipFile.getEntry("KlawReport.xlsx");
+      assertThat(entry).isNotNull();
+      try (XSSFWorkbook workbook = new XSSFWorkbook(zipFile.getInputStream(entry))) {
+        assertThat(workbook.getNumberOfSheets()).isEqualTo(9);
+        Sheet partitions = workbook.getSheet("Partitions Per Env");
+        assertThat(partitions.getLastRowNum()).isEqualTo(4);
+        assertThat(partitions.getRow(0).getCell(1).getStringCellValue())
+            .isEqualTo(TestConstants.X_AXIS_LABEL);
+        assertThat(partitions.getRow(4).getCell(2).getNumericCellValue()).isEqualTo(4);
+        Sheet topics = workbook.getSheet("Topics");
+        assertThat(topics.getRow(0).getCell(1).getStringCellValue())
+            .isEqualTo(TestConstants.ENV_NAME);
+        assertThat(topics.getRow(1).getCell(0).getNumericCellValue()).isEqualTo(1);
+        assertThat(topics.getRow(1).getCell(1).getStringCellValue())
+            .isEqualTo(TestConstants.TOPIC_NAME);
+      }
+    }
+  }
+
+  @Test
+  public void requestReport_CompletesAndReturnsTheReport() throws Exception {
+    mockAuthorizedReport();
+
+    ApiResponse response = analyticsControllerService.requestReport(NUMBER_OF_DAYS);
+    String jobId = (String) response.getData();
+
+    KwReportJobResponse job = awaitReportJob(jobId);
+    assertThat(job.getStatus()).isEqualTo(ReportJobStatus.COMPLETED);
+    assertThat(job.getFilename()).contains("KwReport").endsWith(".zip");
+    assertThat(job.getCompletedTime()).isNotNull();
+    File report = analyticsControllerService.getReportJobFile(jobId);
+    report.deleteOnExit();
+    assertThat(report).exists().hasName(job.getFilename());
+  }
+
+  @Test
+  public void requestReport_FailedReport() throws Exception {
+    mockAuthorizedReport();
+    Mockito.doThrow(new RuntimeException("query failed"))
+        .when(analyticsControllerService)
+        .getTeamsOverview(null, NUMBER_OF_DAYS);
+
+    String jobId = (String) analyticsControllerService.requestReport(NUMBER_OF_DAYS).getData();
+
+    KwReportJobResponse job = awaitReportJob(jobId);
+    assertThat(job.getStatus()).isEqualTo(ReportJobStatus.FAILED);
+    assertThat(job.getMessage()).isEqualTo("query failed");
+    assertThatThrownBy(() -> analyticsControllerService.getReportJobFile(jobId))
+        .isInstanceOf(KlawBadRequestException.class)
+        .hasMessage(String.format(KlawErrorMessages.ANALYTICS_109, ReportJobStatus.FAILED));
+  }
+
+  @Test
+  public void removeExpiredReportJobs_DeletesExpiredReports() throws Exception {
+    mockAuthorizedReport();
+    String jobId = (String) analyticsControllerService.requestReport(NUMBER_OF_DAYS).getData();
+    awaitReportJob(jobId);
+    File report = analyticsControllerService.getReportJobFile(jobId);
+    report.deleteOnExit();
+
+    analyticsControllerService.removeExpiredReportJobs();
+    assertThat(report).exists();
+
+    ReflectionTestUtils.setField(analyticsControllerService, "reportRetentionMinutes", 0L);
+    analyticsControllerService.removeExpiredReportJobs();
+
+    assertThat(report).doesNotExist();
+    assertThatThrownBy(() -> analyticsControllerService.getReportJob(jobId))
+        .isInstanceOf(KlawBadRequestException.class)
+        .hasMessage(KlawErrorMessages.ANALYTICS_108);
+  }
+
+  @Test
+  public void getReportJob_UnknownOrOtherUsersJob() throws Exception {
+    mockAuthorizedReport();
+    String jobId = (String) analyticsControllerService.requestReport(NUMBER_OF_DAYS).getData();
+    awaitReportJob(jobId);
+    analyticsControllerService.getReportJobFile(jobId).deleteOnExit();
+
+    assertThatThrownBy(() -> analyticsControllerService.getReportJob("unknown"))
+        .isInstanceOf(KlawBadRequestException.class)
+        .hasMessage(KlawErrorMessages.ANALYTICS_108);
+
+    Mockito.when(commonUtilsService.getCurrentUserName()).thenReturn("otheruser");
+    Mockito.when(commonUtilsService.getTenantId("otheruser")).thenReturn(TestConstants.TENANT_ID);
+    assertThatThrownBy(() -> analyticsControllerService.getReportJobFile(jobId))
+        .isInstanceOf(KlawBadRequestException.class)
+        .hasMessage(KlawErrorMessages.ANALYTICS_108);
+  }
+
+  private void mockAuthorizedReport() {
+    loginMock();
+    Mockito.when(commonUtilsService.getCurrentUserName()).thenReturn(TestConstants.USERNAME);
+    Mockito.when(commonUtilsService.getTenantId(TestConstants.USERNAME))
+        .thenReturn(TestConstants.TENANT_ID);
+    Mockito.lenient()
+        .when(
+            manageDatabase.getKwPropertyValue(
+                KwConstants.KW_REPORTS_TMP_LOCATION_KEY, TestConstants.TENANT_ID))
+        .thenReturn(TestConstants.KW_REPORTS_LOCATION);
+    Mockito.lenient()
+        .doReturn(List.of(UtilMethods.getDummyTeamOverview()))
+        .when(analyticsControllerService)
+        .getTeamsOverview(null, NUMBER_OF_DAYS);
+    Mockito.lenient()
+        .when(commonUtilsService.getEnvsFromUserId(any()))
+        .thenReturn(Set.of(TestConstants.ENV_ID));
+    Mockito.lenient()
+        .doReturn(TestConstants.ENV_NAME)
+        .when(analyticsControllerService)
+        .getEnvName(TestConstants.ENV_ID);
+    Mockito.lenient()
+        .when(commonUtilsService.isNotAuthorizedUser(any(), eq(PermissionType.ALL_TEAMS_REPORTS)))
+        .thenReturn(false);
+    Mockito.lenient().when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequestsJdbc);
+    Mockito.lenient()
+        .when(handleDbRequestsJdbc.getAllTopics(TestConstants.TENANT_ID))
+        .thenReturn(List.of(UtilMethods.getDummyTopic()));
+    Mockito.lenient()
+        .when(handleDbRequestsJdbc.getAllConsumerGroups(TestConstants.TENANT_ID))
+        .thenReturn(List.of(UtilMethods.getDummyAcl()));
+  }
+
+  private KwReportJobResponse awaitReportJob(String jobId) throws Exception {
+    long deadline = System.currentTimeMillis() + 10000;
+    KwReportJobResponse job = analyticsControllerService.getReportJob(jobId);
+    while ((job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+      job = analyticsControllerService.getReportJob(jobId);
+    }
+    return job;
   }
 }
@@ -0,0 +1,262 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwApprovalJob;
+import io.aiven.klaw.dao.TopicRequest;
+import io.aiven.klaw.error.KlawErrorMessages;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.ApiResponse;
+import io.aiven.klaw.model.enums.ApprovalJobStatus;
+import io.aiven.klaw.model.enums.RequestEntityType;
+import io.aiven.klaw.model.enums.RequestStatus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+public class ApprovalPipelineServiceTest {
+
+  private static final int TENANT_ID = 101;
+  private static final String APPROVER = "james";
+  private static final String LOGIN_URL = "https://klaw/login";
+
+  @Mock private ManageDatabase manageDatabase;
+
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  @Mock private CommonUtilsService commonUtilsService;
+
+  @Mock private TopicControllerService topicControllerService;
+
+  @Mock private AclControllerService aclControllerService;
+
+  private ApprovalPipelineService approvalPipelineService;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    approvalPipelineService = new ApprovalPipelineService();
+    ReflectionTestUtils.setField(approvalPipelineService, "manageDatabase", manageDatabase);
+    ReflectionTestUtils.setField(approvalPipelineService, "commonUtilsService", commonUtilsService);
+    ReflectionTestUtils.setField(
+        approvalPipelineService, "topicControllerService", topicControllerService);
+    ReflectionTestUtils.setField(
+        approvalPipelineService, "aclControllerService", aclControllerService);
+    ReflectionTestUtils.setField(approvalPipelineService, "asyncApprovalsEnabled", true);
+    ReflectionTestUtils.setField(approvalPipelineService, "workerThreads", 4);
+    ReflectionTestUtils.setField(approvalPipelineService, "clusterConcurrency", 1);
+
+    SecurityContextHolder.getContext()
+        .setAuthentication(
+            new UsernamePasswordAuthenticationToken(APPROVER, null, Collections.emptyList()));
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(commonUtilsService.getCurrentUserName()).thenReturn(APPROVER);
+    when(commonUtilsService.getTenantId(APPROVER)).thenReturn(TENANT_ID);
+    when(commonUtilsService.getLoginUrl()).thenReturn(LOGIN_URL);
+    when(commonUtilsService.callWithLoginUrl(anyString(), any()))
+        .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    approvalPipelineService.stopWorkers();
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  public void queueApprovalsStoresOneJobPerOpenRequest() throws Exception {
+    mockTopicRequest(1001, RequestStatus.CREATED);
+    mockTopicRequest(1002, RequestStatus.CREATED);
+    mockTopicRequest(1003, RequestStatus.APPROVED);
+    Env env = new Env();
+    env.setClusterId(5);
+    when(manageDatabase.getKafkaEnv(TENANT_ID, 1)).thenReturn(Optional.of(env));
+    when(handleDbRequests.getOpenApprovalJobs(anyInt(), anyString(), any()))
+        .thenReturn(Collections.emptyList());
+    AtomicInteger jobIds = new AtomicInteger(1);
+    when(handleDbRequests.insertApprovalJobs(any()))
+        .thenAnswer(
+            invocation -> {
+              List<KwApprovalJob> jobs = invocation.getArgument(0);
+              jobs.forEach(job -> job.setJobId(jobIds.getAndIncrement()));
+              return jobs;
+            });
+
+    List<ApiResponse> responses =
+        approvalPipelineService.queueApprovals(
+            List.of("1001", "1002", "1001", "1003"), RequestEntityType.TOPIC);
+
+    assertThat(responses)
+        .extracting(ApiResponse::isSuccess)
+        .containsExactly(true, true, true, false);
+    assertThat(responses.get(0).getData()).isEqualTo(responses.get(2).getData());
+    assertThat(responses.get(3).getMessage()).isEqualTo(KlawErrorMessages.REQ_ERR_101);
+
+    ArgumentCaptor<List<KwApprovalJob>> captor = ArgumentCaptor.forClass(List.class);
+    verify(handleDbRequests).insertApprovalJobs(captor.capture());
+    assertThat(captor.getValue())
+        .hasSize(2)
+        .allSatisfy(
+            job -> {
+              assertThat(job.getClusterKey()).isEqualTo(TENANT_ID + "-5");
+              assertThat(job.getApprover()).isEqualTo(APPROVER);
+              assertThat(job.getLoginUrl()).isEqualTo(LOGIN_URL);
+              assertThat(job.getStatus()).isEqualTo(ApprovalJobStatus.QUEUED.name());
+            });
+    verify(topicControllerService, never()).approveTopicRequests(anyString());
+  }
+
+  @Test
+  public void queueApprovalsReturnsTheOpenJobOfARequest() {
+    mockTopicRequest(1001, RequestStatus.CREATED);
+    when(handleDbRequests.getOpenApprovalJobs(TENANT_ID, RequestEntityType.TOPIC.name(), 1001))
+        .thenReturn(List.of(job(7, "101-1", 1001)));
+
+    List<ApiResponse> responses =
+        approvalPipelineService.queueApprovals(List.of("1001"), RequestEntityType.TOPIC);
+
+    assertThat(responses).hasSize(1);
+    assertThat(responses.get(0).isSuccess()).isTrue();
+    assertThat(responses.get(0).getData()).isEqualTo(7);
+    verify(handleDbRequests, never()).insertApprovalJobs(any());
+  }
+
+  @Test
+  public void queueApprovalsRequiresTheApprovePermission() {
+    when(commonUtilsService.isNotAuthorizedUser(any(), any(Set.class))).thenReturn(true);
+
+    List<ApiResponse> responses =
+        approvalPipelineService.queueApprovals(List.of("1001", "1002"), RequestEntityType.ACL);
+
+    assertThat(responses).containsExactly(ApiResponse.NOT_AUTHORIZED, ApiResponse.NOT_AUTHORIZED);
+    verify(handleDbRequests, never()).insertApprovalJobs(any());
+  }
+
+  @Test
+  public void executeApprovesAsTheApprover() throws Exception {
+    SecurityContextHolder.clearContext();
+    KwApprovalJob job = job(1, "101-1", 1001);
+    when(topicControllerService.approveTopicRequests("1001"))
+        .thenAnswer(
+            invocation -> {
+              assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                  .isEqualTo(APPROVER);
+              return ApiResponse.SUCCESS;
+            });
+
+    approvalPipelineService.execute(job);
+
+    verify(commonUtilsService).callWithLoginUrl(eq(LOGIN_URL), any());
+    verify(handleDbRequests)
+        .completeApprovalJob(job, ApprovalJobStatus.SUCCESS, ApiResponse.SUCCESS.getMessage());
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+  }
+
+  @Test
+  public void executeRecordsAFailedApproval() throws Exception {
+    KwApprovalJob job = job(1, "101-1", 1001);
+    when(topicControllerService.approveTopicRequests("1001"))
+        .thenThrow(new RuntimeException("cluster api unavailable"));
+
+    approvalPipelineService.execute(job);
+
+    verify(handleDbRequests)
+        .completeApprovalJob(
+            eq(job),
+            eq(ApprovalJobStatus.FAILED),
+            eq(
+                String.format(KlawErrorMessages.REQ_SER_ERR_101, 1001)
+                    + " cluster api unavailable"));
+  }
+
+  @Test
+  public void dispatchLimitsConcurrentJobsPerCluster() throws Exception {
+    approvalPipelineService.startWorkers();
+    List<KwApprovalJob> queued =
+        List.of(
+            job(1, "101-1", 1001),
+            job(2, "101-1", 1002),
+            job(3, "101-2", 1003),
+            job(4, "101-1", 1004));
+    when(handleDbRequests.getQueuedApprovalJobs(
+            any(), eq(ApprovalPipelineService.DISPATCH_BATCH_SIZE)))
+        .thenReturn(queued)
+        .thenReturn(Collections.emptyList());
+    when(handleDbRequests.claimApprovalJob(any())).thenReturn(true);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> approved = Collections.synchronizedList(new ArrayList<>());
+    when(topicControllerService.approveTopicRequests(anyString()))
+        .thenAnswer(
+            invocation -> {
+              approved.add(invocation.getArgument(0));
+              release.await(10, TimeUnit.SECONDS);
+              return ApiResponse.SUCCESS;
+            });
+
+    approvalPipelineService.dispatch();
+
+    // one job of each cluster runs, the other jobs of the busy cluster stay queued
+    verify(handleDbRequests, times(2)).claimApprovalJob(any());
+    verify(handleDbRequests).claimApprovalJob(queued.get(0));
+    verify(handleDbRequests).claimApprovalJob(queued.get(2));
+    // the busy clusters are left out of the next batch, their jobs do not starve other clusters
+    verify(handleDbRequests)
+        .getQueuedApprovalJobs(Collections.emptySet(), ApprovalPipelineService.DISPATCH_BATCH_SIZE);
+    verify(handleDbRequests)
+        .getQueuedApprovalJobs(
+            Set.of("101-1", "101-2"), ApprovalPipelineService.DISPATCH_BATCH_SIZE);
+
+    release.countDown();
+    verify(handleDbRequests, timeout(5000).times(2))
+        .completeApprovalJob(any(), eq(ApprovalJobStatus.SUCCESS), any());
+    assertThat(approved).containsExactlyInAnyOrder("1001", "1003");
+  }
+
+  private void mockTopicRequest(int topicId, RequestStatus requestStatus) {
+    TopicRequest topicRequest = new TopicRequest();
+    topicRequest.setTopicid(topicId);
+    topicRequest.setEnvironment("1");
+    topicRequest.setRequestStatus(requestStatus.value);
+    when(handleDbRequests.getTopicRequestsForTopic(topicId, TENANT_ID)).thenReturn(topicRequest);
+  }
+
+  private static KwApprovalJob job(int jobId, String clusterKey, int requestId) {
+    return KwApprovalJob.builder()
+        .jobId(jobId)
+        .tenantId(TENANT_ID)
+        .requestType(RequestEntityType.TOPIC.name())
+        .requestId(requestId)
+        .clusterKey(clusterKey)
+        .approver(APPROVER)
+        .loginUrl(LOGIN_URL)
+        .status(ApprovalJobStatus.QUEUED.name())
+        .build();
+  }
+}
@@ -21,6 +21,7 @@ import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.cluster.ClusterSchemaRequest;
 import io.aiven.klaw.model.cluster.LoadTopicsResponse;
+import io.aiven.klaw.model.cluster.TopicsDeltaResponse;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.ClusterStatus;
@@ -180,9 +181,14 @@ public class ClusterApiServiceTest {
   @Order(5)
   public void getAllTopicsSuccess() throws Exception {
     Set<TopicConfig> topicsList = getTopics();
-    LoadTopicsResponse loadTopicsResponse =
-        LoadTopicsResponse.builder().topicConfigSet(topicsList).build();
-    ResponseEntity response = new ResponseEntity<>(loadTopicsResponse, HttpStatus.OK);
+    TopicsDeltaResponse topicsDeltaResponse =
+        TopicsDeltaResponse.builder()
+            .generation(10L)
+            .fullSnapshot(true)
+            .topicConfigSet(topicsList)
+            .removedTopicNames(Set.of())
+            .build();
+    ResponseEntity response = new ResponseEntity<>(topicsDeltaResponse, HttpStatus.OK);
 
     when(restTemplate.exchange(
             Mockito.anyString(),
@@ -191,11 +197,66 @@ public class ClusterApiServiceTest {
             (ParameterizedTypeReference<Object>) any()))
         .thenReturn(response);
 
-    Set<TopicConfig> result =
-        clusterApiService
-            .getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, false)
-            .getTopicConfigSet();
-    assertThat(result).isEqualTo(topicsList);
+    LoadTopicsResponse result =
+        clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, false);
+    assertThat(result.getTopicConfigSet()).isEqualTo(topicsList);
+    assertThat(result.getGeneration()).isEqualTo(10L);
+  }
+
+  @Test
+  @Order(5)
+  public void getAllTopicsAppliesDeltaToMirror() throws Exception {
+    TopicConfig topic3 = new TopicConfig();
+    topic3.setTopicName("topic3");
+    ResponseEntity fullResponse =
+        new ResponseEntity<>(
+            TopicsDeltaResponse.builder()
+                .generation(10L)
+                .fullSnapshot(true)
+                .topicConfigSet(getTopics())
+                .removedTopicNames(Set.of())
+                .build(),
+            HttpStatus.OK);
+    ResponseEntity deltaResponse =
+        new ResponseEntity<>(
+            TopicsDeltaResponse.builder()
+                .generation(11L)
+                .topicConfigSet(Set.of(topic3))
+                .removedTopicNames(Set.of("topic1"))
+                .build(),
+            HttpStatus.OK);
+    ResponseEntity notModifiedResponse = new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+
+    when(restTemplate.exchange(
+            Mockito.anyString(),
+            eq(HttpMethod.GET),
+            Mockito.any(),
+            (ParameterizedTypeReference<Object>) any()))
+        .thenReturn(fullResponse, deltaResponse, notModifiedResponse);
+
+    clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, false);
+    LoadTopicsResponse afterDelta =
+        clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, true);
+    LoadTopicsResponse notModified =
+        clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, false);
+
+    ArgumentCaptor<HttpEntity> requests = ArgumentCaptor.forClass(HttpEntity.class);
+    verify(restTemplate, times(3))
+        .exchange(
+            anyString(),
+            eq(HttpMethod.GET),
+            requests.capture(),
+            (ParameterizedTypeReference<Object>) any());
+    assertThat(requests.getAllValues().get(0).getHeaders().getIfNoneMatch()).isEmpty();
+    assertThat(requests.getAllValues().get(1).getHeaders().getIfNoneMatch())
+        .containsExactly("\"10\"");
+    assertThat(requests.getAllValues().get(2).getHeaders().getIfNoneMatch())
+        .containsExactly("\"11\"");
+    assertThat(afterDelta.getTopicConfigSet())
+        .extracting(TopicConfig::getTopicName)
+        .containsExactlyInAnyOrder("topic2", "topic3");
+    assertThat(notModified.getTopicConfigSet()).isEqualTo(afterDelta.getTopicConfigSet());
+    assertThat(notModified.getGeneration()).isEqualTo(11L);
   }
 
   @Test
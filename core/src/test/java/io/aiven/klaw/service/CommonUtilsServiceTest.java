@@ -3,6 +3,7 @@ package io.aiven.klaw.service;
 import static io.aiven.klaw.model.enums.AuthenticationType.DATABASE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -13,9 +14,13 @@ import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.KwMetadataUpdates;
+import io.aiven.klaw.model.UserIdentity;
 import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.MetadataOperationType;
+import io.aiven.klaw.model.enums.PermissionType;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -56,17 +61,45 @@ public class CommonUtilsServiceTest {
     List<Topic> topicList1 = utilMethods.getMultipleTopics("test1", 20, "1", 101);
     List<Topic> topicList2 = utilMethods.getMultipleTopics("test2", 20, "2", 101);
     topicList1.addAll(topicList2);
-    when(manageDatabase.getTopicsForTenant(1)).thenReturn(topicList1);
+    when(manageDatabase.getTopicCatalog(1)).thenReturn(TopicCatalog.of(topicList1));
     List<Topic> topicList = commonUtilsService.getTopicsForTopicName("test10", 1);
     assertThat(topicList).hasSize(1);
   }
 
+  @Test
+  public void getTenantIdAndTeamIdFromUserIdentity() {
+    when(manageDatabase.getUserIdentity("testuser"))
+        .thenReturn(UserIdentity.builder().username("testuser").tenantId(101).teamId(1001).build());
+    assertThat(commonUtilsService.getTenantId("testuser")).isEqualTo(101);
+    assertThat(commonUtilsService.getTeamId("testuser")).isEqualTo(1001);
+    assertThat(commonUtilsService.getTenantId("unknown")).isZero();
+    assertThat(commonUtilsService.getTeamId("unknown")).isZero();
+  }
+
+  @Test
+  public void isNotAuthorizedUserFromUserIdentity() {
+    when(manageDatabase.getUserIdentity("testuser"))
+        .thenReturn(
+            UserIdentity.builder()
+                .username("testuser")
+                .tenantId(101)
+                .permissions(Set.of(PermissionType.REQUEST_CREATE_TOPICS.name()))
+                .build());
+    assertThat(
+            commonUtilsService.isNotAuthorizedUser(
+                "testuser", PermissionType.REQUEST_CREATE_TOPICS))
+        .isFalse();
+    assertThat(
+            commonUtilsService.isNotAuthorizedUser("testuser", PermissionType.ADD_EDIT_DELETE_ENVS))
+        .isTrue();
+  }
+
   @Test
   public void getSyncTopicsAll() {
     List<Topic> topicList1 = utilMethods.getMultipleTopics("test1", 20, "1", 101);
     List<Topic> topicList2 = utilMethods.getMultipleTopics("test2", 20, "2", 101);
     topicList1.addAll(topicList2);
-    when(manageDatabase.getTopicsForTenant(1)).thenReturn(topicList1);
+    when(manageDatabase.getTopicCatalog(1)).thenReturn(TopicCatalog.of(topicList1));
     List<Topic> topicList = commonUtilsService.getTopics(null, null, 1);
     assertThat(topicList).hasSize(40);
   }
@@ -74,8 +107,8 @@ public class CommonUtilsServiceTest {
   @Test
   public void getSyncTopicsFilterEnvAll() {
     String env = "1";
-    when(manageDatabase.getTopicsForTenant(1))
-        .thenReturn(utilMethods.getMultipleTopics("test", 20, "1", 101));
+    when(manageDatabase.getTopicCatalog(1))
+        .thenReturn(TopicCatalog.of(utilMethods.getMultipleTopics("test", 20, "1", 101)));
     List<Topic> topicList = commonUtilsService.getTopics(env, null, 1);
     assertThat(topicList).hasSize(20);
   }
@@ -83,16 +116,16 @@ public class CommonUtilsServiceTest {
   @Test
   public void getSyncTopicsFilterEnvNone() {
     String env = "1";
-    when(manageDatabase.getTopicsForTenant(1))
-        .thenReturn(utilMethods.getMultipleTopics("test", 20, "2", 101));
+    when(manageDatabase.getTopicCatalog(1))
+        .thenReturn(TopicCatalog.of(utilMethods.getMultipleTopics("test", 20, "2", 101)));
     List<Topic> topicList = commonUtilsService.getTopics(env, null, 1);
     assertThat(topicList).hasSize(0);
   }
 
   @Test
   public void getSyncTopicsFilterTeam() {
-    when(manageDatabase.getTopicsForTenant(1))
-        .thenReturn(utilMethods.getMultipleTopics("test", 20, "2", 102));
+    when(manageDatabase.getTopicCatalog(1))
+        .thenReturn(TopicCatalog.of(utilMethods.getMultipleTopics("test", 20, "2", 102)));
     List<Topic> topicList = commonUtilsService.getTopics(null, 101, 1);
     assertThat(topicList).hasSize(0);
   }
@@ -102,7 +135,7 @@ public class CommonUtilsServiceTest {
     List<Topic> topicList1 = utilMethods.getMultipleTopics("test", 20, "1", 101);
     List<Topic> topicList2 = utilMethods.getMultipleTopics("test", 5, "2", 102);
     topicList1.addAll(topicList2);
-    when(manageDatabase.getTopicsForTenant(1)).thenReturn(topicList1);
+    when(manageDatabase.getTopicCatalog(1)).thenReturn(TopicCatalog.of(topicList1));
     List<Topic> topicList = commonUtilsService.getTopics(null, 102, 1);
     assertThat(topicList).hasSize(5);
   }
@@ -114,7 +147,7 @@ public class CommonUtilsServiceTest {
     List<Topic> topicList3 = utilMethods.getMultipleTopics("test3", 10, "3", 102);
     topicList1.addAll(topicList2);
     topicList1.addAll(topicList3);
-    when(manageDatabase.getTopicsForTenant(1)).thenReturn(topicList1);
+    when(manageDatabase.getTopicCatalog(1)).thenReturn(TopicCatalog.of(topicList1));
     List<Topic> topicList = commonUtilsService.getTopics("3", 102, 1);
     assertThat(topicList).hasSize(10);
   }
@@ -126,7 +159,7 @@ public class CommonUtilsServiceTest {
     List<Topic> topicList3 = utilMethods.getMultipleTopics("test2", 10, "3", 102);
     topicList1.addAll(topicList2);
     topicList1.addAll(topicList3);
-    when(manageDatabase.getTopicsForTenant(1)).thenReturn(topicList1);
+    when(manageDatabase.getTopicCatalog(1)).thenReturn(TopicCatalog.of(topicList1));
     List<Topic> topicList = commonUtilsService.getTopics("3", 102, 1);
     assertThat(topicList).hasSize(15);
   }
@@ -196,6 +229,62 @@ public class CommonUtilsServiceTest {
     verify(inMemoryUserDetailsManager, times(1)).deleteUser(any());
   }
 
+  @Test
+  public void updateMetadataCacheNumberedTopicUpdateReloadsOneTopic() {
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic1", 7L), false);
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic2", 8L), false);
+
+    // the first numbered update cannot tell if an update was missed before it
+    verify(manageDatabase, times(1)).updateStaticDataForTenant(101);
+    verify(manageDatabase, times(1)).loadTopicsForOneTopicName(101, "topic2");
+    verify(manageDatabase, times(0)).loadTopicsForOneTenant(anyInt());
+  }
+
+  @Test
+  public void updateMetadataCacheNumberedUserUpdateReloadsOneUser() {
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic1", 7L), true);
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.USERS, "testuser", 8L), true);
+
+    verify(manageDatabase, times(1)).loadOneUser("testuser", 101);
+    verify(manageDatabase, times(0)).loadUsersForAllTenants();
+  }
+
+  @Test
+  public void updateMetadataCacheSequenceGapReloadsTenant() {
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic1", 7L), false);
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic3", 9L), false);
+    // already read from the db by the reload of update 9
+    commonUtilsService.updateMetadataCache(numberedUpdate(EntityType.TOPICS, "topic2", 8L), false);
+
+    verify(manageDatabase, times(2)).updateStaticDataForTenant(101);
+    verify(manageDatabase, times(0)).loadTopicsForOneTopicName(anyInt(), any());
+  }
+
+  @Test
+  public void updateMetadataNumbersUpdate() {
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(handleDbRequests.getNextMetadataUpdateSequence(101)).thenReturn(1L, 2L);
+    ReflectionTestUtils.setField(commonUtilsService, "uiApiServers", "");
+
+    commonUtilsService.updateMetadata(
+        101, EntityType.TOPICS, MetadataOperationType.CREATE, "topic1");
+    commonUtilsService.updateMetadata(
+        101, EntityType.TOPICS, MetadataOperationType.CREATE, "topic2");
+
+    verify(manageDatabase, times(1)).loadTopicsForOneTopicName(101, "topic2");
+  }
+
+  private static KwMetadataUpdates numberedUpdate(
+      EntityType entityType, String entityValue, long sequence) {
+    return KwMetadataUpdates.builder()
+        .tenantId(101)
+        .entityType(entityType.name())
+        .entityValue(entityValue)
+        .operationType(MetadataOperationType.UPDATE.name())
+        .sequence(sequence)
+        .build();
+  }
+
   /*@Test
   public void test() {
     List<Map<String, String>> list = new ArrayList<>();
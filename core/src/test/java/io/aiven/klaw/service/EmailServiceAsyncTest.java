@@ -0,0 +1,76 @@
+package io.aiven.klaw.service;
+
+import static io.aiven.klaw.helpers.KwConstants.DEFAULT_TENANT_ID;
+import static io.aiven.klaw.helpers.KwConstants.EMAIL_NOTIFICATIONS_ENABLED_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Mails are sent on the notifications pool, whichever overload of the mail service is called. */
+@SpringJUnitConfig(EmailServiceAsyncTest.AsyncConfig.class)
+public class EmailServiceAsyncTest {
+
+  @Autowired private EmailService emailService;
+
+  @MockBean private ManageDatabase manageDatabase;
+
+  @MockBean private JavaMailSender emailSender;
+
+  @Test
+  public void adminMailDoesNotRunOnTheCallerThread() throws Exception {
+    CompletableFuture<Thread> mailThread = new CompletableFuture<>();
+    when(manageDatabase.getKwPropertyValue(EMAIL_NOTIFICATIONS_ENABLED_KEY, DEFAULT_TENANT_ID))
+        .thenAnswer(
+            invocation -> {
+              mailThread.complete(Thread.currentThread());
+              return "false";
+            });
+    MailUtils mailUtils = new MailUtils();
+    ReflectionTestUtils.setField(mailUtils, "emailService", emailService);
+    ReflectionTestUtils.setField(mailUtils, "kwAdminMailId", "admin@klaw.io");
+
+    mailUtils.sendMailToAdmin("Contact admin", "Please help", 101, "https://klaw/login");
+
+    assertThat(mailThread.get(5, TimeUnit.SECONDS))
+        .isNotSameAs(Thread.currentThread())
+        .extracting(Thread::getName)
+        .asString()
+        .startsWith("notifications-");
+  }
+
+  @Configuration
+  @EnableAsync
+  static class AsyncConfig {
+
+    @Bean
+    public EmailService emailService() {
+      return new EmailService();
+    }
+
+    @Bean
+    public SimpleMailMessage templateSimpleMessage() {
+      return new SimpleMailMessage();
+    }
+
+    @Bean(name = "notificationsThreadPool")
+    public ThreadPoolTaskExecutor notificationsThreadPool() {
+      ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+      executor.setThreadNamePrefix("notifications-");
+      return executor;
+    }
+  }
+}
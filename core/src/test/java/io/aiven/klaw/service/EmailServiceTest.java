@@ -0,0 +1,132 @@
+package io.aiven.klaw.service;
+
+import static io.aiven.klaw.helpers.KwConstants.DEFAULT_TENANT_ID;
+import static io.aiven.klaw.helpers.KwConstants.EMAIL_NOTIFICATIONS_ENABLED_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwMailOutbox;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+public class EmailServiceTest {
+
+  private static final int TENANT_ID = 101;
+  private static final String LOGIN_URL = "https://klaw/login";
+
+  @Mock private JavaMailSender emailSender;
+
+  @Mock private ManageDatabase manageDatabase;
+
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  private EmailService emailService;
+
+  @BeforeEach
+  public void setUp() {
+    emailService = new EmailService();
+    ReflectionTestUtils.setField(emailService, "emailSender", emailSender);
+    ReflectionTestUtils.setField(emailService, "manageDatabase", manageDatabase);
+    ReflectionTestUtils.setField(emailService, "fromMailId", "info@klaw-project.io");
+    ReflectionTestUtils.setField(emailService, "noReplyMailId", "info@klaw-project.io");
+    ReflectionTestUtils.setField(emailService, "noReplyMailIdDisplay", "Klaw No Reply");
+    ReflectionTestUtils.setField(
+        emailService, "notificationHeaderLogo", "https://yourcompany/logo.png");
+    ReflectionTestUtils.setField(emailService, "digestWindowSeconds", 60L);
+    emailService.updateHeaderText();
+
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(manageDatabase.getKwPropertyValue(EMAIL_NOTIFICATIONS_ENABLED_KEY, DEFAULT_TENANT_ID))
+        .thenReturn("true");
+    when(emailSender.createMimeMessage())
+        .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+  }
+
+  @Test
+  public void sendSimpleMessageSendsTheMailWithoutOutbox() throws Exception {
+    emailService.sendSimpleMessage(
+        List.of("james@klaw.io"),
+        List.of("team@klaw.io"),
+        null,
+        "Topic request",
+        "Topic requested\\nby james",
+        TENANT_ID,
+        LOGIN_URL);
+
+    ArgumentCaptor<MimeMessage> message = ArgumentCaptor.forClass(MimeMessage.class);
+    verify(emailSender).send(message.capture());
+    assertThat(message.getValue().getSubject()).isEqualTo("Topic request");
+    assertThat(message.getValue().getRecipients(Message.RecipientType.CC)[0].toString())
+        .isEqualTo("team@klaw.io");
+    assertThat((String) message.getValue().getContent())
+        .startsWith("<html>")
+        .contains(
+            "https://yourcompany/logo.png",
+            "Topic requested<br>by james",
+            "<a href=" + LOGIN_URL + "><b>Login Now</b></a>")
+        .endsWith("</table></html>");
+    verify(handleDbRequests, never()).insertMails(any());
+  }
+
+  @Test
+  public void sendSimpleMessageQueuesTheMailInTheOutbox() {
+    ReflectionTestUtils.setField(emailService, "mailOutboxEnabled", true);
+    ReflectionTestUtils.setField(emailService, "digestEnabled", true);
+    Instant before = Instant.now();
+
+    emailService.sendSimpleMessage(
+        List.of("james@klaw.io", "team@klaw.io"),
+        List.of(),
+        List.of("approver@klaw.io"),
+        "Topic request",
+        "Topic requested",
+        TENANT_ID,
+        LOGIN_URL);
+
+    ArgumentCaptor<List<KwMailOutbox>> mails = ArgumentCaptor.forClass(List.class);
+    verify(handleDbRequests).insertMails(mails.capture());
+    KwMailOutbox mail = mails.getValue().get(0);
+    assertThat(mail.getTenantId()).isEqualTo(TENANT_ID);
+    assertThat(mail.getRecipientsTo()).isEqualTo("james@klaw.io,team@klaw.io");
+    assertThat(mail.getRecipientsCc()).isNull();
+    assertThat(mail.getRecipientsBcc()).isEqualTo("approver@klaw.io");
+    assertThat(mail.getContent()).isEqualTo("Topic requested");
+    assertThat(mail.getLoginUrl()).isEqualTo(LOGIN_URL);
+    assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.QUEUED.name());
+    // the digest window delays the first attempt
+    assertThat(mail.getNextAttemptTime().toInstant())
+        .isBetween(before.plusSeconds(60), Instant.now().plusSeconds(60));
+    verify(emailSender, never()).send(any(MimeMessage.class));
+  }
+
+  @Test
+  public void sendSimpleMessageIgnoresMailsWhenNotificationsAreDisabled() {
+    when(manageDatabase.getKwPropertyValue(EMAIL_NOTIFICATIONS_ENABLED_KEY, DEFAULT_TENANT_ID))
+        .thenReturn("false");
+
+    emailService.sendSimpleMessage(
+        "james@klaw.io", null, "Topic request", "Topic requested", TENANT_ID, LOGIN_URL);
+
+    verifyNoInteractions(emailSender, handleDbRequests);
+  }
+}
@@ -1,7 +1,10 @@
 package io.aiven.klaw.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.constants.TestConstants;
@@ -10,15 +13,22 @@ import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.enums.ClusterStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class EnvControllerServiceTest {
@@ -28,6 +38,14 @@ class EnvControllerServiceTest {
 
   @InjectMocks private EnvControllerService envControllerService;
 
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(envControllerService, "probeThreads", 4);
+    ReflectionTestUtils.setField(envControllerService, "probeTimeoutMs", 5000L);
+    ReflectionTestUtils.setField(envControllerService, "healthyIntervalMinutes", 60L);
+    ReflectionTestUtils.setField(envControllerService, "failingIntervalMinutes", 5L);
+  }
+
   @Test
   void loadEnvsWithStatus() {
     Env env = new Env();
@@ -52,7 +70,202 @@ class EnvControllerServiceTest {
 
     envControllerService.loadEnvsWithStatus();
 
-    Mockito.verify(handleDbRequestsJdbc, Mockito.times(3)).addNewEnv(env);
-    Assertions.assertEquals(env.getEnvStatus(), ClusterStatus.ONLINE);
+    Mockito.verify(clusterApiService, Mockito.times(1))
+        .getKafkaClusterStatus(any(), any(), any(), any(), any(), anyInt());
+    ArgumentCaptor<List<KwClusters>> clusters = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<List<Env>> envs = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(handleDbRequestsJdbc)
+        .updateClustersAndEnvsStatus(clusters.capture(), envs.capture());
+    Mockito.verify(handleDbRequestsJdbc, Mockito.never()).addNewEnv(any());
+    Mockito.verify(manageDatabase)
+        .updateClusterStatuses(TestConstants.TENANT_ID, clusters.getValue(), envs.getValue(), true);
+    Assertions.assertEquals(ClusterStatus.ONLINE, envs.getValue().get(0).getEnvStatus());
+    Assertions.assertEquals(ClusterStatus.ONLINE, clusters.getValue().get(0).getClusterStatus());
+    // the cached objects are shared with readers and not changed
+    Assertions.assertNull(env.getEnvStatus());
+    Assertions.assertNull(kwClusters.getClusterStatus());
+  }
+
+  @Test
+  void envsOfOneClusterShareOneProbe() {
+    Env dev = kafkaEnv("1", 1);
+    Env tst = kafkaEnv("2", 1);
+    Env prd = kafkaEnv("3", 2);
+    KwClusters devCluster = cluster(1, "devcluster:9092");
+    KwClusters prdCluster = cluster(2, "prdcluster:9092");
+    mockEnvs(List.of(dev, tst, prd), Map.of(1, devCluster, 2, prdCluster));
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("devcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.ONLINE);
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("prdcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.OFFLINE);
+
+    envControllerService.updateEnvsStatus();
+
+    Mockito.verify(clusterApiService, Mockito.times(2))
+        .getKafkaClusterStatus(any(), any(), any(), any(), any(), anyInt());
+    ArgumentCaptor<List<KwClusters>> clusters = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<List<Env>> envs = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(handleDbRequestsJdbc)
+        .updateClustersAndEnvsStatus(clusters.capture(), envs.capture());
+    assertThat(clusters.getValue())
+        .extracting(KwClusters::getClusterId, KwClusters::getClusterStatus)
+        .containsExactly(tuple(1, ClusterStatus.ONLINE), tuple(2, ClusterStatus.OFFLINE));
+    assertThat(envs.getValue())
+        .extracting(Env::getId, Env::getEnvStatus)
+        .containsExactly(
+            tuple("1", ClusterStatus.ONLINE),
+            tuple("2", ClusterStatus.ONLINE),
+            tuple("3", ClusterStatus.OFFLINE));
+    assertThat(envs.getValue().get(0).getEnvStatusTimeString()).isNotNull();
+    Mockito.verify(manageDatabase)
+        .updateClusterStatuses(TestConstants.TENANT_ID, clusters.getValue(), envs.getValue(), true);
+  }
+
+  @Test
+  void probeNotAnsweredInTimeMarksTheClusterNotKnown() {
+    ReflectionTestUtils.setField(envControllerService, "probeTimeoutMs", 200L);
+    Env dev = kafkaEnv("1", 1);
+    Env prd = kafkaEnv("2", 2);
+    mockEnvs(
+        List.of(dev, prd),
+        Map.of(1, cluster(1, "devcluster:9092"), 2, cluster(2, "prdcluster:9092")));
+    CountDownLatch release = new CountDownLatch(1);
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("devcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              release.await(10, TimeUnit.SECONDS);
+              return ClusterStatus.ONLINE;
+            });
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("prdcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.ONLINE);
+
+    long start = System.nanoTime();
+    try {
+      envControllerService.updateEnvsStatus();
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+    assertThat(getSavedEnvStatuses())
+        .containsExactly(tuple("1", ClusterStatus.NOT_KNOWN), tuple("2", ClusterStatus.ONLINE));
+  }
+
+  @Test
+  void hungProbeDoesNotDelayTheOtherProbes() {
+    ReflectionTestUtils.setField(envControllerService, "probeThreads", 1);
+    ReflectionTestUtils.setField(envControllerService, "probeTimeoutMs", 200L);
+    Env dev = kafkaEnv("1", 1);
+    Env prd = kafkaEnv("2", 2);
+    mockEnvs(
+        List.of(dev, prd),
+        Map.of(1, cluster(1, "devcluster:9092"), 2, cluster(2, "prdcluster:9092")));
+    CountDownLatch release = new CountDownLatch(1);
+    // the hung probe ignores the interrupt, like a blocked socket read
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("devcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+              while (release.getCount() > 0 && System.nanoTime() < end) {
+                Thread.onSpinWait();
+              }
+              return ClusterStatus.ONLINE;
+            });
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("prdcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.ONLINE);
+
+    long start = System.nanoTime();
+    try {
+      envControllerService.updateEnvsStatus();
+    } finally {
+      release.countDown();
+    }
+
+    // the only thread hangs on the first cluster, the second cluster gets a thread of its own
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+    assertThat(getSavedEnvStatuses())
+        .containsExactly(tuple("1", ClusterStatus.NOT_KNOWN), tuple("2", ClusterStatus.ONLINE));
+  }
+
+  @Test
+  void failingClustersAreProbedMoreOften() {
+    ReflectionTestUtils.setField(envControllerService, "failingIntervalMinutes", 0L);
+    Env dev = kafkaEnv("1", 1);
+    Env prd = kafkaEnv("2", 2);
+    mockEnvs(
+        List.of(dev, prd),
+        Map.of(1, cluster(1, "devcluster:9092"), 2, cluster(2, "prdcluster:9092")));
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("devcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.ONLINE);
+    Mockito.when(
+            clusterApiService.getKafkaClusterStatus(
+                eq("prdcluster:9092"), any(), any(), any(), any(), anyInt()))
+        .thenReturn(ClusterStatus.OFFLINE);
+
+    envControllerService.loadEnvsWithStatus();
+    envControllerService.loadEnvsWithStatus();
+
+    // the online cluster is due again after an hour, the offline cluster right away
+    Mockito.verify(clusterApiService, Mockito.times(1))
+        .getKafkaClusterStatus(eq("devcluster:9092"), any(), any(), any(), any(), anyInt());
+    Mockito.verify(clusterApiService, Mockito.times(2))
+        .getKafkaClusterStatus(eq("prdcluster:9092"), any(), any(), any(), any(), anyInt());
+
+    envControllerService.updateEnvsStatus();
+
+    Mockito.verify(clusterApiService, Mockito.times(2))
+        .getKafkaClusterStatus(eq("devcluster:9092"), any(), any(), any(), any(), anyInt());
+  }
+
+  private List<Tuple> getSavedEnvStatuses() {
+    ArgumentCaptor<List<Env>> envs = ArgumentCaptor.forClass(List.class);
+    Mockito.verify(handleDbRequestsJdbc).updateClustersAndEnvsStatus(any(), envs.capture());
+    return envs.getValue().stream().map(env -> tuple(env.getId(), env.getEnvStatus())).toList();
+  }
+
+  private void mockEnvs(List<Env> kafkaEnvs, Map<Integer, KwClusters> clusters) {
+    Mockito.when(manageDatabase.getTenantMap())
+        .thenReturn(Map.of(TestConstants.TENANT_ID, TestConstants.TENANT_NAME));
+    Mockito.when(manageDatabase.getKafkaEnvListAllTenants(TestConstants.TENANT_ID))
+        .thenReturn(kafkaEnvs);
+    Mockito.when(manageDatabase.getSchemaRegEnvList(TestConstants.TENANT_ID))
+        .thenReturn(Collections.emptyList());
+    Mockito.when(manageDatabase.getKafkaConnectEnvList(TestConstants.TENANT_ID))
+        .thenReturn(Collections.emptyList());
+    Mockito.when(manageDatabase.getClusters(KafkaClustersType.KAFKA, TestConstants.TENANT_ID))
+        .thenReturn(clusters);
+    Mockito.when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequestsJdbc);
+  }
+
+  private static Env kafkaEnv(String id, int clusterId) {
+    Env env = new Env();
+    env.setId(id);
+    env.setName("ENV" + id);
+    env.setType(KafkaClustersType.KAFKA.value);
+    env.setClusterId(clusterId);
+    env.setTenantId(TestConstants.TENANT_ID);
+    return env;
+  }
+
+  private static KwClusters cluster(int clusterId, String bootstrapServers) {
+    KwClusters kwClusters = new KwClusters();
+    kwClusters.setClusterId(clusterId);
+    kwClusters.setClusterName("cluster" + clusterId);
+    kwClusters.setBootstrapServers(bootstrapServers);
+    return kwClusters;
   }
 }
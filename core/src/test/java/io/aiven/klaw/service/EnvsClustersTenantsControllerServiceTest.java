@@ -11,6 +11,7 @@ import static io.aiven.klaw.helpers.KwConstants.ORDER_OF_TOPIC_ENVS;
 import static io.aiven.klaw.helpers.KwConstants.REQUEST_TOPICS_OF_ENVS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -525,7 +526,8 @@ class EnvsClustersTenantsControllerServiceTest {
     Env env1 = buildEnv("1", 101, "PRD", KafkaClustersType.KAFKA, 1);
     Env env2 = buildEnv("2", 101, "PRD", KafkaClustersType.KAFKA, 2);
     Env env3 = buildEnv("3", 101, "PRD", KafkaClustersType.KAFKA, 3);
-    when(manageDatabase.getAllEnvList(tenantId)).thenReturn(List.of(env1, env2, env3));
+    Env env4 = buildEnv("4", 101, "PRD2", KafkaClustersType.KAFKA, 3);
+    when(manageDatabase.getAllEnvList(tenantId)).thenReturn(List.of(env1, env2, env3, env4));
     Map<Integer, KwClusters> clusters = buildClusters(KafkaClustersType.KAFKA, 3);
     KwClusters kwCluster = clusters.get(3);
     when(manageDatabase.getClusters(KafkaClustersType.KAFKA, tenantId)).thenReturn(clusters);
@@ -539,9 +541,20 @@ class EnvsClustersTenantsControllerServiceTest {
         .thenReturn(ClusterStatus.ONLINE);
 
     EnvUpdatedStatus envUpdatedStatus = service.getUpdateEnvStatus("3");
-    assertThat(kwCluster.getClusterStatus()).isEqualTo(ClusterStatus.ONLINE);
-    verify(handleDbRequestsJdbc, times(1)).addNewCluster(kwCluster);
-    verify(manageDatabase, times(1)).addEnvToCache(tenantId, env3, false);
+    ArgumentCaptor<KwClusters> savedCluster = ArgumentCaptor.forClass(KwClusters.class);
+    verify(handleDbRequestsJdbc, times(1)).addNewCluster(savedCluster.capture());
+    assertThat(savedCluster.getValue().getClusterId()).isEqualTo(kwCluster.getClusterId());
+    assertThat(savedCluster.getValue().getClusterStatus()).isEqualTo(ClusterStatus.ONLINE);
+    ArgumentCaptor<List<Env>> updatedEnvs = ArgumentCaptor.forClass(List.class);
+    verify(manageDatabase, times(1))
+        .updateClusterStatuses(
+            eq(tenantId), eq(List.of(savedCluster.getValue())), updatedEnvs.capture(), eq(false));
+    assertThat(updatedEnvs.getValue())
+        .extracting(Env::getId, Env::getEnvStatus)
+        .containsExactly(tuple("3", ClusterStatus.ONLINE), tuple("4", ClusterStatus.ONLINE));
+    // the cached cluster and environments are replaced, not changed
+    assertThat(kwCluster.getClusterStatus()).isNotEqualTo(ClusterStatus.ONLINE);
+    assertThat(env3.getEnvStatus()).isNull();
     assertThat(envUpdatedStatus.getResult()).isEqualTo(ApiResultStatus.SUCCESS.value);
     assertThat(envUpdatedStatus.getEnvStatus()).isEqualTo(ClusterStatus.ONLINE);
     assertThat(envUpdatedStatus.getResult()).isEqualTo(ApiResultStatus.SUCCESS.value);
@@ -1,21 +1,45 @@
 package io.aiven.klaw.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.KwKafkaConnector;
+import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.metadata.KwAdminConfig;
 import io.aiven.klaw.dao.metadata.KwData;
 import io.aiven.klaw.dao.metadata.KwRequests;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -36,6 +60,8 @@ public class ExportImportDataServiceTest {
 
   private static final String KLAW_VERSION = "2.8.0";
 
+  @TempDir Path exportDir;
+
   @BeforeEach
   public void setUp() throws Exception {
     exportImportDataService = new ExportImportDataService();
@@ -45,6 +71,8 @@ public class ExportImportDataServiceTest {
     when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
     ReflectionTestUtils.setField(exportImportDataService, "buildProperties", buildProperties);
     when(buildProperties.getVersion()).thenReturn(KLAW_VERSION);
+    ReflectionTestUtils.setField(
+        exportImportDataService, "klawExportFilePath", exportDir.toString());
   }
 
   @Test
@@ -58,22 +86,130 @@ public class ExportImportDataServiceTest {
   }
 
   @Test
-  public void getKwData() {
-    when(handleDbRequests.getAllTopics())
-        .thenReturn(utilMethods.getMultipleTopics("test", 10, null, 101));
-    when(handleDbRequests.getAllConnectors())
+  public void exportKwData_pagesThroughTables() throws Exception {
+    ReflectionTestUtils.setField(exportImportDataService, "exportPageSize", 4);
+    List<Topic> topics = utilMethods.getMultipleTopics("test", 10, null, 101);
+    when(handleDbRequests.getTopicsPage(0, 4)).thenReturn(topics.subList(0, 4));
+    when(handleDbRequests.getTopicsPage(1, 4)).thenReturn(topics.subList(4, 8));
+    when(handleDbRequests.getTopicsPage(2, 4)).thenReturn(topics.subList(8, 10));
+    when(handleDbRequests.getConnectorsPage(0, 4))
         .thenReturn(Collections.singletonList(new KwKafkaConnector()));
-    KwData kwData = exportImportDataService.getKwData(handleDbRequests, "");
-    assertThat(kwData.getTopics().size()).isEqualTo(10);
-    assertThat(kwData.getKafkaConnectors().size()).isEqualTo(1);
+
+    exportImportDataService.exportKwMetadata();
+
+    // the streamed file keeps the layout of a KwData written in one piece
+    KwData kwData = metadataMapper().readValue(getExportFile("kwdata"), KwData.class);
+    assertThat(kwData.getKlawVersion()).isEqualTo(KLAW_VERSION);
+    assertThat(kwData.getTopics()).extracting(Topic::getTopicname).hasSize(10);
+    assertThat(kwData.getSubscriptions()).isEmpty();
+    assertThat(kwData.getKafkaConnectors()).hasSize(1);
+    // the Persistable accessors of the entities are not exported
+    assertThat(Files.readString(getExportFile("kwdata").toPath()))
+        .doesNotContain("\"newEntity\"", "\"new\"", "\"id\"");
+    verify(handleDbRequests, times(3)).getTopicsPage(anyInt(), eq(4));
+    verify(handleDbRequests, times(1)).getSubscriptionsPage(anyInt(), eq(4));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void exportAndImportKwData(boolean gzip) throws Exception {
+    ReflectionTestUtils.setField(exportImportDataService, "gzipExport", gzip);
+    ReflectionTestUtils.setField(exportImportDataService, "importBatchSize", 4);
+    List<Topic> topics = utilMethods.getMultipleTopics("test", 10, null, 101);
+    when(handleDbRequests.getTopicsPage(0, 1000)).thenReturn(topics);
+    when(handleDbRequests.getSubscriptionsPage(0, 1000)).thenReturn(utilMethods.getAcls());
+
+    exportImportDataService.exportKwMetadata();
+
+    File kwDataFile = getExportFile("kwdata");
+    assertThat(kwDataFile.getName()).endsWith(gzip ? ".json.gz" : ".json");
+    ReflectionTestUtils.setField(exportImportDataService, "importMetadata", true);
+    ReflectionTestUtils.setField(exportImportDataService, "importKwDataMetadata", true);
+    ReflectionTestUtils.setField(
+        exportImportDataService, "klawImportKwDataFilePath", kwDataFile.getPath());
+
+    exportImportDataService.importData();
+
+    ArgumentCaptor<List<Topic>> topicBatches = ArgumentCaptor.forClass(List.class);
+    verify(handleDbRequests, times(3)).addToSynctopics(topicBatches.capture());
+    assertThat(topicBatches.getAllValues()).extracting(List::size).containsExactly(4, 4, 2);
+    assertThat(topicBatches.getAllValues().stream().flatMap(List::stream))
+        .extracting(Topic::getTopicname)
+        .containsExactlyElementsOf(topics.stream().map(Topic::getTopicname).toList());
+    verify(handleDbRequests, times(1)).addToSyncacls(anyList());
+    verify(handleDbRequests, never()).insertIntoMessageSchemaSOT(anyList());
   }
 
   @Test
-  public void getRequestsData() {
-    when(handleDbRequests.getAllTopicRequests()).thenReturn(utilMethods.getTopicRequests());
-    when(handleDbRequests.getAllAclRequests()).thenReturn(utilMethods.getAclRequests());
-    KwRequests kwRequests = exportImportDataService.getRequestsData(handleDbRequests, "");
-    assertThat(kwRequests.getTopicRequests().size()).isEqualTo(1);
-    assertThat(kwRequests.getSubscriptionRequests().size()).isEqualTo(1);
+  public void exportAndImportRequestsData() throws Exception {
+    when(handleDbRequests.getTopicRequestsPage(isNull(), eq(0), eq(1000)))
+        .thenReturn(utilMethods.getTopicRequests());
+    when(handleDbRequests.getAclRequestsPage(isNull(), eq(0), eq(1000)))
+        .thenReturn(utilMethods.getAclRequests());
+
+    exportImportDataService.exportKwMetadata();
+
+    ReflectionTestUtils.setField(exportImportDataService, "importMetadata", true);
+    ReflectionTestUtils.setField(exportImportDataService, "importKwRequestsDataMetadata", true);
+    ReflectionTestUtils.setField(
+        exportImportDataService,
+        "klawImportKwRequestsDataFilePath",
+        getExportFile("kwrequests_data").getPath());
+
+    exportImportDataService.importData();
+
+    verify(handleDbRequests, times(1)).requestForTopic(any());
+    verify(handleDbRequests, times(1)).requestForAcl(any());
+    verify(handleDbRequests, never()).requestForSchema(any());
+  }
+
+  @Test
+  public void incrementalExport_onlyRequestsChangedSinceLastExport() throws Exception {
+    ReflectionTestUtils.setField(exportImportDataService, "incrementalExport", true);
+
+    exportImportDataService.exportKwMetadata();
+    verify(handleDbRequests).getTopicRequestsPage(isNull(), eq(0), eq(1000));
+    Instant lastExportTime =
+        Instant.parse(Files.readString(exportDir.resolve("kwmetadata-last_export")));
+
+    // export files are named by the second they are created in
+    Thread.sleep(1000);
+    exportImportDataService.exportKwMetadata();
+
+    ArgumentCaptor<Timestamp> changedSince = ArgumentCaptor.forClass(Timestamp.class);
+    verify(handleDbRequests, times(2)).getAclRequestsPage(changedSince.capture(), eq(0), eq(1000));
+    assertThat(changedSince.getAllValues().get(1).toInstant()).isEqualTo(lastExportTime);
+    assertThat(getExportFiles("kwrequests_data"))
+        .extracting(file -> readRequests(file).getChangedSince())
+        .containsExactlyInAnyOrder(null, lastExportTime.toString());
+  }
+
+  private KwRequests readRequests(File file) {
+    try {
+      return metadataMapper().readValue(file, KwRequests.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ObjectMapper metadataMapper() {
+    return new ObjectMapper()
+        .configure(DeserializationFeature.UNWRAP_ROOT_VALUE, true)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  private File getExportFile(String prefix) throws IOException {
+    List<File> files = getExportFiles(prefix);
+    assertThat(files).hasSize(1);
+    return files.get(0);
+  }
+
+  private List<File> getExportFiles(String prefix) throws IOException {
+    try (Stream<Path> files = Files.list(exportDir)) {
+      return files
+          .filter(file -> file.getFileName().toString().startsWith("kwmetadata-" + prefix + "-"))
+          .map(Path::toFile)
+          .toList();
+    }
   }
 }
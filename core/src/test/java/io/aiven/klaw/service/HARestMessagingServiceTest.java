@@ -8,23 +8,30 @@ import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.model.ApiResponse;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(SpringExtension.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class HARestMessagingServiceTest {
   public static final String KLAW_PROJECT_IO_9097 = "https://klaw-project.io:9097";
+  public static final String KLAW_PROJECT_IO_9098 = "https://klaw-project.io:9098";
+  private static final long TIMEOUT_MILLIS = 2000;
   private UtilMethods utilMethods;
   @Mock private Environment environment;
 
@@ -95,7 +102,7 @@ public class HARestMessagingServiceTest {
         restMessagingService, "clusterUrls", List.of(KLAW_PROJECT_IO_9097));
 
     restMessagingService.sendRemove("environment", 101, 99000);
-    verify(rest, times(1))
+    verify(rest, timeout(TIMEOUT_MILLIS).times(1))
         .exchange(
             eq(KLAW_PROJECT_IO_9097 + "/cache/tenant/101/entityType/environment/id/99000"),
             eq(HttpMethod.DELETE),
@@ -113,10 +120,109 @@ public class HARestMessagingServiceTest {
     env.setName("Dev1");
     env.setId("123");
     restMessagingService.sendUpdate("environment", 101, env);
-    verify(rest, times(1))
+    verify(rest, timeout(TIMEOUT_MILLIS).times(1))
         .postForObject(
             eq(KLAW_PROJECT_IO_9097 + "/cache/tenant/101/entityType/environment"),
             any(),
             eq(ApiResponse.class));
   }
+
+  @Test
+  public void bulkUpdateIsSentAsOneMessage() {
+    ReflectionTestUtils.setField(restMessagingService, "rest", rest);
+    ReflectionTestUtils.setField(
+        restMessagingService, "clusterUrls", List.of(KLAW_PROJECT_IO_9097));
+    Env dev = new Env();
+    dev.setId("1");
+    Env test = new Env();
+    test.setId("2");
+
+    restMessagingService.sendBulkUpdate("environment", 101, List.of(dev, test));
+
+    verify(rest, timeout(TIMEOUT_MILLIS).times(1))
+        .postForObject(
+            eq(KLAW_PROJECT_IO_9097 + "/cache/tenant/101/entityType/environment/bulk"),
+            argThat(
+                request ->
+                    request instanceof HttpEntity<?> entity
+                        && List.of(dev, test).equals(entity.getBody())),
+            eq(ApiResponse.class));
+    verifyNoMoreInteractions(rest);
+  }
+
+  @Test
+  public void queuedUpdatesOfSameEntryAreCoalesced() throws InterruptedException {
+    ReflectionTestUtils.setField(restMessagingService, "rest", rest);
+    ReflectionTestUtils.setField(
+        restMessagingService, "clusterUrls", List.of(KLAW_PROJECT_IO_9097));
+    CountDownLatch firstSendStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirstSend = new CountDownLatch(1);
+    Env blocking = new Env();
+    blocking.setId("1");
+    when(rest.postForObject(anyString(), argThat(hasBody(blocking)), eq(ApiResponse.class)))
+        .thenAnswer(
+            invocation -> {
+              firstSendStarted.countDown();
+              releaseFirstSend.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+              return null;
+            });
+    Env first = new Env();
+    first.setName("Dev1");
+    Env latest = new Env();
+    latest.setName("Dev2");
+
+    restMessagingService.sendUpdate("environment", 101, 1, blocking);
+    assertThat(firstSendStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+    restMessagingService.sendUpdate("environment", 101, 5, first);
+    restMessagingService.sendUpdate("environment", 101, 5, latest);
+    releaseFirstSend.countDown();
+
+    verify(rest, timeout(TIMEOUT_MILLIS).times(1))
+        .postForObject(anyString(), argThat(hasBody(latest)), eq(ApiResponse.class));
+    verify(rest, times(2)).postForObject(anyString(), any(), eq(ApiResponse.class));
+    verify(rest, never()).postForObject(anyString(), argThat(hasBody(first)), any());
+  }
+
+  @Test
+  public void failedUpdateIsRetried() {
+    ReflectionTestUtils.setField(restMessagingService, "rest", rest);
+    ReflectionTestUtils.setField(
+        restMessagingService, "clusterUrls", List.of(KLAW_PROJECT_IO_9097));
+    ReflectionTestUtils.setField(restMessagingService, "replicationInitialBackoffMillis", 10L);
+    when(rest.postForObject(anyString(), any(), eq(ApiResponse.class)))
+        .thenThrow(new ResourceAccessException("Connection refused"))
+        .thenReturn(null);
+
+    restMessagingService.sendUpdate("environment", 101, 7, new Env());
+
+    verify(rest, timeout(TIMEOUT_MILLIS).times(2))
+        .postForObject(
+            eq(KLAW_PROJECT_IO_9097 + "/cache/tenant/101/entityType/environment"),
+            any(),
+            eq(ApiResponse.class));
+  }
+
+  @Test
+  public void slowPeerDoesNotDelayOtherPeers() throws InterruptedException {
+    ReflectionTestUtils.setField(restMessagingService, "rest", rest);
+    ReflectionTestUtils.setField(
+        restMessagingService, "clusterUrls", List.of(KLAW_PROJECT_IO_9097, KLAW_PROJECT_IO_9098));
+    CountDownLatch releaseSlowPeer = new CountDownLatch(1);
+    when(rest.postForObject(startsWith(KLAW_PROJECT_IO_9097), any(), eq(ApiResponse.class)))
+        .thenAnswer(
+            invocation -> {
+              releaseSlowPeer.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+              return null;
+            });
+
+    restMessagingService.sendUpdate("environment", 101, 7, new Env());
+
+    verify(rest, timeout(TIMEOUT_MILLIS).times(1))
+        .postForObject(startsWith(KLAW_PROJECT_IO_9098), any(), eq(ApiResponse.class));
+    releaseSlowPeer.countDown();
+  }
+
+  private static ArgumentMatcher<Object> hasBody(Object body) {
+    return request -> request instanceof HttpEntity<?> entity && entity.getBody() == body;
+  }
 }
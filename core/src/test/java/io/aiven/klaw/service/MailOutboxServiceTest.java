@@ -0,0 +1,247 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwMailOutbox;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.enums.MailOutboxStatus;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+public class MailOutboxServiceTest {
+
+  private static final int TENANT_ID = 101;
+  private static final String LOGIN_URL = "https://klaw/login";
+
+  @Mock private JavaMailSender emailSender;
+
+  @Mock private ManageDatabase manageDatabase;
+
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  private MailOutboxService mailOutboxService;
+
+  // messages of each send call, one call is one smtp connection
+  private final List<MimeMessage[]> sentBatches = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() {
+    EmailService emailService = new EmailService();
+    ReflectionTestUtils.setField(emailService, "emailSender", emailSender);
+    ReflectionTestUtils.setField(emailService, "fromMailId", "info@klaw-project.io");
+    ReflectionTestUtils.setField(emailService, "noReplyMailId", "info@klaw-project.io");
+    ReflectionTestUtils.setField(emailService, "noReplyMailIdDisplay", "Klaw No Reply");
+
+    mailOutboxService = new MailOutboxService();
+    ReflectionTestUtils.setField(mailOutboxService, "emailSender", emailSender);
+    ReflectionTestUtils.setField(mailOutboxService, "emailService", emailService);
+    ReflectionTestUtils.setField(mailOutboxService, "manageDatabase", manageDatabase);
+    ReflectionTestUtils.setField(mailOutboxService, "batchSize", 200);
+    ReflectionTestUtils.setField(mailOutboxService, "sessionSize", 50);
+    ReflectionTestUtils.setField(mailOutboxService, "maxAttempts", 5);
+    ReflectionTestUtils.setField(mailOutboxService, "retryBackoffSeconds", 30L);
+    ReflectionTestUtils.setField(mailOutboxService, "retryBackoffMaxSeconds", 3600L);
+
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(emailSender.createMimeMessage())
+        .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+    doAnswer(
+            invocation -> {
+              sentBatches.add((MimeMessage[]) invocation.getRawArguments()[0]);
+              return null;
+            })
+        .when(emailSender)
+        .send(any(MimeMessage[].class));
+  }
+
+  @Test
+  public void mailsWithTheSameSubjectAreSentOverOneConnection() throws Exception {
+    List<KwMailOutbox> mails =
+        List.of(
+            mail(1, "a@klaw.io", "Topic request", "topic1"),
+            mail(2, "b@klaw.io", "Acl request", "acl1"),
+            mail(3, "c@klaw.io", "Topic request", "topic2"));
+    when(handleDbRequests.getDueMails(any(), anyInt())).thenReturn(mails);
+
+    assertThat(mailOutboxService.drain()).isEqualTo(3);
+
+    assertThat(sentBatches).hasSize(2);
+    assertThat(sentBatches.get(0)).hasSize(2);
+    assertThat(sentBatches.get(0)[0].getSubject()).isEqualTo("Topic request");
+    assertThat(sentBatches.get(0)[1].getRecipients(Message.RecipientType.TO)[0].toString())
+        .isEqualTo("c@klaw.io");
+    assertThat(sentBatches.get(1)).hasSize(1);
+    assertThat((String) sentBatches.get(1)[0].getContent()).contains("acl1", LOGIN_URL);
+    assertThat(mails)
+        .allSatisfy(
+            mail -> {
+              assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.SENT.name());
+              assertThat(mail.getAttempts()).isEqualTo(1);
+              assertThat(mail.getSentTime()).isNotNull();
+            });
+    verify(handleDbRequests).updateMails(mails);
+  }
+
+  @Test
+  public void sessionSizeLimitsTheMessagesPerConnection() {
+    ReflectionTestUtils.setField(mailOutboxService, "sessionSize", 2);
+    when(handleDbRequests.getDueMails(any(), anyInt()))
+        .thenReturn(
+            List.of(
+                mail(1, "a@klaw.io", "Topic request", "topic1"),
+                mail(2, "b@klaw.io", "Topic request", "topic2"),
+                mail(3, "c@klaw.io", "Topic request", "topic3")));
+
+    mailOutboxService.drain();
+
+    assertThat(sentBatches).extracting(batch -> batch.length).containsExactly(2, 1);
+  }
+
+  @Test
+  public void digestSendsTheMailsOfTheSameRecipientsAsOneMail() throws Exception {
+    ReflectionTestUtils.setField(mailOutboxService, "digestEnabled", true);
+    List<KwMailOutbox> mails =
+        List.of(
+            mail(1, "a@klaw.io", "Topic request", "topic1"),
+            mail(2, "b@klaw.io", "Topic request", "topic2"),
+            mail(3, "a@klaw.io", "Acl request", "acl1"));
+    when(handleDbRequests.getDueMails(any(), anyInt())).thenReturn(mails);
+
+    mailOutboxService.drain();
+
+    assertThat(sentBatches).hasSize(2);
+    MimeMessage digest = sentBatches.get(0)[0];
+    assertThat(digest.getSubject()).isEqualTo(String.format(MailOutboxService.DIGEST_SUBJECT, 2));
+    assertThat((String) digest.getContent()).contains("topic1", "acl1").doesNotContain("topic2");
+    assertThat(sentBatches.get(1)[0].getSubject()).isEqualTo("Topic request");
+    assertThat(mails)
+        .extracting(KwMailOutbox::getStatus)
+        .containsOnly(MailOutboxStatus.SENT.name());
+  }
+
+  @Test
+  public void digestIncludesTheMailsOfTheRecipientsStillInTheirWindow() throws Exception {
+    ReflectionTestUtils.setField(mailOutboxService, "digestEnabled", true);
+    Instant now = Instant.now();
+    // due in this poll
+    KwMailOutbox first = mail(1, "a@klaw.io", "Topic request", "topic1");
+    first.setNextAttemptTime(Timestamp.from(now.minusSeconds(1)));
+    // queued later, due in a later poll
+    KwMailOutbox second = mail(2, "a@klaw.io", "Acl request", "acl1");
+    second.setNextAttemptTime(Timestamp.from(now.plusSeconds(250)));
+    KwMailOutbox otherRecipients = mail(3, "b@klaw.io", "Topic request", "topic2");
+    otherRecipients.setNextAttemptTime(Timestamp.from(now.plusSeconds(280)));
+    when(handleDbRequests.getDueMails(any(), anyInt())).thenReturn(List.of(first));
+    when(handleDbRequests.getMailsInDigestWindow(any(), eq(Set.of(TENANT_ID)), anyInt()))
+        .thenReturn(List.of(second, otherRecipients));
+
+    assertThat(mailOutboxService.drain()).isEqualTo(2);
+
+    assertThat(sentBatches).hasSize(1);
+    assertThat(sentBatches.get(0)).hasSize(1);
+    MimeMessage digest = sentBatches.get(0)[0];
+    assertThat(digest.getSubject()).isEqualTo(String.format(MailOutboxService.DIGEST_SUBJECT, 2));
+    assertThat((String) digest.getContent()).contains("topic1", "acl1").doesNotContain("topic2");
+    assertThat(List.of(first, second))
+        .extracting(KwMailOutbox::getStatus)
+        .containsOnly(MailOutboxStatus.SENT.name());
+    assertThat(otherRecipients.getStatus()).isEqualTo(MailOutboxStatus.QUEUED.name());
+    verify(handleDbRequests).updateMails(List.of(first, second));
+  }
+
+  @Test
+  public void failedMailsAreRetriedWithBackoff() {
+    KwMailOutbox sent = mail(1, "a@klaw.io", "Topic request", "topic1");
+    KwMailOutbox retried = mail(2, "b@klaw.io", "Topic request", "topic2");
+    KwMailOutbox failed = mail(3, "c@klaw.io", "Topic request", "topic3");
+    failed.setAttempts(4);
+    when(handleDbRequests.getDueMails(any(), anyInt())).thenReturn(List.of(sent, retried, failed));
+    doAnswer(
+            invocation -> {
+              MimeMessage[] messages = (MimeMessage[]) invocation.getRawArguments()[0];
+              throw new MailSendException(
+                  Map.of(
+                      messages[1], new RuntimeException("mailbox unavailable"),
+                      messages[2], new RuntimeException("mailbox unavailable")));
+            })
+        .when(emailSender)
+        .send(any(MimeMessage[].class));
+    Instant before = Instant.now();
+
+    mailOutboxService.drain();
+
+    assertThat(sent.getStatus()).isEqualTo(MailOutboxStatus.SENT.name());
+    assertThat(retried.getStatus()).isEqualTo(MailOutboxStatus.QUEUED.name());
+    assertThat(retried.getAttempts()).isEqualTo(1);
+    assertThat(retried.getMessage()).isEqualTo("mailbox unavailable");
+    assertThat(retried.getNextAttemptTime().toInstant())
+        .isBetween(before.plusSeconds(30), Instant.now().plusSeconds(30));
+    assertThat(failed.getStatus()).isEqualTo(MailOutboxStatus.FAILED.name());
+    assertThat(failed.getAttempts()).isEqualTo(5);
+  }
+
+  @Test
+  public void backoffDoublesWithEachAttemptUpToTheMaximum() {
+    KwMailOutbox second = mail(1, "a@klaw.io", "Topic request", "topic1");
+    second.setAttempts(1);
+    KwMailOutbox capped = mail(2, "b@klaw.io", "Topic request", "topic2");
+    capped.setAttempts(3);
+    ReflectionTestUtils.setField(mailOutboxService, "retryBackoffMaxSeconds", 100L);
+    when(handleDbRequests.getDueMails(any(), anyInt())).thenReturn(List.of(second, capped));
+    doThrow(new MailAuthenticationException("authentication failed"))
+        .when(emailSender)
+        .send(any(MimeMessage[].class));
+    Instant before = Instant.now();
+
+    mailOutboxService.drain();
+
+    assertThat(second.getNextAttemptTime().toInstant())
+        .isBetween(before.plusSeconds(60), Instant.now().plusSeconds(60));
+    assertThat(capped.getNextAttemptTime().toInstant())
+        .isBetween(before.plusSeconds(100), Instant.now().plusSeconds(100));
+    assertThat(List.of(second, capped))
+        .extracting(KwMailOutbox::getStatus)
+        .containsOnly(MailOutboxStatus.QUEUED.name());
+  }
+
+  private static KwMailOutbox mail(int mailId, String to, String subject, String content) {
+    return KwMailOutbox.builder()
+        .mailId(mailId)
+        .tenantId(TENANT_ID)
+        .recipientsTo(to)
+        .subject(subject)
+        .content(content)
+        .loginUrl(LOGIN_URL)
+        .status(MailOutboxStatus.QUEUED.name())
+        .attempts(0)
+        .queuedTime(new Timestamp(System.currentTimeMillis()))
+        .nextAttemptTime(new Timestamp(System.currentTimeMillis()))
+        .build();
+  }
+}
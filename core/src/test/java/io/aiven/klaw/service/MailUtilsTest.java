@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,7 @@ import org.mockito.Mockito;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(SpringExtension.class)
 public class MailUtilsTest {
@@ -48,6 +50,7 @@ public class MailUtilsTest {
   @BeforeEach
   public void setUp() throws Exception {
     //    mailService = new MailUtils();
+    ReflectionTestUtils.setField(mailService, "notificationsExecutor", (Executor) Runnable::run);
     when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequestsJdbc);
     when(handleDbRequestsJdbc.getUsersInfo(eq("james")))
         .thenReturn(createUserInfo("James", "USER"));
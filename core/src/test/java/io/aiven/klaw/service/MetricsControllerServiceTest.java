@@ -0,0 +1,59 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.aiven.klaw.dao.KwMetrics;
+import io.aiven.klaw.model.cluster.JmxMetric;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class MetricsControllerServiceTest {
+
+  private static final String BROKER_1 = "service:jmx:rmi:///jndi/rmi://broker1:9996/jmxrmi";
+  private static final String BROKER_2 = "service:jmx:rmi:///jndi/rmi://broker2:9996/jmxrmi";
+  private static final String MESSAGES_IN =
+      "kafka.server:name=MessagesInPerSec,type=BrokerTopicMetrics";
+  private static final String TOPIC_BYTES_IN =
+      "kafka.server:name=BytesInPerSec,topic=orders,type=BrokerTopicMetrics";
+
+  @Test
+  public void getClusterMetrics_sumsCountOverBrokers() {
+    List<KwMetrics> kwMetrics =
+        MetricsControllerService.getClusterMetrics(
+            List.of(
+                new JmxMetric(BROKER_1, MESSAGES_IN, Map.of("Count", "10", "MeanRate", "0.5")),
+                new JmxMetric(BROKER_2, MESSAGES_IN, Map.of("Count", "32")),
+                new JmxMetric(BROKER_2, TOPIC_BYTES_IN, Map.of("Count", "2048"))),
+            "1700000000000",
+            "1");
+
+    assertThat(kwMetrics)
+        .extracting(
+            KwMetrics::getMetricsType,
+            KwMetrics::getMetricsName,
+            KwMetrics::getMetricsAttributes,
+            KwMetrics::getEnv)
+        .containsExactly(
+            tuple(
+                "kafka.server:type=BrokerTopicMetrics",
+                "name=BytesInPerSec,topic=orders",
+                "2048",
+                "1"),
+            tuple("kafka.server:type=BrokerTopicMetrics", "name=MessagesInPerSec", "42", "1"));
+  }
+
+  @Test
+  public void getClusterMetrics_ignoresMBeansWithoutCount() {
+    List<KwMetrics> kwMetrics =
+        MetricsControllerService.getClusterMetrics(
+            List.of(
+                new JmxMetric(BROKER_1, MESSAGES_IN, Map.of("Value", "3")),
+                new JmxMetric(BROKER_2, MESSAGES_IN, Map.of("Count", "unknown"))),
+            "1700000000000",
+            "1");
+
+    assertThat(kwMetrics).isEmpty();
+  }
+}
@@ -31,6 +31,7 @@ import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.response.SchemaDetailsResponse;
 import io.aiven.klaw.model.response.SchemaSubjectInfoResponse;
 import io.aiven.klaw.model.response.SyncSchemasList;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -225,7 +226,7 @@ public class SchemaRegistrySyncControllerServiceTest {
     when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
     when(manageDatabase.getTeamNameFromTeamId(eq(101), eq(10))).thenReturn("Team1");
 
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(topics));
     Map<String, Set<String>> topicSchemaVersionsInDb = utilMethods.getTopicSchemaVersionsInDb();
     when(handleDbRequests.getTopicAndVersionsForEnvAndTenantId(anyString(), anyInt()))
         .thenReturn(topicSchemaVersionsInDb);
@@ -257,7 +258,7 @@ public class SchemaRegistrySyncControllerServiceTest {
     when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
     when(manageDatabase.getTeamNameFromTeamId(eq(101), eq(10))).thenReturn("Team1");
 
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(topics));
     when(handleDbRequests.getTopicAndVersionsForEnvAndTenantId(anyString(), anyInt()))
         .thenReturn(new HashMap<>());
 
@@ -542,7 +543,7 @@ public class SchemaRegistrySyncControllerServiceTest {
     when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
     when(manageDatabase.getTeamNameFromTeamId(eq(101), eq(3))).thenReturn("Team1");
     when(manageDatabase.getClusters(any(), anyInt())).thenReturn(kwClustersMap);
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(new ArrayList<>());
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(new ArrayList<>()));
     Map<String, Set<String>> topicSchemaVersionsInDb = utilMethods.getTopicSchemaVersionsInDb();
 
     when(manageDatabase
@@ -594,7 +595,7 @@ public class SchemaRegistrySyncControllerServiceTest {
     when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
     when(manageDatabase.getTeamNameFromTeamId(eq(101), eq(10))).thenReturn("Team1");
     when(manageDatabase.getClusters(any(), anyInt())).thenReturn(kwClustersMap);
-    when(manageDatabase.getTopicsForTenant(anyInt())).thenReturn(topics);
+    when(manageDatabase.getTopicCatalog(anyInt())).thenReturn(TopicCatalog.of(topics));
     Map<String, Set<String>> topicSchemaVersionsInDb = utilMethods.getTopicSchemaVersionsInDb();
     when(handleDbRequests.getTopicAndVersionsForEnvAndTenantId(anyString(), anyInt()))
         .thenReturn(topicSchemaVersionsInDb);
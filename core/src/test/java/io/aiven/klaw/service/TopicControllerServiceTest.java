@@ -35,10 +35,13 @@ import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
+import io.aiven.klaw.model.enums.TopicNameMatch;
 import io.aiven.klaw.model.requests.TopicRequestModel;
 import io.aiven.klaw.model.response.TopicDetailsPerEnv;
+import io.aiven.klaw.model.response.TopicNamesPage;
 import io.aiven.klaw.model.response.TopicRequestsResponseModel;
 import io.aiven.klaw.model.response.TopicTeamResponse;
+import io.aiven.klaw.service.utils.TopicCatalog;
 import java.sql.SQLDataException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -1962,6 +1965,43 @@ public class TopicControllerServiceTest {
     return listTopics;
   }
 
+  @Test
+  @Order(64)
+  public void searchTopicNamesReturnsPagesWithCursor() {
+    stubUserInfo();
+    when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
+    when(manageDatabase.getTopicCatalog(101))
+        .thenReturn(TopicCatalog.of(utilMethods.getMultipleTopics("orders", 5, "1", 101)));
+
+    TopicNamesPage firstPage =
+        topicControllerService.searchTopicNames(
+            false, "ALL", "orders", TopicNameMatch.PREFIX, null, 3);
+    assertThat(firstPage.getTopicNames()).containsExactly("orders0", "orders1", "orders2");
+    assertThat(firstPage.getNextCursor()).isEqualTo("orders2");
+
+    TopicNamesPage lastPage =
+        topicControllerService.searchTopicNames(
+            false, "1", "orders", TopicNameMatch.PREFIX, firstPage.getNextCursor(), 3);
+    assertThat(lastPage.getTopicNames()).containsExactly("orders3", "orders4");
+    assertThat(lastPage.getNextCursor()).isNull();
+  }
+
+  @Test
+  @Order(65)
+  public void searchTopicNamesOfMyTeam() {
+    stubUserInfo();
+    when(commonUtilsService.getTenantId(anyString())).thenReturn(101);
+    when(commonUtilsService.getTeamId(anyString())).thenReturn(102);
+    List<Topic> topics = new ArrayList<>(utilMethods.getMultipleTopics("orders", 2, "1", 101));
+    topics.addAll(utilMethods.getMultipleTopics("payments", 2, "1", 102));
+    when(manageDatabase.getTopicCatalog(101)).thenReturn(TopicCatalog.of(topics));
+
+    TopicNamesPage page =
+        topicControllerService.searchTopicNames(true, "1", "s", TopicNameMatch.CONTAINS, null, 20);
+    assertThat(page.getTopicNames()).containsExactly("payments0", "payments1");
+    assertThat(page.getNextCursor()).isNull();
+  }
+
   private void stubUserInfo() {
     when(handleDbRequests.getUsersInfo(anyString())).thenReturn(userInfo);
     when(userInfo.getTeamId()).thenReturn(101);
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -25,11 +26,14 @@ import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.KwTenantConfigModel;
 import io.aiven.klaw.model.SyncBackTopics;
 import io.aiven.klaw.model.SyncTopicUpdates;
+import io.aiven.klaw.model.TopicInfo;
 import io.aiven.klaw.model.cluster.LoadTopicsResponse;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
 import io.aiven.klaw.model.enums.KafkaFlavors;
 import io.aiven.klaw.model.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.model.enums.MetadataOperationType;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.response.EnvParams;
 import io.aiven.klaw.model.response.SyncTopicsList;
@@ -315,6 +319,8 @@ public class TopicSyncControllerServiceTest {
     assertThat(req.size()).isEqualTo(update.size());
 
     verifyCaptureContents(req, update, 0, 1, TOPIC_NAME_1);
+    verify(commonUtilsService)
+        .updateMetadata(TENANT_ID, EntityType.TOPICS, MetadataOperationType.CREATE, TOPIC_NAME_1);
 
     // This should pass when clusterApi is updated
     assertThat(retval.getMessage())
@@ -1141,6 +1147,60 @@ public class TopicSyncControllerServiceTest {
     assertThat(actualStringValidation).isEqualTo(3);
   }
 
+  @Test
+  @Order(22)
+  public void getTopicsRowViewLoadsOnlyRequestedPage() {
+    when(mailService.getUserName(any())).thenReturn(USERNAME);
+    List<Topic> pageTopics = utilMethods.getMultipleTopics("topic", 21, "1", 10);
+    when(handleDbRequests.getSyncTopicsCount(eq("1"), eq(null), eq(null), eq(101))).thenReturn(50);
+    when(handleDbRequests.getSyncTopicsPage(
+            eq("1"), eq(null), eq(null), eq(""), eq(21), eq(21), eq(101)))
+        .thenReturn(pageTopics);
+    when(commonUtilsService.getEnvProperty(eq(101), anyString())).thenReturn("1,2");
+    when(commonUtilsService.groupTopicsByEnv(any()))
+        .thenAnswer(
+            invocation -> {
+              List<Topic> topics = invocation.getArgument(0);
+              topics.forEach(topic -> topic.setEnvironmentsSet(Set.of(topic.getEnvironment())));
+              return topics;
+            });
+    when(manageDatabase.getTeamNameFromTeamId(eq(101), eq(10))).thenReturn("Team1");
+
+    List<TopicInfo> topics =
+        topicSyncControllerService.getTopicsRowView("1", "2", "", null, null, null, null);
+
+    assertThat(topics).hasSize(21);
+    assertThat(topics.get(0).getTotalNoPages()).isEqualTo("3");
+    assertThat(topics.get(0).getCurrentPage()).isEqualTo("2");
+    verify(handleDbRequests, never()).getSyncTopics(any(), any(), anyInt());
+  }
+
+  @Test
+  @Order(23)
+  public void getTopicsRowViewNextPageContinuesAfterLastTopic() {
+    when(mailService.getUserName(any())).thenReturn(USERNAME);
+    when(handleDbRequests.getSyncTopicsCount(eq("1"), eq(null), eq("topic"), eq(101)))
+        .thenReturn(50);
+    when(handleDbRequests.getSyncTopicsPage(
+            eq("1"), eq(null), eq("topic"), eq("topic20"), eq(0), eq(21), eq(101)))
+        .thenReturn(utilMethods.getMultipleTopics("topicnext", 3, "1", 10));
+    when(commonUtilsService.getEnvProperty(eq(101), anyString())).thenReturn("1,2");
+    when(commonUtilsService.groupTopicsByEnv(any()))
+        .thenAnswer(
+            invocation -> {
+              List<Topic> topics = invocation.getArgument(0);
+              topics.forEach(topic -> topic.setEnvironmentsSet(Set.of(topic.getEnvironment())));
+              return topics;
+            });
+
+    List<TopicInfo> topics =
+        topicSyncControllerService.getTopicsRowView(
+            "1", ">", "1", " topic ", null, null, "topic20");
+
+    assertThat(topics).extracting(TopicInfo::getTopicName).startsWith("topicnext0");
+    assertThat(topics.get(0).getCurrentPage()).isEqualTo("2");
+  }
+
   private LoadTopicsResponse generateClusterTopics(int numberOfTopics) {
     String[] topicNames = new String[numberOfTopics];
     for (int i = 0; i < numberOfTopics; i++) {
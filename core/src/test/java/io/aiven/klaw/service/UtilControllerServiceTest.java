@@ -1,8 +1,13 @@
 package io.aiven.klaw.service;
 
+import static io.aiven.klaw.helpers.KwConstants.REQUESTOR_SUBSCRIPTIONS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
@@ -11,8 +16,11 @@ import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.requests.ResetEntityCache;
+import io.aiven.klaw.model.response.PendingApprovalsCount;
 import java.util.Collection;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -70,6 +78,53 @@ public class UtilControllerServiceTest {
     assertThat(apiResponse.getMessage()).isEqualTo(ApiResultStatus.SUCCESS.value);
   }
 
+  @Test
+  public void getPendingApprovalsCount() {
+    ReflectionTestUtils.setField(utilControllerService, "manageDatabase", manageDatabase);
+    when(mailService.getUserName(any())).thenReturn("testuser");
+    when(commonUtilsService.isNotAuthorizedUser(any(), any(PermissionType.class)))
+        .thenReturn(false);
+    when(commonUtilsService.getEnvsFromUserId("testuser")).thenReturn(Set.of("1"));
+    when(handleDbRequests.getCountTopicRequestsToApprove("testuser", true, Set.of("1"), 101))
+        .thenReturn(4);
+    when(handleDbRequests.getCountAclRequestsToApprove(
+            "testuser", REQUESTOR_SUBSCRIPTIONS, true, Set.of("1"), 101))
+        .thenReturn(3);
+    when(handleDbRequests.getCountSchemaRequestsToApprove("testuser", true, Set.of("1"), 101))
+        .thenReturn(2);
+    when(handleDbRequests.getCountConnectorRequestsToApprove("testuser", true, Set.of("1"), 101))
+        .thenReturn(1);
+    when(handleDbRequests.getCountRegisterUsersInfoForTenant(101)).thenReturn(5);
+
+    PendingApprovalsCount pendingApprovalsCount =
+        utilControllerService.getPendingApprovalsCount("testuser", 101);
+
+    assertThat(pendingApprovalsCount.getTopics()).isEqualTo(4);
+    assertThat(pendingApprovalsCount.getAcls()).isEqualTo(3);
+    assertThat(pendingApprovalsCount.getSchemas()).isEqualTo(2);
+    assertThat(pendingApprovalsCount.getConnectors()).isEqualTo(1);
+    assertThat(pendingApprovalsCount.getUsers()).isEqualTo(5);
+    verify(handleDbRequests, never()).getCreatedTopicRequests(any(), any(), anyBoolean(), anyInt());
+  }
+
+  @Test
+  public void getPendingApprovalsCountOwnTeamOnly() {
+    ReflectionTestUtils.setField(utilControllerService, "manageDatabase", manageDatabase);
+    when(mailService.getUserName(any())).thenReturn("testuser");
+    when(commonUtilsService.isNotAuthorizedUser(any(), any(PermissionType.class))).thenReturn(true);
+    when(commonUtilsService.getEnvsFromUserId("testuser")).thenReturn(Set.of("1"));
+    when(handleDbRequests.getCountTopicRequestsToApprove("testuser", false, Set.of("1"), 101))
+        .thenReturn(4);
+
+    PendingApprovalsCount pendingApprovalsCount =
+        utilControllerService.getPendingApprovalsCount("testuser", 101);
+
+    assertThat(pendingApprovalsCount.getTopics()).isEqualTo(4);
+    assertThat(pendingApprovalsCount.getUsers()).isZero();
+    verify(handleDbRequests).getCountAclRequestsToApprove("testuser", "", false, Set.of("1"), 101);
+    verify(handleDbRequests, never()).getCountRegisterUsersInfoForTenant(anyInt());
+  }
+
   private void loginMock() {
     Authentication authentication = Mockito.mock(Authentication.class);
     SecurityContext securityContext = Mockito.mock(SecurityContext.class);
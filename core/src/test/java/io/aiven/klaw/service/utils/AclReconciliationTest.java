@@ -0,0 +1,97 @@
+package io.aiven.klaw.service.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.model.enums.AclType;
+import io.aiven.klaw.model.enums.KafkaFlavors;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class AclReconciliationTest {
+
+  @Test
+  public void joinsClusterAndMetadataAcls() {
+    Acl producer = metadataAcl(1001, "topic1", "alice", null, AclType.PRODUCER.value);
+    Acl consumer = metadataAcl(1002, "topic1", "User:bob", "10.0.0.1", AclType.CONSUMER.value);
+    Acl removedProducer = metadataAcl(1003, "topic2", "carol", "*", AclType.PRODUCER.value);
+
+    Map<String, String> clusterProducer = clusterAcl("topic1", "User:alice", "*", "WRITE", null);
+    Map<String, String> clusterConsumer =
+        clusterAcl("topic1", "User:bob", "10.0.0.1", "READ", "group1");
+    Map<String, String> clusterAdded = clusterAcl("topic3", "User:dave", "*", "WRITE", null);
+    Map<String, String> readWithoutGroup =
+        clusterAcl("topic1", "User:bob", "10.0.0.1", "READ", null);
+
+    AclReconciliation reconciliation =
+        AclReconciliation.reconcile(
+            List.of(clusterProducer, clusterConsumer, clusterAdded, readWithoutGroup),
+            List.of(producer, consumer, removedProducer),
+            KafkaFlavors.APACHE_KAFKA.value);
+
+    assertThat(reconciliation.getClusterAcls()).hasSize(3);
+    assertThat(reconciliation.getMatched())
+        .extracting(AclReconciliation.ClusterAcl::getMetadataAcl)
+        .containsExactly(producer, consumer);
+    assertThat(reconciliation.getAdded())
+        .extracting(AclReconciliation.ClusterAcl::getClusterAcl)
+        .containsExactly(clusterAdded);
+    assertThat(reconciliation.getRemoved()).containsExactly(removedProducer);
+  }
+
+  @Test
+  public void aclTypeIsPartOfTheKey() {
+    Acl consumer = metadataAcl(1001, "topic1", "User:alice", "*", AclType.CONSUMER.value);
+
+    AclReconciliation reconciliation =
+        AclReconciliation.reconcile(
+            List.of(clusterAcl("topic1", "User:alice", "*", "WRITE", null)),
+            List.of(consumer),
+            KafkaFlavors.APACHE_KAFKA.value);
+
+    assertThat(reconciliation.getMatched()).isEmpty();
+    assertThat(reconciliation.getAdded()).hasSize(1);
+    assertThat(reconciliation.getRemoved()).containsExactly(consumer);
+  }
+
+  @Test
+  public void normalisesPrincipalsPerFlavor() {
+    assertThat(AclReconciliation.normalisePrincipal(null, KafkaFlavors.APACHE_KAFKA.value))
+        .isEqualTo(AclReconciliation.ANY_PRINCIPAL);
+    assertThat(AclReconciliation.normalisePrincipal("alice", KafkaFlavors.APACHE_KAFKA.value))
+        .isEqualTo("User:alice");
+    assertThat(
+            AclReconciliation.normalisePrincipal(
+                "alice", KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value))
+        .isEqualTo("alice");
+    assertThat(AclReconciliation.normaliseHost("")).isEqualTo(AclReconciliation.ANY_HOST);
+  }
+
+  private static Acl metadataAcl(
+      int reqNo, String topicName, String principal, String host, String aclType) {
+    Acl acl = new Acl();
+    acl.setReq_no(reqNo);
+    acl.setTopicname(topicName);
+    acl.setAclssl(principal);
+    acl.setAclip(host);
+    acl.setAclType(aclType);
+    acl.setTeamId(101);
+    return acl;
+  }
+
+  private static Map<String, String> clusterAcl(
+      String topicName, String principal, String host, String operation, String consumerGroup) {
+    Map<String, String> clusterAcl = new HashMap<>();
+    clusterAcl.put("resourceType", "TOPIC");
+    clusterAcl.put("resourceName", topicName);
+    clusterAcl.put("principle", principal);
+    clusterAcl.put("host", host);
+    clusterAcl.put("operation", operation);
+    if (consumerGroup != null) {
+      clusterAcl.put("consumerGroup", consumerGroup);
+    }
+    return clusterAcl;
+  }
+}
@@ -0,0 +1,108 @@
+package io.aiven.klaw.service.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.aiven.klaw.service.interfaces.HAMessagingServiceI;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CacheServiceTest {
+
+  private static final int TENANT_ID = 101;
+
+  private HAMessagingServiceI messagingService;
+  private CacheService<String> cacheService;
+
+  @BeforeEach
+  public void setUp() {
+    messagingService = mock(HAMessagingServiceI.class);
+    cacheService = new CacheService<>("environment", messagingService);
+  }
+
+  @Test
+  public void listIsSharedUntilTheEntriesChange() {
+    cacheService.addOrUpdate(TENANT_ID, 1, "dev", true);
+    List<String> first = cacheService.getCacheAsList(TENANT_ID);
+
+    assertThat(cacheService.getCacheAsList(TENANT_ID)).isSameAs(first);
+    assertThatThrownBy(() -> first.add("tst")).isInstanceOf(UnsupportedOperationException.class);
+
+    cacheService.addOrUpdate(TENANT_ID, 2, "tst", true);
+    assertThat(cacheService.getCacheAsList(TENANT_ID))
+        .isNotSameAs(first)
+        .containsExactlyInAnyOrder("dev", "tst");
+    cacheService.remove(TENANT_ID, 1, true);
+    assertThat(cacheService.getCacheAsList(TENANT_ID)).containsExactly("tst");
+    assertThat(cacheService.getCacheAsList(102)).isEmpty();
+  }
+
+  @Test
+  public void addAllSendsOneMessageUnlessLocal() {
+    cacheService.addAll(TENANT_ID, Map.of(1, "dev", 2, "tst"), false);
+    cacheService.addAll(TENANT_ID, Map.of(3, "acc"));
+
+    assertThat(cacheService.getCache(TENANT_ID)).hasSize(3);
+    verify(messagingService).sendBulkUpdate(anyString(), anyInt(), any());
+    verify(messagingService, never()).sendUpdate(anyString(), anyInt(), any());
+    verify(messagingService, never()).sendUpdate(anyString(), anyInt(), any(), any());
+  }
+
+  @Test
+  public void countsHitsAndMisses() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    cacheService.registerMetrics(meterRegistry, "environments");
+    cacheService.addOrUpdate(TENANT_ID, 1, "dev", true);
+
+    assertThat(cacheService.get(TENANT_ID, 1)).contains("dev");
+    assertThat(cacheService.get(TENANT_ID, 2)).isEmpty();
+    assertThat(cacheService.get(TENANT_ID, 1)).contains("dev");
+
+    assertThat(cacheService.getHitCount()).isEqualTo(2);
+    assertThat(cacheService.getMissCount()).isEqualTo(1);
+    assertThat(
+            meterRegistry
+                .get(CacheService.CACHE_GETS_METRIC)
+                .tag("result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get(CacheService.CACHE_SIZE_METRIC).gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictsBeyondMaximumSize() {
+    cacheService = new CacheService<>("environment", messagingService, 2, null);
+    for (int id = 1; id <= 10; id++) {
+      cacheService.addOrUpdate(TENANT_ID, id, "env" + id, true);
+    }
+
+    assertThat(cacheService.getCacheAsList(TENANT_ID)).hasSize(2);
+    assertThat(cacheService.getEvictionCount()).isEqualTo(8);
+  }
+
+  @Test
+  public void expiresEntriesAfterWrite() throws InterruptedException {
+    cacheService = new CacheService<>("environment", messagingService, 0, Duration.ofMillis(50));
+    cacheService.addOrUpdate(TENANT_ID, 1, "dev", true);
+    assertThat(cacheService.getCacheAsList(TENANT_ID)).containsExactly("dev");
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!cacheService.getCacheAsList(TENANT_ID).isEmpty()
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(cacheService.getCacheAsList(TENANT_ID)).isEmpty();
+    assertThat(cacheService.get(TENANT_ID, 1)).isEmpty();
+  }
+}
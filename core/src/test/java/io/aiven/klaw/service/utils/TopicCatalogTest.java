@@ -0,0 +1,129 @@
+package io.aiven.klaw.service.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.UtilMethods;
+import io.aiven.klaw.dao.Topic;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TopicCatalogTest {
+
+  private TopicCatalog topicCatalog;
+
+  @BeforeEach
+  public void setUp() {
+    UtilMethods utilMethods = new UtilMethods();
+    List<Topic> topics = new ArrayList<>(utilMethods.getMultipleTopics("alpha", 3, "1", 101));
+    topics.addAll(utilMethods.getMultipleTopics("alpha", 2, "2", 101));
+    topics.addAll(utilMethods.getMultipleTopics("beta", 4, "2", 102));
+    topicCatalog = TopicCatalog.of(topics);
+  }
+
+  @Test
+  public void lookupsUseIndexes() {
+    assertThat(topicCatalog.size()).isEqualTo(9);
+    assertThat(topicCatalog.getTopicsByName("alpha1")).hasSize(2);
+    assertThat(topicCatalog.getTopicsByName("gamma")).isEmpty();
+    assertThat(topicCatalog.getTopicsByEnv("2")).hasSize(6);
+    assertThat(topicCatalog.getTopicsByTeam(102)).hasSize(4);
+    assertThat(topicCatalog.getTopicsByEnvAndTeam("2", 101)).hasSize(2);
+    assertThat(topicCatalog.getTopicsByEnvAndTeam("3", 101)).isEmpty();
+  }
+
+  @Test
+  public void topicNamesWithPrefix() {
+    assertThat(topicCatalog.getTopicNamesWithPrefix("alpha"))
+        .containsExactly("alpha0", "alpha1", "alpha2");
+    assertThat(topicCatalog.getTopicNamesWithPrefix("beta3")).containsExactly("beta3");
+    assertThat(topicCatalog.getTopicNamesWithPrefix("c")).isEmpty();
+    assertThat(topicCatalog.getTopicNamesWithPrefix("")).hasSize(7);
+  }
+
+  @Test
+  public void searchTopicNamesOfEnvAndTeam() {
+    assertThat(topicCatalog.searchTopicNames(null, null, "alpha", false, null, 10))
+        .containsExactly("alpha0", "alpha1", "alpha2");
+    assertThat(topicCatalog.searchTopicNames("2", null, null, false, null, 10))
+        .containsExactly("alpha0", "alpha1", "beta0", "beta1", "beta2", "beta3");
+    assertThat(topicCatalog.searchTopicNames("2", 101, "", false, null, 10))
+        .containsExactly("alpha0", "alpha1");
+    assertThat(topicCatalog.searchTopicNames(null, 102, "alpha", false, null, 10)).isEmpty();
+    assertThat(topicCatalog.searchTopicNames(null, null, "a1", true, null, 10))
+        .containsExactly("alpha1", "beta1");
+  }
+
+  @Test
+  public void searchTopicNamesContinuesAfterCursor() {
+    assertThat(topicCatalog.searchTopicNames(null, null, "", false, null, 3))
+        .containsExactly("alpha0", "alpha1", "alpha2");
+    assertThat(topicCatalog.searchTopicNames(null, null, "", false, "alpha2", 3))
+        .containsExactly("beta0", "beta1", "beta2");
+    assertThat(topicCatalog.searchTopicNames(null, null, "beta", false, "alpha", 2))
+        .containsExactly("beta0", "beta1");
+    assertThat(topicCatalog.searchTopicNames(null, null, "beta", false, "beta1", 5))
+        .containsExactly("beta2", "beta3");
+    // the cursor need not be an existing name
+    assertThat(topicCatalog.searchTopicNames(null, null, "et", true, "beta15", 5))
+        .containsExactly("beta2", "beta3");
+  }
+
+  @Test
+  public void withTopicReturnsNewSnapshot() {
+    Topic topic = new Topic();
+    topic.setTopicid(100);
+    topic.setTopicname("gamma");
+    topic.setEnvironment("1");
+    topic.setTeamId(101);
+
+    TopicCatalog updated = topicCatalog.withTopic(topic);
+
+    assertThat(topicCatalog.getTopicsByName("gamma")).isEmpty();
+    assertThat(updated.getTopicsByName("gamma")).containsExactly(topic);
+    assertThat(updated.getTopicNamesWithPrefix("g")).containsExactly("gamma");
+    assertThat(updated.searchTopicNames("1", 101, "g", false, null, 10)).containsExactly("gamma");
+    assertThat(updated.withTopic(topic)).isSameAs(updated);
+  }
+
+  @Test
+  public void withTopicsNamedReplacesTopicsOfName() {
+    Topic topic = new Topic();
+    topic.setTopicid(100);
+    topic.setTopicname("alpha1");
+    topic.setEnvironment("3");
+    topic.setTeamId(103);
+
+    TopicCatalog updated = topicCatalog.withTopicsNamed("alpha1", List.of(topic));
+
+    assertThat(updated.size()).isEqualTo(8);
+    assertThat(updated.getTopicsByName("alpha1")).containsExactly(topic);
+    assertThat(updated.getTopicsByEnv("3")).containsExactly(topic);
+    assertThat(topicCatalog.getTopicsByName("alpha1")).hasSize(2);
+
+    TopicCatalog removed = updated.withTopicsNamed("alpha1", List.of());
+    assertThat(removed.getTopicsByName("alpha1")).isEmpty();
+    assertThat(removed.getTopicNamesWithPrefix("alpha")).containsExactly("alpha0", "alpha2");
+  }
+
+  @Test
+  public void withTopicReplacesSameTopicId() {
+    Topic topic = new Topic();
+    topic.setTopicid(100);
+    topic.setTopicname("gamma");
+    topic.setEnvironment("1");
+    topic.setTeamId(101);
+    Topic updatedTopic = new Topic();
+    updatedTopic.setTopicid(100);
+    updatedTopic.setTopicname("gamma");
+    updatedTopic.setEnvironment("1");
+    updatedTopic.setTeamId(102);
+
+    TopicCatalog updated = topicCatalog.withTopic(topic).withTopic(updatedTopic);
+
+    assertThat(updated.size()).isEqualTo(10);
+    assertThat(updated.getTopicsByName("gamma")).containsExactly(updatedTopic);
+    assertThat(updated.getTopicsByEnvAndTeam("1", 101)).doesNotContain(topic);
+  }
+}